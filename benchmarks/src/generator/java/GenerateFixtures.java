@@ -0,0 +1,166 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the bean fixtures for the benchmarks. This is a single-file program that the build
+ * launches directly from source, so it must not depend on anything outside the JDK.
+ *
+ * <ul>
+ * <li>{@code FieldBeanN}: N public fields and no accessors</li>
+ * <li>{@code GetterBeanN}: N public fields with public getters</li>
+ * <li>{@code SetterBeanN}: N public fields with public setters</li>
+ * <li>{@code AccessorBeanN}: N private fields with public getters and setters</li>
+ * <li>{@code SmallNNN}: many tiny beans for exercising the {@code BeanClass} cache</li>
+ * </ul>
+ *
+ * Half of each bean's properties are {@code int} properties named {@code i0}, {@code i1}, ... and
+ * the rest are {@code String} properties named {@code s0}, {@code s1}, ...
+ */
+public class GenerateFixtures {
+  public static final String PACKAGE = "com.sigpwned.espresso.benchmarks.fixtures";
+
+  public static final int[] SIZES = {5, 20, 50, 200};
+
+  public static final int SMALL_COUNT = 256;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: GenerateFixtures <output-directory>");
+      System.exit(1);
+    }
+
+    Path directory = Paths.get(args[0], PACKAGE.split("\\."));
+    Files.createDirectories(directory);
+
+    for (int size : SIZES) {
+      generate(directory, "FieldBean" + size, size, false, false);
+      generate(directory, "GetterBean" + size, size, true, false);
+      generate(directory, "SetterBean" + size, size, false, true);
+      generate(directory, "AccessorBean" + size, size, true, true);
+    }
+
+    for (int i = 0; i < SMALL_COUNT; i++)
+      generate(directory, smallName(i), 1, false, false);
+
+    generateIndex(directory);
+  }
+
+  /**
+   * Generates a bean whose fields are public unless it has both getters and setters
+   */
+  private static void generate(Path directory, String name, int size, boolean getters,
+      boolean setters) throws IOException {
+    try (PrintWriter out = open(directory, name)) {
+      out.println("public class " + name + " {");
+      for (int i = 0; i < size; i++)
+        out.println("  " + (getters && setters ? "private" : "public") + " " + type(i) + " "
+            + property(i) + ";");
+      for (int i = 0; i < size; i++) {
+        String property = property(i);
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        if (getters) {
+          out.println();
+          out.println("  public " + type(i) + " get" + suffix + "() {");
+          out.println("    return " + property + ";");
+          out.println("  }");
+        }
+        if (setters) {
+          out.println();
+          out.println("  public void set" + suffix + "(" + type(i) + " " + property + ") {");
+          out.println("    this." + property + " = " + property + ";");
+          out.println("  }");
+        }
+      }
+      out.println("}");
+    }
+  }
+
+  private static void generateIndex(Path directory) throws IOException {
+    try (PrintWriter out = open(directory, "Fixtures")) {
+      out.println("public final class Fixtures {");
+      out.println("  private Fixtures() {}");
+      out.println();
+      out.println("  public static Class<?> fieldBean(int size) {");
+      out.println("    switch (size) {");
+      for (int size : SIZES)
+        out.println("      case " + size + ": return FieldBean" + size + ".class;");
+      out.println("      default: throw new IllegalArgumentException(\"size \" + size);");
+      out.println("    }");
+      out.println("  }");
+      out.println();
+      out.println("  public static Class<?> getterBean(int size) {");
+      out.println("    switch (size) {");
+      for (int size : SIZES)
+        out.println("      case " + size + ": return GetterBean" + size + ".class;");
+      out.println("      default: throw new IllegalArgumentException(\"size \" + size);");
+      out.println("    }");
+      out.println("  }");
+      out.println();
+      out.println("  public static Class<?> setterBean(int size) {");
+      out.println("    switch (size) {");
+      for (int size : SIZES)
+        out.println("      case " + size + ": return SetterBean" + size + ".class;");
+      out.println("      default: throw new IllegalArgumentException(\"size \" + size);");
+      out.println("    }");
+      out.println("  }");
+      out.println();
+      out.println("  public static Class<?> accessorBean(int size) {");
+      out.println("    switch (size) {");
+      for (int size : SIZES)
+        out.println("      case " + size + ": return AccessorBean" + size + ".class;");
+      out.println("      default: throw new IllegalArgumentException(\"size \" + size);");
+      out.println("    }");
+      out.println("  }");
+      out.println();
+      out.println("  public static final Class<?>[] SMALL = {");
+      for (int i = 0; i < SMALL_COUNT; i++)
+        out.println("    " + smallName(i) + ".class,");
+      out.println("  };");
+      out.println("}");
+    }
+  }
+
+  private static PrintWriter open(Path directory, String name) throws IOException {
+    PrintWriter result = new PrintWriter(
+        Files.newBufferedWriter(directory.resolve(name + ".java"), StandardCharsets.UTF_8));
+    result.println("// Generated by GenerateFixtures. Do not edit.");
+    result.println("package " + PACKAGE + ";");
+    result.println();
+    return result;
+  }
+
+  private static String smallName(int index) {
+    return String.format("Small%03d", index);
+  }
+
+  private static String type(int index) {
+    return index % 2 == 0 ? "int" : "String";
+  }
+
+  private static String property(int index) {
+    return (index % 2 == 0 ? "i" : "s") + (index / 2);
+  }
+}
@@ -0,0 +1,138 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanInstance;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * Measures reading and writing primitive and reference properties by name and by
+ * {@link BeanProperty}. See {@link DirectAccessBenchmark} for the equivalent direct calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessBenchmark {
+  @Param({"FIELD", "GETTER", "SETTER", "ACCESSOR"})
+  public Kind kind;
+
+  @Param({"5", "200"})
+  public int size;
+
+  private BeanInstance instance;
+
+  private BeanProperty intProperty;
+
+  private BeanProperty stringProperty;
+
+  private Object bean;
+
+  private int intValue;
+
+  private String stringValue;
+
+  @Setup
+  public void setup() throws Exception {
+    BeanClass beanClass = BeanClass.scan(kind.fixture(size));
+    instance = beanClass.newInstance();
+    bean = instance.getInstance();
+    intProperty = beanClass.getProperty("i0").get();
+    stringProperty = beanClass.getProperty("s0").get();
+    intValue = 42;
+    stringValue = "hello";
+  }
+
+  @Benchmark
+  public Object getIntByName() throws InvocationTargetException {
+    return instance.get("i0");
+  }
+
+  @Benchmark
+  public Object getStringByName() throws InvocationTargetException {
+    return instance.get("s0");
+  }
+
+  @Benchmark
+  public void setIntByName() throws InvocationTargetException {
+    instance.set("i0", intValue);
+  }
+
+  @Benchmark
+  public void setStringByName() throws InvocationTargetException {
+    instance.set("s0", stringValue);
+  }
+
+  @Benchmark
+  public Object getIntByInstanceProperty() throws InvocationTargetException {
+    return instance.get(intProperty);
+  }
+
+  @Benchmark
+  public Object getStringByInstanceProperty() throws InvocationTargetException {
+    return instance.get(stringProperty);
+  }
+
+  @Benchmark
+  public void setIntByInstanceProperty() throws InvocationTargetException {
+    instance.set(intProperty, intValue);
+  }
+
+  @Benchmark
+  public void setStringByInstanceProperty() throws InvocationTargetException {
+    instance.set(stringProperty, stringValue);
+  }
+
+  @Benchmark
+  public Object getIntByProperty() throws InvocationTargetException {
+    return intProperty.get(bean);
+  }
+
+  @Benchmark
+  public Object getStringByProperty() throws InvocationTargetException {
+    return stringProperty.get(bean);
+  }
+
+  @Benchmark
+  public void setIntByProperty() throws InvocationTargetException {
+    intProperty.set(bean, intValue);
+  }
+
+  @Benchmark
+  public void setStringByProperty() throws InvocationTargetException {
+    stringProperty.set(bean, stringValue);
+  }
+}
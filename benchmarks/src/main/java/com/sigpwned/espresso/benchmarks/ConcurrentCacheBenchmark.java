@@ -0,0 +1,90 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanInstance;
+import com.sigpwned.espresso.benchmarks.fixtures.Fixtures;
+
+/**
+ * Measures contention on the shared {@link BeanClass} cache. The {@code hot} benchmarks scan
+ * the same class from every thread. The {@code thrashing} benchmarks cycle through more classes
+ * than the default cache size, so most scans miss.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentCacheBenchmark {
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    private final Object[] beans = new Object[Fixtures.SMALL.length];
+
+    public Cursor() {
+      try {
+        for (int i = 0; i < beans.length; i++)
+          beans[i] = Fixtures.SMALL[i].getConstructor().newInstance();
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    public int next() {
+      int result = next;
+      next = (next + 1) % Fixtures.SMALL.length;
+      return result;
+    }
+  }
+
+  @Benchmark
+  public BeanClass scanHot() {
+    return BeanClass.scan(Fixtures.SMALL[0]);
+  }
+
+  @Benchmark
+  public BeanClass scanThrashing(Cursor cursor) {
+    return BeanClass.scan(Fixtures.SMALL[cursor.next()]);
+  }
+
+  @Benchmark
+  public BeanInstance wrapHot(Cursor cursor) {
+    return BeanInstance.wrap(cursor.beans[0]);
+  }
+
+  @Benchmark
+  public BeanInstance wrapThrashing(Cursor cursor) {
+    return BeanInstance.wrap(cursor.beans[cursor.next()]);
+  }
+}
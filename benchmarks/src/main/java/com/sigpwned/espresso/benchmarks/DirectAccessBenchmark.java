@@ -0,0 +1,101 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.espresso.benchmarks.fixtures.AccessorBean20;
+import com.sigpwned.espresso.benchmarks.fixtures.FieldBean20;
+
+/**
+ * The baseline for {@link AccessBenchmark}: the same reads and writes as plain Java calls
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectAccessBenchmark {
+  private FieldBean20 fieldBean;
+
+  private AccessorBean20 accessorBean;
+
+  private int intValue;
+
+  private String stringValue;
+
+  @Setup
+  public void setup() {
+    fieldBean = new FieldBean20();
+    accessorBean = new AccessorBean20();
+    intValue = 42;
+    stringValue = "hello";
+  }
+
+  @Benchmark
+  public int fieldGetInt() {
+    return fieldBean.i0;
+  }
+
+  @Benchmark
+  public String fieldGetString() {
+    return fieldBean.s0;
+  }
+
+  @Benchmark
+  public void fieldSetInt() {
+    fieldBean.i0 = intValue;
+  }
+
+  @Benchmark
+  public void fieldSetString() {
+    fieldBean.s0 = stringValue;
+  }
+
+  @Benchmark
+  public int accessorGetInt() {
+    return accessorBean.getI0();
+  }
+
+  @Benchmark
+  public String accessorGetString() {
+    return accessorBean.getS0();
+  }
+
+  @Benchmark
+  public void accessorSetInt() {
+    accessorBean.setI0(intValue);
+  }
+
+  @Benchmark
+  public void accessorSetString() {
+    accessorBean.setS0(stringValue);
+  }
+}
@@ -0,0 +1,47 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import java.util.Arrays;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks jar. Accepts the standard JMH command line. If the first argument
+ * is {@code alloc}, then the remaining arguments are passed to JMH and the GC profiler is enabled
+ * so that every benchmark also reports its allocation rate per operation.
+ */
+public final class EspressoBenchmarks {
+  private EspressoBenchmarks() {}
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("alloc")) {
+      CommandLineOptions cli = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+      Options options = new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build();
+      new Runner(options).run();
+    } else {
+      Main.main(args);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import com.sigpwned.espresso.benchmarks.fixtures.Fixtures;
+
+/**
+ * The physical implementation of the fixture beans' properties
+ */
+public enum Kind {
+  /**
+   * Public fields with no getters or setters
+   */
+  FIELD {
+    @Override
+    public Class<?> fixture(int size) {
+      return Fixtures.fieldBean(size);
+    }
+  },
+
+  /**
+   * Public fields with public getters, so properties are read through the getter and written
+   * through the field
+   */
+  GETTER {
+    @Override
+    public Class<?> fixture(int size) {
+      return Fixtures.getterBean(size);
+    }
+  },
+
+  /**
+   * Public fields with public setters, so properties are read through the field and written
+   * through the setter
+   */
+  SETTER {
+    @Override
+    public Class<?> fixture(int size) {
+      return Fixtures.setterBean(size);
+    }
+  },
+
+  /**
+   * Private fields with public getters and setters
+   */
+  ACCESSOR {
+    @Override
+    public Class<?> fixture(int size) {
+      return Fixtures.accessorBean(size);
+    }
+  };
+
+  /**
+   * Returns the fixture bean class of this kind with the given number of properties
+   */
+  public abstract Class<?> fixture(int size);
+}
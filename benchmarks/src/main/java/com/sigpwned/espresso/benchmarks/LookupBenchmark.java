@@ -0,0 +1,90 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanInstance;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * Measures property lookup by name and wrapping of existing instances
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+  @Param({"FIELD", "GETTER", "SETTER", "ACCESSOR"})
+  public Kind kind;
+
+  @Param({"5", "20", "50", "200"})
+  public int size;
+
+  private BeanClass beanClass;
+
+  private Object bean;
+
+  @Setup
+  public void setup() throws Exception {
+    beanClass = BeanClass.scan(kind.fixture(size));
+    bean = beanClass.newInstance().getInstance();
+  }
+
+  /**
+   * Properties are sorted by name, so i0 is the first property
+   */
+  @Benchmark
+  public Optional<BeanProperty> getPropertyFirst() {
+    return beanClass.getProperty("i0");
+  }
+
+  /**
+   * Properties are sorted by name, so s0 is in the second half of the properties
+   */
+  @Benchmark
+  public Optional<BeanProperty> getPropertyLater() {
+    return beanClass.getProperty("s0");
+  }
+
+  @Benchmark
+  public Optional<BeanProperty> getPropertyMissing() {
+    return beanClass.getProperty("missing");
+  }
+
+  @Benchmark
+  public BeanInstance wrap() {
+    return BeanInstance.wrap(bean);
+  }
+}
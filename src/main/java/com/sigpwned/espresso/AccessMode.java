@@ -0,0 +1,69 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+/**
+ * The memory ordering of a field access. These mirror the access modes of
+ * {@code java.lang.invoke.VarHandle}, from weakest to strongest. On JVMs without
+ * {@code VarHandle}, a mode may be implemented with a stronger ordering.
+ *
+ * <p>
+ * For plain reads and writes, {@link #ACQUIRE}, {@link #RELEASE}, and {@link #ACQUIRE_RELEASE} all
+ * give acquiring reads and releasing writes. They differ only for read-modify-write operations like
+ * {@link BeanField#getAndSet(Object, Object, AccessMode)}, where {@code ACQUIRE} and
+ * {@code RELEASE} order only the read or only the write, respectively.
+ * </p>
+ *
+ * @see BeanField#get(Object, AccessMode)
+ * @see BeanField#set(Object, Object, AccessMode)
+ * @see BeanField#compareAndSet(Object, Object, Object, AccessMode)
+ */
+public enum AccessMode {
+  /**
+   * Plain reads and writes, with no ordering guarantees beyond those of ordinary field access
+   */
+  PLAIN,
+
+  /**
+   * Reads and writes that are atomic and coherent per field, but otherwise unordered
+   */
+  OPAQUE,
+
+  /**
+   * Acquiring reads and releasing writes, and read-modify-write operations that acquire only
+   */
+  ACQUIRE,
+
+  /**
+   * Acquiring reads and releasing writes, and read-modify-write operations that release only
+   */
+  RELEASE,
+
+  /**
+   * Acquiring reads and releasing writes. There is no read-modify-write operation that only
+   * acquires and releases, so read-modify-write operations are volatile.
+   */
+  ACQUIRE_RELEASE,
+
+  /**
+   * Reads and writes with the semantics of a {@code volatile} field
+   */
+  VOLATILE;
+}
@@ -0,0 +1,143 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Promotes hot properties from reflective access to {@link MethodHandle} access. Properties start
+ * on the reflective path, which costs nothing to set up. When compilation is enabled, each
+ * property counts its accesses, and once the count crosses {@link #getThreshold()}, the property
+ * is queued here and compiled on a background thread, so cold properties never pay for
+ * compilation and callers never wait for it. Compilation is disabled by default.
+ */
+/* default */ final class AccessorCompiler {
+  /**
+   * Only used when a property cannot be compiled, which leaves it working reflectively
+   */
+  private static Logger logger() {
+    return LoggerFactory.getLogger(AccessorCompiler.class);
+  }
+
+  private static volatile int threshold =
+      Optional.ofNullable(System.getenv("ESPRESSO_ACCESSOR_COMPILE_THRESHOLD"))
+          .map(Integer::parseInt).map(t -> Math.max(t, 0)).orElse(0);
+
+  private static final MethodType READER_TYPE =
+      MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType WRITER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * Holds the compiler thread, so that it is only started once a property is actually scheduled
+   */
+  private static final class Executor {
+    public static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "espresso-accessor-compiler");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private AccessorCompiler() {}
+
+  /**
+   * The number of accesses after which a property is compiled, or 0 if compilation is disabled.
+   * Configured by the {@code ESPRESSO_ACCESSOR_COMPILE_THRESHOLD} environment variable, and
+   * disabled if it is not set.
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Changes the threshold for every property that has never been accessed or is still profiling.
+   * For testing.
+   */
+  /* default */ static void setThreshold(int threshold) {
+    AccessorCompiler.threshold = Math.max(threshold, 0);
+  }
+
+  /**
+   * Queues the given property for compilation.
+   */
+  public static void schedule(BeanProperty property) {
+    try {
+      Executor.INSTANCE.execute(property::compile);
+    } catch (RejectedExecutionException e) {
+      // The JVM is shutting down. The property keeps working reflectively.
+      logger().debug("Failed to schedule compilation of property {}", property.getName(), e);
+    }
+  }
+
+  /**
+   * Returns a compiled version of the given reader, or the reader itself if it cannot be compiled
+   */
+  public static BeanElement compileReader(BeanElement reader) {
+    try {
+      MethodHandle handle;
+      if (reader instanceof BeanGetter)
+        handle = MethodHandles.publicLookup().unreflect(((BeanGetter) reader).getMethod());
+      else if (reader instanceof BeanField)
+        handle = MethodHandles.publicLookup().unreflectGetter(((BeanField) reader).getField());
+      else
+        return reader;
+      Class<?> type = reader.getRawType();
+      MethodHandle typed =
+          type.isPrimitive() ? handle.asType(MethodType.methodType(type, Object.class)) : null;
+      return new MethodHandleElement(reader, handle.asType(READER_TYPE), typed, null, null);
+    } catch (IllegalAccessException e) {
+      logger().debug("Failed to compile reader {}", reader, e);
+      return reader;
+    }
+  }
+
+  /**
+   * Returns a compiled version of the given writer, or the writer itself if it cannot be compiled
+   */
+  public static BeanElement compileWriter(BeanElement writer) {
+    try {
+      MethodHandle handle;
+      if (writer instanceof BeanSetter)
+        handle = MethodHandles.publicLookup().unreflect(((BeanSetter) writer).getMethod());
+      else if (writer instanceof BeanField)
+        handle = MethodHandles.publicLookup().unreflectSetter(((BeanField) writer).getField());
+      else
+        return writer;
+      Class<?> type = writer.getRawType();
+      MethodHandle typed = type.isPrimitive()
+          ? handle.asType(MethodType.methodType(void.class, Object.class, type))
+          : null;
+      return new MethodHandleElement(writer, null, null, handle.asType(WRITER_TYPE), typed);
+    } catch (IllegalAccessException e) {
+      logger().debug("Failed to compile writer {}", writer, e);
+      return writer;
+    }
+  }
+}
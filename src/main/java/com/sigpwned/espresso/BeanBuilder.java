@@ -0,0 +1,248 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A reusable, primitive-friendly buffer for creating instances of a {@link BeanClass}. Values are
+ * assigned by property ordinal, and then {@link #build()} creates the instance in one step through
+ * the class's creator constructor, if it has one, or else through its default constructor followed
+ * by setters. Primitive values are stored unboxed and passed to the creator without boxing.
+ *
+ * <p>
+ * Assigned values persist across calls to {@link #build()}, so a builder can be reused to create
+ * many instances. Properties that are never assigned get their type's default value if they are
+ * creator parameters, and are left alone otherwise. Instances of this class are not thread-safe.
+ * </p>
+ */
+public class BeanBuilder {
+  private final BeanClass beanClass;
+  private final Creator creator;
+  private final Class<?>[] types;
+  private final long[] primitives;
+  private final Object[] references;
+  private final boolean[] assigned;
+
+  /* default */ BeanBuilder(BeanClass beanClass) {
+    this.beanClass = beanClass;
+    this.creator = beanClass.getCreator();
+    this.types = new Class<?>[beanClass.size()];
+    for (int i = 0; i < types.length; i++)
+      types[i] = beanClass.get(i).getRawType();
+    this.primitives = new long[types.length];
+    this.references = new Object[types.length];
+    this.assigned = new boolean[types.length];
+  }
+
+  /**
+   * Assigns the indexed property. Primitive properties accept their wrapper type.
+   *
+   * @throws IllegalArgumentException if the value is not of the correct type, or is null for a
+   *         primitive property
+   */
+  public BeanBuilder set(int index, Object value) {
+    Class<?> type = types[index];
+    if (type.isPrimitive()) {
+      if (!Reflection.wrap(type).isInstance(value))
+        throw invalid(index);
+      if (type == boolean.class)
+        primitives[index] = ((Boolean) value).booleanValue() ? 1L : 0L;
+      else if (type == char.class)
+        primitives[index] = ((Character) value).charValue();
+      else if (type == float.class)
+        primitives[index] = Float.floatToRawIntBits(((Float) value).floatValue());
+      else if (type == double.class)
+        primitives[index] = Double.doubleToRawLongBits(((Double) value).doubleValue());
+      else
+        primitives[index] = ((Number) value).longValue();
+    } else {
+      if (value != null && !type.isInstance(value))
+        throw invalid(index);
+      references[index] = value;
+    }
+    assigned[index] = true;
+    return this;
+  }
+
+  /**
+   * Assigns the named property.
+   *
+   * @throws IllegalArgumentException if there is no such property, or the value is not of the
+   *         correct type
+   */
+  public BeanBuilder set(String name, Object value) {
+    int index = beanClass.findPropertyIndex(name);
+    if (index == -1)
+      throw new IllegalArgumentException(format("no property %s", name));
+    return set(index, value);
+  }
+
+  /**
+   * Assigns the indexed {@code boolean} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code boolean}
+   */
+  public BeanBuilder setBoolean(int index, boolean value) {
+    return setPrimitive(index, boolean.class, value ? 1L : 0L);
+  }
+
+  /**
+   * Assigns the indexed {@code byte} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code byte}
+   */
+  public BeanBuilder setByte(int index, byte value) {
+    return setPrimitive(index, byte.class, value);
+  }
+
+  /**
+   * Assigns the indexed {@code short} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code short}
+   */
+  public BeanBuilder setShort(int index, short value) {
+    return setPrimitive(index, short.class, value);
+  }
+
+  /**
+   * Assigns the indexed {@code char} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code char}
+   */
+  public BeanBuilder setChar(int index, char value) {
+    return setPrimitive(index, char.class, value);
+  }
+
+  /**
+   * Assigns the indexed {@code int} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code int}
+   */
+  public BeanBuilder setInt(int index, int value) {
+    return setPrimitive(index, int.class, value);
+  }
+
+  /**
+   * Assigns the indexed {@code long} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code long}
+   */
+  public BeanBuilder setLong(int index, long value) {
+    return setPrimitive(index, long.class, value);
+  }
+
+  /**
+   * Assigns the indexed {@code float} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code float}
+   */
+  public BeanBuilder setFloat(int index, float value) {
+    return setPrimitive(index, float.class, Float.floatToRawIntBits(value));
+  }
+
+  /**
+   * Assigns the indexed {@code double} property without boxing.
+   *
+   * @throws IllegalArgumentException if the property is not of type {@code double}
+   */
+  public BeanBuilder setDouble(int index, double value) {
+    return setPrimitive(index, double.class, Double.doubleToRawLongBits(value));
+  }
+
+  private BeanBuilder setPrimitive(int index, Class<?> type, long bits) {
+    if (types[index] != type)
+      throw new IllegalArgumentException(format("property %s is not of type %s",
+          beanClass.get(index).getName(), type.getName()));
+    primitives[index] = bits;
+    assigned[index] = true;
+    return this;
+  }
+
+  /**
+   * Forgets all assigned values.
+   */
+  public BeanBuilder clear() {
+    Arrays.fill(primitives, 0L);
+    Arrays.fill(references, null);
+    Arrays.fill(assigned, false);
+    return this;
+  }
+
+  /**
+   * Creates a new instance from the assigned values.
+   *
+   * @throws InvocationTargetException if the constructor or a setter throws an exception
+   */
+  public Object build() throws InvocationTargetException {
+    Object result;
+    if (creator != null)
+      result = creator.create(primitives, references);
+    else
+      result = beanClass.newRawInstance();
+
+    for (int i = 0; i < types.length; i++)
+      if (assigned[i] && (creator == null || !creator.isCreated(i)))
+        assign(result, i);
+
+    return result;
+  }
+
+  /**
+   * Assigns the indexed property of the given instance through the typed {@link BeanProperty}
+   * setters, so primitive values are not boxed.
+   */
+  private void assign(Object instance, int index) throws InvocationTargetException {
+    BeanProperty property = beanClass.get(index);
+    Class<?> type = types[index];
+    if (!type.isPrimitive()) {
+      property.set(instance, references[index]);
+      return;
+    }
+
+    long bits = primitives[index];
+    if (type == boolean.class)
+      property.setBoolean(instance, bits != 0L);
+    else if (type == byte.class)
+      property.setByte(instance, (byte) bits);
+    else if (type == short.class)
+      property.setShort(instance, (short) bits);
+    else if (type == char.class)
+      property.setChar(instance, (char) bits);
+    else if (type == int.class)
+      property.setInt(instance, (int) bits);
+    else if (type == long.class)
+      property.setLong(instance, bits);
+    else if (type == float.class)
+      property.setFloat(instance, Float.intBitsToFloat((int) bits));
+    else if (type == double.class)
+      property.setDouble(instance, Double.longBitsToDouble(bits));
+    else
+      throw new AssertionError("unrecognized primitive type " + type);
+  }
+
+  private IllegalArgumentException invalid(int index) {
+    return new IllegalArgumentException(
+        format("invalid value for property %s", beanClass.get(index).getName()));
+  }
+}
@@ -20,17 +20,24 @@
 package com.sigpwned.espresso;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.synchronizedMap;
 import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -39,24 +46,54 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.sigpwned.espresso.annotation.BeanCreator;
+import com.sigpwned.espresso.annotation.BeanInterface;
 import com.sigpwned.espresso.annotation.Generated;
+import com.sigpwned.espresso.generate.BeanInterfaces;
+import com.sigpwned.espresso.metrics.EspressoMetrics;
 import com.sigpwned.espresso.util.Beans;
+import com.sigpwned.espresso.util.Generics;
 import com.sigpwned.espresso.util.Reflection;
 
 /**
  * A {@link Class}-like object for Java Bean implementations. It contains all of the required
  * methods for scanning a candidate Java Bean class, reading its metadata, and manipulating
  * instances of same.
+ *
+ * <p>
+ * Properties are ordered by name, using {@link String#compareTo(String)}. A property's position in
+ * this order is its index, or ordinal, as returned by {@link BeanProperty#getIndex()} and accepted
+ * by {@link #get(int)} and {@link BeanInstance#get(int)}. Ordinals depend only on the names of the
+ * class's properties, so they are stable for a given class definition in every {@link ScanMode},
+ * and callers may compute them once and reuse them.
+ * </p>
  */
 public class BeanClass implements Iterable<BeanProperty> {
-  private static final Logger LOGGER = LoggerFactory.getLogger(BeanClass.class);
+  /**
+   * Only used to explain ignored creators and properties while scanning
+   */
+  private static Logger logger() {
+    return LoggerFactory.getLogger(BeanClass.class);
+  }
 
-  private static final int BEAN_CLASS_CACHE_SIZE =
-      Optional.ofNullable(System.getenv("ESPRESSO_BEAN_CLASS_CACHE_SIZE")).map(Integer::parseInt)
-          .orElse(100);
+  /**
+   * Holds the settings read from the environment. This class is initialized on first use rather
+   * than with {@code BeanClass}, so that a native image reads them at run time.
+   */
+  private static final class Settings {
+    public static final int BEAN_CLASS_CACHE_SIZE =
+        Optional.ofNullable(System.getenv("ESPRESSO_BEAN_CLASS_CACHE_SIZE"))
+            .map(Integer::parseInt).orElse(100);
+
+    public static final ScanMode SCAN_MODE =
+        Optional.ofNullable(System.getenv("ESPRESSO_SCAN_MODE")).map(ScanMode::valueOf)
+            .orElse(ScanMode.EAGER);
+  }
 
   /* default */ static final Map<Class<?>, BeanClass> CACHE =
       synchronizedMap(new LinkedHashMap<Class<?>, BeanClass>() {
@@ -64,22 +101,122 @@ public class BeanClass implements Iterable<BeanProperty> {
 
         @Override
         protected boolean removeEldestEntry(Map.Entry<Class<?>, BeanClass> eldest) {
-          return super.size() >= BEAN_CLASS_CACHE_SIZE;
+          return super.size() >= Settings.BEAN_CLASS_CACHE_SIZE;
         }
       });
 
+  /**
+   * Classes pinned by {@link #preload(Class)}. These are never evicted.
+   */
+  private static final Map<Class<?>, BeanClass> PRELOADED = new ConcurrentHashMap<>();
+
   /**
    * Scans a class to create a new {@code BeanClass}. Successfully parsed {@link BeanClass} objects
    * are placed into a cache to improve future performance. Must be a visible, concrete, non-void,
-   * non-primitive, non-array class with a default constructor
+   * non-primitive, non-array class with a default constructor or a creator constructor, or an
+   * interface annotated with {@link BeanInterface}, in which case its generated implementation is
+   * scanned. Properties must be gettable, and either settable or, for a class without a default
+   * constructor, assigned by the creator. A class with a default constructor whose creator is
+   * invalid is scanned as if it had no creator.
    * 
    * @throws IllegalArgumentException if the given {@code Class} is not valid
    */
   public static BeanClass scan(Class<?> rawType) {
-    BeanClass cached = CACHE.get(rawType);
-    if (cached != null)
+    BeanClass cached = PRELOADED.isEmpty() ? null : PRELOADED.get(rawType);
+    if (cached == null)
+      cached = CACHE.get(rawType);
+    if (cached != null) {
+      if (EspressoMetrics.isInstrumented())
+        EspressoMetrics.cacheHit(rawType);
       return cached;
+    }
+
+    if (!EspressoMetrics.isInstrumented())
+      return scanAndCache(rawType);
+
+    EspressoMetrics.cacheMiss(rawType);
+
+    BeanClass result;
+    long start = System.nanoTime();
+    try {
+      result = scanAndCache(rawType);
+    } catch (IllegalArgumentException e) {
+      EspressoMetrics.scanRejected(rawType, System.nanoTime() - start, e);
+      throw e;
+    }
+    EspressoMetrics.scanCompleted(result, System.nanoTime() - start);
+
+    return result;
+  }
+
+  /**
+   * Scans the given class eagerly and pins the result so that it is never evicted from the cache.
+   * This is intended for build-time initialization, e.g., baking bean metadata into a GraalVM
+   * native image, so it does not read any settings from the environment. Unlike
+   * {@link #scan(Class)}, it does not try to instantiate the class, so the class is not initialized
+   * and its constructor's failures are not detected until it is first used.
+   *
+   * @throws IllegalArgumentException if the given {@code Class} is not valid
+   */
+  public static BeanClass preload(Class<?> rawType) {
+    return PRELOADED.computeIfAbsent(rawType, t -> scan(t, ScanMode.EAGER, false));
+  }
+
+  /**
+   * The number of classes currently held in the scan cache
+   */
+  public static int getCacheSize() {
+    return CACHE.size();
+  }
+
+  /**
+   * The maximum number of classes the scan cache will hold. Configured by the
+   * {@code ESPRESSO_BEAN_CLASS_CACHE_SIZE} environment variable.
+   */
+  public static int getCacheCapacity() {
+    return Settings.BEAN_CLASS_CACHE_SIZE;
+  }
+
+  /**
+   * How much work {@link #scan(Class)} does up front. Configured by the {@code ESPRESSO_SCAN_MODE}
+   * environment variable, which defaults to {@link ScanMode#EAGER}.
+   */
+  public static ScanMode getScanMode() {
+    return Settings.SCAN_MODE;
+  }
+
+  /**
+   * Empties every cache that {@link #scan(Class)} consults, including preloaded classes and
+   * generated {@link BeanInterface} implementations, so that the next scan of any class is cold.
+   * Each {@code BeanClass} builds its own name indexes, so those go with it. For tests and
+   * benchmarks.
+   */
+  /* default */ static void clearCachesForTesting() {
+    CACHE.clear();
+    PRELOADED.clear();
+    BeanInterfaces.clearCache();
+  }
 
+  private static BeanClass scanAndCache(Class<?> rawType) {
+    BeanClass result = scan(rawType, getScanMode());
+    CACHE.put(rawType, result);
+    return result;
+  }
+
+  /**
+   * Scans the given class in the given mode, without consulting or updating the cache.
+   */
+  /* default */ static BeanClass scan(Class<?> rawType, ScanMode mode) {
+    return scan(rawType, mode, true);
+  }
+
+  /**
+   * Scans the given class in the given mode, without consulting or updating the cache.
+   *
+   * @param instantiate whether to check that the class can be instantiated with its default
+   *        constructor, which also initializes the class
+   */
+  private static BeanClass scan(Class<?> rawType, ScanMode mode, boolean instantiate) {
     // This is the void tyep
     if (rawType.equals(void.class))
       throw new IllegalArgumentException(format("Class %s is void", rawType.getName()));
@@ -92,43 +229,64 @@ public class BeanClass implements Iterable<BeanProperty> {
     if (rawType.isPrimitive())
       throw new IllegalArgumentException(format("Class %s is primitive", rawType.getName()));
 
+    // This is a bean interface, so scan its generated implementation instead
+    if (rawType.isInterface() && rawType.isAnnotationPresent(BeanInterface.class))
+      return scan(BeanInterfaces.implement(rawType), mode, instantiate);
+
     // This is an abstract class
     if (Modifier.isAbstract(rawType.getModifiers()))
       throw new IllegalArgumentException(format("Class %s is abstract", rawType.getName()));
 
-    // We need a default constructor
+    // We need a default constructor or a creator
     Constructor<?> defaultConstructor;
     try {
       defaultConstructor = rawType.getConstructor();
     } catch (NoSuchMethodException e) {
-      // The bean standard requires a default constructor
-      throw new IllegalArgumentException(
-          format("Class %s has no default constructor", rawType.getName()));
+      defaultConstructor = null;
     }
 
-    // The default constructor is not public
-    if (!Modifier.isPublic(defaultConstructor.getModifiers()))
-      throw new IllegalArgumentException(
-          format("Class %s default constructor is not public", rawType.getName()));
-
-    // We should be able to instantiate the class
+    // A class with a default constructor is a bean without a creator, so a broken creator is only
+    // fatal when there is no default constructor to fall back on
+    Constructor<?> creatorConstructor;
+    List<String> creatorNames;
     try {
-      defaultConstructor.newInstance();
-    } catch (InstantiationException e) {
-      // We can't instantiate this class for some reason.
-      throw new IllegalArgumentException(
-          format("Class %s could not be instantiated", rawType.getName()), e);
-    } catch (IllegalAccessException e) {
-      // We can't see this class for some reason.
-      throw new IllegalArgumentException(
-          format("Class %s could not be accessed", rawType.getName()), e);
+      creatorConstructor = findCreatorConstructor(rawType);
+      creatorNames =
+          creatorConstructor != null ? getCreatorNames(rawType, creatorConstructor) : emptyList();
     } catch (IllegalArgumentException e) {
-      // We don't pass arguments, so this should never happen.
-      throw new AssertionError("failed to create class instance", e);
-    } catch (InvocationTargetException e) {
-      // This class fails to instantiate
+      if (defaultConstructor == null)
+        throw e;
+      logger().debug("Ignoring creator of class {} because {}", rawType.getName(), e.getMessage());
+      creatorConstructor = null;
+      creatorNames = emptyList();
+    }
+
+    // The bean standard requires a default constructor, but we also accept a creator
+    if (defaultConstructor == null && creatorConstructor == null)
       throw new IllegalArgumentException(
-          format("Class %s failed during instantiation", rawType.getName()), e);
+          format("Class %s has no default constructor", rawType.getName()));
+
+    // We should be able to instantiate the class. We can only try if we don't need arguments. The
+    // instance is discarded, so scanning never keeps a live instance of the class around.
+    if (defaultConstructor != null && instantiate) {
+      try {
+        defaultConstructor.newInstance();
+      } catch (InstantiationException e) {
+        // We can't instantiate this class for some reason.
+        throw new IllegalArgumentException(
+            format("Class %s could not be instantiated", rawType.getName()), e);
+      } catch (IllegalAccessException e) {
+        // We can't see this class for some reason.
+        throw new IllegalArgumentException(
+            format("Class %s could not be accessed", rawType.getName()), e);
+      } catch (IllegalArgumentException e) {
+        // We don't pass arguments, so this should never happen.
+        throw new AssertionError("failed to create class instance", e);
+      } catch (InvocationTargetException e) {
+        // This class fails to instantiate
+        throw new IllegalArgumentException(
+            format("Class %s failed during instantiation", rawType.getName()), e);
+      }
     }
 
     BeanClass result = new BeanClass(rawType, defaultConstructor);
@@ -137,11 +295,20 @@ public class BeanClass implements Iterable<BeanProperty> {
         Reflection.getAllDeclaredFields(rawType).stream().filter(Beans::isBeanField)
             .map(BeanField::new).collect(groupingBy(BeanField::getName, toList()));
 
-    List<Method> methods = Reflection.getAllDeclaredMethods(rawType);
+    // Bridge methods only restate another method's signature with erased types, so skip them
+    List<Method> methods = Reflection.getAllDeclaredMethods(rawType).stream()
+        .filter(m -> !m.isBridge()).collect(toList());
 
     Map<String, List<BeanGetter>> getters = methods.stream().filter(Beans::isBeanGetter)
         .map(BeanGetter::new).collect(groupingBy(BeanGetter::getName, toList()));
 
+    // Record component accessors don't follow the bean naming convention, but they are getters
+    if (Reflection.isRecord(rawType)) {
+      for (Method accessor : Reflection.getRecordAccessors(rawType))
+        getters.computeIfAbsent(accessor.getName(), k -> new ArrayList<>())
+            .add(new BeanGetter(accessor, accessor.getName()));
+    }
+
     Map<String, List<BeanSetter>> setters = methods.stream().filter(Beans::isBeanSetter)
         .map(BeanSetter::new).collect(groupingBy(BeanSetter::getName, toList()));
 
@@ -163,7 +330,7 @@ public class BeanClass implements Iterable<BeanProperty> {
       } else if (propertyFields.size() == 1) {
         propertyField = propertyFields.get(0);
       } else {
-        LOGGER.debug("Ignoring property {} because of multiple conflicting fields with same name",
+        logger().debug("Ignoring property {} because of multiple conflicting fields with same name",
             propertyName);
         propertyField = null;
         ignored = true;
@@ -176,11 +343,10 @@ public class BeanClass implements Iterable<BeanProperty> {
         propertyGetter = propertyGetters.get(0);
       } else {
         BeanGetter first = propertyGetters.get(0);
-        if (propertyGetters.stream()
-            .allMatch(g -> g.getGenericType().equals(first.getGenericType()))) {
+        if (propertyGetters.stream().allMatch(g -> result.isSameType(first, g))) {
           propertyGetter = first;
         } else {
-          LOGGER.debug(
+          logger().debug(
               "Ignoring property {} because of multiple conflicting getters with same name",
               propertyName);
           propertyGetter = null;
@@ -195,11 +361,10 @@ public class BeanClass implements Iterable<BeanProperty> {
         propertySetter = propertySetters.get(0);
       } else {
         BeanSetter first = propertySetters.get(0);
-        if (propertySetters.stream()
-            .allMatch(g -> g.getGenericType().equals(first.getGenericType()))) {
+        if (propertySetters.stream().allMatch(g -> result.isSameType(first, g))) {
           propertySetter = first;
         } else {
-          LOGGER.debug(
+          logger().debug(
               "Ignoring property {} because of multiple conflicting setters with same name",
               propertyName);
           propertySetter = null;
@@ -208,49 +373,173 @@ public class BeanClass implements Iterable<BeanProperty> {
       }
 
       if (ignored) {
-        LOGGER.debug(
+        logger().debug(
             "Ignoring property {} because of conflicting types among field, getter, and setter",
             propertyName);
       } else {
-        List<BeanElement> propertyElements = new ArrayList<>(3);
-        if (propertyField != null)
-          propertyElements.add(propertyField);
-        if (propertyGetter != null)
-          propertyElements.add(propertyGetter);
-        if (propertySetter != null)
-          propertyElements.add(propertySetter);
-
-        BeanElement first = propertyElements.get(0);
-        if (propertyElements.stream()
-            .allMatch(e -> e.getGenericType().equals(first.getGenericType()))) {
+        BeanElement first = propertyField != null ? propertyField
+            : propertyGetter != null ? propertyGetter : propertySetter;
+        if (result.isSameType(first, propertyGetter)
+            && result.isSameType(first, propertySetter)) {
           boolean gettable =
               (propertyField != null && propertyField.isGettable()) || propertyGetter != null;
           boolean settable =
               (propertyField != null && propertyField.isSettable()) || propertySetter != null;
-          if (gettable && settable) {
-            result.addProperty(
-                new BeanProperty(result, propertyField, propertyGetter, propertySetter));
+          boolean created = creatorNames.contains(propertyName);
+          // Read-only properties only make sense for beans that can only be built by a creator
+          if (gettable && (settable || (created && defaultConstructor == null))) {
+            // An eager scan has already checked the resolved types, so hand the result over
+            Type genericType =
+                mode == ScanMode.EAGER ? result.resolveType(first.getGenericType()) : null;
+            result.addProperty(new BeanProperty(result, propertyField, propertyGetter,
+                propertySetter, created, genericType));
           } else {
-            LOGGER.debug("Ignoring property {} because it is not both gettable and settable",
+            logger().debug("Ignoring property {} because it is not both gettable and settable",
                 propertyName);
           }
         }
       }
     }
 
-    CACHE.put(rawType, result);
+    result.properties.trimToSize();
+
+    result.indexNames();
+
+    if (creatorConstructor != null) {
+      try {
+        result.creator = new Creator(result, creatorConstructor, creatorNames);
+      } catch (IllegalArgumentException e) {
+        if (defaultConstructor == null)
+          throw e;
+        logger().debug("Ignoring creator of class {} because {}", rawType.getName(),
+            e.getMessage());
+      }
+    }
+
+    if (mode == ScanMode.EAGER)
+      result.propertiesByAnnotation = result.indexAnnotations();
 
     return result;
   }
 
+  /**
+   * Returns true if the given elements have the same type when resolved against this class. A null
+   * element matches anything. Generic types are only resolved when the elements have type arguments
+   * or type variables, so the answer, and therefore the set of properties, is the same in every
+   * {@link ScanMode}.
+   */
+  private boolean isSameType(BeanElement a, BeanElement b) {
+    if (a == null || b == null || a == b)
+      return true;
+
+    if (a.getRawType() == b.getRawType()) {
+      // Plain classes with the same erasure are the same type, with nothing to resolve
+      if (a.getGenericType() instanceof Class && b.getGenericType() instanceof Class)
+        return true;
+    } else if (typeBindings.isEmpty()) {
+      // Without type variables to resolve, types with different erasures can't match
+      return false;
+    }
+
+    return resolveType(a.getGenericType()).equals(resolveType(b.getGenericType()));
+  }
+
+  /**
+   * Finds the constructor to use as this class's creator, if any. An explicit {@link BeanCreator}
+   * annotation wins, followed by {@code java.beans.ConstructorProperties}, followed by a record's
+   * canonical constructor.
+   */
+  private static Constructor<?> findCreatorConstructor(Class<?> rawType) {
+    List<Constructor<?>> annotated = Stream.of(rawType.getConstructors())
+        .filter(c -> c.isAnnotationPresent(BeanCreator.class)).collect(toList());
+    if (annotated.isEmpty())
+      annotated = Stream.of(rawType.getConstructors())
+          .filter(c -> getConstructorProperties(c).isPresent()).collect(toList());
+    if (annotated.size() > 1)
+      throw new IllegalArgumentException(
+          format("Class %s has multiple creator constructors", rawType.getName()));
+    if (annotated.size() == 1)
+      return annotated.get(0);
+
+    if (Reflection.isRecord(rawType)) {
+      Class<?>[] parameterTypes = Reflection.getRecordAccessors(rawType).stream()
+          .map(Method::getReturnType).toArray(Class<?>[]::new);
+      try {
+        return rawType.getConstructor(parameterTypes);
+      } catch (NoSuchMethodException e) {
+        throw new IllegalArgumentException(
+            format("Class %s canonical constructor is not public", rawType.getName()));
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the property names for the given creator's parameters, in order
+   */
+  private static List<String> getCreatorNames(Class<?> rawType, Constructor<?> constructor) {
+    BeanCreator annotation = constructor.getAnnotation(BeanCreator.class);
+    if (annotation != null && annotation.value().length != 0)
+      return unmodifiableList(asList(annotation.value()));
+
+    if (annotation == null) {
+      Optional<String[]> constructorProperties = getConstructorProperties(constructor);
+      if (constructorProperties.isPresent())
+        return unmodifiableList(asList(constructorProperties.get()));
+
+      if (Reflection.isRecord(rawType))
+        return Reflection.getRecordAccessors(rawType).stream().map(Method::getName)
+            .collect(toList());
+    }
+
+    if (!Stream.of(constructor.getParameters()).allMatch(Parameter::isNamePresent))
+      throw new IllegalArgumentException(format(
+          "Class %s creator parameter names are not available, compile with -parameters",
+          rawType.getName()));
+    return Stream.of(constructor.getParameters()).map(Parameter::getName).collect(toList());
+  }
+
+  /**
+   * Reads {@code java.beans.ConstructorProperties} by name, since the {@code java.desktop} module
+   * may not be present at runtime.
+   */
+  private static Optional<String[]> getConstructorProperties(Constructor<?> constructor) {
+    for (Annotation annotation : constructor.getAnnotations()) {
+      Class<? extends Annotation> annotationType = annotation.annotationType();
+      if (annotationType.getName().equals("java.beans.ConstructorProperties")) {
+        try {
+          return Optional.of((String[]) annotationType.getMethod("value").invoke(annotation));
+        } catch (ReflectiveOperationException e) {
+          // This is a public method on a public annotation. This should never happen.
+          throw new AssertionError("failed to read ConstructorProperties", e);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
   private final Class<?> rawType;
   private final Constructor<?> defaultConstructor;
-  private final List<BeanProperty> properties;
+  private final ArrayList<BeanProperty> properties;
+  private final List<BeanProperty> unmodifiableProperties;
+  private final Map<TypeVariable<?>, Type> typeBindings;
+  private Creator creator;
+  private volatile Object[] defaults;
+  private volatile Map<Class<? extends Annotation>, List<BeanProperty>> propertiesByAnnotation;
+  private final PropertyNameIndex[] nameIndexes;
+  private volatile LongAdder propertyReads;
+  private volatile LongAdder propertyWrites;
 
   /* default */ BeanClass(Class<?> rawType, Constructor<?> defaultConstructor) {
     this.rawType = rawType;
     this.defaultConstructor = defaultConstructor;
     this.properties = new ArrayList<>();
+    this.unmodifiableProperties = unmodifiableList(properties);
+    this.propertiesByAnnotation = null;
+    this.nameIndexes = new PropertyNameIndex[NameMatching.values().length];
+    indexNames();
+    this.typeBindings = Generics.getTypeBindings(rawType);
   }
 
   /**
@@ -260,16 +549,42 @@ public class BeanClass implements Iterable<BeanProperty> {
     return rawType;
   }
 
+  /**
+   * Resolves the type variables in a type declared by this class or its ancestors against this
+   * class. For example, if {@code Foo extends Base<String>}, then {@code Base}'s {@code T} resolves
+   * to {@code String} in {@code Foo}.
+   */
+  public Type resolveType(Type type) {
+    return Generics.resolve(type, typeBindings);
+  }
+
   private Constructor<?> getDefaultConstructor() {
     return defaultConstructor;
   }
 
   /**
    * Creates a new {@link BeanInstance} from this {@code BeanClass}.
+   *
+   * @throws UnsupportedOperationException if this class has no default constructor
+   * @see #newBuilder()
    */
   public BeanInstance newInstance() throws InvocationTargetException {
+    return new BeanInstance(this, newRawInstance());
+  }
+
+  /**
+   * Creates a new instance of this {@code BeanClass} without wrapping it in a
+   * {@link BeanInstance}, e.g., for populating it through {@link BeanProperty} directly.
+   *
+   * @throws UnsupportedOperationException if this class has no default constructor
+   * @see #newInstance()
+   */
+  public Object newRawInstance() throws InvocationTargetException {
+    if (getDefaultConstructor() == null)
+      throw new UnsupportedOperationException(
+          format("Class %s has no default constructor", getRawType().getName()));
     try {
-      return new BeanInstance(this, getDefaultConstructor().newInstance());
+      return getDefaultConstructor().newInstance();
     } catch (InstantiationException e) {
       // We check that the class can be instantiated. This should never happen.
       throw new AssertionError("could not instantiate class", e);
@@ -279,6 +594,164 @@ public class BeanClass implements Iterable<BeanProperty> {
     }
   }
 
+  /**
+   * Creates a new instance in one step from the given values, which are indexed by property
+   * ordinal. If this class has a creator, then it is called with the values of its parameters, and
+   * the remaining properties are set afterwards. Otherwise, the default constructor is called and
+   * every property is set.
+   *
+   * @throws IllegalArgumentException if the wrong number of values is given, or a value is not of
+   *         the correct type
+   * @throws InvocationTargetException if the constructor or a setter throws an exception
+   */
+  public Object create(Object[] values) throws InvocationTargetException {
+    if (values.length != size())
+      throw new IllegalArgumentException(
+          format("expected %d values, but got %d", size(), values.length));
+
+    Object result = creator != null ? creator.create(values) : newRawInstance();
+    for (int i = 0; i < values.length; i++)
+      if (creator == null || !creator.isCreated(i))
+        get(i).set(result, values[i]);
+
+    return result;
+  }
+
+  /**
+   * Creates a new reusable {@link BeanBuilder} for creating instances of this {@code BeanClass}.
+   */
+  public BeanBuilder newBuilder() {
+    return new BeanBuilder(this);
+  }
+
+  /**
+   * Returns true if this class has a creator constructor, i.e., a constructor annotated with
+   * {@link BeanCreator} or {@code java.beans.ConstructorProperties}, or a record's canonical
+   * constructor.
+   */
+  public boolean hasCreator() {
+    return creator != null;
+  }
+
+  /**
+   * The properties assigned by this class's creator, in constructor parameter order, or an empty
+   * list if this class has no creator.
+   */
+  public List<BeanProperty> getCreatorProperties() {
+    return creator != null ? creator.getProperties() : emptyList();
+  }
+
+  /* default */ Creator getCreator() {
+    return creator;
+  }
+
+  /**
+   * Creates a new {@link BeanPool} that recycles instances of this class, holding at most the given
+   * number of idle instances.
+   *
+   * @throws IllegalArgumentException if the capacity is negative, or a property is not settable, or
+   *         a property's default value is mutable and cannot be reset
+   * @throws UnsupportedOperationException if this class has no default constructor
+   * @throws InvocationTargetException if a getter throws an exception while reading defaults
+   * @see BeanProperty#getDefaultValue()
+   */
+  public BeanPool newPool(int capacity) throws InvocationTargetException {
+    return new BeanPool(this, capacity);
+  }
+
+  /**
+   * Returns the built-in metrics counter for reads of this class's properties. The counter is
+   * looked up the first time it is needed, and then cached, so counting a read costs no map lookup.
+   */
+  /* default */ LongAdder getPropertyReadCounter() {
+    LongAdder result = propertyReads;
+    if (result == null)
+      propertyReads = result = EspressoMetrics.propertyReadCounter(rawType);
+    return result;
+  }
+
+  /**
+   * Returns the built-in metrics counter for writes of this class's properties.
+   *
+   * @see #getPropertyReadCounter()
+   */
+  /* default */ LongAdder getPropertyWriteCounter() {
+    LongAdder result = propertyWrites;
+    if (result == null)
+      propertyWrites = result = EspressoMetrics.propertyWriteCounter(rawType);
+    return result;
+  }
+
+  /**
+   * Returns the value of each property in a newly-constructed instance, indexed by ordinal. The
+   * values are read from a fresh instance the first time they are needed, and then cached.
+   *
+   * @throws UnsupportedOperationException if this class has no default constructor
+   */
+  /* default */ Object[] getDefaults() throws InvocationTargetException {
+    Object[] result = defaults;
+    if (result == null) {
+      Object instance = newRawInstance();
+      result = new Object[size()];
+      for (int i = 0; i < result.length; i++)
+        result[i] = get(i).get(instance);
+      defaults = result;
+    }
+    return result;
+  }
+
+  /**
+   * Passes the value of each property of the given bean to the given visitor, in ordinal order.
+   * Primitive values are read and delivered without boxing.
+   *
+   * @throws IllegalArgumentException if the bean is not an instance of this class
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void accept(Object bean, BeanVisitor visitor) throws InvocationTargetException {
+    if (!isInstance(bean))
+      throw new IllegalArgumentException(
+          format("Object is not an instance of class %s", getRawType().getName()));
+    for (int i = 0; i < properties.size(); i++) {
+      BeanProperty property = properties.get(i);
+      Class<?> type = property.getRawType();
+      if (!type.isPrimitive())
+        visitor.visitObject(property, property.get(bean));
+      else if (type == int.class)
+        visitor.visitInt(property, property.getInt(bean));
+      else if (type == long.class)
+        visitor.visitLong(property, property.getLong(bean));
+      else if (type == double.class)
+        visitor.visitDouble(property, property.getDouble(bean));
+      else if (type == boolean.class)
+        visitor.visitBoolean(property, property.getBoolean(bean));
+      else if (type == float.class)
+        visitor.visitFloat(property, property.getFloat(bean));
+      else if (type == short.class)
+        visitor.visitShort(property, property.getShort(bean));
+      else if (type == byte.class)
+        visitor.visitByte(property, property.getByte(bean));
+      else if (type == char.class)
+        visitor.visitChar(property, property.getChar(bean));
+      else
+        // We reject void properties. This should never happen.
+        throw new AssertionError("unrecognized primitive type " + type);
+    }
+  }
+
+  /**
+   * Returns true if the given object is an instance of this class
+   */
+  public boolean isInstance(Object instance) {
+    return getRawType().isInstance(instance);
+  }
+
+  /**
+   * Creates a new {@link BeanCursor} for visiting existing instances of this {@code BeanClass}.
+   */
+  public BeanCursor newCursor() {
+    return new BeanCursor(this);
+  }
+
   /**
    * The names of all properties defined by this {@code BeanClass}.
    */
@@ -290,21 +763,82 @@ public class BeanClass implements Iterable<BeanProperty> {
    * Gets the named property, if it exists.
    */
   public Optional<BeanProperty> getProperty(String name) {
-    return getProperties().stream().filter(p -> p.getName().equals(name)).findFirst();
+    int index = findPropertyIndex(name);
+    return index != -1 ? Optional.of(get(index)) : Optional.empty();
+  }
+
+  /**
+   * Returns the index of the named property, or -1 if there is no such property. Unlike
+   * {@link #getProperty(String)}, this accepts any {@link CharSequence}, e.g., a reusable
+   * {@link StringBuilder} or a slice of a parse buffer, and does not allocate.
+   */
+  public int findPropertyIndex(CharSequence name) {
+    return findPropertyIndex(name, NameMatching.EXACT);
   }
 
   /**
-   * Gets the indexed property.
+   * Returns the index of the property matching the given name, or -1 if there is no such property.
+   * If more than one property matches the name, e.g., {@code foo} and {@code FOO} under
+   * {@link NameMatching#CASE_INSENSITIVE}, then -1 is returned.
+   */
+  public int findPropertyIndex(CharSequence name, NameMatching matching) {
+    return getNameIndex(matching).find(name);
+  }
+
+  /**
+   * Returns the index of the property named by the given characters, or -1 if there is no such
+   * property.
+   *
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  public int findPropertyIndex(char[] name, int offset, int length) {
+    return findPropertyIndex(name, offset, length, NameMatching.EXACT);
+  }
+
+  /**
+   * Returns the index of the property matching the given characters, or -1 if there is no such
+   * property or more than one property matches.
+   *
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  public int findPropertyIndex(char[] name, int offset, int length, NameMatching matching) {
+    return getNameIndex(matching).find(name, offset, length);
+  }
+
+  /**
+   * Returns the index of the property whose name is encoded in the given UTF-8 bytes, or -1 if
+   * there is no such property or the bytes are not valid UTF-8.
+   *
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  public int findPropertyIndex(byte[] utf8, int offset, int length) {
+    return findPropertyIndex(utf8, offset, length, NameMatching.EXACT);
+  }
+
+  /**
+   * Returns the index of the property matching the name encoded in the given UTF-8 bytes, or -1 if
+   * there is no such property, more than one property matches, or the bytes are not valid UTF-8.
+   *
+   * @throws IndexOutOfBoundsException if the range is not within the array
+   */
+  public int findPropertyIndex(byte[] utf8, int offset, int length, NameMatching matching) {
+    return getNameIndex(matching).find(utf8, offset, length);
+  }
+
+  /**
+   * Gets the indexed property. Properties are indexed in order of name.
+   *
+   * @throws IndexOutOfBoundsException if the index is not less than {@link #size()}
    */
   public BeanProperty get(int index) {
-    return getProperties().get(index);
+    return properties.get(index);
   }
 
   /**
    * The total number of properties defined by this {@code BeanClass}.
    */
   public int size() {
-    return getProperties().size();
+    return properties.size();
   }
 
   /**
@@ -322,12 +856,56 @@ public class BeanClass implements Iterable<BeanProperty> {
   }
 
   private List<BeanProperty> getProperties() {
-    return unmodifiableList(properties);
+    return unmodifiableProperties;
+  }
+
+  /**
+   * Returns the properties that carry at least one annotation of the given type on any of their
+   * fields, getters, or setters, in property order. The result is precomputed when the class is
+   * scanned eagerly, and computed on first use otherwise.
+   */
+  public List<BeanProperty> getPropertiesAnnotatedWith(Class<? extends Annotation> annotationType) {
+    Map<Class<? extends Annotation>, List<BeanProperty>> index = propertiesByAnnotation;
+    if (index == null)
+      propertiesByAnnotation = index = indexAnnotations();
+    return index.getOrDefault(annotationType, emptyList());
+  }
+
+  /**
+   * Builds the exact name table. The others are rarely used, so they are built on first use.
+   */
+  /* default */ void indexNames() {
+    Arrays.fill(nameIndexes, null);
+    nameIndexes[NameMatching.EXACT.ordinal()] =
+        new PropertyNameIndex(getNames(), NameMatching.EXACT);
+  }
+
+  private PropertyNameIndex getNameIndex(NameMatching matching) {
+    // Tables are immutable, so a race only builds the same table twice
+    PropertyNameIndex result = nameIndexes[matching.ordinal()];
+    if (result == null)
+      nameIndexes[matching.ordinal()] = result = new PropertyNameIndex(getNames(), matching);
+    return result;
+  }
+
+  private List<String> getNames() {
+    return properties.stream().map(BeanProperty::getName).collect(toList());
+  }
+
+  private Map<Class<? extends Annotation>, List<BeanProperty>> indexAnnotations() {
+    Map<Class<? extends Annotation>, List<BeanProperty>> index = new HashMap<>();
+    for (BeanProperty property : properties) {
+      property.getAnnotations().stream().map(Annotation::annotationType).distinct()
+          .forEach(t -> index.computeIfAbsent(t, k -> new ArrayList<>()).add(property));
+    }
+    index.replaceAll((k, v) -> unmodifiableList(v));
+    return index;
   }
 
-  private void addProperty(BeanProperty property) {
+  /* default */ void addProperty(BeanProperty property) {
     if (!property.getBeanClass().equals(this))
       throw new IllegalArgumentException("property belongs to another class");
+    property.setIndex(properties.size());
     properties.add(property);
   }
 
@@ -0,0 +1,321 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * <p>
+ * A reusable, mutable view of bean instances of one {@link BeanClass}. Unlike
+ * {@link BeanInstance}, which wraps exactly one instance, a cursor can be pointed at any number
+ * of instances in turn with {@link #reset(Object)}, so code that visits many beans of the same
+ * class, e.g. the elements of a large list, needs neither a wrapper nor a cache lookup per bean:
+ * </p>
+ *
+ * <pre>
+ * BeanCursor cursor = BeanClass.scan(Example.class).newCursor();
+ * for (Example example : examples) {
+ *   cursor.reset(example);
+ *   Object value = cursor.get(0);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Properties are addressed by their index in the {@link BeanClass}. Cursors are not safe to share
+ * between threads.
+ * </p>
+ */
+public class BeanCursor {
+  private final BeanClass beanClass;
+  private final Class<?> rawType;
+  private final BeanProperty[] properties;
+  private Object instance;
+
+  /* default */ BeanCursor(BeanClass beanClass) {
+    this.beanClass = beanClass;
+    this.rawType = beanClass.getRawType();
+    this.properties = beanClass.stream().toArray(BeanProperty[]::new);
+  }
+
+  /**
+   * The {@link BeanClass} of the instances this cursor visits
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Points this cursor at the given instance.
+   *
+   * @return this cursor
+   * @throws NullPointerException if instance is null
+   * @throws IllegalArgumentException if the class of the given instance is not exactly the raw
+   *         type of this cursor's {@link BeanClass}
+   */
+  public BeanCursor reset(Object instance) {
+    if (instance.getClass() != rawType)
+      throw new IllegalArgumentException(
+          format("Given instance is %s, not %s", instance.getClass(), rawType));
+    this.instance = instance;
+    return this;
+  }
+
+  /**
+   * The instance this cursor currently points at, or null if it has not been reset yet
+   */
+  public Object getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets the value of the indexed property of the current instance.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public Object get(int index) throws InvocationTargetException {
+    return properties[index].get(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed property of the current instance.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void set(int index, Object value) throws InvocationTargetException {
+    properties[index].set(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code boolean} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code boolean}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public boolean getBoolean(int index) throws InvocationTargetException {
+    return properties[index].getBoolean(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code boolean} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code boolean}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setBoolean(int index, boolean value) throws InvocationTargetException {
+    properties[index].setBoolean(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code byte} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code byte}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public byte getByte(int index) throws InvocationTargetException {
+    return properties[index].getByte(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code byte} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code byte}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setByte(int index, byte value) throws InvocationTargetException {
+    properties[index].setByte(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code short} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code short}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public short getShort(int index) throws InvocationTargetException {
+    return properties[index].getShort(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code short} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code short}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setShort(int index, short value) throws InvocationTargetException {
+    properties[index].setShort(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code char} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code char}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public char getChar(int index) throws InvocationTargetException {
+    return properties[index].getChar(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code char} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code char}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setChar(int index, char value) throws InvocationTargetException {
+    properties[index].setChar(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code int} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code int}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public int getInt(int index) throws InvocationTargetException {
+    return properties[index].getInt(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code int} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code int}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setInt(int index, int value) throws InvocationTargetException {
+    properties[index].setInt(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code long} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code long}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public long getLong(int index) throws InvocationTargetException {
+    return properties[index].getLong(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code long} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code long}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setLong(int index, long value) throws InvocationTargetException {
+    properties[index].setLong(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code float} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code float}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public float getFloat(int index) throws InvocationTargetException {
+    return properties[index].getFloat(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code float} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code float}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setFloat(int index, float value) throws InvocationTargetException {
+    properties[index].setFloat(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the indexed {@code double} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code double}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public double getDouble(int index) throws InvocationTargetException {
+    return properties[index].getDouble(currentInstance());
+  }
+
+  /**
+   * Sets the value of the indexed {@code double} property of the current instance without boxing.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if the property is not of type {@code double}
+   * @throws IllegalStateException if this cursor has not been reset yet
+   */
+  public void setDouble(int index, double value) throws InvocationTargetException {
+    properties[index].setDouble(currentInstance(), value);
+  }
+
+  /**
+   * Gets the value of the named property of the current instance.
+   *
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IllegalArgumentException if there is no such property
+   */
+  public Object get(String name) throws InvocationTargetException {
+    return properties[indexOf(name)].get(currentInstance());
+  }
+
+  /**
+   * Sets the value of the named property of the current instance.
+   *
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IllegalArgumentException if there is no such property
+   */
+  public void set(String name, Object value) throws InvocationTargetException {
+    properties[indexOf(name)].set(currentInstance(), value);
+  }
+
+  private int indexOf(String name) {
+    int index = beanClass.findPropertyIndex(name);
+    if (index == -1)
+      throw new IllegalArgumentException(format("No such property %s", name));
+    return index;
+  }
+
+  private Object currentInstance() {
+    if (instance == null)
+      throw new IllegalStateException("cursor has not been reset");
+    return instance;
+  }
+
+  @Override
+  public String toString() {
+    return "BeanCursor [beanClass=" + beanClass + ", instance=" + instance + "]";
+  }
+}
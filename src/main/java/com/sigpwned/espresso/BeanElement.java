@@ -23,6 +23,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.util.List;
+import com.sigpwned.espresso.util.Reflection;
 
 /**
  * An abstract representation of a syntactical element that references a logical property, e.g. a
@@ -32,7 +33,15 @@ public interface BeanElement {
   public String getName();
 
   public Type getGenericType();
-  
+
+  /**
+   * The erasure of {@link #getGenericType()}. This is usually cheaper to compute than the generic
+   * type, since it does not require parsing generic signatures.
+   */
+  default Class<?> getRawType() {
+    return Reflection.getRawType(getGenericType());
+  }
+
   public List<Annotation> getAnnotations();
 
   /**
@@ -60,6 +69,70 @@ public interface BeanElement {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Reads the logical property as a {@code boolean}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default boolean getBoolean(Object instance) throws InvocationTargetException {
+    return (Boolean) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code byte}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default byte getByte(Object instance) throws InvocationTargetException {
+    return (Byte) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code short}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default short getShort(Object instance) throws InvocationTargetException {
+    return (Short) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code char}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default char getChar(Object instance) throws InvocationTargetException {
+    return (Character) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code int}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default int getInt(Object instance) throws InvocationTargetException {
+    return (Integer) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code long}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default long getLong(Object instance) throws InvocationTargetException {
+    return (Long) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code float}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default float getFloat(Object instance) throws InvocationTargetException {
+    return (Float) get(instance);
+  }
+
+  /**
+   * Reads the logical property as a {@code double}. The default implementation unboxes the result
+   * of {@link #get(Object)}, and implementations may override it to avoid boxing.
+   */
+  default double getDouble(Object instance) throws InvocationTargetException {
+    return (Double) get(instance);
+  }
+
   /**
    * Attempts to write the value of the logical property to the given instance.
    * 
@@ -70,4 +143,68 @@ public interface BeanElement {
   default void set(Object instance, Object value) throws InvocationTargetException {
     throw new UnsupportedOperationException();
   }
+
+  /**
+   * Writes the logical property as a {@code boolean}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setBoolean(Object instance, boolean value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code byte}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setByte(Object instance, byte value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code short}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setShort(Object instance, short value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code char}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setChar(Object instance, char value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as an {@code int}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setInt(Object instance, int value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code long}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setLong(Object instance, long value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code float}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setFloat(Object instance, float value) throws InvocationTargetException {
+    set(instance, value);
+  }
+
+  /**
+   * Writes the logical property as a {@code double}. The default implementation boxes the value
+   * and calls {@link #set(Object, Object)}, and implementations may override it to avoid boxing.
+   */
+  default void setDouble(Object instance, double value) throws InvocationTargetException {
+    set(instance, value);
+  }
 }
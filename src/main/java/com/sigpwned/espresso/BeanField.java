@@ -20,20 +20,25 @@
 package com.sigpwned.espresso;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 import com.sigpwned.espresso.annotation.Generated;
 import com.sigpwned.espresso.util.Beans;
+import com.sigpwned.espresso.util.Reflection;
 
 /**
  * A wrapper for a {@link Field} that is part of the physical implementation of a logical property.
  */
 public class BeanField implements BeanElement {
   private final Field field;
+  private volatile List<Annotation> annotations;
+  private volatile FieldAtomics atomics;
 
   public BeanField(Field field) {
     if (!Beans.isBeanField(field))
@@ -50,10 +55,18 @@ public class BeanField implements BeanElement {
   public Type getGenericType() {
     return getField().getGenericType();
   }
-  
+
+  @Override
+  public Class<?> getRawType() {
+    return getField().getType();
+  }
+
   @Override
   public List<Annotation> getAnnotations() {
-    return asList(getField().getAnnotations());
+    List<Annotation> result = annotations;
+    if (result == null)
+      annotations = result = unmodifiableList(asList(getField().getAnnotations()));
+    return result;
   }
 
   @Override
@@ -78,6 +91,102 @@ public class BeanField implements BeanElement {
     }
   }
 
+  @Override
+  public boolean getBoolean(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getBoolean(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public byte getByte(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getByte(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public short getShort(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getShort(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public char getChar(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getChar(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public int getInt(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getInt(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public long getLong(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getLong(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public float getFloat(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getFloat(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public double getDouble(Object instance) {
+    if (!isGettable())
+      throw new UnsupportedOperationException();
+    try {
+      return getField().getDouble(instance);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
   @Override
   public void set(Object instance, Object value) {
     if (!isSettable())
@@ -90,6 +199,264 @@ public class BeanField implements BeanElement {
     }
   }
 
+  @Override
+  public void setBoolean(Object instance, boolean value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setBoolean(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setByte(Object instance, byte value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setByte(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setShort(Object instance, short value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setShort(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setChar(Object instance, char value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setChar(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setInt(Object instance, int value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setInt(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setLong(Object instance, long value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setLong(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setFloat(Object instance, float value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setFloat(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public void setDouble(Object instance, double value) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    try {
+      getField().setDouble(instance, value);
+    } catch (IllegalAccessException e) {
+      // We checked that this is public. This should never happen.
+      throw new AssertionError("field is not accessible", e);
+    }
+  }
+
+  /**
+   * Reads this field with the given memory ordering.
+   *
+   * @throws UnsupportedOperationException if this field is not public
+   * @throws IllegalArgumentException if the given instance is not of the correct type
+   */
+  public Object get(Object instance, AccessMode mode) {
+    return getAtomics(instance).get(instance, checkMode(mode));
+  }
+
+  /**
+   * Writes this field with the given memory ordering.
+   *
+   * @throws UnsupportedOperationException if this field is not public
+   * @throws IllegalArgumentException if either the given instance or the given value is not of the
+   *         correct type
+   */
+  public void set(Object instance, Object value, AccessMode mode) {
+    getAtomics(instance).set(instance, checkValue(value), checkMode(mode));
+  }
+
+  /**
+   * Atomically sets this field to the given value if its current value is the expected value, with
+   * volatile semantics. Primitive values are compared by value, and references by identity.
+   *
+   * @return true if the field was updated
+   * @throws UnsupportedOperationException if this field is not public, or this JVM cannot compare
+   *         and set fields of this type
+   * @throws IllegalArgumentException if the given instance or either value is not of the correct
+   *         type
+   */
+  public boolean compareAndSet(Object instance, Object expected, Object value) {
+    return compareAndSet(instance, expected, value, AccessMode.VOLATILE);
+  }
+
+  /**
+   * Atomically sets this field to the given value if its current value is the expected value, with
+   * the given memory ordering. Primitive values are compared by value, and references by identity.
+   * In {@link AccessMode#PLAIN} and {@link AccessMode#OPAQUE} modes, the update may fail spuriously
+   * even if the current value is the expected value, so callers should retry in a loop.
+   *
+   * @return true if the field was updated
+   * @throws UnsupportedOperationException if this field is not public, or this JVM cannot compare
+   *         and set fields of this type
+   * @throws IllegalArgumentException if the given instance or either value is not of the correct
+   *         type
+   */
+  public boolean compareAndSet(Object instance, Object expected, Object value, AccessMode mode) {
+    return getAtomics(instance).compareAndSet(instance, checkValue(expected), checkValue(value),
+        checkMode(mode));
+  }
+
+  /**
+   * Atomically sets this field to the given value, with volatile semantics.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public
+   * @throws IllegalArgumentException if either the given instance or the given value is not of the
+   *         correct type
+   */
+  public Object getAndSet(Object instance, Object value) {
+    return getAndSet(instance, value, AccessMode.VOLATILE);
+  }
+
+  /**
+   * Atomically sets this field to the given value, with the given memory ordering. There are no
+   * plain or opaque read-modify-write operations, so those modes are volatile.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public
+   * @throws IllegalArgumentException if either the given instance or the given value is not of the
+   *         correct type
+   */
+  public Object getAndSet(Object instance, Object value, AccessMode mode) {
+    return getAtomics(instance).getAndSet(instance, checkValue(value), checkMode(mode));
+  }
+
+  /**
+   * Atomically adds the given delta to this numeric field, with volatile semantics. The delta must
+   * have the field's wrapper type, e.g., {@link Long} for a {@code long} field.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public, or is not numeric
+   * @throws IllegalArgumentException if either the given instance or the given delta is not of the
+   *         correct type
+   */
+  public Object getAndAdd(Object instance, Object delta) {
+    return getAndAdd(instance, delta, AccessMode.VOLATILE);
+  }
+
+  /**
+   * Atomically adds the given delta to this numeric field, with the given memory ordering. There
+   * are no plain or opaque read-modify-write operations, so those modes are volatile.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public, or is not numeric
+   * @throws IllegalArgumentException if either the given instance or the given delta is not of the
+   *         correct type
+   */
+  public Object getAndAdd(Object instance, Object delta, AccessMode mode) {
+    if (delta == null)
+      throw new IllegalArgumentException("delta must not be null");
+    return getAtomics(instance).getAndAdd(instance, checkValue(delta), checkMode(mode));
+  }
+
+  /**
+   * Atomically replaces the value of this field with the result of the given function, with
+   * volatile semantics. The function may be called more than once under contention, so it should be
+   * free of side effects.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public, or this JVM cannot compare
+   *         and set fields of this type
+   * @throws IllegalArgumentException if either the given instance or a computed value is not of the
+   *         correct type
+   */
+  public Object getAndUpdate(Object instance, UnaryOperator<Object> updater) {
+    return getAndUpdate(instance, updater, AccessMode.VOLATILE);
+  }
+
+  /**
+   * Atomically replaces the value of this field with the result of the given function, with the
+   * given memory ordering. The function may be called more than once under contention, or after a
+   * spurious failure, so it should be free of side effects.
+   *
+   * @return the previous value
+   * @throws UnsupportedOperationException if this field is not public, or this JVM cannot compare
+   *         and set fields of this type
+   * @throws IllegalArgumentException if either the given instance or a computed value is not of the
+   *         correct type
+   */
+  public Object getAndUpdate(Object instance, UnaryOperator<Object> updater, AccessMode mode) {
+    return getAtomics(instance).getAndUpdate(instance, x -> checkValue(updater.apply(x)),
+        checkMode(mode));
+  }
+
+  private FieldAtomics getAtomics(Object instance) {
+    if (!isSettable())
+      throw new UnsupportedOperationException();
+    if (!getField().getDeclaringClass().isInstance(instance))
+      throw new IllegalArgumentException("instance is not of the correct type");
+
+    FieldAtomics result = atomics;
+    if (result == null)
+      atomics = result = FieldAtomics.forField(getField());
+
+    return result;
+  }
+
+  private static AccessMode checkMode(AccessMode mode) {
+    if (mode == null)
+      throw new NullPointerException();
+    return mode;
+  }
+
+  private Object checkValue(Object value) {
+    Class<?> type = getField().getType();
+    if (value == null ? type.isPrimitive() : !Reflection.wrap(type).isInstance(value))
+      throw new IllegalArgumentException("value is not of the correct type");
+    return value;
+  }
+
   public Field getField() {
     return field;
   }
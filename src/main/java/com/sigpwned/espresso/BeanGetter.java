@@ -20,9 +20,14 @@
 package com.sigpwned.espresso;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
@@ -33,17 +38,39 @@ import com.sigpwned.espresso.util.Beans;
  * A wrapper for a getter method that is part of the physical implementation of a logical property.
  */
 public class BeanGetter implements BeanElement {
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  /**
+   * Cached in place of the typed handle when this getter is not accessible through a public
+   * lookup, so we don't look it up again on every typed read
+   */
+  private static final MethodHandle NO_HANDLE = MethodHandles.constant(Object.class, null);
+
   private final Method method;
+  private final String name;
+  private volatile List<Annotation> annotations;
+  private volatile MethodHandle typedHandle;
 
   public BeanGetter(Method method) {
     if (!Beans.isBeanGetter(method))
       throw new IllegalArgumentException("not a getter method");
     this.method = method;
+    this.name = getterName(method.getName());
   }
 
-  @Override
-  public String getName() {
-    String methodName = getMethod().getName();
+  /**
+   * Creates a getter for an accessor that does not follow the bean naming convention, e.g., a
+   * record component accessor.
+   */
+  /* default */ BeanGetter(Method method, String name) {
+    if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+        || method.getReturnType().equals(void.class) || method.getParameterCount() != 0)
+      throw new IllegalArgumentException("not an accessor method");
+    this.method = method;
+    this.name = name;
+  }
+
+  private static String getterName(String methodName) {
     if (methodName.startsWith("get")) {
       return Character.toLowerCase(methodName.charAt(3))
           + methodName.substring(4, methodName.length());
@@ -52,18 +79,31 @@ public class BeanGetter implements BeanElement {
           + methodName.substring(3, methodName.length());
     } else {
       // I have no idea what this method name is.
-      throw new AssertionError("unrecognized getter name " + getName());
+      throw new AssertionError("unrecognized getter name " + methodName);
     }
   }
 
+  @Override
+  public String getName() {
+    return name;
+  }
+
   @Override
   public Type getGenericType() {
     return getMethod().getGenericReturnType();
   }
-  
+
+  @Override
+  public Class<?> getRawType() {
+    return getMethod().getReturnType();
+  }
+
   @Override
   public List<Annotation> getAnnotations() {
-    return asList(getMethod().getAnnotations());
+    List<Annotation> result = annotations;
+    if (result == null)
+      annotations = result = unmodifiableList(asList(getMethod().getAnnotations()));
+    return result;
   }
 
   @Override
@@ -74,13 +114,151 @@ public class BeanGetter implements BeanElement {
   @Override
   public Object get(Object instance) throws InvocationTargetException {
     try {
-      return getMethod().invoke(instance);
+      return getMethod().invoke(instance, NO_ARGUMENTS);
     } catch (IllegalAccessException e) {
       // We've ensured that the method is public. This should never happen.
       throw new AssertionError("getter is not accessible", e);
     }
   }
 
+  /**
+   * Returns a handle of type {@code (Object)R} for this getter, where {@code R} is its return type,
+   * or null if the getter is not accessible through a public lookup. Either way, the lookup only
+   * happens once.
+   */
+  private MethodHandle getTypedHandle() {
+    MethodHandle result = typedHandle;
+    if (result == null) {
+      try {
+        result = MethodHandles.publicLookup().unreflect(getMethod())
+            .asType(MethodType.methodType(getMethod().getReturnType(), Object.class));
+      } catch (IllegalAccessException e) {
+        result = NO_HANDLE;
+      }
+      typedHandle = result;
+    }
+    return result != NO_HANDLE ? result : null;
+  }
+
+  /**
+   * Returns the typed handle if this getter returns the given type and the instance is valid, or
+   * null if the caller should fall back to reflection.
+   */
+  private MethodHandle getTypedHandle(Object instance, Class<?> type) {
+    if (getMethod().getReturnType() != type)
+      return null;
+    if (instance == null)
+      throw new NullPointerException();
+    if (!getMethod().getDeclaringClass().isInstance(instance))
+      throw new IllegalArgumentException("object is not an instance of declaring class");
+    return getTypedHandle();
+  }
+
+  @Override
+  public boolean getBoolean(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, boolean.class);
+    if (handle == null)
+      return BeanElement.super.getBoolean(instance);
+    try {
+      return (boolean) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public byte getByte(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, byte.class);
+    if (handle == null)
+      return BeanElement.super.getByte(instance);
+    try {
+      return (byte) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public short getShort(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, short.class);
+    if (handle == null)
+      return BeanElement.super.getShort(instance);
+    try {
+      return (short) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public char getChar(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, char.class);
+    if (handle == null)
+      return BeanElement.super.getChar(instance);
+    try {
+      return (char) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public int getInt(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, int.class);
+    if (handle == null)
+      return BeanElement.super.getInt(instance);
+    try {
+      return (int) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public long getLong(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, long.class);
+    if (handle == null)
+      return BeanElement.super.getLong(instance);
+    try {
+      return (long) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public float getFloat(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, float.class);
+    if (handle == null)
+      return BeanElement.super.getFloat(instance);
+    try {
+      return (float) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public double getDouble(Object instance) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, double.class);
+    if (handle == null)
+      return BeanElement.super.getDouble(instance);
+    try {
+      return (double) handle.invokeExact(instance);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  /**
+   * Wraps an exception thrown through the typed handle like reflection wraps exceptions thrown by
+   * the getter. The typed accessors can't share more than this, since each must invoke the handle
+   * with its exact primitive type to avoid boxing.
+   */
+  private static InvocationTargetException invocationFailed(Throwable e) {
+    return new InvocationTargetException(e);
+  }
+
   public Method getMethod() {
     return method;
   }
@@ -23,6 +23,7 @@ import static java.lang.String.format;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Objects;
 import com.sigpwned.espresso.annotation.Generated;
+import com.sigpwned.espresso.convert.ConverterRegistry;
 
 /**
  * An instance of a {@link BeanClass}.
@@ -31,6 +32,8 @@ public class BeanInstance {
   public static BeanInstance wrap(Object instance) {
     if (instance == null)
       throw new NullPointerException();
+    if (instance instanceof DynamicBean)
+      return new BeanInstance(((DynamicBean) instance).getBeanClass(), instance);
     return new BeanInstance(BeanClass.scan(instance.getClass()), instance);
   }
 
@@ -67,13 +70,26 @@ public class BeanInstance {
         .orElseThrow(() -> new IllegalArgumentException(format("No such property %s", name))));
   }
 
+  /**
+   * Gets the value of the indexed property in this instance. This is the fastest way to read a
+   * property, since it skips both name lookup and the ownership check.
+   * 
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   * @throws IndexOutOfBoundsException if the index is negative or not less than the number of
+   *         properties
+   * @see BeanClass#get(int)
+   */
+  public Object get(int index) throws InvocationTargetException {
+    return getBeanClass().get(index).get(getInstance());
+  }
+
   /**
    * Gets the value of the given property in this instance.
    * 
    * @throws InvocationTargetException if the underlying getter throws an exception
    */
   public Object get(BeanProperty property) throws InvocationTargetException {
-    if (!property.getBeanClass().equals(getBeanClass()))
+    if (!isOwnProperty(property))
       throw new IllegalArgumentException(format("Given property belongs to %s, not %s",
           property.getBeanClass().getRawType(), getBeanClass().getRawType()));
     return property.get(getInstance());
@@ -89,18 +105,69 @@ public class BeanInstance {
         () -> new IllegalArgumentException(format("No such property %s", name))), value);
   }
 
+  /**
+   * Sets the value of the indexed property in this instance. This is the fastest way to write a
+   * property, since it skips both name lookup and the ownership check.
+   * 
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws IndexOutOfBoundsException if the index is negative or not less than the number of
+   *         properties
+   * @see BeanClass#get(int)
+   */
+  public void set(int index, Object value) throws InvocationTargetException {
+    getBeanClass().get(index).set(getInstance(), value);
+  }
+
   /**
    * Sets the value of the given property in this instance.
    * 
    * @throws InvocationTargetException if the underlying setter throws an exception
    */
   public void set(BeanProperty property, Object value) throws InvocationTargetException {
-    if (!property.getBeanClass().equals(getBeanClass()))
+    if (!isOwnProperty(property))
       throw new IllegalArgumentException(format("Given property belongs to %s, not %s",
           property.getBeanClass().getRawType(), getBeanClass().getRawType()));
     property.set(getInstance(), value);
   }
 
+  /**
+   * Sets the value of the named property in this instance, converting the value to the property's
+   * type if necessary.
+   * 
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @see BeanProperty#set(Object, Object, ConverterRegistry)
+   */
+  public void set(String name, Object value, ConverterRegistry converters)
+      throws InvocationTargetException {
+    set(getBeanClass().getProperty(name).orElseThrow(
+        () -> new IllegalArgumentException(format("No such property %s", name))), value,
+        converters);
+  }
+
+  /**
+   * Sets the value of the given property in this instance, converting the value to the property's
+   * type if necessary.
+   * 
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @see BeanProperty#set(Object, Object, ConverterRegistry)
+   */
+  public void set(BeanProperty property, Object value, ConverterRegistry converters)
+      throws InvocationTargetException {
+    if (!isOwnProperty(property))
+      throw new IllegalArgumentException(format("Given property belongs to %s, not %s",
+          property.getBeanClass().getRawType(), getBeanClass().getRawType()));
+    property.set(getInstance(), value, converters);
+  }
+
+  /**
+   * Scanned classes are cached, so the property's class is almost always identical to ours. Only
+   * fall back to equals if it isn't, e.g., because the cache evicted and rescanned our class.
+   */
+  private boolean isOwnProperty(BeanProperty property) {
+    return property.getBeanClass() == getBeanClass()
+        || property.getBeanClass().equals(getBeanClass());
+  }
+
   @Override
   @Generated
   public int hashCode() {
@@ -0,0 +1,211 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A pool of reusable instances of one {@link BeanClass}. Instances are reset to their
+ * {@link BeanProperty#getDefaultValue() default values} when they are released, so an acquired
+ * instance is indistinguishable from a newly-constructed one, as far as its properties go.
+ *
+ * <p>
+ * Default values are shared by all pooled instances, so they must be immutable. The exception is
+ * an empty collection or map, which is reset by clearing the instance's own collection or map in
+ * place, or by replacing it with a new empty one of the same class. Classes with any other mutable
+ * defaults cannot be pooled.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are not thread-safe. Use one pool per thread.
+ * </p>
+ *
+ * @see BeanClass#newPool(int)
+ */
+public class BeanPool {
+  private final BeanClass beanClass;
+  private final BeanProperty[] properties;
+  private final Object[] defaults;
+
+  /**
+   * For each property whose default is an empty collection or map, the public default constructor
+   * of the default's class, or null for all other properties
+   */
+  private final Constructor<?>[] emptyConstructors;
+
+  private final Object[] idle;
+  private int size;
+
+  /* default */ BeanPool(BeanClass beanClass, int capacity) throws InvocationTargetException {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity must not be negative");
+
+    this.beanClass = beanClass;
+    this.properties = beanClass.stream().toArray(BeanProperty[]::new);
+    this.defaults = beanClass.getDefaults();
+    this.emptyConstructors = new Constructor<?>[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      BeanProperty property = properties[i];
+      if (!property.isSettable())
+        throw new IllegalArgumentException(
+            format("Class %s property %s is not settable, so instances cannot be pooled",
+                beanClass.getRawType().getName(), property.getName()));
+      Object value = defaults[i];
+      if (isImmutable(value))
+        continue;
+      if (isEmptyContainer(value)) {
+        emptyConstructors[i] = getEmptyConstructor(beanClass, property, value);
+        continue;
+      }
+      throw new IllegalArgumentException(
+          format("Class %s property %s has mutable default value, so instances cannot be pooled",
+              beanClass.getRawType().getName(), property.getName()));
+    }
+
+    this.idle = new Object[capacity];
+    this.size = 0;
+  }
+
+  private static boolean isImmutable(Object value) {
+    if (value == null || value instanceof String || value instanceof Boolean
+        || value instanceof Character || value instanceof Enum || value instanceof Class
+        || value instanceof UUID || value instanceof BigInteger || value instanceof BigDecimal)
+      return true;
+    Class<?> type = value.getClass();
+    if (type.getName().startsWith("java.time."))
+      return true;
+    if (type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+        || type == Float.class || type == Double.class)
+      return true;
+    if (type.isArray() && Array.getLength(value) == 0)
+      return true;
+    return value == Collections.emptyList() || value == Collections.emptySet()
+        || value == Collections.emptyMap();
+  }
+
+  private static boolean isEmptyContainer(Object value) {
+    return (value instanceof Collection && ((Collection<?>) value).isEmpty())
+        || (value instanceof Map && ((Map<?, ?>) value).isEmpty());
+  }
+
+  private static Constructor<?> getEmptyConstructor(BeanClass beanClass, BeanProperty property,
+      Object value) {
+    Class<?> type = value.getClass();
+    try {
+      if (Modifier.isPublic(type.getModifiers()))
+        return type.getConstructor();
+    } catch (NoSuchMethodException e) {
+      // Fall through
+    }
+    throw new IllegalArgumentException(
+        format("Class %s property %s default of type %s cannot be recreated, so cannot be pooled",
+            beanClass.getRawType().getName(), property.getName(), type.getName()));
+  }
+
+  /**
+   * The class of the instances in this pool
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * The maximum number of idle instances this pool will hold
+   */
+  public int getCapacity() {
+    return idle.length;
+  }
+
+  /**
+   * The number of idle instances this pool currently holds
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns an idle instance from this pool, or a new instance if the pool is empty.
+   *
+   * @throws InvocationTargetException if the constructor throws an exception
+   */
+  public Object acquire() throws InvocationTargetException {
+    if (size == 0)
+      return beanClass.newRawInstance();
+    Object result = idle[--size];
+    idle[size] = null;
+    return result;
+  }
+
+  /**
+   * Resets the given instance to default values and returns it to this pool. If the pool is full,
+   * then the instance is discarded instead. Callers must not use the instance afterwards.
+   *
+   * @throws IllegalArgumentException if the instance is not of this pool's class
+   * @throws InvocationTargetException if a setter throws an exception
+   */
+  public void release(Object instance) throws InvocationTargetException {
+    if (!beanClass.isInstance(instance))
+      throw new IllegalArgumentException(
+          format("Object is not an instance of class %s", beanClass.getRawType().getName()));
+    if (size == idle.length)
+      return;
+    reset(instance);
+    idle[size++] = instance;
+  }
+
+  private void reset(Object instance) throws InvocationTargetException {
+    for (int i = 0; i < properties.length; i++) {
+      Constructor<?> emptyConstructor = emptyConstructors[i];
+      if (emptyConstructor == null) {
+        properties[i].set(instance, defaults[i]);
+      } else {
+        Object value = properties[i].get(instance);
+        if (value != null && value.getClass() == emptyConstructor.getDeclaringClass()) {
+          if (value instanceof Collection)
+            ((Collection<?>) value).clear();
+          else
+            ((Map<?, ?>) value).clear();
+        } else {
+          properties[i].set(instance, newEmptyContainer(emptyConstructor));
+        }
+      }
+    }
+  }
+
+  private static Object newEmptyContainer(Constructor<?> constructor)
+      throws InvocationTargetException {
+    try {
+      return constructor.newInstance();
+    } catch (InstantiationException | IllegalAccessException e) {
+      // We checked that the class and constructor are public. This should never happen.
+      throw new AssertionError("could not create empty container", e);
+    }
+  }
+}
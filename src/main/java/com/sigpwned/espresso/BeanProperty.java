@@ -19,62 +19,171 @@
  */
 package com.sigpwned.espresso;
 
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
-import static java.util.stream.Collectors.toList;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import com.sigpwned.espresso.annotation.Generated;
+import com.sigpwned.espresso.convert.Converter;
+import com.sigpwned.espresso.convert.ConverterRegistry;
+import com.sigpwned.espresso.metrics.EspressoMetrics;
+import com.sigpwned.espresso.util.Reflection;
 
 /**
  * A model object and accessor for a logical property
  */
 public class BeanProperty {
+  /**
+   * The start time of an access that is counted but not timed. {@link System#nanoTime()} can
+   * return any value, but not this one in practice.
+   */
+  private static final long UNTIMED = Long.MIN_VALUE;
+
   private final BeanClass beanClass;
-  private final List<BeanElement> elements;
+  private final BeanElement[] elements;
+  private final String name;
+  private volatile BeanElement reader;
+  private volatile BeanElement writer;
+  private volatile ResolvedType resolvedType;
+  private volatile List<Annotation> annotations;
+  private volatile ConversionCache[] conversionCache;
+  private int index;
+
+  /**
+   * True while this property is counting its accesses towards compilation. It starts set, and the
+   * first access clears it if compilation is disabled, so the compile threshold is read when the
+   * property is used rather than when it is scanned, e.g., at native image build time. It is only
+   * ever cleared, so racy updates to {@link #accesses} cannot restart counting once this property
+   * has been queued. Threads that cross the threshold together may queue it twice, which is
+   * harmless.
+   */
+  private boolean profiling;
+
+  /**
+   * The number of times this property has been accessed while profiling. Updates are racy, since
+   * an occasional lost update only delays compilation.
+   */
+  private int accesses;
 
   /* default */ BeanProperty(BeanClass beanClass, BeanField field, BeanGetter getter,
       BeanSetter setter) {
+    this(beanClass, field, getter, setter, false, null);
+  }
+
+  /**
+   * @param created true if this property is assigned by its class's creator constructor, in which
+   *        case it does not need to be settable
+   * @param genericType the type of this property resolved against its class, if the caller has
+   *        already checked that all elements agree on it, or null to resolve and check the type
+   *        when it is first needed
+   */
+  /* default */ BeanProperty(BeanClass beanClass, BeanField field, BeanGetter getter,
+      BeanSetter setter, boolean created, Type genericType) {
+    this(beanClass, elements(field, getter, setter), created, genericType);
+  }
+
+  /**
+   * Creates a property backed by a single element that can both read and write it, e.g., a slot
+   * of a {@link DynamicBean}.
+   */
+  /* default */ BeanProperty(BeanClass beanClass, BeanElement element, Type genericType) {
+    this(beanClass, new BeanElement[] {element}, false, genericType);
+  }
+
+  private BeanProperty(BeanClass beanClass, BeanElement[] elements, boolean created,
+      Type genericType) {
     this.beanClass = beanClass;
+    this.elements = elements;
+
+    // We should be gettable. Resolve the preferred reader once, up front.
+    this.reader = findElement(elements, true);
+    if (reader == null)
+      throw new IllegalArgumentException("not gettable");
 
+    // We should be settable, unless the creator sets us. Resolve the preferred writer once.
+    this.writer = findElement(elements, false);
+    if (writer == null && !created)
+      throw new IllegalArgumentException("not settable");
+
+    // All the element names have to match exactly
+    this.name = elements[0].getName();
+    for (int i = 1; i < elements.length; i++)
+      if (!elements[i].getName().equals(name))
+        throw new IllegalArgumentException(
+            format("names mismatch: [%s, %s]", name, elements[i].getName()));
+
+    if (genericType != null)
+      this.resolvedType = new ResolvedType(genericType);
+
+    this.profiling = true;
+  }
+
+  private static BeanElement[] elements(BeanField field, BeanGetter getter, BeanSetter setter) {
     // We should prefer a getter or setter when present, so make sure those are first in the list.
-    List<BeanElement> elements = new ArrayList<>(3);
-    if (getter != null)
-      elements.add(getter);
-    if (setter != null)
-      elements.add(setter);
-    if (field != null)
-      elements.add(field);
+    int size = (getter != null ? 1 : 0) + (setter != null ? 1 : 0) + (field != null ? 1 : 0);
 
     // We have to have at least one element
-    if (elements.isEmpty())
+    if (size == 0)
       throw new IllegalArgumentException("no field, getter, or setter");
 
-    // Store our elements
-    this.elements = unmodifiableList(elements);
+    BeanElement[] result = new BeanElement[size];
+    int count = 0;
+    if (getter != null)
+      result[count++] = getter;
+    if (setter != null)
+      result[count++] = setter;
+    if (field != null)
+      result[count++] = field;
+    return result;
+  }
 
-    // We should be gettable
-    if (getElements().stream().noneMatch(BeanElement::isGettable))
-      throw new IllegalArgumentException("not gettable");
+  private static BeanElement findElement(BeanElement[] elements, boolean gettable) {
+    for (BeanElement element : elements)
+      if (gettable ? element.isGettable() : element.isSettable())
+        return element;
+    return null;
+  }
 
-    // We should be settable
-    if (getElements().stream().noneMatch(BeanElement::isSettable))
-      throw new IllegalArgumentException("not settable");
+  /**
+   * The type of this property and its erasures. Instances are immutable, so they can be published
+   * through a volatile field without locking.
+   */
+  private static final class ResolvedType {
+    private final Type genericType;
+    private final Class<?> rawType;
+    private final Class<?> boxedType;
 
-    // All the element names have to match exactly
-    List<String> names =
-        getElements().stream().map(BeanElement::getName).distinct().collect(toList());
-    if (names.size() > 1)
-      throw new IllegalArgumentException("names mismatch: " + names);
+    public ResolvedType(Type genericType) {
+      this.genericType = genericType;
+      this.rawType = Reflection.getRawType(genericType);
+      this.boxedType = Reflection.wrap(rawType);
+    }
+  }
+
+  private ResolvedType getResolvedType() {
+    ResolvedType result = resolvedType;
+    if (result == null)
+      resolvedType = result = resolveType();
+    return result;
+  }
 
-    // All of the types have to match exactly
-    List<Type> genericTypes =
-        getElements().stream().map(BeanElement::getGenericType).distinct().collect(toList());
-    if (genericTypes.size() > 1)
-      throw new IllegalArgumentException("types mismatch: " + genericTypes);
+  private ResolvedType resolveType() {
+    // All of the types have to match exactly, once resolved against our class
+    Type genericType = beanClass.resolveType(elements[0].getGenericType());
+    for (int i = 1; i < elements.length; i++) {
+      Type elementType = beanClass.resolveType(elements[i].getGenericType());
+      if (!elementType.equals(genericType))
+        throw new IllegalStateException(format("Property %s of class %s has conflicting types %s",
+            name, beanClass.getRawType().getName(), asList(genericType, elementType)));
+    }
+    return new ResolvedType(genericType);
   }
 
   /**
@@ -82,15 +191,38 @@ public class BeanProperty {
    * field.
    */
   public String getName() {
-    return getAnyElement().getName();
+    return name;
+  }
+
+  /**
+   * The index of this property in its {@link BeanClass}. Properties are indexed in order of name,
+   * so the index is stable for a given class definition.
+   *
+   * @see BeanClass#get(int)
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /* default */ void setIndex(int index) {
+    this.index = index;
   }
 
   /**
    * The type of this property. Note that this type must match across all field, getter, and setter
-   * elements that are defined for this property.
+   * elements that are defined for this property. Type variables bound by the scanned class are
+   * resolved, so a property declared as {@code T} in {@code Base<T>} has type {@code String} in
+   * {@code Foo extends Base<String>}.
    */
   public Type getGenericType() {
-    return getAnyElement().getGenericType();
+    return getResolvedType().genericType;
+  }
+
+  /**
+   * The erasure of {@link #getGenericType()}.
+   */
+  public Class<?> getRawType() {
+    return getResolvedType().rawType;
   }
 
   /**
@@ -100,7 +232,58 @@ public class BeanProperty {
    * will appear relative to the other elements.
    */
   public List<Annotation> getAnnotations() {
-    return getElements().stream().flatMap(e -> e.getAnnotations().stream()).collect(toList());
+    List<Annotation> result = annotations;
+    if (result == null) {
+      List<Annotation> merged = new ArrayList<>();
+      for (BeanElement element : elements)
+        merged.addAll(element.getAnnotations());
+      annotations = result = unmodifiableList(merged);
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if any field, getter, or setter that comprises this property carries an annotation
+   * of the given type.
+   */
+  public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+    for (Annotation annotation : getAnnotations())
+      if (annotation.annotationType() == annotationType)
+        return true;
+    return false;
+  }
+
+  /**
+   * Returns the field that backs this property, if any. The field supports atomic operations.
+   *
+   * @see BeanField#compareAndSet(Object, Object, Object)
+   */
+  public Optional<BeanField> getField() {
+    for (BeanElement element : elements)
+      if (element instanceof BeanField)
+        return Optional.of((BeanField) element);
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the value of this property in a newly-constructed instance of its class. The defaults
+   * of all properties are read from one fresh instance the first time any of them is needed.
+   *
+   * @throws UnsupportedOperationException if this property's class has no default constructor
+   * @throws InvocationTargetException if a getter throws an exception while reading defaults
+   */
+  public Object getDefaultValue() throws InvocationTargetException {
+    return beanClass.getDefaults()[index];
+  }
+
+  /**
+   * Returns true if this property can be assigned on an existing instance. Properties of immutable
+   * beans are assigned only by the class's creator, and are not settable.
+   *
+   * @see BeanClass#getCreatorProperties()
+   */
+  public boolean isSettable() {
+    return writer != null;
   }
 
   /**
@@ -111,8 +294,266 @@ public class BeanProperty {
    * @throws IllegalArgumentException if the given instance is not of the correct type
    */
   public Object get(Object instance) throws InvocationTargetException {
-    return getElements().stream().filter(BeanElement::isGettable).findFirst()
-        .orElseThrow(() -> new AssertionError("not gettable")).get(instance);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().get(instance);
+
+    Object result;
+    long start = readStarted();
+    try {
+      result = getReader().get(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code boolean} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code boolean}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public boolean getBoolean(Object instance) throws InvocationTargetException {
+    checkType(boolean.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getBoolean(instance);
+
+    boolean result;
+    long start = readStarted();
+    try {
+      result = getReader().getBoolean(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code byte} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code byte}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public byte getByte(Object instance) throws InvocationTargetException {
+    checkType(byte.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getByte(instance);
+
+    byte result;
+    long start = readStarted();
+    try {
+      result = getReader().getByte(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code short} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code short}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public short getShort(Object instance) throws InvocationTargetException {
+    checkType(short.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getShort(instance);
+
+    short result;
+    long start = readStarted();
+    try {
+      result = getReader().getShort(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code char} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code char}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public char getChar(Object instance) throws InvocationTargetException {
+    checkType(char.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getChar(instance);
+
+    char result;
+    long start = readStarted();
+    try {
+      result = getReader().getChar(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code int} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code int}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public int getInt(Object instance) throws InvocationTargetException {
+    checkType(int.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getInt(instance);
+
+    int result;
+    long start = readStarted();
+    try {
+      result = getReader().getInt(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code long} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code long}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public long getLong(Object instance) throws InvocationTargetException {
+    checkType(long.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getLong(instance);
+
+    long result;
+    long start = readStarted();
+    try {
+      result = getReader().getLong(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code float} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code float}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public float getFloat(Object instance) throws InvocationTargetException {
+    checkType(float.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getFloat(instance);
+
+    float result;
+    long start = readStarted();
+    try {
+      result = getReader().getFloat(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Reads the value of this {@code double} property from the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code double}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a getter is invoked and it generates an exception
+   */
+  public double getDouble(Object instance) throws InvocationTargetException {
+    checkType(double.class);
+    if (!EspressoMetrics.isInstrumented())
+      return getReader().getDouble(instance);
+
+    double result;
+    long start = readStarted();
+    try {
+      result = getReader().getDouble(instance);
+    } catch (InvocationTargetException e) {
+      readFailed(start, e);
+      throw e;
+    }
+    readFinished(start);
+
+    return result;
+  }
+
+  /**
+   * Returns the start time of an instrumented read, or {@link #UNTIMED} if only the built-in
+   * collector is listening, since it counts accesses without timing them
+   */
+  private long readStarted() {
+    return EspressoMetrics.isTimed() ? System.nanoTime() : UNTIMED;
+  }
+
+  private void readFinished(long start) {
+    if (start == UNTIMED)
+      beanClass.getPropertyReadCounter().increment();
+    else
+      EspressoMetrics.propertyRead(this, System.nanoTime() - start);
+  }
+
+  private void readFailed(long start, InvocationTargetException e) {
+    if (start != UNTIMED)
+      EspressoMetrics.propertyReadFailed(this, System.nanoTime() - start, e);
+  }
+
+  /**
+   * Returns the start time of an instrumented write, or {@link #UNTIMED} if only the built-in
+   * collector is listening
+   */
+  private long writeStarted() {
+    return EspressoMetrics.isTimed() ? System.nanoTime() : UNTIMED;
+  }
+
+  private void writeFinished(long start) {
+    if (start == UNTIMED)
+      beanClass.getPropertyWriteCounter().increment();
+    else
+      EspressoMetrics.propertyWritten(this, System.nanoTime() - start);
+  }
+
+  private void writeFailed(long start, InvocationTargetException e) {
+    if (start != UNTIMED)
+      EspressoMetrics.propertyWriteFailed(this, System.nanoTime() - start, e);
+  }
+
+  private void checkType(Class<?> type) {
+    if (getRawType() != type)
+      throw new IllegalArgumentException(
+          format("property %s is not of type %s", getName(), type.getName()));
   }
 
   /**
@@ -122,34 +563,401 @@ public class BeanProperty {
    * @throws InvocationTargetException if a setter is invoked and it generates an exception
    * @throws IllegalArgumentException if either the given instance or the given value is not of the
    *         correct type
+   * @throws UnsupportedOperationException if this property is not settable
    */
   public void set(Object instance, Object value) throws InvocationTargetException {
-    getElements().stream().filter(BeanElement::isSettable).findFirst()
-        .orElseThrow(() -> new AssertionError("not settable")).set(instance, value);
+    checkSettable();
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().set(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().set(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code boolean} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code boolean}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setBoolean(Object instance, boolean value) throws InvocationTargetException {
+    checkSettable();
+    checkType(boolean.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setBoolean(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setBoolean(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
   }
 
-  private BeanElement getAnyElement() {
-    return getElements().get(0);
+  /**
+   * Assigns the value of this {@code byte} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code byte}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setByte(Object instance, byte value) throws InvocationTargetException {
+    checkSettable();
+    checkType(byte.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setByte(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setByte(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
   }
 
   /**
-   * @return the beanClass
+   * Assigns the value of this {@code short} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code short}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
    */
-  public BeanClass getBeanClass() {
-    return beanClass;
+  public void setShort(Object instance, short value) throws InvocationTargetException {
+    checkSettable();
+    checkType(short.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setShort(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setShort(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code char} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code char}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setChar(Object instance, char value) throws InvocationTargetException {
+    checkSettable();
+    checkType(char.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setChar(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setChar(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code int} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code int}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setInt(Object instance, int value) throws InvocationTargetException {
+    checkSettable();
+    checkType(int.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setInt(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setInt(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code long} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code long}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setLong(Object instance, long value) throws InvocationTargetException {
+    checkSettable();
+    checkType(long.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setLong(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setLong(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code float} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code float}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setFloat(Object instance, float value) throws InvocationTargetException {
+    checkSettable();
+    checkType(float.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setFloat(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setFloat(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  /**
+   * Assigns the value of this {@code double} property to the given instance without boxing.
+   *
+   * @throws IllegalArgumentException if this property is not of type {@code double}, or the given
+   *         instance is not of the correct type
+   * @throws InvocationTargetException if a setter is invoked and it generates an exception
+   * @throws UnsupportedOperationException if this property is not settable
+   */
+  public void setDouble(Object instance, double value) throws InvocationTargetException {
+    checkSettable();
+    checkType(double.class);
+
+    if (!EspressoMetrics.isInstrumented()) {
+      getWriter().setDouble(instance, value);
+      return;
+    }
+
+    long start = writeStarted();
+    try {
+      getWriter().setDouble(instance, value);
+    } catch (InvocationTargetException e) {
+      writeFailed(start, e);
+      throw e;
+    }
+    writeFinished(start);
+  }
+
+  private void checkSettable() {
+    if (writer == null)
+      throw new UnsupportedOperationException(format("property %s is read-only", getName()));
+  }
+
+  /**
+   * Assigns the value of this property to the given instance like {@link #set(Object, Object)},
+   * but first converts the value to this property's raw type using the given registry if it is not
+   * already an instance of that type. The converters for the most recent few source classes are
+   * cached on this property, so repeatedly setting values of the same classes does not consult the
+   * registry.
+   *
+   * @throws IllegalArgumentException if the value cannot be converted
+   * @see ConverterRegistry
+   */
+  public void set(Object instance, Object value, ConverterRegistry converters)
+      throws InvocationTargetException {
+    set(instance, convert(value, converters));
+  }
+
+  private Object convert(Object value, ConverterRegistry converters) {
+    ResolvedType type = getResolvedType();
+    if (value == null || type.boxedType.isInstance(value))
+      return value;
+
+    Class<?> source = value.getClass();
+
+    ConversionCache cache = null;
+    ConversionCache[] caches = conversionCache;
+    if (caches != null) {
+      int version = converters.getVersion();
+      for (int i = 0; i < caches.length; i++) {
+        ConversionCache c = caches[i];
+        if (c.source == source && c.converters == converters && c.version == version) {
+          cache = c;
+          break;
+        }
+      }
+    }
+
+    if (cache == null) {
+      // Read the version first, so a concurrent registration will invalidate what we find
+      int version = converters.getVersion();
+      Converter<Object, Object> converter = converters.find(source, type.rawType)
+          .orElseThrow(() -> new IllegalArgumentException(
+              format("No converter from %s to %s for property %s", source.getName(),
+                  type.rawType.getName(), getName())));
+      cache = new ConversionCache(converters, version, source, converter);
+
+      // Put the new entry first, and drop entries for other registries or older versions, which
+      // can never hit again. Once the cache is full, the least recently added entry falls off.
+      ConversionCache[] updated = new ConversionCache[MAX_CONVERSION_POLYMORPHISM];
+      updated[0] = cache;
+      int size = 1;
+      if (caches != null)
+        for (int i = 0; i < caches.length && size < MAX_CONVERSION_POLYMORPHISM; i++)
+          if (caches[i].converters == converters && caches[i].version == version
+              && caches[i].source != source)
+            updated[size++] = caches[i];
+      conversionCache = size == updated.length ? updated : Arrays.copyOf(updated, size);
+    }
+
+    try {
+      return cache.converter.convert(value);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException(
+          format("Could not convert %s to %s for property %s", source.getName(),
+              type.rawType.getName(), getName()),
+          e);
+    }
+  }
+
+  /**
+   * The most source classes whose converters are cached at once
+   */
+  private static final int MAX_CONVERSION_POLYMORPHISM = 4;
+
+  /**
+   * A polymorphic inline cache entry for {@link #set(Object, Object, ConverterRegistry)}. Entries
+   * are immutable and the array that holds them is replaced rather than modified, so they can be
+   * swapped in and out of a volatile field without locking.
+   */
+  private static final class ConversionCache {
+    private final ConverterRegistry converters;
+    private final int version;
+    private final Class<?> source;
+    private final Converter<Object, Object> converter;
+
+    public ConversionCache(ConverterRegistry converters, int version, Class<?> source,
+        Converter<Object, Object> converter) {
+      this.converters = converters;
+      this.version = version;
+      this.source = source;
+      this.converter = converter;
+    }
+  }
+
+  private BeanElement getReader() {
+    if (profiling)
+      profile();
+    return reader;
+  }
+
+  private BeanElement getWriter() {
+    if (profiling)
+      profile();
+    return writer;
+  }
+
+  private void profile() {
+    int threshold = AccessorCompiler.getThreshold();
+    if (threshold == 0) {
+      profiling = false;
+      return;
+    }
+    int count = accesses + 1;
+    accesses = count;
+    if (count > threshold) {
+      profiling = false;
+      AccessorCompiler.schedule(this);
+    }
+  }
+
+  /**
+   * Replaces this property's reflective reader and writer with compiled ones. Callers that are
+   * already using the old reader or writer finish with it, and later calls use the new ones.
+   */
+  /* default */ void compile() {
+    profiling = false;
+    BeanElement reader = this.reader;
+    if (!(reader instanceof MethodHandleElement))
+      this.reader = AccessorCompiler.compileReader(reader);
+    BeanElement writer = this.writer;
+    if (writer != null && !(writer instanceof MethodHandleElement))
+      this.writer = AccessorCompiler.compileWriter(writer);
   }
 
   /**
-   * @return the elements
+   * Returns true if this property has been compiled
    */
-  private List<BeanElement> getElements() {
-    return elements;
+  /* default */ boolean isCompiled() {
+    return reader instanceof MethodHandleElement;
+  }
+
+  /**
+   * @return the beanClass
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
   }
 
   @Override
   @Generated
   public int hashCode() {
-    return Objects.hash(beanClass, elements);
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + Arrays.hashCode(elements);
+    result = prime * result + Objects.hash(beanClass);
+    return result;
   }
 
   @Override
@@ -162,12 +970,12 @@ public class BeanProperty {
     if (getClass() != obj.getClass())
       return false;
     BeanProperty other = (BeanProperty) obj;
-    return Objects.equals(beanClass, other.beanClass) && Objects.equals(elements, other.elements);
+    return Objects.equals(beanClass, other.beanClass) && Arrays.equals(elements, other.elements);
   }
 
   @Override
   @Generated
   public String toString() {
-    return "BeanProperty [beanClass=" + beanClass + ", elements=" + elements + "]";
+    return "BeanProperty [beanClass=" + beanClass + ", elements=" + Arrays.toString(elements) + "]";
   }
 }
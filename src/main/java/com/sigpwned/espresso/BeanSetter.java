@@ -20,7 +20,11 @@
 package com.sigpwned.espresso;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -33,12 +37,28 @@ import com.sigpwned.espresso.util.Beans;
  * A wrapper for a setter method that is part of the physical implementation of a logical property.
  */
 public class BeanSetter implements BeanElement {
-  private final Method method;  
+  /**
+   * Cached in place of the typed handle when this setter is not accessible through a public
+   * lookup, so we don't look it up again on every typed write
+   */
+  private static final MethodHandle NO_HANDLE = MethodHandles.constant(Object.class, null);
+
+  private final Method method;
+
+  /**
+   * The parameter type of the setter. {@link Method#getParameterTypes()} copies its array on every
+   * call, so we look it up once.
+   */
+  private final Class<?> parameterType;
+
+  private volatile List<Annotation> annotations;
+  private volatile MethodHandle typedHandle;
 
   public BeanSetter(Method method) {
     if (!Beans.isBeanSetter(method))
       throw new IllegalArgumentException("not a setter method");
     this.method = method;
+    this.parameterType = method.getParameterTypes()[0];
   }
 
   @Override
@@ -47,10 +67,13 @@ public class BeanSetter implements BeanElement {
     return Character.toLowerCase(methodName.charAt(3))
         + methodName.substring(4, methodName.length());
   }
-  
+
   @Override
   public List<Annotation> getAnnotations() {
-    return asList(getMethod().getAnnotations());
+    List<Annotation> result = annotations;
+    if (result == null)
+      annotations = result = unmodifiableList(asList(getMethod().getAnnotations()));
+    return result;
   }
 
   @Override
@@ -58,6 +81,11 @@ public class BeanSetter implements BeanElement {
     return getMethod().getGenericParameterTypes()[0];
   }
 
+  @Override
+  public Class<?> getRawType() {
+    return parameterType;
+  }
+
   @Override
   public boolean isSettable() {
     return true;
@@ -73,6 +101,160 @@ public class BeanSetter implements BeanElement {
     }
   }
 
+  /**
+   * Returns a handle of type {@code (Object,P)void} for this setter, where {@code P} is its
+   * parameter type, or null if the setter is not accessible through a public lookup. Either way,
+   * the lookup only happens once.
+   */
+  private MethodHandle getTypedHandle() {
+    MethodHandle result = typedHandle;
+    if (result == null) {
+      try {
+        result = MethodHandles.publicLookup().unreflect(getMethod()).asType(
+            MethodType.methodType(void.class, Object.class, parameterType));
+      } catch (IllegalAccessException e) {
+        result = NO_HANDLE;
+      }
+      typedHandle = result;
+    }
+    return result != NO_HANDLE ? result : null;
+  }
+
+  /**
+   * Returns the typed handle if this setter accepts the given type and the instance is valid, or
+   * null if the caller should fall back to reflection.
+   */
+  private MethodHandle getTypedHandle(Object instance, Class<?> type) {
+    if (parameterType != type)
+      return null;
+    if (instance == null)
+      throw new NullPointerException();
+    if (!getMethod().getDeclaringClass().isInstance(instance))
+      throw new IllegalArgumentException("object is not an instance of declaring class");
+    return getTypedHandle();
+  }
+
+  @Override
+  public void setBoolean(Object instance, boolean value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, boolean.class);
+    if (handle == null) {
+      BeanElement.super.setBoolean(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setByte(Object instance, byte value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, byte.class);
+    if (handle == null) {
+      BeanElement.super.setByte(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setShort(Object instance, short value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, short.class);
+    if (handle == null) {
+      BeanElement.super.setShort(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setChar(Object instance, char value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, char.class);
+    if (handle == null) {
+      BeanElement.super.setChar(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setInt(Object instance, int value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, int.class);
+    if (handle == null) {
+      BeanElement.super.setInt(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setLong(Object instance, long value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, long.class);
+    if (handle == null) {
+      BeanElement.super.setLong(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setFloat(Object instance, float value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, float.class);
+    if (handle == null) {
+      BeanElement.super.setFloat(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  @Override
+  public void setDouble(Object instance, double value) throws InvocationTargetException {
+    MethodHandle handle = getTypedHandle(instance, double.class);
+    if (handle == null) {
+      BeanElement.super.setDouble(instance, value);
+      return;
+    }
+    try {
+      handle.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw invocationFailed(e);
+    }
+  }
+
+  /**
+   * Wraps an exception thrown through the typed handle like reflection wraps exceptions thrown by
+   * the setter. The typed accessors can't share more than this, since each must invoke the handle
+   * with its exact primitive type to avoid boxing.
+   */
+  private static InvocationTargetException invocationFailed(Throwable e) {
+    return new InvocationTargetException(e);
+  }
+
   public Method getMethod() {
     return method;
   }
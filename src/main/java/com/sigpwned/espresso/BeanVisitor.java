@@ -0,0 +1,67 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+/**
+ * Receives the property values of a bean from {@link BeanClass#accept(Object, BeanVisitor)}, one
+ * callback per property in ordinal order. Primitive properties are delivered to the typed callback
+ * for their type without boxing. Every other property, including boxed primitives, is delivered to
+ * {@link #visitObject(BeanProperty, Object)}.
+ *
+ * <p>
+ * The typed callbacks box their value and pass it to {@code visitObject} by default, so visitors
+ * only need to override the callbacks they care about.
+ * </p>
+ */
+public interface BeanVisitor {
+  public void visitObject(BeanProperty property, Object value);
+
+  default void visitBoolean(BeanProperty property, boolean value) {
+    visitObject(property, value);
+  }
+
+  default void visitByte(BeanProperty property, byte value) {
+    visitObject(property, value);
+  }
+
+  default void visitShort(BeanProperty property, short value) {
+    visitObject(property, value);
+  }
+
+  default void visitChar(BeanProperty property, char value) {
+    visitObject(property, value);
+  }
+
+  default void visitInt(BeanProperty property, int value) {
+    visitObject(property, value);
+  }
+
+  default void visitLong(BeanProperty property, long value) {
+    visitObject(property, value);
+  }
+
+  default void visitFloat(BeanProperty property, float value) {
+    visitObject(property, value);
+  }
+
+  default void visitDouble(BeanProperty property, double value) {
+    visitObject(property, value);
+  }
+}
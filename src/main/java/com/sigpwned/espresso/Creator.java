@@ -0,0 +1,221 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.Collections.unmodifiableList;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A pre-bound creator constructor for a {@link BeanClass}. The constructor is compiled once into
+ * method handles that read its arguments directly out of arrays indexed by property ordinal, so
+ * creating an instance does not allocate an arguments array or box primitive values.
+ */
+/* default */ final class Creator {
+  private static final MethodHandle LONG_TO_FLOAT;
+  private static final MethodHandle LONG_TO_DOUBLE;
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      LONG_TO_FLOAT =
+          lookup.findStatic(Creator.class, "longToFloat", methodType(float.class, long.class));
+      LONG_TO_DOUBLE =
+          lookup.findStatic(Creator.class, "longToDouble", methodType(double.class, long.class));
+    } catch (ReflectiveOperationException e) {
+      // These are our own methods. This should never happen.
+      throw new AssertionError("failed to find slot conversions", e);
+    }
+  }
+
+  private static float longToFloat(long bits) {
+    return Float.intBitsToFloat((int) bits);
+  }
+
+  private static double longToDouble(long bits) {
+    return Double.longBitsToDouble(bits);
+  }
+
+  private final Constructor<?> constructor;
+  private final List<BeanProperty> properties;
+  private final int[] ordinals;
+  private final Class<?>[] parameterTypes;
+  private final boolean[] created;
+
+  /**
+   * (Object[] values) -> Object, where values is indexed by property ordinal
+   */
+  private final MethodHandle fromValues;
+
+  /**
+   * (long[] primitives, Object[] references) -> Object, where both arrays are indexed by property
+   * ordinal, and primitive values are stored as in {@link BeanBuilder}
+   */
+  private final MethodHandle fromSlots;
+
+  /* default */ Creator(BeanClass beanClass, Constructor<?> constructor, List<String> names) {
+    Class<?> rawType = beanClass.getRawType();
+
+    Type[] genericParameterTypes = constructor.getGenericParameterTypes();
+    if (genericParameterTypes.length != names.size())
+      throw new IllegalArgumentException(
+          format("Class %s creator has %d parameters, but %d names", rawType.getName(),
+              genericParameterTypes.length, names.size()));
+
+    int count = names.size();
+    List<BeanProperty> properties = new ArrayList<>(count);
+    int[] ordinals = new int[count];
+    boolean[] created = new boolean[beanClass.size()];
+    for (int i = 0; i < count; i++) {
+      String name = names.get(i);
+
+      int ordinal = beanClass.findPropertyIndex(name);
+      if (ordinal == -1)
+        throw new IllegalArgumentException(format(
+            "Class %s creator parameter %s is not a gettable property", rawType.getName(), name));
+      if (created[ordinal])
+        throw new IllegalArgumentException(
+            format("Class %s creator parameter %s appears twice", rawType.getName(), name));
+
+      BeanProperty property = beanClass.get(ordinal);
+      if (!property.getGenericType().equals(beanClass.resolveType(genericParameterTypes[i])))
+        throw new IllegalArgumentException(
+            format("Class %s creator parameter %s has type %s, but property has type %s",
+                rawType.getName(), name, genericParameterTypes[i], property.getGenericType()));
+
+      properties.add(property);
+      ordinals[i] = ordinal;
+      created[ordinal] = true;
+    }
+
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup().unreflectConstructor(constructor);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException(
+          format("Class %s creator could not be accessed", rawType.getName()), e);
+    }
+
+    Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+    MethodHandle objectElement = MethodHandles.arrayElementGetter(Object[].class);
+    MethodHandle longElement = MethodHandles.arrayElementGetter(long[].class);
+
+    MethodHandle[] valueGetters = new MethodHandle[count];
+    MethodHandle[] slotGetters = new MethodHandle[count];
+    int[] slotReorder = new int[count];
+    for (int i = 0; i < count; i++) {
+      Class<?> parameterType = parameterTypes[i];
+
+      valueGetters[i] = MethodHandles.insertArguments(objectElement, 1, ordinals[i])
+          .asType(methodType(parameterType, Object[].class));
+
+      if (parameterType.isPrimitive()) {
+        MethodHandle slot = MethodHandles.insertArguments(longElement, 1, ordinals[i]);
+        if (parameterType == float.class)
+          slot = MethodHandles.filterReturnValue(slot, LONG_TO_FLOAT);
+        else if (parameterType == double.class)
+          slot = MethodHandles.filterReturnValue(slot, LONG_TO_DOUBLE);
+        else
+          slot = MethodHandles.explicitCastArguments(slot, methodType(parameterType, long[].class));
+        slotGetters[i] = slot;
+        slotReorder[i] = 0;
+      } else {
+        slotGetters[i] = MethodHandles.insertArguments(objectElement, 1, ordinals[i])
+            .asType(methodType(parameterType, Object[].class));
+        slotReorder[i] = 1;
+      }
+    }
+
+    this.fromValues = MethodHandles
+        .permuteArguments(MethodHandles.filterArguments(handle, 0, valueGetters),
+            methodType(rawType, Object[].class), new int[count])
+        .asType(methodType(Object.class, Object[].class));
+    this.fromSlots = MethodHandles
+        .permuteArguments(MethodHandles.filterArguments(handle, 0, slotGetters),
+            methodType(rawType, long[].class, Object[].class), slotReorder)
+        .asType(methodType(Object.class, long[].class, Object[].class));
+
+    this.constructor = constructor;
+    this.properties = unmodifiableList(properties);
+    this.ordinals = ordinals;
+    this.parameterTypes = parameterTypes;
+    this.created = created;
+  }
+
+  /**
+   * Creates a new instance from values indexed by property ordinal. Values for properties that are
+   * not creator parameters are ignored.
+   */
+  /* default */ Object create(Object[] values) throws InvocationTargetException {
+    // The handle would throw ClassCastException or NullPointerException on bad arguments. We'd
+    // rather report those the same way reflection does.
+    for (int i = 0; i < ordinals.length; i++) {
+      Object value = values[ordinals[i]];
+      if (value == null ? parameterTypes[i].isPrimitive()
+          : !Reflection.wrap(parameterTypes[i]).isInstance(value))
+        throw new IllegalArgumentException(
+            format("invalid value for creator parameter %s", properties.get(i).getName()));
+    }
+
+    try {
+      return (Object) fromValues.invokeExact(values);
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  /**
+   * Creates a new instance from the given slots, which are laid out as in {@link BeanBuilder}
+   */
+  /* default */ Object create(long[] primitives, Object[] references)
+      throws InvocationTargetException {
+    try {
+      return (Object) fromSlots.invokeExact(primitives, references);
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  /**
+   * Returns true if the property with the given ordinal is assigned by this creator
+   */
+  /* default */ boolean isCreated(int ordinal) {
+    return created[ordinal];
+  }
+
+  /**
+   * The properties assigned by this creator, in parameter order
+   */
+  /* default */ List<BeanProperty> getProperties() {
+    return properties;
+  }
+
+  /* default */ Constructor<?> getConstructor() {
+    return constructor;
+  }
+}
@@ -0,0 +1,92 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * An instance of a {@link DynamicBeanClass}. Primitive property values are stored unboxed in one
+ * {@code long[]}, and all other property values in one {@code Object[]}. Use {@link BeanInstance}
+ * or the class's {@link BeanProperty} objects to read and write values.
+ */
+public final class DynamicBean {
+  private static final long[] NO_PRIMITIVES = new long[0];
+  private static final Object[] NO_REFERENCES = new Object[0];
+
+  private final DynamicBeanClass beanClass;
+  /* default */ final long[] primitives;
+  /* default */ final Object[] references;
+
+  /* default */ DynamicBean(DynamicBeanClass beanClass) {
+    this.beanClass = beanClass;
+    int primitiveCount = beanClass.getPrimitiveCount();
+    int referenceCount = beanClass.getReferenceCount();
+    this.primitives = primitiveCount != 0 ? new long[primitiveCount] : NO_PRIMITIVES;
+    this.references = referenceCount != 0 ? new Object[referenceCount] : NO_REFERENCES;
+  }
+
+  /**
+   * The class of this bean
+   */
+  public DynamicBeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + System.identityHashCode(beanClass);
+    result = prime * result + Arrays.hashCode(primitives);
+    result = prime * result + Arrays.deepHashCode(references);
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    DynamicBean other = (DynamicBean) obj;
+    return beanClass == other.beanClass && Arrays.equals(primitives, other.primitives)
+        && Arrays.deepEquals(references, other.references);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder().append(beanClass.getName()).append(" [");
+    for (int i = 0; i < beanClass.size(); i++) {
+      BeanProperty property = beanClass.get(i);
+      if (i != 0)
+        result.append(", ");
+      try {
+        result.append(property.getName()).append('=').append(property.get(this));
+      } catch (InvocationTargetException e) {
+        // Dynamic properties are slots, not methods. This should never happen.
+        throw new AssertionError("dynamic property failed", e);
+      }
+    }
+    return result.append(']').toString();
+  }
+}
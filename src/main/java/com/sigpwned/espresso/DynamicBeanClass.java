@@ -0,0 +1,141 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Map;
+import java.util.TreeMap;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A {@link BeanClass} whose properties are defined at runtime, e.g., from a database schema,
+ * rather than by a Java class. Its instances are {@link DynamicBean} objects, which store primitive
+ * properties unboxed in one {@code long[]} and all other properties in one {@code Object[]}, so
+ * they are much smaller and faster than a {@code Map<String,Object>}. Code written against
+ * {@link BeanClass}, {@link BeanProperty}, and {@link BeanInstance} works with dynamic classes
+ * unchanged.
+ *
+ * <p>
+ * As with scanned classes, properties are ordered by name. The {@link #getRawType() raw type} of
+ * every dynamic class is {@link DynamicBean}, so each dynamic class is equal only to itself.
+ * Property values must be instances of the property's type, or its wrapper type for primitives.
+ * Primitive properties default to zero, and other properties default to null.
+ * </p>
+ */
+public final class DynamicBeanClass extends BeanClass {
+  /**
+   * Defines a new dynamic class with the given properties.
+   *
+   * @param name a name for the class, used in messages
+   * @param properties the name and type of each property
+   * @throws IllegalArgumentException if a property name is empty, or a property type is void, a
+   *         type variable, or a wildcard
+   */
+  public static DynamicBeanClass of(String name, Map<String, ? extends Type> properties) {
+    if (name == null)
+      throw new NullPointerException();
+    return new DynamicBeanClass(name, properties);
+  }
+
+  private final String name;
+  private final int primitiveCount;
+  private final int referenceCount;
+
+  private DynamicBeanClass(String name, Map<String, ? extends Type> properties) {
+    super(DynamicBean.class, null);
+    this.name = name;
+
+    int primitiveCount = 0;
+    int referenceCount = 0;
+    for (Map.Entry<String, ? extends Type> property : new TreeMap<>(properties).entrySet()) {
+      String propertyName = property.getKey();
+      Type propertyType = property.getValue();
+      if (propertyName.isEmpty())
+        throw new IllegalArgumentException(format("Class %s has property with empty name", name));
+      if (propertyType == null || propertyType == void.class
+          || propertyType instanceof TypeVariable || propertyType instanceof WildcardType)
+        throw new IllegalArgumentException(format("Class %s property %s has invalid type %s", name,
+            propertyName, propertyType));
+
+      int slot = Reflection.getRawType(propertyType).isPrimitive() ? primitiveCount++
+          : referenceCount++;
+      addProperty(new BeanProperty(this,
+          new DynamicBeanElement(this, propertyName, propertyType, slot), propertyType));
+    }
+    this.primitiveCount = primitiveCount;
+    this.referenceCount = referenceCount;
+
+    indexNames();
+  }
+
+  /**
+   * The name of this class
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Creates a new {@link DynamicBean} of this class with default property values. This is the same
+   * as {@code newInstance().getInstance()}.
+   */
+  public DynamicBean newDynamicBean() {
+    return new DynamicBean(this);
+  }
+
+  @Override
+  public Object newRawInstance() {
+    return newDynamicBean();
+  }
+
+  @Override
+  public boolean isInstance(Object instance) {
+    return instance instanceof DynamicBean && ((DynamicBean) instance).getBeanClass() == this;
+  }
+
+  /* default */ int getPrimitiveCount() {
+    return primitiveCount;
+  }
+
+  /* default */ int getReferenceCount() {
+    return referenceCount;
+  }
+
+  /**
+   * Every dynamic class is distinct, even from another with the same name and properties
+   */
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj;
+  }
+
+  @Override
+  public String toString() {
+    return "DynamicBeanClass [name=" + name + "]";
+  }
+}
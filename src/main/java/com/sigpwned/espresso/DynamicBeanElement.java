@@ -0,0 +1,286 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A {@link BeanElement} for one slot of a {@link DynamicBean}. Primitive values are stored in the
+ * bean's {@code long[]} the same way {@link BeanBuilder} stores them, with floats and doubles as
+ * their raw bits.
+ */
+/* default */ final class DynamicBeanElement implements BeanElement {
+  private final DynamicBeanClass beanClass;
+  private final String name;
+  private final Type genericType;
+  private final Class<?> rawType;
+  private final Class<?> boxedType;
+  private final int slot;
+
+  public DynamicBeanElement(DynamicBeanClass beanClass, String name, Type genericType, int slot) {
+    this.beanClass = beanClass;
+    this.name = name;
+    this.genericType = genericType;
+    this.rawType = Reflection.getRawType(genericType);
+    this.boxedType = Reflection.wrap(rawType);
+    this.slot = slot;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Type getGenericType() {
+    return genericType;
+  }
+
+  @Override
+  public Class<?> getRawType() {
+    return rawType;
+  }
+
+  @Override
+  public List<Annotation> getAnnotations() {
+    return emptyList();
+  }
+
+  @Override
+  public boolean isGettable() {
+    return true;
+  }
+
+  @Override
+  public boolean isSettable() {
+    return true;
+  }
+
+  @Override
+  public Object get(Object instance) {
+    DynamicBean bean = checkInstance(instance);
+    if (!rawType.isPrimitive())
+      return bean.references[slot];
+
+    long bits = bean.primitives[slot];
+    if (rawType == boolean.class)
+      return bits != 0L;
+    if (rawType == byte.class)
+      return (byte) bits;
+    if (rawType == short.class)
+      return (short) bits;
+    if (rawType == char.class)
+      return (char) bits;
+    if (rawType == int.class)
+      return (int) bits;
+    if (rawType == long.class)
+      return bits;
+    if (rawType == float.class)
+      return Float.intBitsToFloat((int) bits);
+    if (rawType == double.class)
+      return Double.longBitsToDouble(bits);
+
+    // We've covered every primitive type except void, which we reject. This should never happen.
+    throw new AssertionError("unrecognized primitive type " + rawType);
+  }
+
+  @Override
+  public boolean getBoolean(Object instance) {
+    if (rawType != boolean.class)
+      return (Boolean) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return bits != 0L;
+  }
+
+  @Override
+  public byte getByte(Object instance) {
+    if (rawType != byte.class)
+      return (Byte) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return (byte) bits;
+  }
+
+  @Override
+  public short getShort(Object instance) {
+    if (rawType != short.class)
+      return (Short) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return (short) bits;
+  }
+
+  @Override
+  public char getChar(Object instance) {
+    if (rawType != char.class)
+      return (Character) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return (char) bits;
+  }
+
+  @Override
+  public int getInt(Object instance) {
+    if (rawType != int.class)
+      return (Integer) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return (int) bits;
+  }
+
+  @Override
+  public long getLong(Object instance) {
+    if (rawType != long.class)
+      return (Long) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return bits;
+  }
+
+  @Override
+  public float getFloat(Object instance) {
+    if (rawType != float.class)
+      return (Float) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return Float.intBitsToFloat((int) bits);
+  }
+
+  @Override
+  public double getDouble(Object instance) {
+    if (rawType != double.class)
+      return (Double) get(instance);
+    long bits = checkInstance(instance).primitives[slot];
+    return Double.longBitsToDouble(bits);
+  }
+
+  @Override
+  public void set(Object instance, Object value) {
+    DynamicBean bean = checkInstance(instance);
+    if (!rawType.isPrimitive()) {
+      if (value != null && !rawType.isInstance(value))
+        throw invalid(value);
+      bean.references[slot] = value;
+    } else {
+      if (!boxedType.isInstance(value))
+        throw invalid(value);
+      if (rawType == boolean.class)
+        bean.primitives[slot] = ((Boolean) value).booleanValue() ? 1L : 0L;
+      else if (rawType == char.class)
+        bean.primitives[slot] = ((Character) value).charValue();
+      else if (rawType == float.class)
+        bean.primitives[slot] = Float.floatToRawIntBits(((Float) value).floatValue());
+      else if (rawType == double.class)
+        bean.primitives[slot] = Double.doubleToRawLongBits(((Double) value).doubleValue());
+      else
+        bean.primitives[slot] = ((Number) value).longValue();
+    }
+  }
+
+  @Override
+  public void setBoolean(Object instance, boolean value) {
+    if (rawType != boolean.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value ? 1L : 0L;
+  }
+
+  @Override
+  public void setByte(Object instance, byte value) {
+    if (rawType != byte.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value;
+  }
+
+  @Override
+  public void setShort(Object instance, short value) {
+    if (rawType != short.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value;
+  }
+
+  @Override
+  public void setChar(Object instance, char value) {
+    if (rawType != char.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value;
+  }
+
+  @Override
+  public void setInt(Object instance, int value) {
+    if (rawType != int.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value;
+  }
+
+  @Override
+  public void setLong(Object instance, long value) {
+    if (rawType != long.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = value;
+  }
+
+  @Override
+  public void setFloat(Object instance, float value) {
+    if (rawType != float.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = Float.floatToRawIntBits(value);
+  }
+
+  @Override
+  public void setDouble(Object instance, double value) {
+    if (rawType != double.class) {
+      set(instance, value);
+      return;
+    }
+    checkInstance(instance).primitives[slot] = Double.doubleToRawLongBits(value);
+  }
+
+  private DynamicBean checkInstance(Object instance) {
+    if (instance == null)
+      throw new NullPointerException();
+    if (!(instance instanceof DynamicBean) || ((DynamicBean) instance).getBeanClass() != beanClass)
+      throw new IllegalArgumentException(
+          format("Object is not an instance of dynamic class %s", beanClass.getName()));
+    return (DynamicBean) instance;
+  }
+
+  private IllegalArgumentException invalid(Object value) {
+    return new IllegalArgumentException(format("Cannot assign %s to property %s of type %s",
+        value != null ? value.getClass().getName() : "null", name, genericType.getTypeName()));
+  }
+
+  @Override
+  public String toString() {
+    return "DynamicBeanElement [beanClass=" + beanClass + ", name=" + name + "]";
+  }
+}
@@ -0,0 +1,97 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Atomic operations on one field. On Java 9 and later, the implementation in the multi-release
+ * JAR's Java 9 classes uses a {@code VarHandle}. Otherwise, we fall back to
+ * {@link UnsafeFieldAtomics}. Callers are responsible for checking the types of instances and
+ * values.
+ */
+/* default */ abstract class FieldAtomics {
+  private static final String VAR_HANDLE_IMPLEMENTATION =
+      "com.sigpwned.espresso.VarHandleFieldAtomics";
+
+  /**
+   * The constructor of the {@code VarHandle} implementation, or null if it is not available
+   */
+  private static final Constructor<?> VAR_HANDLE_CONSTRUCTOR = findVarHandleConstructor();
+
+  private static Constructor<?> findVarHandleConstructor() {
+    try {
+      return Class.forName(VAR_HANDLE_IMPLEMENTATION).getDeclaredConstructor(Field.class);
+    } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+      // We're on Java 8, or not running from the multi-release JAR
+      return null;
+    }
+  }
+
+  /**
+   * @throws UnsupportedOperationException if this JVM has no way to access the field atomically
+   */
+  public static FieldAtomics forField(Field field) {
+    if (VAR_HANDLE_CONSTRUCTOR == null)
+      return new UnsafeFieldAtomics(field);
+
+    try {
+      return (FieldAtomics) VAR_HANDLE_CONSTRUCTOR.newInstance(field);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw new AssertionError("failed to create field atomics", e.getCause());
+    } catch (ReflectiveOperationException e) {
+      // This is our own class. This should never happen.
+      throw new AssertionError("failed to create field atomics", e);
+    }
+  }
+
+  public abstract Object get(Object instance, AccessMode mode);
+
+  public abstract void set(Object instance, Object value, AccessMode mode);
+
+  /**
+   * Compares primitive values by value and references by identity. In {@link AccessMode#PLAIN} and
+   * {@link AccessMode#OPAQUE} modes, may fail spuriously.
+   */
+  public abstract boolean compareAndSet(Object instance, Object expected, Object value,
+      AccessMode mode);
+
+  public abstract Object getAndSet(Object instance, Object value, AccessMode mode);
+
+  /**
+   * @param delta a value of the field's wrapper type
+   * @throws UnsupportedOperationException if the field is not numeric
+   */
+  public abstract Object getAndAdd(Object instance, Object delta, AccessMode mode);
+
+  public Object getAndUpdate(Object instance, UnaryOperator<Object> updater, AccessMode mode) {
+    AccessMode readMode = mode == AccessMode.RELEASE ? AccessMode.PLAIN : mode;
+    for (;;) {
+      Object previous = get(instance, readMode);
+      if (compareAndSet(instance, previous, updater.apply(previous), mode))
+        return previous;
+    }
+  }
+}
@@ -0,0 +1,346 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.util.List;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A compiled {@link BeanElement} that reads or writes through a {@link MethodHandle} instead of
+ * reflection. Primitive elements also get exactly typed handles, so typed primitive reads and
+ * writes, e.g. {@link #getInt(Object)}, are compiled without boxing, too. Any call the handles
+ * cannot serve exactly like reflection, e.g., a widening primitive conversion or an instance of
+ * the wrong class, is passed to the original element, so the two behave identically.
+ */
+/* default */ final class MethodHandleElement implements BeanElement {
+  private final BeanElement element;
+  private final Class<?> declaringClass;
+  private final Class<?> rawType;
+  private final Class<?> valueType;
+  private final boolean nullable;
+  private final boolean method;
+  private final MethodHandle reader;
+  private final MethodHandle typedReader;
+  private final MethodHandle writer;
+  private final MethodHandle typedWriter;
+
+  /**
+   * @param reader a handle of type {@code (Object)Object}, or null
+   * @param typedReader a handle of type {@code (Object)P}, where {@code P} is the primitive type of
+   *        the element, or null
+   * @param writer a handle of type {@code (Object,Object)void}, or null
+   * @param typedWriter a handle of type {@code (Object,P)void}, where {@code P} is the primitive
+   *        type of the element, or null
+   */
+  public MethodHandleElement(BeanElement element, MethodHandle reader, MethodHandle typedReader,
+      MethodHandle writer, MethodHandle typedWriter) {
+    Member member = element instanceof BeanField ? ((BeanField) element).getField()
+        : element instanceof BeanGetter ? ((BeanGetter) element).getMethod()
+            : ((BeanSetter) element).getMethod();
+    this.element = element;
+    this.declaringClass = member.getDeclaringClass();
+    this.rawType = element.getRawType();
+    this.valueType = Reflection.wrap(rawType);
+    this.nullable = !rawType.isPrimitive();
+    this.method = !(element instanceof BeanField);
+    this.reader = reader;
+    this.typedReader = typedReader;
+    this.writer = writer;
+    this.typedWriter = typedWriter;
+  }
+
+  @Override
+  public String getName() {
+    return element.getName();
+  }
+
+  @Override
+  public Type getGenericType() {
+    return element.getGenericType();
+  }
+
+  @Override
+  public Class<?> getRawType() {
+    return element.getRawType();
+  }
+
+  @Override
+  public List<Annotation> getAnnotations() {
+    return element.getAnnotations();
+  }
+
+  @Override
+  public boolean isGettable() {
+    return reader != null;
+  }
+
+  @Override
+  public boolean isSettable() {
+    return writer != null;
+  }
+
+  @Override
+  public Object get(Object instance) throws InvocationTargetException {
+    if (reader == null || !declaringClass.isInstance(instance))
+      return element.get(instance);
+    try {
+      return reader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public boolean getBoolean(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != boolean.class || !declaringClass.isInstance(instance))
+      return element.getBoolean(instance);
+    try {
+      return (boolean) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public byte getByte(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != byte.class || !declaringClass.isInstance(instance))
+      return element.getByte(instance);
+    try {
+      return (byte) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public short getShort(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != short.class || !declaringClass.isInstance(instance))
+      return element.getShort(instance);
+    try {
+      return (short) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public char getChar(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != char.class || !declaringClass.isInstance(instance))
+      return element.getChar(instance);
+    try {
+      return (char) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public int getInt(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != int.class || !declaringClass.isInstance(instance))
+      return element.getInt(instance);
+    try {
+      return (int) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public long getLong(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != long.class || !declaringClass.isInstance(instance))
+      return element.getLong(instance);
+    try {
+      return (long) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public float getFloat(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != float.class || !declaringClass.isInstance(instance))
+      return element.getFloat(instance);
+    try {
+      return (float) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public double getDouble(Object instance) throws InvocationTargetException {
+    if (typedReader == null || rawType != double.class || !declaringClass.isInstance(instance))
+      return element.getDouble(instance);
+    try {
+      return (double) typedReader.invokeExact(instance);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void set(Object instance, Object value) throws InvocationTargetException {
+    if (writer == null || !declaringClass.isInstance(instance)
+        || !(value == null ? nullable : valueType.isInstance(value))) {
+      element.set(instance, value);
+      return;
+    }
+    try {
+      writer.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setBoolean(Object instance, boolean value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != boolean.class || !declaringClass.isInstance(instance)) {
+      element.setBoolean(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setByte(Object instance, byte value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != byte.class || !declaringClass.isInstance(instance)) {
+      element.setByte(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setShort(Object instance, short value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != short.class || !declaringClass.isInstance(instance)) {
+      element.setShort(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setChar(Object instance, char value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != char.class || !declaringClass.isInstance(instance)) {
+      element.setChar(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setInt(Object instance, int value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != int.class || !declaringClass.isInstance(instance)) {
+      element.setInt(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setLong(Object instance, long value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != long.class || !declaringClass.isInstance(instance)) {
+      element.setLong(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setFloat(Object instance, float value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != float.class || !declaringClass.isInstance(instance)) {
+      element.setFloat(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  @Override
+  public void setDouble(Object instance, double value) throws InvocationTargetException {
+    if (typedWriter == null || rawType != double.class || !declaringClass.isInstance(instance)) {
+      element.setDouble(instance, value);
+      return;
+    }
+    try {
+      typedWriter.invokeExact(instance, value);
+    } catch (Throwable e) {
+      throw rethrow(e);
+    }
+  }
+
+  /**
+   * Reflection wraps everything a method throws, so we do, too. Field access can't throw once we
+   * have checked our arguments.
+   */
+  private InvocationTargetException rethrow(Throwable e) {
+    if (method)
+      return new InvocationTargetException(e);
+    if (e instanceof RuntimeException)
+      throw (RuntimeException) e;
+    if (e instanceof Error)
+      throw (Error) e;
+    throw new AssertionError("field access failed", e);
+  }
+
+  /**
+   * The element this element compiles
+   */
+  public BeanElement getElement() {
+    return element;
+  }
+
+  @Override
+  public String toString() {
+    return "MethodHandleElement [element=" + element + "]";
+  }
+}
@@ -0,0 +1,263 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A precomputed open-addressing hash table from property names to property indexes under one
+ * {@link NameMatching}. Lookups normalize and hash their input in place, so they do not allocate.
+ * If two properties have the same name after normalization, then neither can be found by that name.
+ */
+/* default */ final class PropertyNameIndex {
+  private static final int EMPTY = -1;
+  private static final int AMBIGUOUS = -2;
+
+  /**
+   * Scratch space for decoding non-ASCII UTF-8 names
+   */
+  private static final ThreadLocal<char[]> UTF8_SCRATCH =
+      ThreadLocal.withInitial(() -> new char[64]);
+
+  private final boolean lowerCase;
+  private final boolean dropSeparators;
+  private final int mask;
+  private final int[] hashes;
+  private final char[][] keys;
+  private final int[] indexes;
+
+  public PropertyNameIndex(List<String> names, NameMatching matching) {
+    this.lowerCase = matching != NameMatching.EXACT;
+    this.dropSeparators = matching == NameMatching.LOOSE;
+
+    int capacity = 2;
+    while (capacity < names.size() * 2)
+      capacity = capacity * 2;
+    this.mask = capacity - 1;
+    this.hashes = new int[capacity];
+    this.keys = new char[capacity][];
+    this.indexes = new int[capacity];
+    Arrays.fill(indexes, EMPTY);
+
+    for (int i = 0; i < names.size(); i++) {
+      char[] key = normalize(names.get(i));
+      int hash = hash(key);
+      int slot = hash & mask;
+      while (indexes[slot] != EMPTY) {
+        if (hashes[slot] == hash && Arrays.equals(keys[slot], key))
+          break;
+        slot = (slot + 1) & mask;
+      }
+      if (indexes[slot] == EMPTY) {
+        hashes[slot] = hash;
+        keys[slot] = key;
+        indexes[slot] = i;
+      } else {
+        indexes[slot] = AMBIGUOUS;
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the named property, or -1 if there is no such property
+   */
+  public int find(CharSequence name) {
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      int c = normalize(name.charAt(i));
+      if (c != -1)
+        hash = 31 * hash + c;
+    }
+
+    for (int slot = hash & mask; indexes[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (hashes[slot] != hash)
+        continue;
+      char[] key = keys[slot];
+      int k = 0;
+      boolean matched = true;
+      for (int i = 0; i < name.length() && matched; i++) {
+        int c = normalize(name.charAt(i));
+        if (c != -1)
+          matched = k < key.length && key[k++] == c;
+      }
+      if (matched && k == key.length)
+        return Math.max(indexes[slot], -1);
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the index of the named property, or -1 if there is no such property
+   */
+  public int find(char[] name, int offset, int length) {
+    checkBounds(name.length, offset, length);
+
+    int end = offset + length;
+    int hash = 0;
+    for (int i = offset; i < end; i++) {
+      int c = normalize(name[i]);
+      if (c != -1)
+        hash = 31 * hash + c;
+    }
+
+    for (int slot = hash & mask; indexes[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (hashes[slot] != hash)
+        continue;
+      char[] key = keys[slot];
+      int k = 0;
+      boolean matched = true;
+      for (int i = offset; i < end && matched; i++) {
+        int c = normalize(name[i]);
+        if (c != -1)
+          matched = k < key.length && key[k++] == c;
+      }
+      if (matched && k == key.length)
+        return Math.max(indexes[slot], -1);
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the index of the property whose name is encoded in the given UTF-8 bytes, or -1 if
+   * there is no such property or the bytes are not valid UTF-8
+   */
+  public int find(byte[] utf8, int offset, int length) {
+    checkBounds(utf8.length, offset, length);
+
+    int end = offset + length;
+
+    boolean ascii = true;
+    for (int i = offset; i < end && ascii; i++)
+      ascii = utf8[i] >= 0;
+    if (!ascii)
+      return findNonAscii(utf8, offset, end);
+
+    int hash = 0;
+    for (int i = offset; i < end; i++) {
+      int c = normalize((char) utf8[i]);
+      if (c != -1)
+        hash = 31 * hash + c;
+    }
+
+    for (int slot = hash & mask; indexes[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (hashes[slot] != hash)
+        continue;
+      char[] key = keys[slot];
+      int k = 0;
+      boolean matched = true;
+      for (int i = offset; i < end && matched; i++) {
+        int c = normalize((char) utf8[i]);
+        if (c != -1)
+          matched = k < key.length && key[k++] == c;
+      }
+      if (matched && k == key.length)
+        return Math.max(indexes[slot], -1);
+    }
+
+    return -1;
+  }
+
+  /**
+   * Decodes the given UTF-8 bytes into thread-local scratch space, and then looks them up. Overlong
+   * encodings, encoded surrogates, and code points above U+10FFFF are not valid UTF-8, so they
+   * match nothing.
+   */
+  private int findNonAscii(byte[] utf8, int offset, int end) {
+    char[] scratch = UTF8_SCRATCH.get();
+    if (scratch.length < end - offset) {
+      // UTF-8 never takes fewer bytes than UTF-16 takes chars
+      scratch = new char[end - offset];
+      UTF8_SCRATCH.set(scratch);
+    }
+
+    int n = 0;
+    int i = offset;
+    while (i < end) {
+      int b = utf8[i] & 0xFF;
+      int cp;
+      if (b < 0x80) {
+        cp = b;
+        i = i + 1;
+      } else if ((b & 0xE0) == 0xC0 && i + 1 < end && isContinuation(utf8[i + 1])) {
+        cp = ((b & 0x1F) << 6) | (utf8[i + 1] & 0x3F);
+        if (cp < 0x80)
+          return -1;
+        i = i + 2;
+      } else if ((b & 0xF0) == 0xE0 && i + 2 < end && isContinuation(utf8[i + 1])
+          && isContinuation(utf8[i + 2])) {
+        cp = ((b & 0x0F) << 12) | ((utf8[i + 1] & 0x3F) << 6) | (utf8[i + 2] & 0x3F);
+        if (cp < 0x800 || Character.isSurrogate((char) cp))
+          return -1;
+        i = i + 3;
+      } else if ((b & 0xF8) == 0xF0 && i + 3 < end && isContinuation(utf8[i + 1])
+          && isContinuation(utf8[i + 2]) && isContinuation(utf8[i + 3])) {
+        cp = ((b & 0x07) << 18) | ((utf8[i + 1] & 0x3F) << 12) | ((utf8[i + 2] & 0x3F) << 6)
+            | (utf8[i + 3] & 0x3F);
+        if (cp < 0x10000 || cp > Character.MAX_CODE_POINT)
+          return -1;
+        i = i + 4;
+      } else {
+        return -1;
+      }
+      n = n + Character.toChars(cp, scratch, n);
+    }
+
+    return find(scratch, 0, n);
+  }
+
+  private static boolean isContinuation(byte b) {
+    return (b & 0xC0) == 0x80;
+  }
+
+  /**
+   * Returns the normalized form of the given character, or -1 if it should be dropped
+   */
+  private int normalize(char c) {
+    if (dropSeparators && (c == '_' || c == '-'))
+      return -1;
+    return lowerCase ? Character.toLowerCase(c) : c;
+  }
+
+  private char[] normalize(String name) {
+    StringBuilder result = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      int c = normalize(name.charAt(i));
+      if (c != -1)
+        result.append((char) c);
+    }
+    return result.toString().toCharArray();
+  }
+
+  private static int hash(char[] key) {
+    int hash = 0;
+    for (int i = 0; i < key.length; i++)
+      hash = 31 * hash + key[i];
+    return hash;
+  }
+
+  private static void checkBounds(int size, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > size - length)
+      throw new IndexOutOfBoundsException(
+          "offset " + offset + ", length " + length + ", size " + size);
+  }
+}
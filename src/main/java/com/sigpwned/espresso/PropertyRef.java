@@ -0,0 +1,304 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.lang.String.format;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import com.sigpwned.espresso.annotation.Generated;
+
+/**
+ * A reusable reference to a property by name that works on instances of any bean class. This is
+ * the fastest way to read the same property from a stream of objects of mixed types, e.g., the
+ * {@code id} of many different event classes.
+ *
+ * <p>
+ * Each reference keeps an inline cache from classes to their resolved properties. The first few
+ * classes seen are kept in a small array, which is checked in order, so a reference that only sees
+ * one or a few classes answers with an identity comparison or two. After that, the reference falls
+ * back to a {@link ClassValue}. Only a miss in both scans the class and looks up the name. Classes
+ * that are not valid bean classes are cached too, so they are only scanned once. The array holds
+ * its classes and properties weakly, so a reference, which is often kept in a static field, never
+ * keeps a class loader alive. Once the array is full, its slots are reclaimed as their classes are
+ * collected.
+ * </p>
+ *
+ * <p>
+ * References are thread-safe.
+ * </p>
+ */
+public final class PropertyRef {
+  /**
+   * The maximum number of classes to keep in the inline cache before going megamorphic
+   */
+  private static final int MAX_POLYMORPHISM = 4;
+
+  private static final Entry[] NO_ENTRIES = new Entry[0];
+
+  public static PropertyRef of(String name) {
+    if (name == null)
+      throw new NullPointerException();
+    return new PropertyRef(name);
+  }
+
+  /**
+   * A cached resolution of this reference in one class. Entries are immutable, so arrays of them
+   * can be swapped in and out of a volatile field without locking.
+   */
+  private static final class Entry {
+    private final WeakReference<Class<?>> type;
+
+    /**
+     * The resolved property, or null if the class does not have it
+     */
+    private final WeakReference<BeanProperty> property;
+
+    /**
+     * Why the class is not a valid bean class, or null if it is. We keep the message rather than
+     * the exception, whose stack trace may refer to the class.
+     */
+    private final String rejection;
+
+    public Entry(Class<?> type, BeanProperty property, String rejection) {
+      this.type = new WeakReference<>(type);
+      this.property = property != null ? new WeakReference<>(property) : null;
+      this.rejection = rejection;
+    }
+
+    /**
+     * Returns the resolved property, or null if the class does not have it or the property has
+     * been collected
+     *
+     * @throws IllegalArgumentException if the class is not a valid bean class
+     */
+    public BeanProperty getProperty() {
+      if (rejection != null)
+        throw new IllegalArgumentException(rejection);
+      return property != null ? property.get() : null;
+    }
+
+    /**
+     * Returns true if the property of this entry has been collected, e.g., because its
+     * {@link BeanClass} was evicted from the cache, so it has to be resolved again
+     */
+    public boolean isStale() {
+      return property != null && property.get() == null;
+    }
+  }
+
+  private final String name;
+  private final ClassValue<Entry> megamorphic;
+  private volatile Entry[] entries;
+
+  private PropertyRef(String name) {
+    this.name = name;
+    this.megamorphic = new ClassValue<Entry>() {
+      @Override
+      protected Entry computeValue(Class<?> type) {
+        return resolve(type);
+      }
+    };
+    this.entries = NO_ENTRIES;
+  }
+
+  /**
+   * The name of the referenced property
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the referenced property of the given class, if it has one.
+   *
+   * @throws IllegalArgumentException if the given class is not a valid bean class
+   */
+  public Optional<BeanProperty> find(Class<?> type) {
+    if (type == null)
+      throw new NullPointerException();
+    return Optional.ofNullable(lookup(type));
+  }
+
+  /**
+   * Returns true if the given object's class has the referenced property
+   *
+   * @throws NullPointerException if the given object is null
+   * @throws IllegalArgumentException if the given object's class is not a valid bean class
+   */
+  public boolean isPresent(Object instance) {
+    if (instance == null)
+      throw new NullPointerException();
+    if (instance instanceof DynamicBean)
+      return ((DynamicBean) instance).getBeanClass().findPropertyIndex(name) != -1;
+    return lookup(instance.getClass()) != null;
+  }
+
+  /**
+   * Gets the value of the referenced property from the given instance.
+   *
+   * @throws NullPointerException if the given instance is null
+   * @throws IllegalArgumentException if the given object's class is not a valid bean class, or
+   *         does not have the referenced property
+   * @throws InvocationTargetException if the underlying getter throws an exception
+   */
+  public Object get(Object instance) throws InvocationTargetException {
+    return getProperty(instance).get(instance);
+  }
+
+  /**
+   * Sets the value of the referenced property on the given instance.
+   *
+   * @throws NullPointerException if the given instance is null
+   * @throws IllegalArgumentException if the given object's class is not a valid bean class, or
+   *         does not have the referenced property, or the value is not of the correct type
+   * @throws InvocationTargetException if the underlying setter throws an exception
+   * @throws UnsupportedOperationException if the property is not settable
+   */
+  public void set(Object instance, Object value) throws InvocationTargetException {
+    getProperty(instance).set(instance, value);
+  }
+
+  private BeanProperty getProperty(Object instance) {
+    if (instance == null)
+      throw new NullPointerException();
+    // Every dynamic class shares one Java class, so we have to ask the instance for its class
+    if (instance instanceof DynamicBean)
+      return getDynamicProperty((DynamicBean) instance);
+    Class<?> type = instance.getClass();
+    BeanProperty result = lookup(type);
+    if (result == null)
+      throw new IllegalArgumentException(
+          format("Class %s has no property %s", type.getName(), name));
+    return result;
+  }
+
+  private BeanProperty getDynamicProperty(DynamicBean instance) {
+    DynamicBeanClass beanClass = instance.getBeanClass();
+    int index = beanClass.findPropertyIndex(name);
+    if (index == -1)
+      throw new IllegalArgumentException(
+          format("Dynamic class %s has no property %s", beanClass.getName(), name));
+    return beanClass.get(index);
+  }
+
+  /**
+   * Returns the referenced property of the given class, or null if it does not have one
+   *
+   * @throws IllegalArgumentException if the given class is not a valid bean class
+   */
+  private BeanProperty lookup(Class<?> type) {
+    Entry[] entries = this.entries;
+    boolean full = entries.length == MAX_POLYMORPHISM;
+    for (int i = 0; i < entries.length; i++) {
+      Entry entry = entries[i];
+      Class<?> entryType = entry.type.get();
+      if (entryType == type) {
+        BeanProperty result = entry.getProperty();
+        if (result != null || !entry.isStale())
+          return result;
+        return miss(type);
+      }
+      if (entryType == null || entry.isStale())
+        full = false;
+    }
+
+    // A full array with a dead entry can make room for this class, so try it first
+    if (!full)
+      return miss(type);
+
+    for (;;) {
+      Entry entry = megamorphic.get(type);
+      BeanProperty result = entry.getProperty();
+      if (result != null || !entry.isStale())
+        return result;
+      megamorphic.remove(type);
+    }
+  }
+
+  private BeanProperty miss(Class<?> type) {
+    BeanProperty result;
+    try {
+      result = BeanClass.scan(type).getProperty(name).orElse(null);
+    } catch (IllegalArgumentException e) {
+      remember(type, new Entry(type, null, e.getMessage()));
+      throw e;
+    }
+    remember(type, new Entry(type, result, null));
+    return result;
+  }
+
+  private void remember(Class<?> type, Entry entry) {
+    synchronized (this) {
+      // Drop entries whose class or property has been collected, along with any for this class
+      Entry[] entries = this.entries;
+      Entry[] updated = new Entry[MAX_POLYMORPHISM];
+      int size = 0;
+      for (int i = 0; i < entries.length; i++) {
+        Class<?> entryType = entries[i].type.get();
+        if (entryType != null && entryType != type && !entries[i].isStale())
+          updated[size++] = entries[i];
+      }
+      if (size < MAX_POLYMORPHISM) {
+        updated[size++] = entry;
+        this.entries = Arrays.copyOf(updated, size);
+      }
+    }
+  }
+
+  /**
+   * Scans the given class and looks up the referenced property. A class that is not a valid bean
+   * class gets an entry that records why, so it is not scanned again.
+   */
+  private Entry resolve(Class<?> type) {
+    try {
+      return new Entry(type, BeanClass.scan(type).getProperty(name).orElse(null), null);
+    } catch (IllegalArgumentException e) {
+      return new Entry(type, null, e.getMessage());
+    }
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(name);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    PropertyRef other = (PropertyRef) obj;
+    return Objects.equals(name, other.name);
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "PropertyRef [name=" + name + "]";
+  }
+}
@@ -0,0 +1,48 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+/**
+ * How much work {@link BeanClass#scan(Class)} does up front. Configured by the
+ * {@code ESPRESSO_SCAN_MODE} environment variable.
+ *
+ * @see BeanClass#getScanMode()
+ */
+public enum ScanMode {
+  /**
+   * Resolve generic types, read annotations, and validate every property while scanning. This is
+   * the default.
+   */
+  EAGER,
+
+  /**
+   * Classify members by their erased signatures while scanning, and resolve generic types,
+   * annotations, and alternate name tables the first time they are used. This makes scanning much
+   * cheaper for applications that scan many classes but use few properties of each.
+   *
+   * <p>
+   * A property's field, getter, and setter are still compared by generic type when they are
+   * parameterized or use type variables, so a property whose elements disagree only in type
+   * arguments, e.g., {@code List<String>} and {@code List<Integer>}, is ignored just as in an eager
+   * scan. Both modes find the same properties, and so assign the same ordinals.
+   * </p>
+   */
+  LAZY;
+}
@@ -0,0 +1,243 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The Java 8 implementation of {@link FieldAtomics}, using {@code sun.misc.Unsafe}. Each access
+ * mode maps to the weakest Unsafe operation at least as strong as the mode. Opaque and acquiring
+ * reads are volatile reads, opaque writes are volatile writes, and releasing writes are ordered
+ * writes for {@code int}, {@code long}, and reference fields and volatile writes otherwise.
+ * Read-modify-write operations are always volatile and never fail spuriously. Compare-and-set is
+ * supported for {@code int}, {@code long}, {@code float}, {@code double}, and reference fields.
+ *
+ * <p>
+ * {@code Unsafe} is found reflectively and called through method handles bound to this field's
+ * offset, so that this class does not refer to internal APIs at compile time.
+ * </p>
+ */
+/* default */ final class UnsafeFieldAtomics extends FieldAtomics {
+  private static final String UNSAFE_CLASS_NAME = "sun.misc.Unsafe";
+
+  /**
+   * The {@code sun.misc.Unsafe} instance, or null if it is not available
+   */
+  private static final Object UNSAFE = findUnsafe();
+
+  private static Object findUnsafe() {
+    try {
+      Field theUnsafe = Class.forName(UNSAFE_CLASS_NAME).getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return theUnsafe.get(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private final Class<?> type;
+  private final MethodHandle getPlain;
+  private final MethodHandle getVolatile;
+  private final MethodHandle putPlain;
+  private final MethodHandle putVolatile;
+  private final MethodHandle putOrdered;
+  private final MethodHandle compareAndSwap;
+  private final MethodHandle getAndSet;
+  private final MethodHandle getAndAdd;
+
+  public UnsafeFieldAtomics(Field field) {
+    if (UNSAFE == null)
+      throw new UnsupportedOperationException("atomic field access is not available");
+    this.type = field.getType();
+
+    long offset;
+    try {
+      Method objectFieldOffset = UNSAFE.getClass().getMethod("objectFieldOffset", Field.class);
+      offset = (Long) objectFieldOffset.invoke(UNSAFE, field);
+    } catch (InvocationTargetException e) {
+      throw new UnsupportedOperationException("atomic field access is not available",
+          e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException("atomic field access is not available", e);
+    }
+
+    Class<?> storageType = type.isPrimitive() ? type : Object.class;
+    String suffix = suffix(storageType);
+    this.getPlain = findMethod("get" + suffix, offset);
+    this.getVolatile = findMethod("get" + suffix + "Volatile", offset);
+    this.putPlain = findMethod("put" + suffix, offset, storageType);
+    this.putVolatile = findMethod("put" + suffix + "Volatile", offset, storageType);
+    this.putOrdered = findMethod("putOrdered" + suffix, offset, storageType);
+
+    // Unsafe compares floating-point values by their raw bits
+    Class<?> swapType = storageType == float.class ? int.class
+        : storageType == double.class ? long.class : storageType;
+    String swapSuffix = suffix(swapType);
+    this.compareAndSwap = findMethod("compareAndSwap" + swapSuffix, offset, swapType, swapType);
+    this.getAndSet = findMethod("getAndSet" + suffix, offset, storageType);
+    this.getAndAdd = findMethod("getAndAdd" + suffix, offset, storageType);
+  }
+
+  private static String suffix(Class<?> storageType) {
+    if (storageType == Object.class)
+      return "Object";
+    String name = storageType.getName();
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  /**
+   * Returns the named {@code Unsafe} method bound to the {@code Unsafe} instance and the given
+   * field offset, taking and returning {@code Object} in place of other reference and primitive
+   * types except {@code boolean} and {@code void} results, or null if there is no such method.
+   */
+  private static MethodHandle findMethod(String name, long offset, Class<?>... valueTypes) {
+    Class<?>[] parameterTypes = new Class<?>[valueTypes.length + 2];
+    parameterTypes[0] = Object.class;
+    parameterTypes[1] = long.class;
+    System.arraycopy(valueTypes, 0, parameterTypes, 2, valueTypes.length);
+
+    MethodHandle result;
+    try {
+      Method method = UNSAFE.getClass().getMethod(name, parameterTypes);
+      result = MethodHandles.publicLookup().unreflect(method).bindTo(UNSAFE);
+    } catch (NoSuchMethodException e) {
+      return null;
+    } catch (IllegalAccessException e) {
+      throw new UnsupportedOperationException("atomic field access is not available", e);
+    }
+    result = MethodHandles.insertArguments(result, 1, offset);
+
+    Class<?> returnType = result.type().returnType();
+    MethodType genericType = result.type().generic();
+    if (returnType == void.class || returnType == boolean.class)
+      genericType = genericType.changeReturnType(returnType);
+
+    return result.asType(genericType);
+  }
+
+  @Override
+  public Object get(Object instance, AccessMode mode) {
+    return read(mode == AccessMode.PLAIN ? getPlain : getVolatile, instance);
+  }
+
+  @Override
+  public void set(Object instance, Object value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        write(putPlain, instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        write(putOrdered != null ? putOrdered : putVolatile, instance, value);
+        break;
+      case OPAQUE:
+      case VOLATILE:
+        write(putVolatile, instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  @Override
+  public boolean compareAndSet(Object instance, Object expected, Object value, AccessMode mode) {
+    if (compareAndSwap == null)
+      throw new UnsupportedOperationException("compare and set is not supported for " + type);
+    if (type == float.class)
+      return swap(compareAndSwap, instance, Float.floatToRawIntBits((Float) expected),
+          Float.floatToRawIntBits((Float) value));
+    else if (type == double.class)
+      return swap(compareAndSwap, instance, Double.doubleToRawLongBits((Double) expected),
+          Double.doubleToRawLongBits((Double) value));
+    else
+      return swap(compareAndSwap, instance, expected, value);
+  }
+
+  @Override
+  public Object getAndSet(Object instance, Object value, AccessMode mode) {
+    if (getAndSet != null)
+      return update(getAndSet, instance, value);
+    else
+      return getAndUpdate(instance, x -> value, AccessMode.VOLATILE);
+  }
+
+  @Override
+  public Object getAndAdd(Object instance, Object delta, AccessMode mode) {
+    if (getAndAdd != null)
+      return update(getAndAdd, instance, delta);
+    else if (type == float.class)
+      return getAndUpdate(instance, x -> (Float) x + (Float) delta, AccessMode.VOLATILE);
+    else if (type == double.class)
+      return getAndUpdate(instance, x -> (Double) x + (Double) delta, AccessMode.VOLATILE);
+    else
+      throw new UnsupportedOperationException("get and add is not supported for " + type);
+  }
+
+  private static Object read(MethodHandle handle, Object instance) {
+    try {
+      return (Object) handle.invokeExact(instance);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // Unsafe methods do not throw checked exceptions. This should never happen.
+      throw new AssertionError("unexpected exception", e);
+    }
+  }
+
+  private static void write(MethodHandle handle, Object instance, Object value) {
+    try {
+      handle.invokeExact(instance, value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // Unsafe methods do not throw checked exceptions. This should never happen.
+      throw new AssertionError("unexpected exception", e);
+    }
+  }
+
+  private static boolean swap(MethodHandle handle, Object instance, Object expected,
+      Object value) {
+    try {
+      return (boolean) handle.invokeExact(instance, expected, value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // Unsafe methods do not throw checked exceptions. This should never happen.
+      throw new AssertionError("unexpected exception", e);
+    }
+  }
+
+  private static Object update(MethodHandle handle, Object instance, Object value) {
+    try {
+      return (Object) handle.invokeExact(instance, value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // Unsafe methods do not throw checked exceptions. This should never happen.
+      throw new AssertionError("unexpected exception", e);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.annotation;
+
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the public constructor that espresso should use to create instances of a bean class. Every
+ * parameter of the constructor must correspond to a gettable property of the same type. Properties
+ * that are set by the creator do not need a setter, which allows immutable beans.
+ *
+ * <p>
+ * Constructors annotated with {@code java.beans.ConstructorProperties} and the canonical
+ * constructors of records are recognized as creators automatically.
+ * </p>
+ */
+@Retention(RUNTIME)
+@Target(CONSTRUCTOR)
+public @interface BeanCreator {
+  /**
+   * The names of the properties that correspond to the constructor's parameters, in order. If
+   * empty, then the parameter names are taken from the class file, which requires compiling with
+   * the {@code -parameters} flag.
+   */
+  String[] value() default {};
+}
@@ -0,0 +1,38 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface of getters and setters as a bean. When such an interface is scanned, espresso
+ * generates a concrete implementation class with a private field, getter, and setter for each
+ * property, plus {@code equals}, {@code hashCode}, and {@code toString}, and scans that class
+ * instead.
+ *
+ * @see com.sigpwned.espresso.generate.BeanInterfaces#implement(Class)
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface BeanInterface {
+}
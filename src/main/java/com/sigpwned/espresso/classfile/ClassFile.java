@@ -0,0 +1,458 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of a class file that bean scanning needs: the class's name, flags, and superclass, and
+ * the names, descriptors, generic signatures, and selected annotations of its fields, methods, and
+ * record components. Everything else, including method bodies, is skipped.
+ */
+/* default */ final class ClassFile {
+  public static final int ACC_PUBLIC = 0x0001;
+  public static final int ACC_STATIC = 0x0008;
+  public static final int ACC_FINAL = 0x0010;
+  public static final int ACC_BRIDGE = 0x0040;
+  public static final int ACC_INTERFACE = 0x0200;
+  public static final int ACC_ABSTRACT = 0x0400;
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  /**
+   * A field, method, or record component
+   */
+  public static final class Member {
+    private final int access;
+    private final String name;
+    private final String descriptor;
+    private final String signature;
+    private final Map<String, List<String>> annotations;
+    private final List<String> parameterNames;
+
+    public Member(int access, String name, String descriptor, String signature,
+        Map<String, List<String>> annotations, List<String> parameterNames) {
+      this.access = access;
+      this.name = name;
+      this.descriptor = descriptor;
+      this.signature = signature;
+      this.annotations = annotations;
+      this.parameterNames = parameterNames;
+    }
+
+    public int getAccess() {
+      return access;
+    }
+
+    public boolean is(int flag) {
+      return (access & flag) != 0;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getDescriptor() {
+      return descriptor;
+    }
+
+    /**
+     * The generic signature, or null if the member's type is not generic
+     */
+    public String getSignature() {
+      return signature;
+    }
+
+    /**
+     * The runtime-visible annotations on this member, keyed by type descriptor, e.g.,
+     * {@code Ljava/beans/ConstructorProperties;}. Each annotation maps to the strings of its
+     * {@code value} element if that element is a string array, and to an empty list otherwise.
+     */
+    public Map<String, List<String>> getAnnotations() {
+      return annotations;
+    }
+
+    /**
+     * The names of this method's parameters from its {@code MethodParameters} attribute, or null
+     * if the method was not compiled with {@code -parameters}. Individual names may be null.
+     */
+    public List<String> getParameterNames() {
+      return parameterNames;
+    }
+  }
+
+  /**
+   * Parses the class file in the given stream. The stream is read to its end, but not closed.
+   *
+   * @throws IllegalArgumentException if the stream does not contain a valid class file
+   */
+  public static ClassFile parse(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    for (int n = in.read(buf); n != -1; n = in.read(buf))
+      bytes.write(buf, 0, n);
+    return parse(bytes.toByteArray());
+  }
+
+  /**
+   * Parses the given class file.
+   *
+   * @throws IllegalArgumentException if the bytes are not a valid class file
+   */
+  public static ClassFile parse(byte[] bytes) {
+    try {
+      return new Parser(new DataInputStream(new ByteArrayInputStream(bytes))).parse();
+    } catch (EOFException e) {
+      throw new IllegalArgumentException("class file is truncated", e);
+    } catch (IOException e) {
+      // We're reading from memory. This should never happen.
+      throw new AssertionError("failed to read class file", e);
+    }
+  }
+
+  private final int access;
+  private final String name;
+  private final String superName;
+  private final String signature;
+  private final List<Member> fields;
+  private final List<Member> methods;
+  private final List<Member> recordComponents;
+
+  private ClassFile(int access, String name, String superName, String signature,
+      List<Member> fields, List<Member> methods, List<Member> recordComponents) {
+    this.access = access;
+    this.name = name;
+    this.superName = superName;
+    this.signature = signature;
+    this.fields = fields;
+    this.methods = methods;
+    this.recordComponents = recordComponents;
+  }
+
+  public boolean is(int flag) {
+    return (access & flag) != 0;
+  }
+
+  /**
+   * The class's internal name, e.g., {@code java/lang/String}
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * The class's binary name, e.g., {@code java.lang.String}
+   */
+  public String getClassName() {
+    return name.replace('/', '.');
+  }
+
+  /**
+   * The internal name of the class's superclass, or null if this is {@code java/lang/Object}
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * The class's generic signature, or null if neither the class nor its supertypes are generic
+   */
+  public String getSignature() {
+    return signature;
+  }
+
+  public List<Member> getFields() {
+    return fields;
+  }
+
+  public List<Member> getMethods() {
+    return methods;
+  }
+
+  /**
+   * The components of this record class in declaration order, or null if this is not a record
+   */
+  public List<Member> getRecordComponents() {
+    return recordComponents;
+  }
+
+  private static final class Parser {
+    private final DataInputStream in;
+    private String[] utf8s;
+    private int[] classes;
+
+    public Parser(DataInputStream in) {
+      this.in = in;
+    }
+
+    public ClassFile parse() throws IOException {
+      if (in.readInt() != MAGIC)
+        throw new IllegalArgumentException("not a class file");
+      in.readUnsignedShort(); // minor_version
+      in.readUnsignedShort(); // major_version
+
+      readConstantPool();
+
+      int access = in.readUnsignedShort();
+      String name = classAt(in.readUnsignedShort());
+      int superIndex = in.readUnsignedShort();
+      String superName = superIndex != 0 ? classAt(superIndex) : null;
+      in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+
+      List<Member> fields = readMembers();
+      List<Member> methods = readMembers();
+
+      String signature = null;
+      List<Member> recordComponents = null;
+      for (int i = 0, count = in.readUnsignedShort(); i < count; i++) {
+        String attribute = utf8At(in.readUnsignedShort());
+        int length = in.readInt();
+        if (attribute.equals("Signature")) {
+          signature = utf8At(in.readUnsignedShort());
+        } else if (attribute.equals("Record")) {
+          recordComponents = new ArrayList<>();
+          for (int j = 0, components = in.readUnsignedShort(); j < components; j++) {
+            String componentName = utf8At(in.readUnsignedShort());
+            String descriptor = utf8At(in.readUnsignedShort());
+            recordComponents.add(readAttributes(0, componentName, descriptor));
+          }
+          recordComponents = unmodifiableList(recordComponents);
+        } else {
+          skip(length);
+        }
+      }
+
+      return new ClassFile(access, name, superName, signature, fields, methods,
+          recordComponents);
+    }
+
+    private void readConstantPool() throws IOException {
+      int count = in.readUnsignedShort();
+      utf8s = new String[count];
+      classes = new int[count];
+      for (int i = 1; i < count; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case CONSTANT_UTF8:
+            utf8s[i] = in.readUTF();
+            break;
+          case CONSTANT_CLASS:
+            classes[i] = in.readUnsignedShort();
+            break;
+          case CONSTANT_STRING:
+          case CONSTANT_METHOD_TYPE:
+          case CONSTANT_MODULE:
+          case CONSTANT_PACKAGE:
+            skip(2);
+            break;
+          case CONSTANT_METHOD_HANDLE:
+            skip(3);
+            break;
+          case CONSTANT_INTEGER:
+          case CONSTANT_FLOAT:
+          case CONSTANT_FIELDREF:
+          case CONSTANT_METHODREF:
+          case CONSTANT_INTERFACE_METHODREF:
+          case CONSTANT_NAME_AND_TYPE:
+          case CONSTANT_DYNAMIC:
+          case CONSTANT_INVOKE_DYNAMIC:
+            skip(4);
+            break;
+          case CONSTANT_LONG:
+          case CONSTANT_DOUBLE:
+            // These constants take two slots in the pool
+            skip(8);
+            i = i + 1;
+            break;
+          default:
+            throw new IllegalArgumentException(format("unrecognized constant tag %d", tag));
+        }
+      }
+    }
+
+    private List<Member> readMembers() throws IOException {
+      int count = in.readUnsignedShort();
+      List<Member> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        int access = in.readUnsignedShort();
+        String name = utf8At(in.readUnsignedShort());
+        String descriptor = utf8At(in.readUnsignedShort());
+        result.add(readAttributes(access, name, descriptor));
+      }
+      return unmodifiableList(result);
+    }
+
+    /**
+     * Reads the attributes of a field, method, or record component, and returns the member
+     */
+    private Member readAttributes(int access, String name, String descriptor) throws IOException {
+      String signature = null;
+      Map<String, List<String>> annotations = emptyMap();
+      List<String> parameterNames = null;
+      for (int i = 0, count = in.readUnsignedShort(); i < count; i++) {
+        String attribute = utf8At(in.readUnsignedShort());
+        int length = in.readInt();
+        if (attribute.equals("Signature")) {
+          signature = utf8At(in.readUnsignedShort());
+        } else if (attribute.equals("RuntimeVisibleAnnotations")) {
+          annotations = new HashMap<>();
+          for (int j = 0, n = in.readUnsignedShort(); j < n; j++) {
+            String type = utf8At(in.readUnsignedShort());
+            annotations.put(type, readAnnotationValue());
+          }
+          annotations = unmodifiableMap(annotations);
+        } else if (attribute.equals("MethodParameters")) {
+          String[] names = new String[in.readUnsignedByte()];
+          for (int j = 0; j < names.length; j++) {
+            int nameIndex = in.readUnsignedShort();
+            names[j] = nameIndex != 0 ? utf8At(nameIndex) : null;
+            in.readUnsignedShort(); // access_flags
+          }
+          parameterNames = unmodifiableList(Arrays.asList(names));
+        } else {
+          skip(length);
+        }
+      }
+      return new Member(access, name, descriptor, signature, annotations, parameterNames);
+    }
+
+    /**
+     * Reads the element-value pairs of one annotation, and returns the strings of its
+     * {@code value} element if that element is a string array
+     */
+    private List<String> readAnnotationValue() throws IOException {
+      List<String> result = emptyList();
+      for (int i = 0, count = in.readUnsignedShort(); i < count; i++) {
+        String element = utf8At(in.readUnsignedShort());
+        List<String> strings = readElementValue();
+        if (element.equals("value") && strings != null)
+          result = strings;
+      }
+      return result;
+    }
+
+    /**
+     * Reads one element value, and returns its strings if it is a string array, or null otherwise
+     */
+    private List<String> readElementValue() throws IOException {
+      int tag = in.readUnsignedByte();
+      if (tag != '[') {
+        skipElementValue(tag);
+        return null;
+      }
+
+      int count = in.readUnsignedShort();
+      List<String> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        int elementTag = in.readUnsignedByte();
+        if (elementTag == 's' && result != null) {
+          result.add(utf8At(in.readUnsignedShort()));
+        } else {
+          result = null;
+          skipElementValue(elementTag);
+        }
+      }
+      return result != null ? unmodifiableList(result) : null;
+    }
+
+    /**
+     * Skips the rest of an element value whose tag has already been read
+     */
+    private void skipElementValue(int tag) throws IOException {
+      switch (tag) {
+        case 'B':
+        case 'C':
+        case 'D':
+        case 'F':
+        case 'I':
+        case 'J':
+        case 'S':
+        case 'Z':
+        case 's':
+        case 'c':
+          skip(2);
+          break;
+        case 'e':
+          skip(4);
+          break;
+        case '@':
+          skip(2);
+          readAnnotationValue();
+          break;
+        case '[':
+          for (int i = 0, count = in.readUnsignedShort(); i < count; i++)
+            skipElementValue(in.readUnsignedByte());
+          break;
+        default:
+          throw new IllegalArgumentException(format("unrecognized element value tag %d", tag));
+      }
+    }
+
+    private String utf8At(int index) {
+      if (index <= 0 || index >= utf8s.length || utf8s[index] == null)
+        throw new IllegalArgumentException(format("invalid UTF8 constant index %d", index));
+      return utf8s[index];
+    }
+
+    private String classAt(int index) {
+      if (index <= 0 || index >= classes.length || classes[index] == 0)
+        throw new IllegalArgumentException(format("invalid class constant index %d", index));
+      return utf8At(classes[index]);
+    }
+
+    private void skip(int n) throws IOException {
+      if (in.skipBytes(n) != n)
+        throw new EOFException();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toCollection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.annotation.Generated;
+
+/**
+ * The bean metadata of a class, read from its class file by a {@link ClassFileScanner}. This has
+ * the same properties in the same order as the {@link BeanClass} that scanning the loaded class
+ * would produce, but building it neither loads nor initializes the class. Use {@link #resolve()}
+ * to get the {@code BeanClass} once the class is actually needed.
+ */
+public final class ClassFileBean {
+  private final String name;
+  private final ClassLoader classLoader;
+  private final List<ClassFileProperty> properties;
+  private final List<ClassFileProperty> creatorProperties;
+
+  /* default */ ClassFileBean(String name, ClassLoader classLoader,
+      List<ClassFileProperty> properties, List<ClassFileProperty> creatorProperties) {
+    this.name = name;
+    this.classLoader = classLoader;
+    this.properties = properties;
+    this.creatorProperties = creatorProperties;
+  }
+
+  /**
+   * The class's binary name, as {@link Class#getName()} would report it
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * The bean's properties, sorted by name
+   */
+  public List<ClassFileProperty> getProperties() {
+    return properties;
+  }
+
+  public Set<String> getPropertyNames() {
+    return properties.stream().map(ClassFileProperty::getName)
+        .collect(toCollection(LinkedHashSet::new));
+  }
+
+  public Optional<ClassFileProperty> getProperty(String name) {
+    return properties.stream().filter(p -> p.getName().equals(name)).findFirst();
+  }
+
+  /**
+   * @see BeanClass#hasCreator()
+   */
+  public boolean hasCreator() {
+    return creatorProperties != null;
+  }
+
+  /**
+   * The properties assigned by the class's creator constructor in parameter order, or an empty list
+   * if the class has no creator
+   *
+   * @see BeanClass#getCreatorProperties()
+   */
+  public List<ClassFileProperty> getCreatorProperties() {
+    return creatorProperties != null ? creatorProperties : emptyList();
+  }
+
+  /**
+   * Loads and initializes the class through the scanner's class loader, and then scans it with
+   * {@link BeanClass#scan(Class)}. This runs the class's static initializers and default
+   * constructor, so it can still fail for a class whose class file scanned cleanly.
+   *
+   * @throws IllegalArgumentException if the class cannot be loaded, or is not a valid bean class
+   */
+  public BeanClass resolve() {
+    Class<?> rawType;
+    try {
+      rawType = Class.forName(name, true, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException(format("Class %s could not be loaded", name), e);
+    } catch (LinkageError e) {
+      throw new IllegalArgumentException(format("Class %s could not be linked", name), e);
+    }
+    return BeanClass.scan(rawType);
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(name, properties);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    ClassFileBean other = (ClassFileBean) obj;
+    return Objects.equals(name, other.name) && Objects.equals(properties, other.properties);
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "ClassFileBean [name=" + name + ", properties=" + properties + "]";
+  }
+}
@@ -0,0 +1,116 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import java.util.Objects;
+import java.util.Optional;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.annotation.Generated;
+
+/**
+ * A property of a {@link ClassFileBean}. This is the class-file counterpart of a
+ * {@link BeanProperty}: it describes the property's type by descriptor and signature instead of by
+ * {@link java.lang.reflect.Type}, so nothing is loaded to build it.
+ */
+public final class ClassFileProperty {
+  private final String name;
+  private final String descriptor;
+  private final String signature;
+  private final boolean settable;
+  private final boolean created;
+
+  /* default */ ClassFileProperty(String name, String descriptor, String signature,
+      boolean settable, boolean created) {
+    this.name = name;
+    this.descriptor = descriptor;
+    this.signature = signature;
+    this.settable = settable;
+    this.created = created;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * The property's type descriptor, e.g., {@code I} or {@code Ljava/util/List;}
+   */
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * The property's generic type signature, e.g., {@code Ljava/util/List<Ljava/lang/String;>;}, if
+   * its type is generic
+   */
+  public Optional<String> getSignature() {
+    return Optional.ofNullable(signature);
+  }
+
+  /**
+   * The name of the property's raw type as {@link Class#getTypeName()} would report it, e.g.,
+   * {@code int}, {@code java.lang.String}, or {@code java.lang.String[]}
+   */
+  public String getTypeName() {
+    return Descriptors.getTypeName(descriptor);
+  }
+
+  /**
+   * @see BeanProperty#isSettable()
+   */
+  public boolean isSettable() {
+    return settable;
+  }
+
+  /**
+   * Returns true if the property is assigned by the class's creator constructor
+   */
+  public boolean isCreated() {
+    return created;
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(created, descriptor, name, settable, signature);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    ClassFileProperty other = (ClassFileProperty) obj;
+    return created == other.created && Objects.equals(descriptor, other.descriptor)
+        && Objects.equals(name, other.name)
+        && settable == other.settable && Objects.equals(signature, other.signature);
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "ClassFileProperty [name=" + name + ", descriptor=" + descriptor + ", signature="
+        + signature + ", settable=" + settable + ", created=" + created + "]";
+  }
+}
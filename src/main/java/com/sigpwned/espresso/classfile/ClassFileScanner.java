@@ -0,0 +1,503 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.annotation.BeanCreator;
+
+/**
+ * <p>
+ * Scans beans from their class files instead of through reflection. The scanner applies the same
+ * rules as {@link BeanClass#scan(Class)} to the fields and methods it reads from the class file of
+ * the bean and of each of its superclasses, so it can index and validate many classes at build
+ * time or during startup checks without loading them, running their static initializers, or
+ * instantiating them. Reflection is only involved once a {@link ClassFileBean} is
+ * {@link ClassFileBean#resolve() resolved}.
+ * </p>
+ *
+ * <p>
+ * The scanner compares the types of a property's field, getter, and setter by erasure. Type
+ * variables declared by a superclass are erased to the type arguments that its subclasses pass it,
+ * as far as the class files say. An element whose type is a type variable with no such binding is
+ * assumed to match, leaving the final check to {@link ClassFileBean#resolve()}.
+ * Interfaces are rejected, including bean interfaces, whose implementations only exist at runtime.
+ * Members inherited from {@link Object} are not considered.
+ * </p>
+ *
+ * <p>
+ * Parsed superclasses are cached by the scanner, so scanning many beans with a common base class
+ * reads its class file only once. Scanners are thread-safe.
+ * </p>
+ */
+public class ClassFileScanner {
+  /**
+   * Only used to explain ignored creators and properties while scanning
+   */
+  private static Logger logger() {
+    return LoggerFactory.getLogger(ClassFileScanner.class);
+  }
+
+  private static final String BEAN_CREATOR = "L" + BeanCreator.class.getName().replace('.', '/')
+      + ";";
+
+  private static final String CONSTRUCTOR_PROPERTIES = "Ljava/beans/ConstructorProperties;";
+
+  private static final String OBJECT = "java/lang/Object";
+
+  private static final String CONSTRUCTOR = "<init>";
+
+  private final ClassLoader classLoader;
+  private final Map<String, ClassFile> superclasses;
+
+  /**
+   * Creates a scanner that reads class files, including the class files of superclasses, from the
+   * given class loader's resources. The class loader is also used to load classes on
+   * {@link ClassFileBean#resolve()}.
+   */
+  public ClassFileScanner(ClassLoader classLoader) {
+    if (classLoader == null)
+      throw new NullPointerException();
+    this.classLoader = classLoader;
+    this.superclasses = new ConcurrentHashMap<>();
+  }
+
+  public ClassLoader getClassLoader() {
+    return classLoader;
+  }
+
+  /**
+   * Scans the class with the given binary name, e.g., {@code com.example.Person}, from its class
+   * file on the classpath.
+   *
+   * @throws IllegalArgumentException if there is no such class file, or the class is not valid
+   * @see BeanClass#scan(Class)
+   */
+  public ClassFileBean scan(String className) throws IOException {
+    return scan(read(className.replace('.', '/')));
+  }
+
+  /**
+   * Scans the class in the given class file. The stream is read to its end, but not closed. The
+   * class's superclasses are read from the classpath.
+   *
+   * @throws IllegalArgumentException if the stream does not contain a class file, or the class is
+   *         not valid
+   * @see BeanClass#scan(Class)
+   */
+  public ClassFileBean scan(InputStream in) throws IOException {
+    return scan(ClassFile.parse(in));
+  }
+
+  private ClassFileBean scan(ClassFile classFile) throws IOException {
+    String className = classFile.getClassName();
+
+    // This is an interface or annotation
+    if (classFile.is(ClassFile.ACC_INTERFACE))
+      throw new IllegalArgumentException(format("Class %s is an interface", className));
+
+    // This is an abstract class
+    if (classFile.is(ClassFile.ACC_ABSTRACT))
+      throw new IllegalArgumentException(format("Class %s is abstract", className));
+
+    // We need a default constructor or a creator
+    boolean hasDefaultConstructor = classFile.getMethods().stream()
+        .anyMatch(m -> m.getName().equals(CONSTRUCTOR) && m.getDescriptor().equals("()V")
+            && m.is(ClassFile.ACC_PUBLIC));
+
+    // As in BeanClass, a broken creator is only fatal without a default constructor
+    ClassFile.Member creatorConstructor;
+    List<String> creatorNames;
+    try {
+      creatorConstructor = findCreatorConstructor(classFile);
+      creatorNames = creatorConstructor != null ? getCreatorNames(classFile, creatorConstructor)
+          : emptyList();
+    } catch (IllegalArgumentException e) {
+      if (!hasDefaultConstructor)
+        throw e;
+      logger().debug("Ignoring creator of class {} because {}", className, e.getMessage());
+      creatorConstructor = null;
+      creatorNames = emptyList();
+    }
+
+    if (!hasDefaultConstructor && creatorConstructor == null)
+      throw new IllegalArgumentException(
+          format("Class %s has no default constructor", className));
+
+    Map<String, List<Element>> fields = new HashMap<>();
+    Map<String, List<Element>> getters = new HashMap<>();
+    Map<String, List<Element>> setters = new HashMap<>();
+    Map<String, String> bindings = emptyMap();
+    for (ClassFile c = classFile; c != null;) {
+      for (ClassFile.Member field : c.getFields())
+        if (isBeanField(field))
+          fields.computeIfAbsent(field.getName(), k -> new ArrayList<>())
+              .add(new Element(field.getDescriptor(), field.getSignature(), bindings,
+                  field.is(ClassFile.ACC_PUBLIC)));
+
+      for (ClassFile.Member method : c.getMethods()) {
+        // Bridge methods only restate another method's signature with erased types, so skip them
+        if (method.is(ClassFile.ACC_BRIDGE))
+          continue;
+        String signature = method.getSignature();
+        if (isBeanGetter(method))
+          getters.computeIfAbsent(propertyName(method.getName()), k -> new ArrayList<>())
+              .add(new Element(Descriptors.getReturnType(method.getDescriptor()),
+                  signature != null ? Descriptors.getReturnType(signature) : null, bindings,
+                  true));
+        if (isBeanSetter(method))
+          setters.computeIfAbsent(propertyName(method.getName()), k -> new ArrayList<>())
+              .add(new Element(Descriptors.getParameterTypes(method.getDescriptor()).get(0),
+                  signature != null ? Descriptors.getParameterTypes(signature).get(0) : null,
+                  bindings, true));
+      }
+
+      // Record component accessors don't follow the bean naming convention, but they are getters
+      if (c.getRecordComponents() != null) {
+        for (ClassFile.Member component : c.getRecordComponents())
+          getters.computeIfAbsent(component.getName(), k -> new ArrayList<>()).add(new Element(
+              component.getDescriptor(), component.getSignature(), bindings, true));
+      }
+
+      ClassFile superclass = getSuperclass(c);
+      if (superclass != null)
+        bindings = bindSuperclass(c, superclass, bindings);
+      c = superclass;
+    }
+
+    Set<String> propertyNames = new TreeSet<>();
+    propertyNames.addAll(fields.keySet());
+    propertyNames.addAll(getters.keySet());
+    propertyNames.addAll(setters.keySet());
+
+    List<ClassFileProperty> properties = new ArrayList<>();
+    for (String propertyName : propertyNames) {
+      List<Element> propertyFields = fields.getOrDefault(propertyName, emptyList());
+      List<Element> propertyGetters = getters.getOrDefault(propertyName, emptyList());
+      List<Element> propertySetters = setters.getOrDefault(propertyName, emptyList());
+
+      if (propertyFields.size() > 1) {
+        logger().debug("Ignoring property {} because of multiple conflicting fields with same name",
+            propertyName);
+        continue;
+      }
+      Element propertyField = propertyFields.isEmpty() ? null : propertyFields.get(0);
+
+      Element propertyGetter = findElement(propertyGetters);
+      if (propertyGetter == null && !propertyGetters.isEmpty()) {
+        logger().debug(
+            "Ignoring property {} because of multiple conflicting getters with same name",
+            propertyName);
+        continue;
+      }
+
+      Element propertySetter = findElement(propertySetters);
+      if (propertySetter == null && !propertySetters.isEmpty()) {
+        logger().debug(
+            "Ignoring property {} because of multiple conflicting setters with same name",
+            propertyName);
+        continue;
+      }
+
+      Element first = propertyField != null ? propertyField
+          : propertyGetter != null ? propertyGetter : propertySetter;
+      if (!first.isSameType(propertyGetter) || !first.isSameType(propertySetter)) {
+        logger().debug(
+            "Ignoring property {} because of conflicting types among field, getter, and setter",
+            propertyName);
+        continue;
+      }
+
+      boolean accessible = propertyField != null && propertyField.accessible;
+      boolean gettable = accessible || propertyGetter != null;
+      boolean settable = accessible || propertySetter != null;
+      boolean created = creatorNames.contains(propertyName);
+      if (gettable && (settable || (created && !hasDefaultConstructor))) {
+        properties.add(new ClassFileProperty(propertyName, first.descriptor, first.signature,
+            settable, created));
+      } else {
+        logger().debug("Ignoring property {} because it is not both gettable and settable",
+            propertyName);
+      }
+    }
+
+    List<ClassFileProperty> creatorProperties = null;
+    if (creatorConstructor != null) {
+      try {
+        creatorProperties =
+            getCreatorProperties(className, creatorConstructor, creatorNames, properties);
+      } catch (IllegalArgumentException e) {
+        if (!hasDefaultConstructor)
+          throw e;
+        logger().debug("Ignoring creator of class {} because {}", className, e.getMessage());
+      }
+    }
+
+    return new ClassFileBean(className, classLoader, unmodifiableList(properties),
+        creatorProperties);
+  }
+
+  /**
+   * Returns the only element of the given list, or the first one if they all have the same type,
+   * or null if the list is empty or they conflict
+   */
+  private static Element findElement(List<Element> elements) {
+    if (elements.isEmpty())
+      return null;
+    Element first = elements.get(0);
+    return elements.stream().allMatch(first::isSameType) ? first : null;
+  }
+
+  /**
+   * Finds the constructor to use as the class's creator, if any, by the same rules as
+   * {@link BeanClass#scan(Class)}
+   */
+  private static ClassFile.Member findCreatorConstructor(ClassFile classFile) {
+    List<ClassFile.Member> constructors = classFile.getMethods().stream()
+        .filter(m -> m.getName().equals(CONSTRUCTOR) && m.is(ClassFile.ACC_PUBLIC))
+        .collect(toList());
+
+    List<ClassFile.Member> annotated = constructors.stream()
+        .filter(c -> c.getAnnotations().containsKey(BEAN_CREATOR)).collect(toList());
+    if (annotated.isEmpty())
+      annotated = constructors.stream()
+          .filter(c -> c.getAnnotations().containsKey(CONSTRUCTOR_PROPERTIES)).collect(toList());
+    if (annotated.size() > 1)
+      throw new IllegalArgumentException(
+          format("Class %s has multiple creator constructors", classFile.getClassName()));
+    if (annotated.size() == 1)
+      return annotated.get(0);
+
+    if (classFile.getRecordComponents() != null) {
+      StringBuilder descriptor = new StringBuilder("(");
+      for (ClassFile.Member component : classFile.getRecordComponents())
+        descriptor.append(component.getDescriptor());
+      descriptor.append(")V");
+      return constructors.stream().filter(c -> c.getDescriptor().contentEquals(descriptor))
+          .findFirst().orElseThrow(() -> new IllegalArgumentException(format(
+              "Class %s canonical constructor is not public", classFile.getClassName())));
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the property names for the given creator's parameters, in order
+   */
+  private static List<String> getCreatorNames(ClassFile classFile,
+      ClassFile.Member constructor) {
+    List<String> beanCreator = constructor.getAnnotations().get(BEAN_CREATOR);
+    if (beanCreator != null && !beanCreator.isEmpty())
+      return beanCreator;
+
+    if (beanCreator == null) {
+      List<String> constructorProperties =
+          constructor.getAnnotations().get(CONSTRUCTOR_PROPERTIES);
+      if (constructorProperties != null)
+        return constructorProperties;
+
+      if (classFile.getRecordComponents() != null)
+        return classFile.getRecordComponents().stream().map(ClassFile.Member::getName)
+            .collect(toList());
+    }
+
+    List<String> parameterNames = constructor.getParameterNames();
+    if (parameterNames == null || parameterNames.contains(null))
+      throw new IllegalArgumentException(format(
+          "Class %s creator parameter names are not available, compile with -parameters",
+          classFile.getClassName()));
+    return parameterNames;
+  }
+
+  /**
+   * Matches the creator's parameters to properties by the same rules as the creator of a scanned
+   * {@link BeanClass}
+   */
+  private static List<ClassFileProperty> getCreatorProperties(String className,
+      ClassFile.Member constructor, List<String> names, List<ClassFileProperty> properties) {
+    List<String> parameterTypes = Descriptors.getParameterTypes(constructor.getDescriptor());
+    if (parameterTypes.size() != names.size())
+      throw new IllegalArgumentException(format("Class %s creator has %d parameters, but %d names",
+          className, parameterTypes.size(), names.size()));
+
+    List<ClassFileProperty> result = new ArrayList<>(names.size());
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i);
+      ClassFileProperty property = properties.stream().filter(p -> p.getName().equals(name))
+          .findFirst().orElseThrow(() -> new IllegalArgumentException(format(
+              "Class %s creator parameter %s is not a gettable property", className, name)));
+      if (result.contains(property))
+        throw new IllegalArgumentException(
+            format("Class %s creator parameter %s appears twice", className, name));
+      if (!property.getDescriptor().equals(parameterTypes.get(i))
+          && !property.getSignature().map(Descriptors::isVariable).orElse(false))
+        throw new IllegalArgumentException(
+            format("Class %s creator parameter %s has type %s, but property has type %s",
+                className, name, Descriptors.getTypeName(parameterTypes.get(i)),
+                property.getTypeName()));
+      result.add(property);
+    }
+
+    return unmodifiableList(result);
+  }
+
+  /**
+   * Returns the erasures of the superclass's type variables, given the erasures of the class's own
+   * type variables. Variables bound to wildcards or to unbound variables are left out.
+   */
+  private static Map<String, String> bindSuperclass(ClassFile classFile, ClassFile superclass,
+      Map<String, String> bindings) {
+    if (classFile.getSignature() == null || superclass.getSignature() == null)
+      return emptyMap();
+
+    List<String> names = Descriptors.getTypeParameterNames(superclass.getSignature());
+    List<String> arguments = Descriptors.getSuperclassTypeArguments(classFile.getSignature());
+    if (names.size() != arguments.size())
+      return emptyMap();
+
+    Map<String, String> result = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      String argument = arguments.get(i);
+      char c = argument.charAt(0);
+      String erasure = c == '*' || c == '+' || c == '-' ? null
+          : Descriptors.erase(argument, bindings);
+      if (erasure != null)
+        result.put(names.get(i), erasure);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the given class's superclass, or null if it is {@link Object}
+   */
+  private ClassFile getSuperclass(ClassFile classFile) throws IOException {
+    String superName = classFile.getSuperName();
+    if (superName == null || superName.equals(OBJECT))
+      return null;
+
+    ClassFile result = superclasses.get(superName);
+    if (result == null) {
+      result = read(superName);
+      superclasses.putIfAbsent(superName, result);
+    }
+
+    return result;
+  }
+
+  private ClassFile read(String internalName) throws IOException {
+    try (InputStream in = classLoader.getResourceAsStream(internalName + ".class")) {
+      if (in == null)
+        throw new IllegalArgumentException(
+            format("Class %s has no class file", internalName.replace('/', '.')));
+      return ClassFile.parse(in);
+    }
+  }
+
+  /**
+   * @see com.sigpwned.espresso.util.Beans#isBeanField(java.lang.reflect.Field)
+   */
+  private static boolean isBeanField(ClassFile.Member field) {
+    return Character.isLowerCase(field.getName().charAt(0)) && !field.is(ClassFile.ACC_STATIC)
+        && !field.is(ClassFile.ACC_FINAL);
+  }
+
+  /**
+   * @see com.sigpwned.espresso.util.Beans#isBeanGetter(java.lang.reflect.Method)
+   */
+  private static boolean isBeanGetter(ClassFile.Member method) {
+    String name = method.getName();
+    String descriptor = method.getDescriptor();
+    if (method.is(ClassFile.ACC_STATIC) || !method.is(ClassFile.ACC_PUBLIC)
+        || !descriptor.startsWith("()") || descriptor.equals("()V"))
+      return false;
+    if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.codePointAt(3)))
+      return true;
+    return descriptor.equals("()Z") && name.length() > 2 && name.startsWith("is")
+        && Character.isUpperCase(name.codePointAt(2));
+  }
+
+  /**
+   * @see com.sigpwned.espresso.util.Beans#isBeanSetter(java.lang.reflect.Method)
+   */
+  private static boolean isBeanSetter(ClassFile.Member method) {
+    String name = method.getName();
+    return name.length() > 3 && name.startsWith("set") && Character.isUpperCase(name.codePointAt(3))
+        && !method.is(ClassFile.ACC_STATIC) && method.is(ClassFile.ACC_PUBLIC)
+        && method.getDescriptor().endsWith(")V")
+        && Descriptors.getParameterTypes(method.getDescriptor()).size() == 1;
+  }
+
+  /**
+   * Returns the property name for the given getter or setter name
+   */
+  private static String propertyName(String methodName) {
+    int prefix = methodName.startsWith("is") ? 2 : 3;
+    return Character.toLowerCase(methodName.charAt(prefix)) + methodName.substring(prefix + 1);
+  }
+
+  /**
+   * The type of one field, getter, or setter of a property
+   */
+  private static final class Element {
+    public final String descriptor;
+    public final String signature;
+    public final boolean accessible;
+
+    /**
+     * True if the element's type is an unbound type variable, so its erasure may not be final
+     */
+    public final boolean variable;
+
+    public Element(String descriptor, String signature, Map<String, String> bindings,
+        boolean accessible) {
+      String erasure = signature != null ? Descriptors.erase(signature, bindings) : descriptor;
+      this.descriptor = erasure != null ? erasure : descriptor;
+      this.signature = signature;
+      this.accessible = accessible;
+      this.variable = erasure == null;
+    }
+
+    /**
+     * Returns true if the given element has the same erased type as this one, or if either type is
+     * an unbound type variable. A null element matches anything.
+     */
+    public boolean isSameType(Element other) {
+      if (other == null || other == this || descriptor.equals(other.descriptor))
+        return true;
+      return variable || other.variable;
+    }
+  }
+}
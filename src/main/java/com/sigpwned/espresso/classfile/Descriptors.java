@@ -0,0 +1,242 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods for reading type descriptors and generic signatures
+ */
+/* default */ final class Descriptors {
+  private Descriptors() {}
+
+  /**
+   * Returns the name of the given field descriptor's type as {@link Class#getTypeName()} would
+   * report it, e.g., {@code int} for {@code I} or {@code java.lang.String[]} for
+   * {@code [Ljava/lang/String;}.
+   */
+  public static String getTypeName(String descriptor) {
+    int dimensions = 0;
+    while (descriptor.charAt(dimensions) == '[')
+      dimensions = dimensions + 1;
+
+    StringBuilder result = new StringBuilder();
+    char c = descriptor.charAt(dimensions);
+    if (c == 'L')
+      result.append(descriptor, dimensions + 1, descriptor.length() - 1);
+    else
+      result.append(getPrimitiveName(c));
+    for (int i = 0; i < dimensions; i++)
+      result.append("[]");
+
+    return result.toString().replace('/', '.');
+  }
+
+  private static String getPrimitiveName(char c) {
+    switch (c) {
+      case 'Z':
+        return "boolean";
+      case 'B':
+        return "byte";
+      case 'S':
+        return "short";
+      case 'C':
+        return "char";
+      case 'I':
+        return "int";
+      case 'J':
+        return "long";
+      case 'F':
+        return "float";
+      case 'D':
+        return "double";
+      case 'V':
+        return "void";
+      default:
+        throw new IllegalArgumentException("unrecognized descriptor " + c);
+    }
+  }
+
+  /**
+   * Returns the descriptors of the given method descriptor's parameters, e.g., {@code [I, J]} for
+   * {@code (IJ)V}. This also works for a generic method signature without type parameters, in
+   * which case it returns the parameters' signatures.
+   */
+  public static List<String> getParameterTypes(String methodDescriptor) {
+    int start = methodDescriptor.indexOf('(') + 1;
+    int end = methodDescriptor.lastIndexOf(')');
+    List<String> result = new ArrayList<>();
+    for (int i = start; i < end;) {
+      int next = skipType(methodDescriptor, i, null);
+      result.add(methodDescriptor.substring(i, next));
+      i = next;
+    }
+    return unmodifiableList(result);
+  }
+
+  /**
+   * Returns the descriptor of the given method descriptor's return type, e.g., {@code V} for
+   * {@code (IJ)V}. This also works for a generic method signature, in which case it returns the
+   * return type's signature without any thrown types.
+   */
+  public static String getReturnType(String methodDescriptor) {
+    int start = methodDescriptor.lastIndexOf(')') + 1;
+    return methodDescriptor.substring(start, skipType(methodDescriptor, start, null));
+  }
+
+  /**
+   * Returns the erasure of the given type signature as a descriptor, e.g., {@code Ljava/util/List;}
+   * for {@code Ljava/util/List<TT;>;}. Type variables are erased to their descriptors in the given
+   * bindings. Returns null if the type is a type variable with no binding, or an array of one.
+   */
+  public static String erase(String signature, Map<String, String> bindings) {
+    switch (signature.charAt(0)) {
+      case '[':
+        String component = erase(signature.substring(1), bindings);
+        return component != null ? "[" + component : null;
+      case 'T':
+        return bindings.get(signature.substring(1, signature.indexOf(';')));
+      case 'L':
+        StringBuilder result = new StringBuilder();
+        int depth = 0;
+        for (int i = 0, end = skipType(signature, 0, null); i < end; i++) {
+          char c = signature.charAt(i);
+          if (c == '<')
+            depth = depth + 1;
+          else if (c == '>')
+            depth = depth - 1;
+          else if (depth == 0)
+            result.append(c == '.' ? '$' : c);
+        }
+        return result.toString();
+      default:
+        return signature.substring(0, 1);
+    }
+  }
+
+  /**
+   * Returns the names of the type parameters declared by the given class signature, e.g.,
+   * {@code [K, V]} for {@code <K:Ljava/lang/Object;V:Ljava/lang/Object;>Ljava/lang/Object;}
+   */
+  public static List<String> getTypeParameterNames(String classSignature) {
+    List<String> result = new ArrayList<>();
+    if (classSignature.charAt(0) == '<') {
+      int i = 1;
+      while (classSignature.charAt(i) != '>') {
+        int colon = classSignature.indexOf(':', i);
+        result.add(classSignature.substring(i, colon));
+        i = colon;
+        // The class bound may be empty, but each interface bound is a type
+        while (classSignature.charAt(i) == ':') {
+          i = i + 1;
+          if (classSignature.charAt(i) != ':')
+            i = skipType(classSignature, i, null);
+        }
+      }
+    }
+    return unmodifiableList(result);
+  }
+
+  /**
+   * Returns the type arguments that the given class signature passes to its superclass, e.g.,
+   * {@code [Ljava/lang/String;]} for {@code Lcom/example/Base<Ljava/lang/String;>;}. Wildcard
+   * arguments keep their {@code *}, {@code +}, or {@code -} prefix.
+   */
+  public static List<String> getSuperclassTypeArguments(String classSignature) {
+    int i = 0;
+    if (classSignature.charAt(0) == '<')
+      i = skipTypeParameters(classSignature);
+
+    // Only the arguments to the innermost class matter
+    List<String> result = new ArrayList<>();
+    for (i = i + 1; classSignature.charAt(i) != ';'; i++) {
+      if (classSignature.charAt(i) == '<') {
+        result.clear();
+        i = i + 1;
+        while (classSignature.charAt(i) != '>') {
+          char c = classSignature.charAt(i);
+          int next = c == '*' ? i + 1
+              : skipType(classSignature, c == '+' || c == '-' ? i + 1 : i, null);
+          result.add(classSignature.substring(i, next));
+          i = next;
+        }
+      }
+    }
+    return unmodifiableList(result);
+  }
+
+  private static int skipTypeParameters(String classSignature) {
+    int depth = 0;
+    for (int i = 0;; i++) {
+      char c = classSignature.charAt(i);
+      if (c == '<') {
+        depth = depth + 1;
+      } else if (c == '>') {
+        depth = depth - 1;
+        if (depth == 0)
+          return i + 1;
+      }
+    }
+  }
+
+  /**
+   * Returns true if the given type signature mentions a type variable anywhere, e.g.,
+   * {@code TT;} or {@code Ljava/util/List<TT;>;}
+   */
+  public static boolean isVariable(String signature) {
+    boolean[] variable = new boolean[1];
+    skipType(signature, 0, variable);
+    return variable[0];
+  }
+
+  /**
+   * Returns the index just past the type descriptor or signature that starts at the given index.
+   * If {@code variable} is not null, sets its only element if the type mentions a type variable.
+   */
+  private static int skipType(String s, int i, boolean[] variable) {
+    switch (s.charAt(i)) {
+      case '[':
+        return skipType(s, i + 1, variable);
+      case 'T':
+        if (variable != null)
+          variable[0] = true;
+        return s.indexOf(';', i) + 1;
+      case 'L':
+        for (i = i + 1; s.charAt(i) != ';'; i++) {
+          if (s.charAt(i) == '<') {
+            i = i + 1;
+            while (s.charAt(i) != '>') {
+              char c = s.charAt(i);
+              if (c == '*')
+                i = i + 1;
+              else
+                i = skipType(s, c == '+' || c == '-' ? i + 1 : i, variable);
+            }
+          }
+        }
+        return i + 1;
+      default:
+        return i + 1;
+    }
+  }
+}
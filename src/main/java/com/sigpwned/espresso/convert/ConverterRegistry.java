@@ -0,0 +1,215 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.convert;
+
+import static java.lang.String.format;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.annotation.Generated;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * A registry of {@link Converter}s keyed by source and target class. Lookups consider the source
+ * class and then its superclasses and interfaces, so a converter registered for {@link Number}
+ * applies to {@link Integer} values too. Primitive target types use their wrapper's converters, and
+ * strings convert to any enum type by constant name.
+ *
+ * <p>
+ * Lookups are not especially cheap, so callers should cache the results.
+ * {@link BeanProperty#set(Object, Object, ConverterRegistry)} keeps the last converter it used in a
+ * per-property inline cache, which is invalidated by {@link #getVersion()} whenever a converter is
+ * registered.
+ * </p>
+ */
+public final class ConverterRegistry {
+  private static final ConverterRegistry DEFAULT = new ConverterRegistry();
+
+  /**
+   * A shared registry containing the built-in converters
+   */
+  public static ConverterRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  private final Map<Key, Converter<?, ?>> converters;
+  private volatile int version;
+
+  /**
+   * Creates a new registry containing the built-in converters
+   */
+  public ConverterRegistry() {
+    this.converters = new ConcurrentHashMap<>();
+
+    register(String.class, Boolean.class, ConverterRegistry::parseBoolean);
+    register(String.class, Byte.class, s -> Byte.valueOf(s.trim()));
+    register(String.class, Short.class, s -> Short.valueOf(s.trim()));
+    register(String.class, Integer.class, s -> Integer.valueOf(s.trim()));
+    register(String.class, Long.class, s -> Long.valueOf(s.trim()));
+    register(String.class, Float.class, s -> Float.valueOf(s.trim()));
+    register(String.class, Double.class, s -> Double.valueOf(s.trim()));
+    register(String.class, Character.class, ConverterRegistry::parseCharacter);
+    register(String.class, BigInteger.class, s -> new BigInteger(s.trim()));
+    register(String.class, BigDecimal.class, s -> new BigDecimal(s.trim()));
+    register(String.class, Instant.class, s -> Instant.parse(s.trim()));
+
+    register(Number.class, Byte.class, n -> (byte) exactLong(n, Byte.MIN_VALUE, Byte.MAX_VALUE));
+    register(Number.class, Short.class,
+        n -> (short) exactLong(n, Short.MIN_VALUE, Short.MAX_VALUE));
+    register(Number.class, Integer.class,
+        n -> (int) exactLong(n, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    register(Number.class, Long.class, n -> exactLong(n, Long.MIN_VALUE, Long.MAX_VALUE));
+    register(Number.class, Float.class, Number::floatValue);
+    register(Number.class, Double.class, Number::doubleValue);
+    register(Number.class, BigDecimal.class, n -> new BigDecimal(n.toString()));
+
+    register(Long.class, Instant.class, Instant::ofEpochMilli);
+    register(Instant.class, Long.class, Instant::toEpochMilli);
+  }
+
+  /**
+   * Registers the given converter, replacing any existing converter for the same source and
+   * target.
+   */
+  public <S, T> ConverterRegistry register(Class<S> source, Class<T> target,
+      Converter<? super S, ? extends T> converter) {
+    if (source.isPrimitive() || target.isPrimitive())
+      throw new IllegalArgumentException("use wrapper types, not primitive types");
+    converters.put(new Key(source, target), converter);
+    synchronized (this) {
+      version = version + 1;
+    }
+    return this;
+  }
+
+  /**
+   * Finds the converter from the given source class to the given target class, if any. Does not
+   * consider whether the source is already assignable to the target.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Optional<Converter<Object, Object>> find(Class<?> source, Class<?> target) {
+    Class<?> wrappedTarget = Reflection.wrap(target);
+
+    // Search the source's type hierarchy breadth-first, so nearer ancestors win
+    Set<Class<?>> visited = new HashSet<>();
+    Deque<Class<?>> queue = new ArrayDeque<>();
+    queue.add(Reflection.wrap(source));
+    while (!queue.isEmpty()) {
+      Class<?> c = queue.removeFirst();
+      if (!visited.add(c))
+        continue;
+      Converter<?, ?> converter = converters.get(new Key(c, wrappedTarget));
+      if (converter != null)
+        return Optional.of((Converter<Object, Object>) converter);
+      if (c.getSuperclass() != null)
+        queue.addLast(c.getSuperclass());
+      for (Class<?> i : c.getInterfaces())
+        queue.addLast(i);
+    }
+
+    if (source == String.class && wrappedTarget.isEnum()) {
+      Class<? extends Enum> enumType = (Class<? extends Enum>) wrappedTarget;
+      return Optional.of(s -> Enum.valueOf(enumType, ((String) s).trim()));
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Increases every time a converter is registered. Caches of lookup results should be discarded
+   * when this changes.
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  private static Boolean parseBoolean(String s) {
+    String trimmed = s.trim();
+    if (trimmed.equalsIgnoreCase("true"))
+      return Boolean.TRUE;
+    if (trimmed.equalsIgnoreCase("false"))
+      return Boolean.FALSE;
+    throw new IllegalArgumentException(format("not a boolean: %s", s));
+  }
+
+  private static Character parseCharacter(String s) {
+    if (s.length() != 1)
+      throw new IllegalArgumentException(format("not a single character: %s", s));
+    return s.charAt(0);
+  }
+
+  /**
+   * Returns the value of the given number as a long, if it is a whole number within the given
+   * range
+   */
+  private static long exactLong(Number n, long min, long max) {
+    long result;
+    if (n instanceof BigInteger) {
+      result = ((BigInteger) n).longValueExact();
+    } else if (n instanceof BigDecimal) {
+      result = ((BigDecimal) n).longValueExact();
+    } else {
+      result = n.longValue();
+      if ((n instanceof Double || n instanceof Float) && n.doubleValue() != result)
+        throw new IllegalArgumentException(format("not a whole number: %s", n));
+    }
+    if (result < min || result > max)
+      throw new IllegalArgumentException(format("out of range: %s", n));
+    return result;
+  }
+
+  private static final class Key {
+    private final Class<?> source;
+    private final Class<?> target;
+
+    public Key(Class<?> source, Class<?> target) {
+      this.source = source;
+      this.target = target;
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+      return Objects.hash(source, target);
+    }
+
+    @Override
+    @Generated
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Key other = (Key) obj;
+      return Objects.equals(source, other.source) && Objects.equals(target, other.target);
+    }
+  }
+}
@@ -0,0 +1,378 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.format;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.annotation.Generated;
+
+/**
+ * <p>
+ * Renders bean instances as text, e.g. for logging. Two styles are supported:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link Style#BRACKETED}: {@code Example[alpha=hello, bravo=5]}</li>
+ * <li>{@link Style#KEY_VALUE}: {@code alpha=hello bravo=5}</li>
+ * </ul>
+ *
+ * <p>
+ * Properties appear in the order of their {@link BeanClass}. Every property name prefix is
+ * computed once when the formatter is created, and rendering writes directly to the given
+ * {@link StringBuilder} or {@link Appendable}. Primitive properties are read with their typed
+ * getters, so they are never boxed, and {@link CharSequence} values are copied without
+ * intermediate strings. Formatters are immutable and safe to share between threads. The
+ * {@code with*} methods return modified copies.
+ * </p>
+ */
+public class BeanFormatter {
+  public static enum Style {
+    /**
+     * {@code Example[alpha=hello, bravo=5]}
+     */
+    BRACKETED,
+
+    /**
+     * {@code alpha=hello bravo=5}. Values that contain spaces, quotes, or equals signs are quoted.
+     */
+    KEY_VALUE;
+  }
+
+  /**
+   * The text written in place of the value of a redacted property
+   */
+  public static final String REDACTED = "***";
+
+  /**
+   * The text appended to truncated values
+   */
+  public static final String ELLIPSIS = "...";
+
+  /**
+   * Indicates that values should not be truncated
+   */
+  public static final int UNLIMITED = -1;
+
+  public static BeanFormatter of(BeanClass beanClass) {
+    return new BeanFormatter(beanClass, Style.BRACKETED, UNLIMITED, emptySet());
+  }
+
+  private final BeanClass beanClass;
+  private final Style style;
+  private final int maxValueLength;
+  private final Set<Class<? extends Annotation>> redactedAnnotations;
+  private final BeanProperty[] properties;
+  private final String[] prefixes;
+  private final boolean[] redacted;
+  private final String suffix;
+
+  private BeanFormatter(BeanClass beanClass, Style style, int maxValueLength,
+      Set<Class<? extends Annotation>> redactedAnnotations) {
+    if (beanClass == null)
+      throw new NullPointerException();
+    if (style == null)
+      throw new NullPointerException();
+    if (maxValueLength < 0 && maxValueLength != UNLIMITED)
+      throw new IllegalArgumentException("maxValueLength must not be negative");
+    this.beanClass = beanClass;
+    this.style = style;
+    this.maxValueLength = maxValueLength;
+    this.redactedAnnotations = unmodifiableSet(redactedAnnotations);
+
+    this.properties = beanClass.stream().toArray(BeanProperty[]::new);
+    this.prefixes = new String[properties.length];
+    this.redacted = new boolean[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      BeanProperty property = properties[i];
+      switch (style) {
+        case BRACKETED:
+          prefixes[i] = (i == 0 ? beanClass.getRawType().getSimpleName() + "[" : ", ")
+              + property.getName() + "=";
+          break;
+        case KEY_VALUE:
+          prefixes[i] = (i == 0 ? "" : " ") + property.getName() + "=";
+          break;
+        default:
+          throw new AssertionError(style);
+      }
+      redacted[i] = property.getAnnotations().stream()
+          .anyMatch(a -> redactedAnnotations.contains(a.annotationType()));
+    }
+
+    switch (style) {
+      case BRACKETED:
+        suffix = properties.length == 0 ? beanClass.getRawType().getSimpleName() + "[]" : "]";
+        break;
+      case KEY_VALUE:
+        suffix = "";
+        break;
+      default:
+        throw new AssertionError(style);
+    }
+  }
+
+  /**
+   * The {@link BeanClass} this formatter renders instances of
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  public Style getStyle() {
+    return style;
+  }
+
+  public BeanFormatter withStyle(Style style) {
+    return new BeanFormatter(beanClass, style, maxValueLength, redactedAnnotations);
+  }
+
+  /**
+   * The maximum number of characters rendered for any one value before it is truncated with an
+   * {@link #ELLIPSIS}, or {@link #UNLIMITED}.
+   */
+  public int getMaxValueLength() {
+    return maxValueLength;
+  }
+
+  public BeanFormatter withMaxValueLength(int maxValueLength) {
+    return new BeanFormatter(beanClass, style, maxValueLength, redactedAnnotations);
+  }
+
+  /**
+   * The annotations that cause a property's value to be rendered as {@link #REDACTED}. The
+   * annotation may appear on any field, getter, or setter of the property.
+   */
+  public Set<Class<? extends Annotation>> getRedactedAnnotations() {
+    return redactedAnnotations;
+  }
+
+  public BeanFormatter withRedactedAnnotation(Class<? extends Annotation> annotationType) {
+    Set<Class<? extends Annotation>> annotationTypes = new HashSet<>(redactedAnnotations);
+    annotationTypes.add(annotationType);
+    return new BeanFormatter(beanClass, style, maxValueLength, annotationTypes);
+  }
+
+  /**
+   * Renders the given bean instance as a new {@link String}.
+   *
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public String format(Object instance) throws InvocationTargetException {
+    return formatTo(new StringBuilder(), instance).toString();
+  }
+
+  /**
+   * Renders the given bean instance to the given {@link StringBuilder}.
+   *
+   * @return the given {@link StringBuilder}
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public StringBuilder formatTo(StringBuilder out, Object instance)
+      throws InvocationTargetException {
+    try {
+      return appendTo(out, instance);
+    } catch (IOException e) {
+      // StringBuilder does not throw IOException. This should never happen.
+      throw new AssertionError("StringBuilder threw IOException", e);
+    }
+  }
+
+  /**
+   * Renders the given bean instance to the given {@link Appendable}.
+   *
+   * @return the given {@link Appendable}
+   * @throws IOException if the {@link Appendable} throws an exception
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public <A extends Appendable> A appendTo(A out, Object instance)
+      throws IOException, InvocationTargetException {
+    for (int i = 0; i < properties.length; i++) {
+      out.append(prefixes[i]);
+      if (redacted[i])
+        out.append(REDACTED);
+      else
+        appendValue(out, properties[i], instance);
+    }
+    out.append(suffix);
+    return out;
+  }
+
+  private void appendValue(Appendable out, BeanProperty property, Object instance)
+      throws IOException, InvocationTargetException {
+    Class<?> type = property.getRawType();
+    if (type == int.class) {
+      appendNumber(out, property.getInt(instance));
+    } else if (type == long.class) {
+      appendNumber(out, property.getLong(instance));
+    } else if (type == boolean.class) {
+      appendText(out, property.getBoolean(instance) ? "true" : "false");
+    } else if (type == double.class) {
+      appendNumber(out, property.getDouble(instance));
+    } else if (type == float.class) {
+      appendNumber(out, property.getFloat(instance));
+    } else if (type == char.class) {
+      appendText(out, String.valueOf(property.getChar(instance)));
+    } else if (type == short.class) {
+      appendNumber(out, property.getShort(instance));
+    } else if (type == byte.class) {
+      appendNumber(out, property.getByte(instance));
+    } else {
+      Object value = property.get(instance);
+      if (value == null)
+        out.append("null");
+      else if (value instanceof CharSequence)
+        appendText(out, (CharSequence) value);
+      else if (value.getClass().isArray())
+        appendText(out, arrayToString(value));
+      else
+        appendText(out, value.toString());
+    }
+  }
+
+  /**
+   * Numbers never need quoting, so when there is no length limit, a {@link StringBuilder} can
+   * render them itself without an intermediate string.
+   */
+  private void appendNumber(Appendable out, long value) throws IOException {
+    if (out instanceof StringBuilder && maxValueLength == UNLIMITED)
+      ((StringBuilder) out).append(value);
+    else
+      appendText(out, Long.toString(value));
+  }
+
+  private void appendNumber(Appendable out, double value) throws IOException {
+    if (out instanceof StringBuilder && maxValueLength == UNLIMITED)
+      ((StringBuilder) out).append(value);
+    else
+      appendText(out, Double.toString(value));
+  }
+
+  private void appendNumber(Appendable out, float value) throws IOException {
+    if (out instanceof StringBuilder && maxValueLength == UNLIMITED)
+      ((StringBuilder) out).append(value);
+    else
+      appendText(out, Float.toString(value));
+  }
+
+  /**
+   * Writes the given value text, truncated to {@link #getMaxValueLength()} and, for
+   * {@link Style#KEY_VALUE}, quoted if it contains a space, quote, or equals sign. Quotes and
+   * backslashes in quoted values are escaped with a backslash.
+   */
+  private void appendText(Appendable out, CharSequence text) throws IOException {
+    int end = text.length();
+    boolean truncated = maxValueLength != UNLIMITED && end > maxValueLength;
+    if (truncated) {
+      end = maxValueLength;
+      // Don't split a surrogate pair
+      if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))
+          && Character.isLowSurrogate(text.charAt(end)))
+        end = end - 1;
+    }
+
+    if (style != Style.KEY_VALUE || !needsQuotes(text, end)) {
+      out.append(text, 0, end);
+      if (truncated)
+        out.append(ELLIPSIS);
+      return;
+    }
+
+    out.append('"');
+    int run = 0;
+    for (int i = 0; i < end; i++) {
+      char ch = text.charAt(i);
+      if (ch == '"' || ch == '\\') {
+        out.append(text, run, i).append('\\');
+        run = i;
+      }
+    }
+    out.append(text, run, end);
+    if (truncated)
+      out.append(ELLIPSIS);
+    out.append('"');
+  }
+
+  private static boolean needsQuotes(CharSequence text, int end) {
+    for (int i = 0; i < end; i++) {
+      char ch = text.charAt(i);
+      if (Character.isWhitespace(ch) || ch == '=' || ch == '"' || ch == '\\')
+        return true;
+    }
+    return false;
+  }
+
+  private static String arrayToString(Object array) {
+    if (array instanceof Object[])
+      return Arrays.deepToString((Object[]) array);
+    if (array instanceof int[])
+      return Arrays.toString((int[]) array);
+    if (array instanceof long[])
+      return Arrays.toString((long[]) array);
+    if (array instanceof byte[])
+      return Arrays.toString((byte[]) array);
+    if (array instanceof short[])
+      return Arrays.toString((short[]) array);
+    if (array instanceof char[])
+      return Arrays.toString((char[]) array);
+    if (array instanceof boolean[])
+      return Arrays.toString((boolean[]) array);
+    if (array instanceof float[])
+      return Arrays.toString((float[]) array);
+    if (array instanceof double[])
+      return Arrays.toString((double[]) array);
+    throw new AssertionError("unrecognized array type " + array.getClass());
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(beanClass, maxValueLength, redactedAnnotations, style);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    BeanFormatter other = (BeanFormatter) obj;
+    return Objects.equals(beanClass, other.beanClass) && maxValueLength == other.maxValueLength
+        && Objects.equals(redactedAnnotations, other.redactedAnnotations) && style == other.style;
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return "BeanFormatter [beanClass=" + beanClass + ", style=" + style + ", maxValueLength="
+        + maxValueLength + ", redactedAnnotations=" + redactedAnnotations + "]";
+  }
+}
@@ -0,0 +1,767 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.generate;
+
+import static java.lang.String.format;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import com.sigpwned.espresso.BeanGetter;
+import com.sigpwned.espresso.BeanSetter;
+import com.sigpwned.espresso.util.Beans;
+import com.sigpwned.espresso.util.Generics;
+import com.sigpwned.espresso.util.Reflection;
+
+/**
+ * Writes the class file for the implementation of a bean interface. For each property, the class
+ * has a private field and a public getter and setter, plus a bridge method for each interface
+ * method whose erased signature differs from the implementation's, e.g., a getter that returns a
+ * type variable. It also has a public default constructor, and {@code equals}, {@code hashCode},
+ * and {@code toString} methods over all fields in property order. The getter and setter carry the
+ * runtime-visible annotations of the interface methods they implement, so annotation-driven tools
+ * like {@link com.sigpwned.espresso.validation.BeanValidator} see them.
+ *
+ * <p>
+ * We write class file version 49, which predates stack map frames, so that we don't have to
+ * compute them. The JVM verifies such classes by type inference instead.
+ * </p>
+ */
+/* default */ final class BeanInterfaceGenerator {
+  private static final int CLASS_FILE_VERSION = 49;
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+  private static final int ACC_BRIDGE = 0x0040;
+  private static final int ACC_SYNTHETIC = 0x1000;
+
+  /**
+   * The deepest operand stack any of our methods needs, which is comparing two doubles
+   */
+  private static final int MAX_STACK = 4;
+
+  private static final String OBJECT = "java/lang/Object";
+  private static final String OBJECTS = "java/util/Objects";
+  private static final String ARRAYS = "java/util/Arrays";
+  private static final String STRING_BUILDER = "java/lang/StringBuilder";
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+  /**
+   * Returns the class file for an implementation of the given interface with the given name.
+   *
+   * @throws IllegalArgumentException if the interface declares methods other than getters and
+   *         setters, or a property has no getter, or a property's methods disagree on its type
+   */
+  public static byte[] generate(Class<?> iface, String className) {
+    return new BeanInterfaceGenerator(iface, className).generate();
+  }
+
+  /**
+   * A property of the interface and the methods that declare it
+   */
+  private static final class Property {
+    private final String name;
+    private final List<Method> getters;
+    private final List<Method> setters;
+    private Method getter;
+    private Type genericType;
+    private Class<?> rawType;
+    private String getterName;
+    private String setterName;
+
+    public Property(String name) {
+      this.name = name;
+      this.getters = new ArrayList<>();
+      this.setters = new ArrayList<>();
+    }
+  }
+
+  private final Class<?> iface;
+  private final String internalName;
+  private final Map<TypeVariable<?>, Type> typeBindings;
+  private final ConstantPool constants;
+  private final ByteArrayOutputStream fieldBytes;
+  private final DataOutputStream fields;
+  private int fieldCount;
+  private final ByteArrayOutputStream methodBytes;
+  private final DataOutputStream methods;
+  private int methodCount;
+
+  private BeanInterfaceGenerator(Class<?> iface, String className) {
+    this.iface = iface;
+    this.internalName = className.replace('.', '/');
+    this.typeBindings = new HashMap<>();
+    bindInterfaces(iface, typeBindings);
+    this.constants = new ConstantPool();
+    this.fieldBytes = new ByteArrayOutputStream();
+    this.fields = new DataOutputStream(fieldBytes);
+    this.methodBytes = new ByteArrayOutputStream();
+    this.methods = new DataOutputStream(methodBytes);
+  }
+
+  /**
+   * Binds the type variables of the given type's generic superinterfaces, recursively. Our
+   * {@link Generics#getTypeBindings(Class)} only follows superclasses.
+   */
+  private static void bindInterfaces(Class<?> type, Map<TypeVariable<?>, Type> bindings) {
+    for (Type superinterface : type.getGenericInterfaces()) {
+      Class<?> rawSuperinterface = Reflection.getRawType(superinterface);
+      if (superinterface instanceof ParameterizedType) {
+        TypeVariable<?>[] parameters = rawSuperinterface.getTypeParameters();
+        Type[] arguments = ((ParameterizedType) superinterface).getActualTypeArguments();
+        for (int i = 0; i < parameters.length; i++)
+          bindings.put(parameters[i], Generics.resolve(arguments[i], bindings));
+      }
+      bindInterfaces(rawSuperinterface, bindings);
+    }
+  }
+
+  private byte[] generate() {
+    List<Property> properties = findProperties();
+
+    Bytecode constructor = new Bytecode();
+    constructor.op(Bytecode.ALOAD, 0);
+    constructor.op2(Bytecode.INVOKESPECIAL, constants.methodRef(OBJECT, "<init>", "()V"));
+    constructor.op(Bytecode.RETURN);
+    writeMethod(ACC_PUBLIC, "<init>", "()V", null, 1, constructor);
+
+    for (Property property : properties)
+      writeProperty(property);
+
+    writeEquals(properties);
+    writeHashCode(properties);
+    writeToString(properties);
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      int thisClass = constants.classRef(internalName);
+      int superClass = constants.classRef(OBJECT);
+      int superinterface = constants.classRef(internalName(iface));
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(CLASS_FILE_VERSION);
+      constants.writeTo(out);
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(1);
+      out.writeShort(superinterface);
+      out.writeShort(fieldCount);
+      fieldBytes.writeTo(out);
+      out.writeShort(methodCount);
+      methodBytes.writeTo(out);
+      out.writeShort(0);
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write class", e);
+    }
+  }
+
+  private List<Property> findProperties() {
+    Map<String, Property> properties = new TreeMap<>();
+    for (Method method : iface.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers()) || method.isDefault()
+          || isObjectMethod(method))
+        continue;
+      if (Beans.isBeanGetter(method)) {
+        String name = new BeanGetter(method).getName();
+        properties.computeIfAbsent(name, Property::new).getters.add(method);
+      } else if (Beans.isBeanSetter(method)) {
+        String name = new BeanSetter(method).getName();
+        properties.computeIfAbsent(name, Property::new).setters.add(method);
+      } else {
+        throw new IllegalArgumentException(
+            format("Interface %s method %s is not a getter or setter", iface.getName(),
+                method.getName()));
+      }
+    }
+
+    for (Property property : properties.values()) {
+      if (property.getters.isEmpty())
+        throw new IllegalArgumentException(
+            format("Interface %s property %s has no getter", iface.getName(), property.name));
+
+      // Getters may be covariant, so the implementation uses the most specific return type
+      Method getter = null;
+      for (Method candidate : property.getters) {
+        Class<?> candidateType = Reflection.getRawType(resolve(candidate.getGenericReturnType()));
+        if (property.getters.stream().allMatch(g -> Reflection
+            .getRawType(resolve(g.getGenericReturnType())).isAssignableFrom(candidateType))) {
+          getter = candidate;
+          break;
+        }
+      }
+      if (getter == null)
+        throw new IllegalArgumentException(format(
+            "Interface %s property %s has conflicting getters", iface.getName(), property.name));
+
+      property.getter = getter;
+      property.genericType = resolve(getter.getGenericReturnType());
+      property.rawType = Reflection.getRawType(property.genericType);
+      property.getterName = getter.getName();
+      property.setterName = "set" + Character.toUpperCase(property.name.charAt(0))
+          + property.name.substring(1);
+
+      for (Method setter : property.setters) {
+        Type setterType = resolve(setter.getGenericParameterTypes()[0]);
+        if (!setterType.equals(property.genericType))
+          throw new IllegalArgumentException(
+              format("Interface %s property %s setter type %s does not match getter type %s",
+                  iface.getName(), property.name, setterType, property.genericType));
+      }
+    }
+
+    return new ArrayList<>(properties.values());
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private Type resolve(Type type) {
+    return Generics.resolve(type, typeBindings);
+  }
+
+  private void writeProperty(Property property) {
+    String descriptor = descriptor(property.rawType);
+    String signature = signature(property.genericType);
+    if (signature.equals(descriptor))
+      signature = null;
+    int field = constants.fieldRef(internalName, property.name, descriptor);
+    String getterDescriptor = "()" + descriptor;
+    String setterDescriptor = "(" + descriptor + ")V";
+
+    writeField(ACC_PRIVATE, property.name, descriptor, signature);
+
+    Bytecode getter = new Bytecode();
+    getter.op(Bytecode.ALOAD, 0);
+    getter.op2(Bytecode.GETFIELD, field);
+    getter.op(returnOpcode(property.rawType));
+    List<Method> getters = new ArrayList<>(property.getters);
+    getters.remove(property.getter);
+    getters.add(0, property.getter);
+    writeMethod(ACC_PUBLIC, property.getterName, getterDescriptor,
+        signature != null ? "()" + signature : null, 1, getter, annotations(getters));
+
+    Bytecode setter = new Bytecode();
+    setter.op(Bytecode.ALOAD, 0);
+    setter.op(loadOpcode(property.rawType), 1);
+    setter.op2(Bytecode.PUTFIELD, field);
+    setter.op(Bytecode.RETURN);
+    writeMethod(ACC_PUBLIC, property.setterName, setterDescriptor,
+        signature != null ? "(" + signature + ")V" : null, 1 + size(property.rawType), setter,
+        annotations(property.setters));
+
+    Set<String> written = new HashSet<>();
+    written.add(property.getterName + getterDescriptor);
+    written.add(property.setterName + setterDescriptor);
+
+    for (Method method : property.getters) {
+      Class<?> returnType = method.getReturnType();
+      if (!written.add(method.getName() + "()" + descriptor(returnType)))
+        continue;
+      Bytecode bridge = new Bytecode();
+      bridge.op(Bytecode.ALOAD, 0);
+      bridge.op2(Bytecode.INVOKEVIRTUAL,
+          constants.methodRef(internalName, property.getterName, getterDescriptor));
+      bridge.op(returnOpcode(returnType));
+      writeMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, method.getName(),
+          "()" + descriptor(returnType), null, 1, bridge);
+    }
+
+    for (Method method : property.setters) {
+      Class<?> parameterType = method.getParameterTypes()[0];
+      if (!written.add(method.getName() + "(" + descriptor(parameterType) + ")V"))
+        continue;
+      Bytecode bridge = new Bytecode();
+      bridge.op(Bytecode.ALOAD, 0);
+      bridge.op(loadOpcode(parameterType), 1);
+      if (!property.rawType.isPrimitive())
+        bridge.op2(Bytecode.CHECKCAST, constants.classRef(internalName(property.rawType)));
+      bridge.op2(Bytecode.INVOKEVIRTUAL,
+          constants.methodRef(internalName, property.setterName, setterDescriptor));
+      bridge.op(Bytecode.RETURN);
+      writeMethod(ACC_PUBLIC | ACC_BRIDGE | ACC_SYNTHETIC, method.getName(),
+          "(" + descriptor(parameterType) + ")V", null, 1 + size(parameterType), bridge);
+    }
+  }
+
+  private void writeEquals(List<Property> properties) {
+    Bytecode code = new Bytecode();
+
+    code.op(Bytecode.ALOAD, 0);
+    code.op(Bytecode.ALOAD, 1);
+    int notSame = code.branch(Bytecode.IF_ACMPNE);
+    code.op(Bytecode.ICONST_1);
+    code.op(Bytecode.IRETURN);
+    code.land(notSame);
+
+    code.op(Bytecode.ALOAD, 1);
+    code.op2(Bytecode.INSTANCEOF, constants.classRef(internalName));
+    int sameClass = code.branch(Bytecode.IFNE);
+    code.op(Bytecode.ICONST_0);
+    code.op(Bytecode.IRETURN);
+    code.land(sameClass);
+
+    code.op(Bytecode.ALOAD, 1);
+    code.op2(Bytecode.CHECKCAST, constants.classRef(internalName));
+    code.op(Bytecode.ASTORE, 2);
+
+    for (Property property : properties) {
+      Class<?> type = property.rawType;
+      String descriptor = descriptor(type);
+      int field = constants.fieldRef(internalName, property.name, descriptor);
+      code.op(Bytecode.ALOAD, 0);
+      code.op2(Bytecode.GETFIELD, field);
+      code.op(Bytecode.ALOAD, 2);
+      code.op2(Bytecode.GETFIELD, field);
+
+      int equal;
+      if (type == long.class) {
+        code.op(Bytecode.LCMP);
+        equal = code.branch(Bytecode.IFEQ);
+      } else if (type == float.class) {
+        code.op2(Bytecode.INVOKESTATIC, constants.methodRef("java/lang/Float", "compare", "(FF)I"));
+        equal = code.branch(Bytecode.IFEQ);
+      } else if (type == double.class) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef("java/lang/Double", "compare", "(DD)I"));
+        equal = code.branch(Bytecode.IFEQ);
+      } else if (type.isPrimitive()) {
+        equal = code.branch(Bytecode.IF_ICMPEQ);
+      } else if (type.isArray() && type.getComponentType().isPrimitive()) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef(ARRAYS, "equals", "(" + descriptor + descriptor + ")Z"));
+        equal = code.branch(Bytecode.IFNE);
+      } else if (type.isArray()) {
+        code.op2(Bytecode.INVOKESTATIC, constants.methodRef(ARRAYS, "deepEquals",
+            "([Ljava/lang/Object;[Ljava/lang/Object;)Z"));
+        equal = code.branch(Bytecode.IFNE);
+      } else {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef(OBJECTS, "equals", "(Ljava/lang/Object;Ljava/lang/Object;)Z"));
+        equal = code.branch(Bytecode.IFNE);
+      }
+      code.op(Bytecode.ICONST_0);
+      code.op(Bytecode.IRETURN);
+      code.land(equal);
+    }
+
+    code.op(Bytecode.ICONST_1);
+    code.op(Bytecode.IRETURN);
+
+    writeMethod(ACC_PUBLIC, "equals", "(Ljava/lang/Object;)Z", null, 3, code);
+  }
+
+  /**
+   * Writes a {@code hashCode} method that agrees with {@link java.util.Objects#hash(Object...)}
+   * over the property values in order, except that arrays are hashed by content.
+   */
+  private void writeHashCode(List<Property> properties) {
+    Bytecode code = new Bytecode();
+
+    code.op(Bytecode.ICONST_1);
+    code.op(Bytecode.ISTORE, 1);
+
+    for (Property property : properties) {
+      Class<?> type = property.rawType;
+      String descriptor = descriptor(type);
+      code.op(Bytecode.BIPUSH, 31);
+      code.op(Bytecode.ILOAD, 1);
+      code.op(Bytecode.IMUL);
+      code.op(Bytecode.ALOAD, 0);
+      code.op2(Bytecode.GETFIELD, constants.fieldRef(internalName, property.name, descriptor));
+      if (type == boolean.class) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef("java/lang/Boolean", "hashCode", "(Z)I"));
+      } else if (type == long.class) {
+        code.op2(Bytecode.INVOKESTATIC, constants.methodRef("java/lang/Long", "hashCode", "(J)I"));
+      } else if (type == float.class) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef("java/lang/Float", "hashCode", "(F)I"));
+      } else if (type == double.class) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef("java/lang/Double", "hashCode", "(D)I"));
+      } else if (type.isPrimitive()) {
+        // The hash of a byte, char, short, or int is its value
+      } else if (type.isArray() && type.getComponentType().isPrimitive()) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef(ARRAYS, "hashCode", "(" + descriptor + ")I"));
+      } else if (type.isArray()) {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef(ARRAYS, "deepHashCode", "([Ljava/lang/Object;)I"));
+      } else {
+        code.op2(Bytecode.INVOKESTATIC,
+            constants.methodRef(OBJECTS, "hashCode", "(Ljava/lang/Object;)I"));
+      }
+      code.op(Bytecode.IADD);
+      code.op(Bytecode.ISTORE, 1);
+    }
+
+    code.op(Bytecode.ILOAD, 1);
+    code.op(Bytecode.IRETURN);
+
+    writeMethod(ACC_PUBLIC, "hashCode", "()I", null, 2, code);
+  }
+
+  private void writeToString(List<Property> properties) {
+    Bytecode code = new Bytecode();
+    int append = constants.methodRef(STRING_BUILDER, "append",
+        "(Ljava/lang/String;)Ljava/lang/StringBuilder;");
+
+    code.op2(Bytecode.NEW, constants.classRef(STRING_BUILDER));
+    code.op(Bytecode.DUP);
+    code.op2(Bytecode.LDC_W, constants.string(iface.getSimpleName() + " ["));
+    code.op2(Bytecode.INVOKESPECIAL,
+        constants.methodRef(STRING_BUILDER, "<init>", "(Ljava/lang/String;)V"));
+
+    for (int i = 0; i < properties.size(); i++) {
+      Property property = properties.get(i);
+      Class<?> type = property.rawType;
+      code.op2(Bytecode.LDC_W, constants.string((i == 0 ? "" : ", ") + property.name + "="));
+      code.op2(Bytecode.INVOKEVIRTUAL, append);
+      code.op(Bytecode.ALOAD, 0);
+      code.op2(Bytecode.GETFIELD,
+          constants.fieldRef(internalName, property.name, descriptor(type)));
+
+      String appended;
+      if (type == boolean.class || type == char.class || type == long.class || type == float.class
+          || type == double.class)
+        appended = descriptor(type);
+      else if (type.isPrimitive())
+        appended = "I";
+      else
+        appended = "Ljava/lang/Object;";
+      code.op2(Bytecode.INVOKEVIRTUAL, constants.methodRef(STRING_BUILDER, "append",
+          "(" + appended + ")Ljava/lang/StringBuilder;"));
+    }
+
+    code.op2(Bytecode.LDC_W, constants.string("]"));
+    code.op2(Bytecode.INVOKEVIRTUAL, append);
+    code.op2(Bytecode.INVOKEVIRTUAL,
+        constants.methodRef(STRING_BUILDER, "toString", "()Ljava/lang/String;"));
+    code.op(Bytecode.ARETURN);
+
+    writeMethod(ACC_PUBLIC, "toString", "()Ljava/lang/String;", null, 1, code);
+  }
+
+  private void writeField(int access, String name, String descriptor, String signature) {
+    try {
+      fields.writeShort(access);
+      fields.writeShort(constants.utf8(name));
+      fields.writeShort(constants.utf8(descriptor));
+      if (signature != null) {
+        fields.writeShort(1);
+        writeSignature(fields, signature);
+      } else {
+        fields.writeShort(0);
+      }
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write field", e);
+    }
+    fieldCount = fieldCount + 1;
+  }
+
+  private void writeMethod(int access, String name, String descriptor, String signature,
+      int maxLocals, Bytecode code) {
+    writeMethod(access, name, descriptor, signature, maxLocals, code, null);
+  }
+
+  /**
+   * @param annotations the encoded {@code RuntimeVisibleAnnotations} attribute body, or null
+   */
+  private void writeMethod(int access, String name, String descriptor, String signature,
+      int maxLocals, Bytecode code, byte[] annotations) {
+    byte[] bytes = code.toByteArray();
+    try {
+      methods.writeShort(access);
+      methods.writeShort(constants.utf8(name));
+      methods.writeShort(constants.utf8(descriptor));
+      methods.writeShort(1 + (signature != null ? 1 : 0) + (annotations != null ? 1 : 0));
+      methods.writeShort(constants.utf8("Code"));
+      methods.writeInt(12 + bytes.length);
+      methods.writeShort(MAX_STACK);
+      methods.writeShort(maxLocals);
+      methods.writeInt(bytes.length);
+      methods.write(bytes);
+      methods.writeShort(0);
+      methods.writeShort(0);
+      if (signature != null)
+        writeSignature(methods, signature);
+      if (annotations != null) {
+        methods.writeShort(constants.utf8(RUNTIME_VISIBLE_ANNOTATIONS));
+        methods.writeInt(annotations.length);
+        methods.write(annotations);
+      }
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write method", e);
+    }
+    methodCount = methodCount + 1;
+  }
+
+  private void writeSignature(DataOutputStream out, String signature) throws IOException {
+    out.writeShort(constants.utf8("Signature"));
+    out.writeInt(2);
+    out.writeShort(constants.utf8(signature));
+  }
+
+  /**
+   * Encodes the body of a {@code RuntimeVisibleAnnotations} attribute holding the annotations of
+   * the given methods, or returns null if they have none. If more than one method has an annotation
+   * of the same type, then the first one wins. Annotations whose values we cannot read, e.g.,
+   * because their type is not public, are left out.
+   */
+  private byte[] annotations(List<Method> methods) {
+    Map<Class<? extends Annotation>, byte[]> encoded = new LinkedHashMap<>();
+    for (Method method : methods) {
+      for (Annotation annotation : method.getAnnotations()) {
+        if (encoded.containsKey(annotation.annotationType()))
+          continue;
+        try {
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+          writeAnnotation(new DataOutputStream(bytes), annotation);
+          encoded.put(annotation.annotationType(), bytes.toByteArray());
+        } catch (IllegalAccessException e) {
+          // We can't read this annotation's values, so we can't copy it
+        } catch (IOException e) {
+          // We're writing to memory. This should never happen.
+          throw new AssertionError("failed to write annotation", e);
+        }
+      }
+    }
+    if (encoded.isEmpty())
+      return null;
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeShort(encoded.size());
+      for (byte[] annotation : encoded.values())
+        out.write(annotation);
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write annotations", e);
+    }
+  }
+
+  private void writeAnnotation(DataOutputStream out, Annotation annotation)
+      throws IOException, IllegalAccessException {
+    Class<? extends Annotation> type = annotation.annotationType();
+    List<Method> elements = new ArrayList<>();
+    for (Method element : type.getDeclaredMethods())
+      if (!Modifier.isStatic(element.getModifiers()) && element.getParameterCount() == 0)
+        elements.add(element);
+
+    out.writeShort(constants.utf8(descriptor(type)));
+    out.writeShort(elements.size());
+    for (Method element : elements) {
+      Object value;
+      try {
+        value = element.invoke(annotation);
+      } catch (InvocationTargetException e) {
+        // Annotation elements just return their values. This should never happen.
+        throw new AssertionError("annotation element failed", e);
+      }
+      out.writeShort(constants.utf8(element.getName()));
+      writeElementValue(out, element.getReturnType(), value);
+    }
+  }
+
+  /**
+   * Writes an {@code element_value} structure for an annotation element of the given type
+   */
+  private void writeElementValue(DataOutputStream out, Class<?> type, Object value)
+      throws IOException, IllegalAccessException {
+    if (type == boolean.class) {
+      out.writeByte('Z');
+      out.writeShort(constants.intValue(((Boolean) value).booleanValue() ? 1 : 0));
+    } else if (type == byte.class) {
+      out.writeByte('B');
+      out.writeShort(constants.intValue(((Byte) value).byteValue()));
+    } else if (type == char.class) {
+      out.writeByte('C');
+      out.writeShort(constants.intValue(((Character) value).charValue()));
+    } else if (type == short.class) {
+      out.writeByte('S');
+      out.writeShort(constants.intValue(((Short) value).shortValue()));
+    } else if (type == int.class) {
+      out.writeByte('I');
+      out.writeShort(constants.intValue(((Integer) value).intValue()));
+    } else if (type == long.class) {
+      out.writeByte('J');
+      out.writeShort(constants.longValue(((Long) value).longValue()));
+    } else if (type == float.class) {
+      out.writeByte('F');
+      out.writeShort(constants.floatValue(((Float) value).floatValue()));
+    } else if (type == double.class) {
+      out.writeByte('D');
+      out.writeShort(constants.doubleValue(((Double) value).doubleValue()));
+    } else if (type == String.class) {
+      out.writeByte('s');
+      out.writeShort(constants.utf8((String) value));
+    } else if (type == Class.class) {
+      out.writeByte('c');
+      out.writeShort(constants.utf8(descriptor((Class<?>) value)));
+    } else if (type.isEnum()) {
+      out.writeByte('e');
+      out.writeShort(constants.utf8(descriptor(type)));
+      out.writeShort(constants.utf8(((Enum<?>) value).name()));
+    } else if (type.isAnnotation()) {
+      out.writeByte('@');
+      writeAnnotation(out, (Annotation) value);
+    } else if (type.isArray()) {
+      int length = Array.getLength(value);
+      out.writeByte('[');
+      out.writeShort(length);
+      for (int i = 0; i < length; i++)
+        writeElementValue(out, type.getComponentType(), Array.get(value, i));
+    } else {
+      // The compiler only allows the types above. This should never happen.
+      throw new AssertionError("unrecognized annotation element type " + type);
+    }
+  }
+
+  private static int loadOpcode(Class<?> type) {
+    if (type == long.class)
+      return Bytecode.LLOAD;
+    if (type == float.class)
+      return Bytecode.FLOAD;
+    if (type == double.class)
+      return Bytecode.DLOAD;
+    if (type.isPrimitive())
+      return Bytecode.ILOAD;
+    return Bytecode.ALOAD;
+  }
+
+  private static int returnOpcode(Class<?> type) {
+    if (type == long.class)
+      return Bytecode.LRETURN;
+    if (type == float.class)
+      return Bytecode.FRETURN;
+    if (type == double.class)
+      return Bytecode.DRETURN;
+    if (type.isPrimitive())
+      return Bytecode.IRETURN;
+    return Bytecode.ARETURN;
+  }
+
+  /**
+   * The number of local variable slots a value of the given type takes
+   */
+  private static int size(Class<?> type) {
+    return type == long.class || type == double.class ? 2 : 1;
+  }
+
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  private static String descriptor(Class<?> type) {
+    if (type == boolean.class)
+      return "Z";
+    if (type == byte.class)
+      return "B";
+    if (type == char.class)
+      return "C";
+    if (type == short.class)
+      return "S";
+    if (type == int.class)
+      return "I";
+    if (type == long.class)
+      return "J";
+    if (type == float.class)
+      return "F";
+    if (type == double.class)
+      return "D";
+    if (type == void.class)
+      return "V";
+    if (type.isArray())
+      return internalName(type);
+    return "L" + internalName(type) + ";";
+  }
+
+  /**
+   * Returns the generic signature of the given type, as stored in a {@code Signature} attribute.
+   * Unbound type variables are erased.
+   */
+  private static String signature(Type type) {
+    if (type instanceof Class) {
+      return descriptor((Class<?>) type);
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+      StringBuilder result = new StringBuilder();
+      if (parameterizedType.getOwnerType() instanceof ParameterizedType) {
+        String owner = signature(parameterizedType.getOwnerType());
+        result.append(owner, 0, owner.length() - 1).append('.').append(rawType.getSimpleName());
+      } else {
+        result.append('L').append(internalName(rawType));
+      }
+      result.append('<');
+      for (Type argument : parameterizedType.getActualTypeArguments())
+        result.append(typeArgumentSignature(argument));
+      return result.append(">;").toString();
+    } else if (type instanceof GenericArrayType) {
+      return "[" + signature(((GenericArrayType) type).getGenericComponentType());
+    } else {
+      return descriptor(Reflection.getRawType(type));
+    }
+  }
+
+  private static String typeArgumentSignature(Type type) {
+    if (!(type instanceof WildcardType))
+      return signature(type);
+    WildcardType wildcardType = (WildcardType) type;
+    if (wildcardType.getLowerBounds().length != 0)
+      return "-" + signature(wildcardType.getLowerBounds()[0]);
+    if (wildcardType.getUpperBounds()[0] == Object.class)
+      return "*";
+    return "+" + signature(wildcardType.getUpperBounds()[0]);
+  }
+}
@@ -0,0 +1,100 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.generate;
+
+import static java.lang.String.format;
+import java.lang.reflect.Modifier;
+import com.sigpwned.espresso.annotation.BeanInterface;
+
+/**
+ * Generates implementations of bean interfaces. A bean interface declares a getter for each
+ * property, and optionally a setter. Its implementation has a real field for each property, so
+ * reading and writing properties costs the same as for a hand-written bean, unlike a
+ * {@link java.lang.reflect.Proxy}, which dispatches every call through an
+ * {@link java.lang.reflect.InvocationHandler} and boxes every primitive.
+ *
+ * <p>
+ * Implementations are generated once per interface and defined in their own class loader, so they
+ * can be unloaded along with their interface. Runtime-visible annotations on the interface's
+ * getters and setters are copied to the implementation's, so annotation-driven features like
+ * validation and redaction work on generated beans.
+ * </p>
+ *
+ * @see BeanInterface
+ */
+public final class BeanInterfaces {
+  private BeanInterfaces() {}
+
+  private static final String IMPLEMENTATION_SUFFIX = "$EspressoImpl";
+
+  /**
+   * The generated implementations. This is only replaced by {@link #clearCache()}.
+   */
+  private static volatile ClassValue<Class<?>> implementations = newImplementations();
+
+  private static ClassValue<Class<?>> newImplementations() {
+    return new ClassValue<Class<?>>() {
+      @Override
+      protected Class<?> computeValue(Class<?> iface) {
+        String className = iface.getName() + IMPLEMENTATION_SUFFIX;
+        byte[] bytes = BeanInterfaceGenerator.generate(iface, className);
+        return new GeneratedClassLoader(iface.getClassLoader()).define(className, bytes);
+      }
+    };
+  }
+
+  /**
+   * Forgets every generated implementation, so the next call to {@link #implement(Class)} for any
+   * interface generates a new one. This is intended for tests and benchmarks that measure cold
+   * scans. Implementations that are already in use keep working.
+   */
+  public static void clearCache() {
+    implementations = newImplementations();
+  }
+
+  /**
+   * Returns the generated implementation of the given bean interface, generating it if needed. The
+   * implementation is a public final class with a public default constructor.
+   *
+   * @throws IllegalArgumentException if the given class is not a public, non-generic interface
+   *         whose abstract methods are all getters and setters, or a property has no getter, or a
+   *         property's getters and setters disagree on its type
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Class<? extends T> implement(Class<T> iface) {
+    if (!iface.isInterface() || iface.isAnnotation())
+      throw new IllegalArgumentException(format("Class %s is not an interface", iface.getName()));
+    if (!Modifier.isPublic(iface.getModifiers()))
+      throw new IllegalArgumentException(format("Interface %s is not public", iface.getName()));
+    if (iface.getTypeParameters().length != 0)
+      throw new IllegalArgumentException(format("Interface %s is generic", iface.getName()));
+    return (Class<? extends T>) implementations.get(iface);
+  }
+
+  private static final class GeneratedClassLoader extends ClassLoader {
+    public GeneratedClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    public Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+}
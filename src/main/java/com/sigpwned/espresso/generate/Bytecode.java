@@ -0,0 +1,121 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.generate;
+
+import java.util.Arrays;
+
+/**
+ * The code of one method under construction. Forward branches are written with a placeholder
+ * offset by {@link #branch(int)}, and then pointed at the current position by {@link #land(int)}.
+ */
+/* default */ final class Bytecode {
+  public static final int ICONST_0 = 0x03;
+  public static final int ICONST_1 = 0x04;
+  public static final int BIPUSH = 0x10;
+  public static final int LDC_W = 0x13;
+  public static final int ILOAD = 0x15;
+  public static final int LLOAD = 0x16;
+  public static final int FLOAD = 0x17;
+  public static final int DLOAD = 0x18;
+  public static final int ALOAD = 0x19;
+  public static final int ISTORE = 0x36;
+  public static final int ASTORE = 0x3A;
+  public static final int DUP = 0x59;
+  public static final int IADD = 0x60;
+  public static final int IMUL = 0x68;
+  public static final int LCMP = 0x94;
+  public static final int IFEQ = 0x99;
+  public static final int IFNE = 0x9A;
+  public static final int IF_ICMPEQ = 0x9F;
+  public static final int IF_ACMPNE = 0xA6;
+  public static final int IRETURN = 0xAC;
+  public static final int LRETURN = 0xAD;
+  public static final int FRETURN = 0xAE;
+  public static final int DRETURN = 0xAF;
+  public static final int ARETURN = 0xB0;
+  public static final int RETURN = 0xB1;
+  public static final int GETFIELD = 0xB4;
+  public static final int PUTFIELD = 0xB5;
+  public static final int INVOKEVIRTUAL = 0xB6;
+  public static final int INVOKESPECIAL = 0xB7;
+  public static final int INVOKESTATIC = 0xB8;
+  public static final int NEW = 0xBB;
+  public static final int CHECKCAST = 0xC0;
+  public static final int INSTANCEOF = 0xC1;
+
+  private byte[] code;
+  private int length;
+
+  public Bytecode() {
+    this.code = new byte[64];
+    this.length = 0;
+  }
+
+  public Bytecode op(int opcode) {
+    return u1(opcode);
+  }
+
+  /**
+   * Writes an instruction with a one-byte operand, e.g., a local variable index
+   */
+  public Bytecode op(int opcode, int operand) {
+    return u1(opcode).u1(operand);
+  }
+
+  /**
+   * Writes an instruction with a two-byte operand, e.g., a constant pool index
+   */
+  public Bytecode op2(int opcode, int operand) {
+    return u1(opcode).u2(operand);
+  }
+
+  /**
+   * Writes a branch instruction with a placeholder offset, and returns its position
+   */
+  public int branch(int opcode) {
+    int at = length;
+    u1(opcode).u2(0);
+    return at;
+  }
+
+  /**
+   * Points the branch instruction at the given position to the current position
+   */
+  public void land(int at) {
+    int offset = length - at;
+    code[at + 1] = (byte) (offset >> 8);
+    code[at + 2] = (byte) offset;
+  }
+
+  private Bytecode u1(int value) {
+    if (length == code.length)
+      code = Arrays.copyOf(code, code.length * 2);
+    code[length++] = (byte) value;
+    return this;
+  }
+
+  private Bytecode u2(int value) {
+    return u1(value >> 8).u1(value);
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(code, length);
+  }
+}
@@ -0,0 +1,172 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.generate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The constant pool of a class file under construction. Entries are deduplicated, so asking for
+ * the same constant twice returns the same index.
+ */
+/* default */ final class ConstantPool {
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private final ByteArrayOutputStream bytes;
+  private final DataOutputStream out;
+  private final Map<String, Integer> indexes;
+  private int count;
+
+  public ConstantPool() {
+    this.bytes = new ByteArrayOutputStream();
+    this.out = new DataOutputStream(bytes);
+    this.indexes = new HashMap<>();
+    this.count = 1;
+  }
+
+  public int utf8(String value) {
+    String key = "U" + value;
+    Integer index = indexes.get(key);
+    if (index != null)
+      return index;
+    try {
+      out.writeByte(CONSTANT_UTF8);
+      out.writeUTF(value);
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write constant", e);
+    }
+    return add(key);
+  }
+
+  /**
+   * @param internalName the class's name with slashes, e.g., {@code java/lang/Object}
+   */
+  public int classRef(String internalName) {
+    return reference("C" + internalName, CONSTANT_CLASS, utf8(internalName));
+  }
+
+  public int string(String value) {
+    return reference("S" + value, CONSTANT_STRING, utf8(value));
+  }
+
+  public int intValue(int value) {
+    return literal("I" + value, CONSTANT_INTEGER, value, false);
+  }
+
+  public int floatValue(float value) {
+    int bits = Float.floatToRawIntBits(value);
+    return literal("F" + bits, CONSTANT_FLOAT, bits, false);
+  }
+
+  public int longValue(long value) {
+    return literal("J" + value, CONSTANT_LONG, value, true);
+  }
+
+  public int doubleValue(double value) {
+    long bits = Double.doubleToRawLongBits(value);
+    return literal("D" + bits, CONSTANT_DOUBLE, bits, true);
+  }
+
+  /**
+   * Adds a numeric constant. Wide constants, i.e., longs and doubles, take two entries.
+   */
+  private int literal(String key, int tag, long bits, boolean wide) {
+    Integer index = indexes.get(key);
+    if (index != null)
+      return index;
+    try {
+      out.writeByte(tag);
+      if (wide)
+        out.writeLong(bits);
+      else
+        out.writeInt((int) bits);
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write constant", e);
+    }
+    int result = add(key);
+    if (wide) {
+      if (count == 0xFFFF)
+        throw new IllegalStateException("too many constants");
+      count = count + 1;
+    }
+    return result;
+  }
+
+  public int fieldRef(String owner, String name, String descriptor) {
+    return member(CONSTANT_FIELDREF, owner, name, descriptor);
+  }
+
+  public int methodRef(String owner, String name, String descriptor) {
+    return member(CONSTANT_METHODREF, owner, name, descriptor);
+  }
+
+  private int member(int tag, String owner, String name, String descriptor) {
+    String key = "M" + tag + owner + "." + name + descriptor;
+    Integer index = indexes.get(key);
+    if (index != null)
+      return index;
+    int classIndex = classRef(owner);
+    int nameAndTypeIndex = reference("N" + name + descriptor, CONSTANT_NAME_AND_TYPE, utf8(name),
+        utf8(descriptor));
+    return reference(key, tag, classIndex, nameAndTypeIndex);
+  }
+
+  private int reference(String key, int tag, int... operands) {
+    Integer index = indexes.get(key);
+    if (index != null)
+      return index;
+    try {
+      out.writeByte(tag);
+      for (int operand : operands)
+        out.writeShort(operand);
+    } catch (IOException e) {
+      // We're writing to memory. This should never happen.
+      throw new AssertionError("failed to write constant", e);
+    }
+    return add(key);
+  }
+
+  private int add(String key) {
+    if (count == 0xFFFF)
+      throw new IllegalStateException("too many constants");
+    int index = count++;
+    indexes.put(key, index);
+    return index;
+  }
+
+  public void writeTo(DataOutputStream out) throws IOException {
+    out.writeShort(count);
+    bytes.writeTo(out);
+  }
+}
@@ -0,0 +1,167 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.graal;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeClassInitialization;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanField;
+
+/**
+ * A GraalVM native image {@link Feature} that makes bean classes work in native images without
+ * hand-written reflection configuration. It is enabled automatically by this library's
+ * {@code native-image.properties}.
+ *
+ * <p>
+ * Bean classes are listed in {@value ReflectConfig#BEAN_CLASSES_RESOURCE} resources on the
+ * application classpath, or in the comma-separated {@code espresso.beanClasses} system property at
+ * image build time. For each listed class, the feature registers the fields, methods, and
+ * constructors that scanning reads, and then preloads the class with {@link BeanClass#preload}. The
+ * espresso classes are initialized at build time, so the preloaded metadata is part of the image
+ * heap and {@link BeanClass#scan} returns it at run time without scanning. Preloading does not
+ * instantiate the bean classes, so they are still initialized at run time.
+ * </p>
+ *
+ * <p>
+ * The feature also registers the Java 9 {@code VarHandle} implementation of {@link BeanField}
+ * atomics and the Java 11 Flight Recorder publisher, which espresso loads reflectively, so an image
+ * uses them too.
+ * </p>
+ *
+ * <p>
+ * Nothing that espresso reads from the environment is frozen into the image. The classes that read
+ * the {@code ESPRESSO_*} environment variables, i.e., the {@code BeanClass} settings, the accessor
+ * compiler, {@code EspressoMetrics}, and {@code EspressoFlightRecorder}, are initialized at run
+ * time, and preloading does not use them. Likewise, espresso never holds an SLF4J logger in a
+ * static field. Each class looks up its logger when it logs, which it only does on cold paths, so
+ * the application's SLF4J binding is still initialized at run time. If no bean classes are listed,
+ * then this feature only registers the reflectively loaded classes.
+ * </p>
+ */
+public class EspressoFeature implements Feature {
+  public static final String BEAN_CLASSES_PROPERTY = "espresso.beanClasses";
+
+  /**
+   * The espresso classes that read the environment when they are initialized
+   */
+  private static final List<String> RUN_TIME_CLASS_NAMES =
+      unmodifiableList(asList("com.sigpwned.espresso.BeanClass$Settings",
+          "com.sigpwned.espresso.AccessorCompiler",
+          "com.sigpwned.espresso.AccessorCompiler$Executor",
+          "com.sigpwned.espresso.metrics.EspressoMetrics",
+          "com.sigpwned.espresso.jfr.EspressoFlightRecorder"));
+
+  /**
+   * The {@code VarHandle} implementation of field atomics, which {@code FieldAtomics} loads and
+   * constructs reflectively. It is only present in the multi-release JAR's Java 9 classes.
+   */
+  private static final String VAR_HANDLE_FIELD_ATOMICS_CLASS_NAME =
+      "com.sigpwned.espresso.VarHandleFieldAtomics";
+
+  /**
+   * The {@code jdk.jfr} implementation of the Flight Recorder publisher, which
+   * {@code EspressoFlightRecorder} loads and constructs reflectively. It is only present in the
+   * multi-release JAR's Java 11 classes.
+   */
+  private static final String JDK_FLIGHT_RECORDER_PUBLISHER_CLASS_NAME =
+      "com.sigpwned.espresso.jfr.JdkFlightRecorderPublisher";
+
+  private final List<String> beanClassNames = new ArrayList<>();
+
+  @Override
+  public String getDescription() {
+    return "Registers and preloads espresso bean classes";
+  }
+
+  @Override
+  public void afterRegistration(AfterRegistrationAccess access) {
+    Set<String> names =
+        new LinkedHashSet<>(ReflectConfig.getBeanClassNames(access.getApplicationClassLoader()));
+    Optional.ofNullable(System.getProperty(BEAN_CLASSES_PROPERTY)).ifPresent(p -> {
+      for (String name : p.split(","))
+        if (!name.trim().isEmpty())
+          names.add(name.trim());
+    });
+    beanClassNames.addAll(names);
+
+    if (beanClassNames.isEmpty())
+      return;
+
+    RuntimeClassInitialization.initializeAtBuildTime("com.sigpwned.espresso");
+    for (String name : RUN_TIME_CLASS_NAMES) {
+      Class<?> c = access.findClassByName(name);
+      if (c == null)
+        // These are our own classes. This should never happen.
+        throw new AssertionError("class not found " + name);
+      RuntimeClassInitialization.initializeAtRunTime(c);
+    }
+  }
+
+  @Override
+  public void beforeAnalysis(BeforeAnalysisAccess access) {
+    Class<?> varHandleFieldAtomics = access.findClassByName(VAR_HANDLE_FIELD_ATOMICS_CLASS_NAME);
+    if (varHandleFieldAtomics != null) {
+      RuntimeReflection.register(varHandleFieldAtomics);
+      try {
+        RuntimeReflection.register(varHandleFieldAtomics.getDeclaredConstructor(Field.class));
+      } catch (NoSuchMethodException e) {
+        // This is our own class. This should never happen.
+        throw new AssertionError("field atomics constructor not found", e);
+      }
+    }
+
+    Class<?> jdkFlightRecorderPublisher =
+        access.findClassByName(JDK_FLIGHT_RECORDER_PUBLISHER_CLASS_NAME);
+    if (jdkFlightRecorderPublisher != null) {
+      RuntimeReflection.register(jdkFlightRecorderPublisher);
+      try {
+        RuntimeReflection.register(jdkFlightRecorderPublisher.getDeclaredConstructor());
+      } catch (NoSuchMethodException e) {
+        // This is our own class. This should never happen.
+        throw new AssertionError("flight recorder publisher constructor not found", e);
+      }
+    }
+
+    for (String beanClassName : beanClassNames) {
+      Class<?> beanClass = access.findClassByName(beanClassName);
+      if (beanClass == null)
+        throw new IllegalArgumentException(format("Bean class %s not found", beanClassName));
+
+      for (Class<?> c : ReflectConfig.getHierarchy(beanClass)) {
+        RuntimeReflection.register(c);
+        RuntimeReflection.register(c.getDeclaredFields());
+        RuntimeReflection.register(c.getDeclaredMethods());
+        RuntimeReflection.register(c.getConstructors());
+      }
+
+      BeanClass.preload(beanClass);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.graal;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import com.sigpwned.espresso.BeanClass;
+
+/**
+ * Generates GraalVM {@code reflect-config.json} for bean classes. This registers the members that
+ * {@link BeanClass#scan(Class)} reads for each class and its ancestors. It is an alternative to
+ * {@link EspressoFeature} for builds that prefer static configuration. Usage:
+ *
+ * <pre>
+ * java -cp app.jar:espresso.jar com.sigpwned.espresso.graal.ReflectConfig \
+ *     com.example.Foo com.example.Bar &gt; reflect-config.json
+ * </pre>
+ */
+public final class ReflectConfig {
+  /**
+   * The classpath resource that lists bean classes to register, one fully-qualified class name per
+   * line. Blank lines and lines starting with {@code #} are ignored.
+   */
+  public static final String BEAN_CLASSES_RESOURCE = "META-INF/espresso/bean-classes";
+
+  private ReflectConfig() {}
+
+  public static void main(String[] args) throws ClassNotFoundException {
+    List<Class<?>> classes = new ArrayList<>();
+    for (String arg : args)
+      classes.add(Class.forName(arg));
+    System.out.print(generate(classes));
+  }
+
+  /**
+   * Returns the reflection configuration for the given bean classes as JSON.
+   *
+   * @throws IllegalArgumentException if any of the given classes is not a valid bean class
+   */
+  public static String generate(List<Class<?>> beanClasses) {
+    Set<Class<?>> classes = new LinkedHashSet<>();
+    for (Class<?> beanClass : beanClasses) {
+      BeanClass.scan(beanClass);
+      classes.addAll(getHierarchy(beanClass));
+    }
+
+    StringBuilder result = new StringBuilder();
+    result.append("[\n");
+    boolean first = true;
+    for (Class<?> c : classes) {
+      if (!first)
+        result.append(",\n");
+      result.append("  {\n");
+      result.append("    \"name\": \"").append(c.getName()).append("\",\n");
+      result.append("    \"allDeclaredFields\": true,\n");
+      result.append("    \"allDeclaredMethods\": true,\n");
+      result.append("    \"allPublicConstructors\": true\n");
+      result.append("  }");
+      first = false;
+    }
+    result.append("\n]\n");
+
+    return result.toString();
+  }
+
+  /**
+   * Returns the given class and its superclasses, excluding {@link Object}. These are the classes
+   * whose declared members {@link BeanClass#scan(Class)} reads.
+   */
+  /* default */ static List<Class<?>> getHierarchy(Class<?> rawType) {
+    List<Class<?>> result = new ArrayList<>();
+    for (Class<?> c = rawType; c != null && c != Object.class; c = c.getSuperclass())
+      result.add(c);
+    return unmodifiableList(result);
+  }
+
+  /**
+   * Reads the names of the bean classes listed in every {@link #BEAN_CLASSES_RESOURCE} visible to
+   * the given class loader.
+   */
+  /* default */ static Set<String> getBeanClassNames(ClassLoader classLoader) {
+    Set<String> result = new LinkedHashSet<>();
+    try {
+      Enumeration<URL> resources = classLoader.getResources(BEAN_CLASSES_RESOURCE);
+      while (resources.hasMoreElements()) {
+        URL resource = resources.nextElement();
+        try (BufferedReader lines =
+            new BufferedReader(new InputStreamReader(resource.openStream(), UTF_8))) {
+          for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#"))
+              result.add(line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(format("failed to read %s", BEAN_CLASSES_RESOURCE), e);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,264 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jdbc;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import com.sigpwned.espresso.BeanBuilder;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * Maps the rows of a {@link ResultSet} to new instances of a {@link BeanClass}. Columns are
+ * matched to properties by label, ignoring case and underscores, so that a column named
+ * {@code first_name} populates a property named {@code firstName}. Columns that do not match any
+ * property are ignored.
+ * </p>
+ *
+ * <p>
+ * The column-to-property mapping is computed once per distinct list of column labels and reused
+ * for every result set that has the same labels, so one mapper can serve several queries. Each
+ * column is read with the typed {@link ResultSet} method for its property's type, e.g.
+ * {@link ResultSet#getInt(int)}, and primitive values are assigned with the matching typed
+ * property setter, so they are never boxed. SQL {@code NULL} values are assigned as {@code null}
+ * to reference properties and are skipped for primitive properties, which keep their default
+ * values. Classes with a creator, e.g., records, are created through a {@link BeanBuilder}
+ * instead, and their column values are boxed.
+ * </p>
+ *
+ * <p>
+ * Some drivers return a new {@link ResultSetMetaData} from every call to
+ * {@link ResultSet#getMetaData()}, so {@link #map(ResultSet)} must read the column labels of each
+ * row to find its mapping. When mapping many rows of one result set, use
+ * {@link #bind(ResultSet)} or {@link #mapAll(ResultSet)} instead, which find the mapping once.
+ * </p>
+ *
+ * <p>
+ * Instances are safe to share between threads.
+ * </p>
+ */
+public class BeanRowMapper {
+  public static BeanRowMapper of(BeanClass beanClass) {
+    return new BeanRowMapper(beanClass);
+  }
+
+  private final BeanClass beanClass;
+  private final Map<String, BeanProperty> propertiesByColumnName;
+  private final ConcurrentMap<List<String>, Plan> plansByLabels;
+  private volatile Plan lastPlan;
+
+  /* default */ BeanRowMapper(BeanClass beanClass) {
+    if (beanClass == null)
+      throw new NullPointerException();
+    this.beanClass = beanClass;
+    this.propertiesByColumnName = new HashMap<>();
+    for (BeanProperty property : beanClass)
+      propertiesByColumnName.putIfAbsent(columnName(property.getName()), property);
+    this.plansByLabels = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * The {@link BeanClass} this mapper creates instances of
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * Creates a new bean instance from the current row of the given {@link ResultSet}.
+   *
+   * @throws SQLException if the result set throws an exception
+   * @throws InvocationTargetException if a setter throws an exception
+   */
+  public Object map(ResultSet rs) throws SQLException, InvocationTargetException {
+    return getPlan(rs.getMetaData()).map(rs);
+  }
+
+  /**
+   * Creates one new bean instance for each remaining row of the given {@link ResultSet}.
+   *
+   * @throws SQLException if the result set throws an exception
+   * @throws InvocationTargetException if a setter throws an exception
+   */
+  public List<Object> mapAll(ResultSet rs) throws SQLException, InvocationTargetException {
+    return bind(rs).mapAll();
+  }
+
+  /**
+   * Returns a {@link Reader} that maps the rows of the given {@link ResultSet} without looking up
+   * its columns again.
+   *
+   * @throws SQLException if the result set throws an exception
+   */
+  public Reader bind(ResultSet rs) throws SQLException {
+    return new Reader(getPlan(rs.getMetaData()), rs);
+  }
+
+  /**
+   * Maps the rows of one {@link ResultSet} using a column mapping computed when it was bound. A
+   * reader must not be shared between threads, since the result set it reads is not.
+   *
+   * @see BeanRowMapper#bind(ResultSet)
+   */
+  public static final class Reader {
+    private final Plan plan;
+    private final ResultSet rs;
+
+    private Reader(Plan plan, ResultSet rs) {
+      this.plan = plan;
+      this.rs = rs;
+    }
+
+    /**
+     * Creates a new bean instance from the current row of the bound {@link ResultSet}.
+     *
+     * @throws SQLException if the result set throws an exception
+     * @throws InvocationTargetException if a setter throws an exception
+     */
+    public Object map() throws SQLException, InvocationTargetException {
+      return plan.map(rs);
+    }
+
+    /**
+     * Creates one new bean instance for each remaining row of the bound {@link ResultSet}.
+     *
+     * @throws SQLException if the result set throws an exception
+     * @throws InvocationTargetException if a setter throws an exception
+     */
+    public List<Object> mapAll() throws SQLException, InvocationTargetException {
+      List<Object> result = new ArrayList<>();
+      while (rs.next())
+        result.add(plan.map(rs));
+      return result;
+    }
+  }
+
+  private Plan getPlan(ResultSetMetaData metadata) throws SQLException {
+    Plan result = lastPlan;
+    if (result != null && result.getMetadata() == metadata)
+      return result;
+
+    String[] labels = new String[metadata.getColumnCount()];
+    for (int i = 0; i < labels.length; i++)
+      labels[i] = metadata.getColumnLabel(i + 1);
+
+    List<String> key = unmodifiableList(asList(labels));
+    result = plansByLabels.get(key);
+    if (result == null) {
+      result = compile(labels);
+      Plan existing = plansByLabels.putIfAbsent(key, result);
+      if (existing != null)
+        result = existing;
+    }
+
+    result = result.withMetadata(metadata);
+    lastPlan = result;
+
+    return result;
+  }
+
+  private Plan compile(String[] labels) {
+    List<ColumnReader> readers = new ArrayList<>();
+    for (int i = 0; i < labels.length; i++) {
+      BeanProperty property = propertiesByColumnName.get(columnName(labels[i]));
+      if (property != null)
+        readers.add(new ColumnReader(i + 1, property));
+    }
+    return new Plan(null, readers.toArray(new ColumnReader[0]));
+  }
+
+  /**
+   * Normalizes a column or property name for matching by removing underscores and ignoring case
+   */
+  private static String columnName(String name) {
+    return name.replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  private final class Plan {
+    private final ResultSetMetaData metadata;
+    private final ColumnReader[] readers;
+
+    public Plan(ResultSetMetaData metadata, ColumnReader[] readers) {
+      this.metadata = metadata;
+      this.readers = readers;
+    }
+
+    public Object map(ResultSet rs) throws SQLException, InvocationTargetException {
+      if (getBeanClass().hasCreator()) {
+        BeanBuilder builder = getBeanClass().newBuilder();
+        for (int i = 0; i < readers.length; i++)
+          readers[i].read(rs, builder);
+        return builder.build();
+      }
+
+      Object result = getBeanClass().newRawInstance();
+      for (int i = 0; i < readers.length; i++)
+        readers[i].read(rs, result);
+      return result;
+    }
+
+    /**
+     * Returns a plan that shares this plan's readers, remembering the given metadata so that the
+     * next row from the same result set can skip the label lookup
+     */
+    public Plan withMetadata(ResultSetMetaData metadata) {
+      return metadata == this.metadata ? this : new Plan(metadata, readers);
+    }
+
+    public ResultSetMetaData getMetadata() {
+      return metadata;
+    }
+  }
+
+  private static final class ColumnReader {
+    private final int column;
+    private final BeanProperty property;
+    private final JdbcType type;
+
+    public ColumnReader(int column, BeanProperty property) {
+      this.column = column;
+      this.property = property;
+      this.type = JdbcType.forType(property.getRawType());
+    }
+
+    public void read(ResultSet rs, Object instance)
+        throws SQLException, InvocationTargetException {
+      type.readInto(rs, column, property, instance);
+    }
+
+    public void read(ResultSet rs, BeanBuilder builder) throws SQLException {
+      Object value = type.read(rs, column);
+      if (value != null || !property.getRawType().isPrimitive())
+        builder.set(property.getIndex(), value);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jdbc;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * Binds the properties of bean instances to the parameters of a {@link PreparedStatement}, e.g.
+ * for batch inserts. The properties are given by name when the binder is created, and the first
+ * property is bound to parameter 1, the second to parameter 2, and so on. Each parameter is
+ * written with the typed {@link PreparedStatement} method for its property's type, e.g.
+ * {@link PreparedStatement#setInt(int, int)}, and {@code null} values are written as SQL
+ * {@code NULL}. Primitive properties are read with their typed getters, so they are never boxed.
+ * </p>
+ *
+ * <p>
+ * Instances are safe to share between threads.
+ * </p>
+ */
+public class BeanStatementBinder {
+  public static BeanStatementBinder of(BeanClass beanClass, String... propertyNames) {
+    return of(beanClass, asList(propertyNames));
+  }
+
+  /**
+   * @throws IllegalArgumentException if the given bean class has no property with one of the
+   *         given names
+   */
+  public static BeanStatementBinder of(BeanClass beanClass, List<String> propertyNames) {
+    BeanProperty[] properties = new BeanProperty[propertyNames.size()];
+    for (int i = 0; i < properties.length; i++) {
+      String propertyName = propertyNames.get(i);
+      properties[i] = beanClass.getProperty(propertyName).orElseThrow(
+          () -> new IllegalArgumentException(format("No such property %s", propertyName)));
+    }
+    return new BeanStatementBinder(beanClass, properties);
+  }
+
+  private final BeanClass beanClass;
+  private final BeanProperty[] properties;
+  private final JdbcType[] types;
+
+  private BeanStatementBinder(BeanClass beanClass, BeanProperty[] properties) {
+    this.beanClass = beanClass;
+    this.properties = properties;
+    this.types = new JdbcType[properties.length];
+    for (int i = 0; i < properties.length; i++)
+      types[i] = JdbcType.forType(properties[i].getRawType());
+  }
+
+  /**
+   * The {@link BeanClass} this binder reads instances of
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * The number of statement parameters this binder writes
+   */
+  public int size() {
+    return properties.length;
+  }
+
+  /**
+   * Assigns the statement parameters from the properties of the given bean instance.
+   *
+   * @throws SQLException if the statement throws an exception
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void bind(PreparedStatement ps, Object instance)
+      throws SQLException, InvocationTargetException {
+    for (int i = 0; i < properties.length; i++)
+      types[i].writeFrom(ps, i + 1, properties[i], instance);
+  }
+
+  /**
+   * Assigns the statement parameters from the given bean instance and adds them to the
+   * statement's current batch.
+   *
+   * @throws SQLException if the statement throws an exception
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void addBatch(PreparedStatement ps, Object instance)
+      throws SQLException, InvocationTargetException {
+    bind(ps, instance);
+    ps.addBatch();
+  }
+
+  /**
+   * Adds one batch entry to the given statement for each of the given bean instances.
+   *
+   * @throws SQLException if the statement throws an exception
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void addBatches(PreparedStatement ps, Iterable<?> instances)
+      throws SQLException, InvocationTargetException {
+    for (Object instance : instances)
+      addBatch(ps, instance);
+  }
+}
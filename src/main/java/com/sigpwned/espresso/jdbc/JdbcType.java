@@ -0,0 +1,517 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jdbc;
+
+import static java.lang.String.format;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * The JDBC access strategies for individual property types. Each strategy uses the typed
+ * {@link ResultSet} and {@link PreparedStatement} methods for its type, e.g.
+ * {@link ResultSet#getInt(int)}, so that the driver never has to materialize a generic column
+ * object. SQL {@code NULL} is always read as {@code null}. The primitive strategies also move
+ * values between columns and primitive properties without boxing, using the typed accessors of
+ * {@link BeanProperty}, e.g. {@link BeanProperty#setInt(Object, int)}.
+ */
+/* default */ enum JdbcType {
+  BOOLEAN(Types.BOOLEAN) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      boolean value = rs.getBoolean(column);
+      return rs.wasNull() ? null : Boolean.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setBoolean(parameter, ((Boolean) value).booleanValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != boolean.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      boolean value = rs.getBoolean(column);
+      if (!rs.wasNull())
+        property.setBoolean(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != boolean.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setBoolean(parameter, property.getBoolean(instance));
+    }
+  },
+  BYTE(Types.TINYINT) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      byte value = rs.getByte(column);
+      return rs.wasNull() ? null : Byte.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setByte(parameter, ((Byte) value).byteValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != byte.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      byte value = rs.getByte(column);
+      if (!rs.wasNull())
+        property.setByte(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != byte.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setByte(parameter, property.getByte(instance));
+    }
+  },
+  SHORT(Types.SMALLINT) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      short value = rs.getShort(column);
+      return rs.wasNull() ? null : Short.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setShort(parameter, ((Short) value).shortValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != short.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      short value = rs.getShort(column);
+      if (!rs.wasNull())
+        property.setShort(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != short.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setShort(parameter, property.getShort(instance));
+    }
+  },
+  CHAR(Types.CHAR) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      String value = rs.getString(column);
+      return value == null ? null : Character.valueOf(toChar(value, column));
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setString(parameter, String.valueOf(((Character) value).charValue()));
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != char.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      String value = rs.getString(column);
+      if (value != null)
+        property.setChar(instance, toChar(value, column));
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != char.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setString(parameter, String.valueOf(property.getChar(instance)));
+    }
+
+    private char toChar(String value, int column) throws SQLException {
+      if (value.length() != 1)
+        throw new SQLException(
+            format("Column %d has value of length %d, expected 1", column, value.length()));
+      return value.charAt(0);
+    }
+  },
+  INT(Types.INTEGER) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      int value = rs.getInt(column);
+      return rs.wasNull() ? null : Integer.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setInt(parameter, ((Integer) value).intValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != int.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      int value = rs.getInt(column);
+      if (!rs.wasNull())
+        property.setInt(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != int.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setInt(parameter, property.getInt(instance));
+    }
+  },
+  LONG(Types.BIGINT) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      long value = rs.getLong(column);
+      return rs.wasNull() ? null : Long.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setLong(parameter, ((Long) value).longValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != long.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      long value = rs.getLong(column);
+      if (!rs.wasNull())
+        property.setLong(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != long.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setLong(parameter, property.getLong(instance));
+    }
+  },
+  FLOAT(Types.REAL) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      float value = rs.getFloat(column);
+      return rs.wasNull() ? null : Float.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setFloat(parameter, ((Float) value).floatValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != float.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      float value = rs.getFloat(column);
+      if (!rs.wasNull())
+        property.setFloat(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != float.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setFloat(parameter, property.getFloat(instance));
+    }
+  },
+  DOUBLE(Types.DOUBLE) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      double value = rs.getDouble(column);
+      return rs.wasNull() ? null : Double.valueOf(value);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setDouble(parameter, ((Double) value).doubleValue());
+    }
+
+    @Override
+    public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+        throws SQLException, InvocationTargetException {
+      if (property.getRawType() != double.class) {
+        super.readInto(rs, column, property, instance);
+        return;
+      }
+      double value = rs.getDouble(column);
+      if (!rs.wasNull())
+        property.setDouble(instance, value);
+    }
+
+    @Override
+    public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+        Object instance) throws SQLException, InvocationTargetException {
+      if (property.getRawType() != double.class) {
+        super.writeFrom(ps, parameter, property, instance);
+        return;
+      }
+      ps.setDouble(parameter, property.getDouble(instance));
+    }
+  },
+  STRING(Types.VARCHAR) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getString(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setString(parameter, (String) value);
+    }
+  },
+  BIG_DECIMAL(Types.NUMERIC) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getBigDecimal(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setBigDecimal(parameter, (BigDecimal) value);
+    }
+  },
+  BYTES(Types.VARBINARY) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getBytes(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setBytes(parameter, (byte[]) value);
+    }
+  },
+  DATE(Types.DATE) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getDate(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setDate(parameter, (Date) value);
+    }
+  },
+  TIME(Types.TIME) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getTime(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setTime(parameter, (Time) value);
+    }
+  },
+  TIMESTAMP(Types.TIMESTAMP) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getTimestamp(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setTimestamp(parameter, (Timestamp) value);
+    }
+  },
+  UTIL_DATE(Types.TIMESTAMP) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      Timestamp value = rs.getTimestamp(column);
+      return value == null ? null : new java.util.Date(value.getTime());
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setTimestamp(parameter, new Timestamp(((java.util.Date) value).getTime()));
+    }
+  },
+  OBJECT(Types.OTHER) {
+    @Override
+    public Object read(ResultSet rs, int column) throws SQLException {
+      return rs.getObject(column);
+    }
+
+    @Override
+    protected void writeNonNull(PreparedStatement ps, int parameter, Object value)
+        throws SQLException {
+      ps.setObject(parameter, value);
+    }
+  };
+
+  /**
+   * Returns the access strategy for the given property type. Types without a dedicated strategy
+   * use the generic {@link ResultSet#getObject(int)} and {@link PreparedStatement#setObject(int,
+   * Object)} methods.
+   */
+  public static JdbcType forType(Class<?> rawType) {
+    if (rawType == boolean.class || rawType == Boolean.class)
+      return BOOLEAN;
+    if (rawType == byte.class || rawType == Byte.class)
+      return BYTE;
+    if (rawType == short.class || rawType == Short.class)
+      return SHORT;
+    if (rawType == char.class || rawType == Character.class)
+      return CHAR;
+    if (rawType == int.class || rawType == Integer.class)
+      return INT;
+    if (rawType == long.class || rawType == Long.class)
+      return LONG;
+    if (rawType == float.class || rawType == Float.class)
+      return FLOAT;
+    if (rawType == double.class || rawType == Double.class)
+      return DOUBLE;
+    if (rawType == String.class)
+      return STRING;
+    if (rawType == BigDecimal.class)
+      return BIG_DECIMAL;
+    if (rawType == byte[].class)
+      return BYTES;
+    if (rawType == Date.class)
+      return DATE;
+    if (rawType == Time.class)
+      return TIME;
+    if (rawType == Timestamp.class)
+      return TIMESTAMP;
+    if (rawType == java.util.Date.class)
+      return UTIL_DATE;
+    return OBJECT;
+  }
+
+  private final int sqlType;
+
+  private JdbcType(int sqlType) {
+    this.sqlType = sqlType;
+  }
+
+  /**
+   * Reads the given column of the current row, or {@code null} if the column is SQL {@code NULL}.
+   */
+  public abstract Object read(ResultSet rs, int column) throws SQLException;
+
+  /**
+   * Writes the given value to the given parameter, using SQL {@code NULL} for {@code null}.
+   */
+  public void write(PreparedStatement ps, int parameter, Object value) throws SQLException {
+    if (value == null)
+      ps.setNull(parameter, getSqlType());
+    else
+      writeNonNull(ps, parameter, value);
+  }
+
+  /**
+   * Reads the given column of the current row into the given property of the given instance. SQL
+   * {@code NULL} is assigned as {@code null} to reference properties and is skipped for primitive
+   * properties, which keep their current values.
+   */
+  public void readInto(ResultSet rs, int column, BeanProperty property, Object instance)
+      throws SQLException, InvocationTargetException {
+    Object value = read(rs, column);
+    if (value != null || !property.getRawType().isPrimitive())
+      property.set(instance, value);
+  }
+
+  /**
+   * Writes the given property of the given instance to the given parameter.
+   */
+  public void writeFrom(PreparedStatement ps, int parameter, BeanProperty property,
+      Object instance) throws SQLException, InvocationTargetException {
+    write(ps, parameter, property.get(instance));
+  }
+
+  protected abstract void writeNonNull(PreparedStatement ps, int parameter, Object value)
+      throws SQLException;
+
+  /**
+   * The {@link Types} constant used when writing SQL {@code NULL}
+   */
+  public int getSqlType() {
+    return sqlType;
+  }
+}
@@ -0,0 +1,142 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import com.sigpwned.espresso.metrics.EspressoMetrics;
+
+/**
+ * <p>
+ * Publishes espresso activity as JDK Flight Recorder events, all in the "Espresso" category:
+ * </p>
+ *
+ * <ul>
+ * <li>{@value #BEAN_SCAN_EVENT_NAME}: every scan that misses the {@code BeanClass} cache, with its
+ * class, property count, duration, and outcome</li>
+ * <li>{@value #SLOW_PROPERTY_ACCESS_EVENT_NAME}: every property read or write that takes at least
+ * the slow access threshold</li>
+ * <li>{@value #PROPERTY_ACCESS_FAILURE_EVENT_NAME}: every getter or setter that throws an
+ * exception</li>
+ * </ul>
+ *
+ * <p>
+ * The events are delivered through {@link EspressoMetrics} tracing, which is on only while a
+ * running recording has at least one of these events enabled. Otherwise, property accesses are not
+ * timed for the recorder. Installing does not enable metrics collection. The slow access threshold
+ * defaults to 1 millisecond and may be configured with the
+ * {@code ESPRESSO_JFR_SLOW_ACCESS_THRESHOLD_NANOS} environment variable or
+ * {@link #setSlowAccessThresholdNanos(long)}. The events themselves are only compiled for Java
+ * 11+, and are loaded reflectively. On JVMs without the {@code jdk.jfr} API, or when not running
+ * from the multi-release JAR, {@link #install()} does nothing.
+ * </p>
+ */
+public final class EspressoFlightRecorder {
+  public static final String BEAN_SCAN_EVENT_NAME = "com.sigpwned.espresso.BeanScan";
+
+  public static final String SLOW_PROPERTY_ACCESS_EVENT_NAME =
+      "com.sigpwned.espresso.SlowPropertyAccess";
+
+  public static final String PROPERTY_ACCESS_FAILURE_EVENT_NAME =
+      "com.sigpwned.espresso.PropertyAccessFailure";
+
+  private static final String JDK_IMPLEMENTATION =
+      "com.sigpwned.espresso.jfr.JdkFlightRecorderPublisher";
+
+  private static final Constructor<?> JDK_CONSTRUCTOR = findJdkConstructor();
+
+  private static Constructor<?> findJdkConstructor() {
+    try {
+      Class.forName("jdk.jfr.Event", false, EspressoFlightRecorder.class.getClassLoader());
+      return Class.forName(JDK_IMPLEMENTATION).getDeclaredConstructor();
+    } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+      // We're on Java 8, JFR is missing, or we're not running from the multi-release JAR
+      return null;
+    }
+  }
+
+  private static volatile long slowAccessThresholdNanos =
+      Optional.ofNullable(System.getenv("ESPRESSO_JFR_SLOW_ACCESS_THRESHOLD_NANOS"))
+          .map(Long::parseLong).orElse(TimeUnit.MILLISECONDS.toNanos(1L));
+
+  private static FlightRecorderPublisher publisher;
+
+  private EspressoFlightRecorder() {}
+
+  /**
+   * Returns true if this JVM supports the {@code jdk.jfr} API and the Java 11+ event classes are
+   * present
+   */
+  public static boolean isAvailable() {
+    return JDK_CONSTRUCTOR != null;
+  }
+
+  /**
+   * Starts publishing espresso events to JDK Flight Recorder, if available. Does not enable
+   * {@link EspressoMetrics} collection.
+   *
+   * @return true if events will be published, or false if JFR is not available
+   */
+  public static synchronized boolean install() {
+    if (!isAvailable())
+      return false;
+    if (publisher == null) {
+      publisher = newPublisher();
+      publisher.start();
+    }
+    return true;
+  }
+
+  private static FlightRecorderPublisher newPublisher() {
+    try {
+      return (FlightRecorderPublisher) JDK_CONSTRUCTOR.newInstance();
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw new AssertionError("failed to create flight recorder publisher", e.getCause());
+    } catch (ReflectiveOperationException e) {
+      // This is our own class. This should never happen.
+      throw new AssertionError("failed to create flight recorder publisher", e);
+    }
+  }
+
+  /**
+   * Stops publishing espresso events to JDK Flight Recorder and stops tracing. Does not disable
+   * {@link EspressoMetrics} collection.
+   */
+  public static synchronized void uninstall() {
+    if (publisher != null) {
+      publisher.stop();
+      publisher = null;
+    }
+  }
+
+  public static long getSlowAccessThresholdNanos() {
+    return slowAccessThresholdNanos;
+  }
+
+  public static void setSlowAccessThresholdNanos(long slowAccessThresholdNanos) {
+    if (slowAccessThresholdNanos < 0L)
+      throw new IllegalArgumentException("threshold must not be negative");
+    EspressoFlightRecorder.slowAccessThresholdNanos = slowAccessThresholdNanos;
+  }
+}
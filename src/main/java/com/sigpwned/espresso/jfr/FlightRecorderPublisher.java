@@ -0,0 +1,37 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+/**
+ * Publishes espresso activity to JDK Flight Recorder. The implementation is compiled for Java 11+
+ * and loaded reflectively by {@link EspressoFlightRecorder}, so this package never links against
+ * the {@code jdk.jfr} API on older JVMs.
+ */
+/* default */ interface FlightRecorderPublisher {
+  /**
+   * Starts listening for metrics and recording state changes
+   */
+  public void start();
+
+  /**
+   * Stops listening for metrics and recording state changes, and stops tracing
+   */
+  public void stop();
+}
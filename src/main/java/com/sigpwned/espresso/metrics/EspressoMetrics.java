@@ -0,0 +1,261 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * The switchboard for espresso's runtime metrics. When metrics are enabled, espresso reports
+ * {@link BeanClass} cache behavior, scan outcomes and latency, and property reads and writes to a
+ * built-in collector, which is exposed over JMX as an {@link EspressoMetricsMXBean} named
+ * {@link #OBJECT_NAME}, and to any registered {@link EspressoMetricsListener}s.
+ * </p>
+ *
+ * <p>
+ * Metrics are disabled by default. They may be enabled at startup by setting the
+ * {@code ESPRESSO_METRICS_ENABLED} environment variable to {@code true}, or at any time with
+ * {@link #setEnabled(boolean)} or over JMX. Tracing, e.g., by
+ * {@link com.sigpwned.espresso.jfr.EspressoFlightRecorder} while a recording wants espresso
+ * events, reports to listeners without feeding the built-in collector.
+ * </p>
+ *
+ * <p>
+ * While neither metrics nor tracing is on, the only cost is one volatile read per instrumented
+ * operation. While only the built-in collector is on, each property access also increments a
+ * counter. Otherwise, each scan and property access is also timed.
+ * </p>
+ */
+public final class EspressoMetrics {
+  /**
+   * Only used when the MBean cannot be registered
+   */
+  private static Logger logger() {
+    return LoggerFactory.getLogger(EspressoMetrics.class);
+  }
+
+  public static final String OBJECT_NAME = "com.sigpwned.espresso:type=Metrics";
+
+  private static final MetricsCollector COLLECTOR = new MetricsCollector();
+
+  private static final List<EspressoMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+  private static volatile boolean enabled;
+
+  private static volatile boolean tracing;
+
+  /**
+   * Whether either metrics or tracing is on, kept in one field so instrumentation points only need
+   * one volatile read
+   */
+  private static volatile boolean instrumented;
+
+  /**
+   * Whether tracing is on or any listener is registered, i.e., whether anything wants the timing of
+   * property accesses. The built-in collector only counts them.
+   */
+  private static volatile boolean timed;
+
+  private static boolean registered;
+
+  static {
+    if (Optional.ofNullable(System.getenv("ESPRESSO_METRICS_ENABLED")).map(Boolean::parseBoolean)
+        .orElse(false))
+      setEnabled(true);
+  }
+
+  private EspressoMetrics() {}
+
+  /**
+   * Whether metrics are currently being collected
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts or stops metrics collection. The MBean is registered the first time metrics are
+   * enabled. Collected values are retained while metrics are disabled.
+   */
+  public static synchronized void setEnabled(boolean enabled) {
+    if (enabled)
+      register();
+    EspressoMetrics.enabled = enabled;
+    EspressoMetrics.instrumented = enabled || tracing;
+  }
+
+  /**
+   * Whether scans and property accesses are currently timed and reported to listeners, i.e.,
+   * whether metrics or tracing is on. Instrumentation points check this first.
+   */
+  public static boolean isInstrumented() {
+    return instrumented;
+  }
+
+  /**
+   * Whether property accesses must be timed, i.e., whether tracing is on or any listener is
+   * registered. While only the built-in collector is on, instrumentation points count property
+   * accesses with {@link #propertyReadCounter(Class)} and {@link #propertyWriteCounter(Class)}
+   * instead of timing and reporting them.
+   */
+  public static boolean isTimed() {
+    return timed;
+  }
+
+  /**
+   * Starts or stops timing scans and property accesses for listeners only. Unlike
+   * {@link #setEnabled(boolean)}, this does not feed the built-in collector.
+   */
+  public static synchronized void setTracing(boolean tracing) {
+    EspressoMetrics.tracing = tracing;
+    EspressoMetrics.instrumented = enabled || tracing;
+    EspressoMetrics.timed = tracing || !LISTENERS.isEmpty();
+  }
+
+  /**
+   * The built-in metrics, i.e., the same object that is registered with JMX
+   */
+  public static EspressoMetricsMXBean getMetrics() {
+    return COLLECTOR;
+  }
+
+  public static synchronized void addListener(EspressoMetricsListener listener) {
+    if (listener == null)
+      throw new NullPointerException();
+    LISTENERS.add(listener);
+    EspressoMetrics.timed = true;
+  }
+
+  public static synchronized void removeListener(EspressoMetricsListener listener) {
+    LISTENERS.remove(listener);
+    EspressoMetrics.timed = tracing || !LISTENERS.isEmpty();
+  }
+
+  private static synchronized void register() {
+    if (registered)
+      return;
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      server.registerMBean(COLLECTOR, new ObjectName(OBJECT_NAME));
+    } catch (InstanceAlreadyExistsException e) {
+      // Another copy of espresso, e.g. in another class loader, got there first.
+      logger().warn("Espresso metrics MBean {} is already registered", OBJECT_NAME);
+    } catch (MalformedObjectNameException e) {
+      // We control the name. This should never happen.
+      throw new AssertionError("invalid object name", e);
+    } catch (JMException | SecurityException e) {
+      logger().warn("Failed to register espresso metrics MBean", e);
+    }
+    registered = true;
+  }
+
+  // The following methods are the instrumentation points. Callers should check isInstrumented()
+  // first. The built-in collector only counts while metrics are enabled.
+
+  public static void cacheHit(Class<?> rawType) {
+    if (enabled)
+      COLLECTOR.cacheHit(rawType);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.cacheHit(rawType);
+  }
+
+  public static void cacheMiss(Class<?> rawType) {
+    if (enabled)
+      COLLECTOR.cacheMiss(rawType);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.cacheMiss(rawType);
+  }
+
+  public static void scanCompleted(BeanClass beanClass, long nanos) {
+    if (enabled)
+      COLLECTOR.scanCompleted(beanClass, nanos);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.scanCompleted(beanClass, nanos);
+  }
+
+  public static void scanRejected(Class<?> rawType, long nanos, IllegalArgumentException cause) {
+    if (enabled)
+      COLLECTOR.scanRejected(rawType, nanos, cause);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.scanRejected(rawType, nanos, cause);
+  }
+
+  /**
+   * Returns the built-in collector's read counter for the given class. Callers may cache it, and
+   * should increment it after each successful property read while metrics are enabled but
+   * {@link #isTimed()} is false.
+   */
+  public static LongAdder propertyReadCounter(Class<?> rawType) {
+    return COLLECTOR.propertyReadCounter(rawType);
+  }
+
+  /**
+   * Returns the built-in collector's write counter for the given class.
+   *
+   * @see #propertyReadCounter(Class)
+   */
+  public static LongAdder propertyWriteCounter(Class<?> rawType) {
+    return COLLECTOR.propertyWriteCounter(rawType);
+  }
+
+  public static void propertyRead(BeanProperty property, long nanos) {
+    if (enabled)
+      COLLECTOR.propertyRead(property, nanos);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.propertyRead(property, nanos);
+  }
+
+  public static void propertyWritten(BeanProperty property, long nanos) {
+    if (enabled)
+      COLLECTOR.propertyWritten(property, nanos);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.propertyWritten(property, nanos);
+  }
+
+  public static void propertyReadFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {
+    if (enabled)
+      COLLECTOR.propertyReadFailed(property, nanos, cause);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.propertyReadFailed(property, nanos, cause);
+  }
+
+  public static void propertyWriteFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {
+    if (enabled)
+      COLLECTOR.propertyWriteFailed(property, nanos, cause);
+    for (EspressoMetricsListener listener : LISTENERS)
+      listener.propertyWriteFailed(property, nanos, cause);
+  }
+}
@@ -0,0 +1,91 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * Receives notifications about espresso's internal activity while {@link EspressoMetrics} is
+ * instrumented, i.e., while metrics or tracing is on. Listeners are called synchronously on the
+ * thread doing the work, so implementations should be fast and must be thread-safe. All methods
+ * do nothing by default.
+ *
+ * @see EspressoMetrics#addListener(EspressoMetricsListener)
+ */
+public interface EspressoMetricsListener {
+  /**
+   * Called when {@link BeanClass#scan(Class)} finds the given class in its cache
+   */
+  default void cacheHit(Class<?> rawType) {}
+
+  /**
+   * Called when {@link BeanClass#scan(Class)} does not find the given class in its cache
+   */
+  default void cacheMiss(Class<?> rawType) {}
+
+  /**
+   * Called when {@link BeanClass#scan(Class)} successfully scans the given class
+   *
+   * @param nanos the wall time spent scanning the class
+   */
+  default void scanCompleted(BeanClass beanClass, long nanos) {}
+
+  /**
+   * Called when {@link BeanClass#scan(Class)} rejects the given class
+   *
+   * @param nanos the wall time spent scanning the class
+   * @param cause the exception thrown to the caller
+   */
+  default void scanRejected(Class<?> rawType, long nanos, IllegalArgumentException cause) {}
+
+  /**
+   * Called when the value of the given property is read successfully
+   *
+   * @param nanos the wall time spent reading the property
+   */
+  default void propertyRead(BeanProperty property, long nanos) {}
+
+  /**
+   * Called when the value of the given property is written successfully
+   *
+   * @param nanos the wall time spent writing the property
+   */
+  default void propertyWritten(BeanProperty property, long nanos) {}
+
+  /**
+   * Called when reading the given property fails because its getter threw an exception
+   *
+   * @param nanos the wall time spent reading the property
+   * @param cause the exception thrown to the caller
+   */
+  default void propertyReadFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {}
+
+  /**
+   * Called when writing the given property fails because its setter threw an exception
+   *
+   * @param nanos the wall time spent writing the property
+   * @param cause the exception thrown to the caller
+   */
+  default void propertyWriteFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {}
+}
@@ -0,0 +1,93 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX management interface for espresso's built-in metrics. Registered under
+ * {@link EspressoMetrics#OBJECT_NAME} the first time metrics are enabled.
+ */
+public interface EspressoMetricsMXBean {
+  /**
+   * Whether metrics are currently being collected
+   */
+  public boolean isEnabled();
+
+  public void setEnabled(boolean enabled);
+
+  /**
+   * The number of classes currently held in the {@code BeanClass} cache
+   */
+  public int getCacheSize();
+
+  /**
+   * The maximum number of classes the {@code BeanClass} cache will hold
+   */
+  public int getCacheCapacity();
+
+  public long getCacheHitCount();
+
+  public long getCacheMissCount();
+
+  /**
+   * The number of scans that produced a {@code BeanClass}
+   */
+  public long getScanCount();
+
+  /**
+   * The number of scans that rejected their class as invalid
+   */
+  public long getScanRejectionCount();
+
+  public long getScanTotalNanos();
+
+  public long getScanMaxNanos();
+
+  /**
+   * An approximate percentile of scan latency, with power-of-two resolution
+   */
+  public long getScanLatencyP50Nanos();
+
+  public long getScanLatencyP90Nanos();
+
+  public long getScanLatencyP99Nanos();
+
+  /**
+   * The scan latency histogram. Element {@code i} counts the scans that took between
+   * {@code 2^i} (inclusive) and {@code 2^(i+1)} (exclusive) nanoseconds.
+   */
+  public long[] getScanLatencyHistogram();
+
+  /**
+   * The number of property reads, by bean class name
+   */
+  public Map<String, Long> getPropertyReadCounts();
+
+  /**
+   * The number of property writes, by bean class name
+   */
+  public Map<String, Long> getPropertyWriteCounts();
+
+  /**
+   * Sets all counters to zero
+   */
+  public void reset();
+}
@@ -0,0 +1,248 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * The built-in metrics listener that backs the {@link EspressoMetricsMXBean}. All counters are
+ * {@link LongAdder}s, so concurrent updates do not contend. Per-class counters are keyed by class
+ * name rather than by {@link Class}, so counting a class never keeps its class loader alive. Bean
+ * classes cache their property counters, so those are never removed, only reset.
+ */
+/* default */ class MetricsCollector implements EspressoMetricsListener, EspressoMetricsMXBean {
+  private static final int HISTOGRAM_SIZE = 64;
+
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder scans = new LongAdder();
+  private final LongAdder scanRejections = new LongAdder();
+  private final LongAdder scanNanos = new LongAdder();
+  private final LongAccumulator scanMaxNanos = new LongAccumulator(Math::max, 0L);
+  private final LongAdder[] scanHistogram;
+  private final ConcurrentMap<String, LongAdder> propertyReads = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> propertyWrites = new ConcurrentHashMap<>();
+
+  public MetricsCollector() {
+    this.scanHistogram = new LongAdder[HISTOGRAM_SIZE];
+    for (int i = 0; i < HISTOGRAM_SIZE; i++)
+      scanHistogram[i] = new LongAdder();
+  }
+
+  @Override
+  public void cacheHit(Class<?> rawType) {
+    cacheHits.increment();
+  }
+
+  @Override
+  public void cacheMiss(Class<?> rawType) {
+    cacheMisses.increment();
+  }
+
+  @Override
+  public void scanCompleted(BeanClass beanClass, long nanos) {
+    scans.increment();
+    recordScanNanos(nanos);
+  }
+
+  @Override
+  public void scanRejected(Class<?> rawType, long nanos, IllegalArgumentException cause) {
+    scanRejections.increment();
+    recordScanNanos(nanos);
+  }
+
+  private void recordScanNanos(long nanos) {
+    scanNanos.add(nanos);
+    scanMaxNanos.accumulate(nanos);
+    scanHistogram[bucket(nanos)].increment();
+  }
+
+  /**
+   * Returns the index of the histogram bucket for the given duration, i.e., floor(log2(nanos))
+   */
+  private static int bucket(long nanos) {
+    return nanos <= 0L ? 0 : HISTOGRAM_SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+  }
+
+  @Override
+  public void propertyRead(BeanProperty property, long nanos) {
+    propertyReadCounter(property.getBeanClass().getRawType()).increment();
+  }
+
+  @Override
+  public void propertyWritten(BeanProperty property, long nanos) {
+    propertyWriteCounter(property.getBeanClass().getRawType()).increment();
+  }
+
+  /* default */ LongAdder propertyReadCounter(Class<?> rawType) {
+    return counter(propertyReads, rawType.getName());
+  }
+
+  /* default */ LongAdder propertyWriteCounter(Class<?> rawType) {
+    return counter(propertyWrites, rawType.getName());
+  }
+
+  private static LongAdder counter(ConcurrentMap<String, LongAdder> counters, String key) {
+    LongAdder result = counters.get(key);
+    if (result == null)
+      result = counters.computeIfAbsent(key, k -> new LongAdder());
+    return result;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return EspressoMetrics.isEnabled();
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    EspressoMetrics.setEnabled(enabled);
+  }
+
+  @Override
+  public int getCacheSize() {
+    return BeanClass.getCacheSize();
+  }
+
+  @Override
+  public int getCacheCapacity() {
+    return BeanClass.getCacheCapacity();
+  }
+
+  @Override
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMissCount() {
+    return cacheMisses.sum();
+  }
+
+  @Override
+  public long getScanCount() {
+    return scans.sum();
+  }
+
+  @Override
+  public long getScanRejectionCount() {
+    return scanRejections.sum();
+  }
+
+  @Override
+  public long getScanTotalNanos() {
+    return scanNanos.sum();
+  }
+
+  @Override
+  public long getScanMaxNanos() {
+    return scanMaxNanos.get();
+  }
+
+  @Override
+  public long getScanLatencyP50Nanos() {
+    return percentile(0.50);
+  }
+
+  @Override
+  public long getScanLatencyP90Nanos() {
+    return percentile(0.90);
+  }
+
+  @Override
+  public long getScanLatencyP99Nanos() {
+    return percentile(0.99);
+  }
+
+  /**
+   * Returns the upper bound of the histogram bucket that contains the given quantile
+   */
+  private long percentile(double quantile) {
+    long[] histogram = getScanLatencyHistogram();
+
+    long total = 0L;
+    for (int i = 0; i < histogram.length; i++)
+      total = total + histogram[i];
+    if (total == 0L)
+      return 0L;
+
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0L;
+    for (int i = 0; i < histogram.length; i++) {
+      seen = seen + histogram[i];
+      if (seen >= rank)
+        return i == HISTOGRAM_SIZE - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1L;
+    }
+
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public long[] getScanLatencyHistogram() {
+    long[] result = new long[HISTOGRAM_SIZE];
+    for (int i = 0; i < HISTOGRAM_SIZE; i++)
+      result[i] = scanHistogram[i].sum();
+    return result;
+  }
+
+  @Override
+  public Map<String, Long> getPropertyReadCounts() {
+    return snapshot(propertyReads);
+  }
+
+  @Override
+  public Map<String, Long> getPropertyWriteCounts() {
+    return snapshot(propertyWrites);
+  }
+
+  private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters) {
+    Map<String, Long> result = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> e : counters.entrySet()) {
+      long sum = e.getValue().sum();
+      if (sum != 0L)
+        result.put(e.getKey(), sum);
+    }
+    return result;
+  }
+
+  @Override
+  public void reset() {
+    cacheHits.reset();
+    cacheMisses.reset();
+    scans.reset();
+    scanRejections.reset();
+    scanNanos.reset();
+    scanMaxNanos.reset();
+    for (int i = 0; i < HISTOGRAM_SIZE; i++)
+      scanHistogram[i].reset();
+    // Bean classes cache their counters, so reset them rather than dropping them
+    for (LongAdder counter : propertyReads.values())
+      counter.reset();
+    for (LongAdder counter : propertyWrites.values())
+      counter.reset();
+  }
+}
@@ -0,0 +1,411 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.offheap;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import com.sigpwned.espresso.BeanBuilder;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.offheap.BeanRecordLayout.FieldType;
+
+/**
+ * <p>
+ * A movable view of one record in a {@link BeanRecordStore}. Property values are read and written
+ * by ordinal directly against the store's buffer, so a single {@code BeanRecord} can visit any
+ * number of records without allocating, except when decoding strings. A view of an empty store
+ * has no record to visit, so its accessors throw {@link IllegalStateException}.
+ * </p>
+ *
+ * <p>
+ * Views are not safe to share between threads, but any number of views may be open on the same
+ * store.
+ * </p>
+ */
+public class BeanRecord {
+  private final BeanRecordStore store;
+  private final BeanRecordLayout layout;
+  private final byte[] scratch;
+  private ByteBuffer buffer;
+  private int base;
+  private long index;
+
+  /* default */ BeanRecord(BeanRecordStore store) {
+    this.store = store;
+    this.layout = store.getLayout();
+    this.scratch = new byte[layout.getLargestMaxLength()];
+    if (store.getCapacity() > 0)
+      moveTo(0L);
+  }
+
+  /**
+   * Positions this view at the given record.
+   *
+   * @return this view
+   */
+  public BeanRecord moveTo(long index) {
+    if (index < 0 || index >= store.getCapacity())
+      throw new IndexOutOfBoundsException(
+          format("index %d, capacity %d", index, store.getCapacity()));
+    this.buffer = store.getSegment(index);
+    this.base = store.getSegmentOffset(index);
+    this.index = index;
+    return this;
+  }
+
+  /**
+   * The index of the record this view is positioned at
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  public BeanRecordLayout getLayout() {
+    return layout;
+  }
+
+  public boolean getBoolean(int ordinal) {
+    return buffer.get(offset(ordinal, FieldType.BOOLEAN)) != 0;
+  }
+
+  public void setBoolean(int ordinal, boolean value) {
+    buffer.put(offset(ordinal, FieldType.BOOLEAN), value ? (byte) 1 : (byte) 0);
+  }
+
+  public byte getByte(int ordinal) {
+    return buffer.get(offset(ordinal, FieldType.BYTE));
+  }
+
+  public void setByte(int ordinal, byte value) {
+    buffer.put(offset(ordinal, FieldType.BYTE), value);
+  }
+
+  public short getShort(int ordinal) {
+    return buffer.getShort(offset(ordinal, FieldType.SHORT));
+  }
+
+  public void setShort(int ordinal, short value) {
+    buffer.putShort(offset(ordinal, FieldType.SHORT), value);
+  }
+
+  public char getChar(int ordinal) {
+    return buffer.getChar(offset(ordinal, FieldType.CHAR));
+  }
+
+  public void setChar(int ordinal, char value) {
+    buffer.putChar(offset(ordinal, FieldType.CHAR), value);
+  }
+
+  public int getInt(int ordinal) {
+    return buffer.getInt(offset(ordinal, FieldType.INT));
+  }
+
+  public void setInt(int ordinal, int value) {
+    buffer.putInt(offset(ordinal, FieldType.INT), value);
+  }
+
+  public long getLong(int ordinal) {
+    return buffer.getLong(offset(ordinal, FieldType.LONG));
+  }
+
+  public void setLong(int ordinal, long value) {
+    buffer.putLong(offset(ordinal, FieldType.LONG), value);
+  }
+
+  public float getFloat(int ordinal) {
+    return buffer.getFloat(offset(ordinal, FieldType.FLOAT));
+  }
+
+  public void setFloat(int ordinal, float value) {
+    buffer.putFloat(offset(ordinal, FieldType.FLOAT), value);
+  }
+
+  public double getDouble(int ordinal) {
+    return buffer.getDouble(offset(ordinal, FieldType.DOUBLE));
+  }
+
+  public void setDouble(int ordinal, double value) {
+    buffer.putDouble(offset(ordinal, FieldType.DOUBLE), value);
+  }
+
+  /**
+   * @throws IllegalStateException if the stored length is longer than the property's maximum
+   *         length, i.e., the store is corrupt
+   */
+  public String getString(int ordinal) {
+    int offset = offset(ordinal, FieldType.STRING);
+    int length = buffer.getShort(offset) & 0xFFFF;
+    if (length == BeanRecordLayout.NULL_STRING_LENGTH)
+      return null;
+    if (length > layout.getMaxLength(ordinal))
+      throw new IllegalStateException(format("Stored length %d exceeds max length %d",
+          length, layout.getMaxLength(ordinal)));
+    for (int i = 0; i < length; i++)
+      scratch[i] = buffer.get(offset + 2 + i);
+    return new String(scratch, 0, length, UTF_8);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the UTF-8 encoding of the given value is longer than the
+   *         property's maximum length
+   */
+  public void setString(int ordinal, String value) {
+    int offset = offset(ordinal, FieldType.STRING);
+    if (value == null) {
+      buffer.putShort(offset, (short) BeanRecordLayout.NULL_STRING_LENGTH);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      if (bytes.length > layout.getMaxLength(ordinal))
+        throw new IllegalArgumentException(format("Value of %d bytes exceeds max length %d",
+            bytes.length, layout.getMaxLength(ordinal)));
+      buffer.putShort(offset, (short) bytes.length);
+      for (int i = 0; i < bytes.length; i++)
+        buffer.put(offset + 2 + i, bytes[i]);
+    }
+  }
+
+  /**
+   * Returns the value of the given property, boxing primitive values.
+   */
+  public Object get(int ordinal) {
+    switch (layout.getFieldType(ordinal)) {
+      case BOOLEAN:
+        return getBoolean(ordinal);
+      case BYTE:
+        return getByte(ordinal);
+      case SHORT:
+        return getShort(ordinal);
+      case CHAR:
+        return getChar(ordinal);
+      case INT:
+        return getInt(ordinal);
+      case LONG:
+        return getLong(ordinal);
+      case FLOAT:
+        return getFloat(ordinal);
+      case DOUBLE:
+        return getDouble(ordinal);
+      case STRING:
+        return getString(ordinal);
+      default:
+        throw new AssertionError(layout.getFieldType(ordinal));
+    }
+  }
+
+  /**
+   * Assigns the value of the given property, unboxing primitive values.
+   *
+   * @throws IllegalArgumentException if the property is primitive and the value is null
+   */
+  public void set(int ordinal, Object value) {
+    switch (layout.getFieldType(ordinal)) {
+      case BOOLEAN:
+        setBoolean(ordinal, (Boolean) checkNotNull(ordinal, value));
+        break;
+      case BYTE:
+        setByte(ordinal, (Byte) checkNotNull(ordinal, value));
+        break;
+      case SHORT:
+        setShort(ordinal, (Short) checkNotNull(ordinal, value));
+        break;
+      case CHAR:
+        setChar(ordinal, (Character) checkNotNull(ordinal, value));
+        break;
+      case INT:
+        setInt(ordinal, (Integer) checkNotNull(ordinal, value));
+        break;
+      case LONG:
+        setLong(ordinal, (Long) checkNotNull(ordinal, value));
+        break;
+      case FLOAT:
+        setFloat(ordinal, (Float) checkNotNull(ordinal, value));
+        break;
+      case DOUBLE:
+        setDouble(ordinal, (Double) checkNotNull(ordinal, value));
+        break;
+      case STRING:
+        setString(ordinal, (String) value);
+        break;
+      default:
+        throw new AssertionError(layout.getFieldType(ordinal));
+    }
+  }
+
+  /**
+   * Copies the values of this record into the properties of the given bean instance.
+   *
+   * @throws InvocationTargetException if a setter throws an exception
+   */
+  public void readInto(Object instance) throws InvocationTargetException {
+    BeanClass beanClass = layout.getBeanClass();
+    for (int i = 0; i < layout.size(); i++) {
+      BeanProperty property = beanClass.get(i);
+      switch (layout.getFieldType(i)) {
+        case BOOLEAN:
+          property.setBoolean(instance, getBoolean(i));
+          break;
+        case BYTE:
+          property.setByte(instance, getByte(i));
+          break;
+        case SHORT:
+          property.setShort(instance, getShort(i));
+          break;
+        case CHAR:
+          property.setChar(instance, getChar(i));
+          break;
+        case INT:
+          property.setInt(instance, getInt(i));
+          break;
+        case LONG:
+          property.setLong(instance, getLong(i));
+          break;
+        case FLOAT:
+          property.setFloat(instance, getFloat(i));
+          break;
+        case DOUBLE:
+          property.setDouble(instance, getDouble(i));
+          break;
+        case STRING:
+          property.set(instance, getString(i));
+          break;
+        default:
+          throw new AssertionError(layout.getFieldType(i));
+      }
+    }
+  }
+
+  /**
+   * Creates a new bean instance from the values of this record. Classes with a creator, e.g.,
+   * records, are created through a {@link BeanBuilder}.
+   *
+   * @throws InvocationTargetException if the constructor or a setter throws an exception
+   */
+  public Object toBean() throws InvocationTargetException {
+    if (layout.getBeanClass().hasCreator()) {
+      BeanBuilder builder = layout.getBeanClass().newBuilder();
+      readInto(builder);
+      return builder.build();
+    }
+
+    Object result = layout.getBeanClass().newRawInstance();
+    readInto(result);
+    return result;
+  }
+
+  /**
+   * Copies the values of this record into the given builder without boxing primitives.
+   */
+  private void readInto(BeanBuilder builder) {
+    for (int i = 0; i < layout.size(); i++) {
+      switch (layout.getFieldType(i)) {
+        case BOOLEAN:
+          builder.setBoolean(i, getBoolean(i));
+          break;
+        case BYTE:
+          builder.setByte(i, getByte(i));
+          break;
+        case SHORT:
+          builder.setShort(i, getShort(i));
+          break;
+        case CHAR:
+          builder.setChar(i, getChar(i));
+          break;
+        case INT:
+          builder.setInt(i, getInt(i));
+          break;
+        case LONG:
+          builder.setLong(i, getLong(i));
+          break;
+        case FLOAT:
+          builder.setFloat(i, getFloat(i));
+          break;
+        case DOUBLE:
+          builder.setDouble(i, getDouble(i));
+          break;
+        case STRING:
+          builder.set(i, getString(i));
+          break;
+        default:
+          throw new AssertionError(layout.getFieldType(i));
+      }
+    }
+  }
+
+  /**
+   * Copies the property values of the given bean instance into this record.
+   *
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void writeFrom(Object instance) throws InvocationTargetException {
+    BeanClass beanClass = layout.getBeanClass();
+    for (int i = 0; i < layout.size(); i++) {
+      BeanProperty property = beanClass.get(i);
+      switch (layout.getFieldType(i)) {
+        case BOOLEAN:
+          setBoolean(i, property.getBoolean(instance));
+          break;
+        case BYTE:
+          setByte(i, property.getByte(instance));
+          break;
+        case SHORT:
+          setShort(i, property.getShort(instance));
+          break;
+        case CHAR:
+          setChar(i, property.getChar(instance));
+          break;
+        case INT:
+          setInt(i, property.getInt(instance));
+          break;
+        case LONG:
+          setLong(i, property.getLong(instance));
+          break;
+        case FLOAT:
+          setFloat(i, property.getFloat(instance));
+          break;
+        case DOUBLE:
+          setDouble(i, property.getDouble(instance));
+          break;
+        case STRING:
+          setString(i, (String) property.get(instance));
+          break;
+        default:
+          throw new AssertionError(layout.getFieldType(i));
+      }
+    }
+  }
+
+  private Object checkNotNull(int ordinal, Object value) {
+    if (value == null)
+      throw new IllegalArgumentException(format("Property %s is primitive and cannot be null",
+          layout.getBeanClass().get(ordinal).getName()));
+    return value;
+  }
+
+  private int offset(int ordinal, FieldType type) {
+    if (buffer == null)
+      throw new IllegalStateException("store is empty");
+    if (layout.getFieldType(ordinal) != type)
+      throw new IllegalArgumentException(format("Property %s is %s, not %s",
+          layout.getBeanClass().get(ordinal).getName(), layout.getFieldType(ordinal), type));
+    return base + layout.getOffset(ordinal);
+  }
+}
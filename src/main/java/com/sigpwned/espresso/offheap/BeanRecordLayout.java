@@ -0,0 +1,262 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.offheap;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * A fixed-size binary record layout derived from a {@link BeanClass}. Every property must be a
+ * primitive or a {@link String}. Each string property has a fixed maximum length in UTF-8 bytes
+ * and is stored as a 2-byte length followed by that many bytes of capacity, so every record of a
+ * layout has the same size.
+ * </p>
+ *
+ * <p>
+ * Properties are addressed by ordinal, i.e., their index in the {@link BeanClass}. The physical
+ * slots of primitive properties are ordered by decreasing size so that they are naturally aligned,
+ * and are followed by the slots of string properties, whose sizes vary. The record size is padded
+ * to a multiple of 8 bytes. All values are little-endian.
+ * </p>
+ */
+public class BeanRecordLayout {
+  /**
+   * The largest supported maximum string length, in UTF-8 bytes
+   */
+  public static final int MAX_STRING_LENGTH = 0xFFFE;
+
+  /**
+   * The stored length of a null string
+   */
+  /* default */ static final int NULL_STRING_LENGTH = 0xFFFF;
+
+  public static enum FieldType {
+    BOOLEAN(1), BYTE(1), SHORT(2), CHAR(2), INT(4), LONG(8), FLOAT(4), DOUBLE(8), STRING(2);
+
+    private final int size;
+
+    private FieldType(int size) {
+      this.size = size;
+    }
+
+    /**
+     * The fixed size of this type in bytes. For strings, this is the size of the length prefix.
+     */
+    public int getSize() {
+      return size;
+    }
+  }
+
+  /**
+   * Creates a layout for the given bean class in which every string property may hold at most
+   * the given number of UTF-8 bytes.
+   *
+   * @throws IllegalArgumentException if the class has no properties, or any property is not a
+   *         primitive or a string
+   */
+  public static BeanRecordLayout of(BeanClass beanClass, int maxStringLength) {
+    return of(beanClass, p -> maxStringLength);
+  }
+
+  /**
+   * Creates a layout for the given bean class. The given function returns the maximum number of
+   * UTF-8 bytes for each string property.
+   *
+   * @throws IllegalArgumentException if the class has no properties, or any property is not a
+   *         primitive or a string
+   */
+  public static BeanRecordLayout of(BeanClass beanClass,
+      ToIntFunction<BeanProperty> maxStringLength) {
+    int size = beanClass.size();
+    if (size == 0)
+      throw new IllegalArgumentException(
+          format("Class %s has no properties", beanClass.getRawType().getName()));
+
+    FieldType[] types = new FieldType[size];
+    int[] maxLengths = new int[size];
+    for (int i = 0; i < size; i++) {
+      BeanProperty property = beanClass.get(i);
+      types[i] = fieldType(property);
+      if (types[i] == FieldType.STRING) {
+        maxLengths[i] = maxStringLength.applyAsInt(property);
+        if (maxLengths[i] < 0 || maxLengths[i] > MAX_STRING_LENGTH)
+          throw new IllegalArgumentException(format("Property %s has invalid max length %d",
+              property.getName(), maxLengths[i]));
+      }
+    }
+
+    // Place the widest primitive slots first so that every primitive is naturally aligned. String
+    // slots can have any size, so they go last, where they can't misalign anything.
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++)
+      order[i] = i;
+    Arrays.sort(order, Comparator
+        .comparingInt((Integer i) -> types[i] == FieldType.STRING ? 0 : types[i].getSize())
+        .reversed().thenComparingInt(i -> i));
+
+    int[] offsets = new int[size];
+    int offset = 0;
+    for (int i : order) {
+      offsets[i] = offset;
+      offset = offset + types[i].getSize() + maxLengths[i];
+    }
+
+    int recordSize = (offset + 7) & ~7;
+
+    return new BeanRecordLayout(beanClass, types, offsets, maxLengths, recordSize);
+  }
+
+  private static FieldType fieldType(BeanProperty property) {
+    if (property.getGenericType() == boolean.class)
+      return FieldType.BOOLEAN;
+    if (property.getGenericType() == byte.class)
+      return FieldType.BYTE;
+    if (property.getGenericType() == short.class)
+      return FieldType.SHORT;
+    if (property.getGenericType() == char.class)
+      return FieldType.CHAR;
+    if (property.getGenericType() == int.class)
+      return FieldType.INT;
+    if (property.getGenericType() == long.class)
+      return FieldType.LONG;
+    if (property.getGenericType() == float.class)
+      return FieldType.FLOAT;
+    if (property.getGenericType() == double.class)
+      return FieldType.DOUBLE;
+    if (property.getGenericType() == String.class)
+      return FieldType.STRING;
+    throw new IllegalArgumentException(format("Property %s has unsupported type %s",
+        property.getName(), property.getGenericType().getTypeName()));
+  }
+
+  private final BeanClass beanClass;
+  private final FieldType[] types;
+  private final int[] offsets;
+  private final int[] maxLengths;
+  private final int recordSize;
+  private final long fingerprint;
+
+  private BeanRecordLayout(BeanClass beanClass, FieldType[] types, int[] offsets,
+      int[] maxLengths, int recordSize) {
+    this.beanClass = beanClass;
+    this.types = types;
+    this.offsets = offsets;
+    this.maxLengths = maxLengths;
+    this.recordSize = recordSize;
+    this.fingerprint = fingerprint(beanClass, types, offsets, maxLengths, recordSize);
+  }
+
+  /**
+   * Computes a 64-bit FNV-1a hash of everything that determines where and how a value is stored.
+   * The bean class name is deliberately left out so that renaming a class does not orphan its
+   * existing stores.
+   */
+  private static long fingerprint(BeanClass beanClass, FieldType[] types, int[] offsets,
+      int[] maxLengths, int recordSize) {
+    long result = 0xCBF29CE484222325L;
+    result = fingerprint(result, recordSize);
+    for (int i = 0; i < types.length; i++) {
+      byte[] name = beanClass.get(i).getName().getBytes(UTF_8);
+      result = fingerprint(result, name.length);
+      for (int j = 0; j < name.length; j++)
+        result = (result ^ (name[j] & 0xFF)) * 0x100000001B3L;
+      byte[] type = types[i].name().getBytes(UTF_8);
+      result = fingerprint(result, type.length);
+      for (int j = 0; j < type.length; j++)
+        result = (result ^ (type[j] & 0xFF)) * 0x100000001B3L;
+      result = fingerprint(result, offsets[i]);
+      result = fingerprint(result, maxLengths[i]);
+    }
+    return result;
+  }
+
+  private static long fingerprint(long hash, int value) {
+    for (int i = 0; i < 4; i++)
+      hash = (hash ^ ((value >>> (8 * i)) & 0xFF)) * 0x100000001B3L;
+    return hash;
+  }
+
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * The number of properties in this layout
+   */
+  public int size() {
+    return types.length;
+  }
+
+  /**
+   * The size of one record in bytes
+   */
+  public int getRecordSize() {
+    return recordSize;
+  }
+
+  /**
+   * A hash of the property names, types, offsets, and maximum lengths of this layout. Two layouts
+   * with the same fingerprint read and write records identically, so a mapped
+   * {@link BeanRecordStore} stores it to detect files written with a different layout.
+   */
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  public FieldType getFieldType(int ordinal) {
+    return types[ordinal];
+  }
+
+  /**
+   * The offset of the given property's slot from the start of the record
+   */
+  public int getOffset(int ordinal) {
+    return offsets[ordinal];
+  }
+
+  /**
+   * The maximum length of the given string property in UTF-8 bytes, or 0 for primitive properties
+   */
+  public int getMaxLength(int ordinal) {
+    return maxLengths[ordinal];
+  }
+
+  /**
+   * The largest maximum length of any string property in this layout
+   */
+  /* default */ int getLargestMaxLength() {
+    int result = 0;
+    for (int i = 0; i < maxLengths.length; i++)
+      result = Math.max(result, maxLengths[i]);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "BeanRecordLayout [beanClass=" + beanClass + ", types=" + Arrays.toString(types)
+        + ", offsets=" + Arrays.toString(offsets) + ", recordSize=" + recordSize + "]";
+  }
+}
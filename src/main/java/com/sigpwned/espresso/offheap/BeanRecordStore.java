@@ -0,0 +1,240 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.offheap;
+
+import static java.lang.String.format;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * A fixed-capacity array of {@link BeanRecordLayout binary bean records} stored outside the Java
+ * heap, either in direct memory or in a memory-mapped file. Mapped stores can be shared between
+ * processes through the operating system's page cache.
+ * </p>
+ *
+ * <p>
+ * A single {@link ByteBuffer} can address at most 2GB, so larger stores are split into segments
+ * that each hold a whole number of records. Records are read and written through
+ * {@link BeanRecord} flyweights created by {@link #newRecord()}.
+ * </p>
+ *
+ * <p>
+ * Mapped files begin with a {@link #HEADER_SIZE fixed-size header} that identifies the layout the
+ * file was written with, so a file is never silently read with the wrong layout.
+ * </p>
+ */
+public class BeanRecordStore {
+  /**
+   * Allocates a new store of the given number of records in direct memory.
+   */
+  public static BeanRecordStore allocateDirect(BeanRecordLayout layout, long capacity) {
+    long recordsPerSegment = recordsPerSegment(layout);
+    int segmentCount = segmentCount(capacity, recordsPerSegment);
+    ByteBuffer[] segments = new ByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      long records = Math.min(recordsPerSegment, capacity - i * recordsPerSegment);
+      segments[i] = ByteBuffer.allocateDirect((int) (records * layout.getRecordSize()));
+    }
+    return new BeanRecordStore(layout, capacity, recordsPerSegment, segments);
+  }
+
+  /**
+   * The size of the header at the start of every mapped file, in bytes. The header holds a magic
+   * number, a format version, the record size, and the {@link BeanRecordLayout#getFingerprint()
+   * layout fingerprint}, and is padded so that the records that follow stay 8-byte aligned.
+   */
+  public static final int HEADER_SIZE = 32;
+
+  private static final int MAGIC = 0x45535052;
+
+  private static final int VERSION = 1;
+
+  /**
+   * Maps an existing file read-only. The capacity of the store is the number of records in the
+   * file.
+   *
+   * @throws IOException if the file cannot be opened or mapped, or is not a store file
+   * @throws IllegalArgumentException if the file was written with a different layout
+   */
+  public static BeanRecordStore map(BeanRecordLayout layout, Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file)) {
+      return map(layout, channel, MapMode.READ_ONLY, recordCount(layout, channel));
+    }
+  }
+
+  /**
+   * Maps a store of the given number of records from the given file, creating or growing the
+   * file as needed when opened for writing. A new file is given a header that records its layout,
+   * and an existing file's header is checked against the given layout.
+   *
+   * @param mode {@link MapMode#READ_ONLY} to share an existing dataset, or
+   *        {@link MapMode#READ_WRITE} to create or modify one
+   * @throws IOException if the file cannot be opened or mapped, or is not a store file
+   * @throws IllegalArgumentException if the file was written with a different layout, or is
+   *         mapped read-only and does not hold exactly the given number of records
+   */
+  public static BeanRecordStore map(BeanRecordLayout layout, Path file, MapMode mode,
+      long capacity) throws IOException {
+    try (FileChannel channel = mode == MapMode.READ_ONLY ? FileChannel.open(file)
+        : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      if (mode == MapMode.READ_ONLY) {
+        long records = recordCount(layout, channel);
+        if (records != capacity)
+          throw new IllegalArgumentException(
+              format("File %s holds %d records, not %d", file, records, capacity));
+      } else if (mode == MapMode.READ_WRITE && channel.size() == 0L) {
+        writeHeader(layout, channel);
+      } else {
+        readHeader(layout, channel);
+      }
+      return map(layout, channel, mode, capacity);
+    }
+  }
+
+  private static BeanRecordStore map(BeanRecordLayout layout, FileChannel channel, MapMode mode,
+      long capacity) throws IOException {
+    long recordsPerSegment = recordsPerSegment(layout);
+    int segmentCount = segmentCount(capacity, recordsPerSegment);
+    ByteBuffer[] segments = new ByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      long records = Math.min(recordsPerSegment, capacity - i * recordsPerSegment);
+      long position = HEADER_SIZE + i * recordsPerSegment * layout.getRecordSize();
+      MappedByteBuffer segment = channel.map(mode, position, records * layout.getRecordSize());
+      segments[i] = segment;
+    }
+    return new BeanRecordStore(layout, capacity, recordsPerSegment, segments);
+  }
+
+  /**
+   * Checks the file's header and returns the number of whole records that follow it.
+   */
+  private static long recordCount(BeanRecordLayout layout, FileChannel channel)
+      throws IOException {
+    readHeader(layout, channel);
+    long size = channel.size() - HEADER_SIZE;
+    if (size % layout.getRecordSize() != 0)
+      throw new IOException(format("File size %d is not a whole number of %d-byte records",
+          channel.size(), layout.getRecordSize()));
+    return size / layout.getRecordSize();
+  }
+
+  private static void writeHeader(BeanRecordLayout layout, FileChannel channel)
+      throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(0, MAGIC);
+    header.putInt(4, VERSION);
+    header.putInt(8, layout.getRecordSize());
+    header.putLong(16, layout.getFingerprint());
+    while (header.hasRemaining())
+      channel.write(header, header.position());
+  }
+
+  private static void readHeader(BeanRecordLayout layout, FileChannel channel)
+      throws IOException {
+    if (channel.size() < HEADER_SIZE)
+      throw new IOException("File is too short to be a bean record store");
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    while (header.hasRemaining())
+      if (channel.read(header, header.position()) < 0)
+        throw new IOException("File is too short to be a bean record store");
+    if (header.getInt(0) != MAGIC)
+      throw new IOException("File is not a bean record store");
+    if (header.getInt(4) != VERSION)
+      throw new IOException(format("Unsupported bean record store version %d", header.getInt(4)));
+    if (header.getInt(8) != layout.getRecordSize())
+      throw new IllegalArgumentException(format("File has record size %d, but layout has %d",
+          header.getInt(8), layout.getRecordSize()));
+    if (header.getLong(16) != layout.getFingerprint())
+      throw new IllegalArgumentException(
+          format("File was written with a different layout of %s",
+              layout.getBeanClass().getRawType().getName()));
+  }
+
+  private static long recordsPerSegment(BeanRecordLayout layout) {
+    return Integer.MAX_VALUE / layout.getRecordSize();
+  }
+
+  private static int segmentCount(long capacity, long recordsPerSegment) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity must not be negative");
+    long result = (capacity + recordsPerSegment - 1) / recordsPerSegment;
+    if (result > Integer.MAX_VALUE)
+      throw new IllegalArgumentException(format("capacity %d is too large", capacity));
+    return (int) result;
+  }
+
+  private final BeanRecordLayout layout;
+  private final long capacity;
+  private final long recordsPerSegment;
+  private final ByteBuffer[] segments;
+
+  private BeanRecordStore(BeanRecordLayout layout, long capacity, long recordsPerSegment,
+      ByteBuffer[] segments) {
+    this.layout = layout;
+    this.capacity = capacity;
+    this.recordsPerSegment = recordsPerSegment;
+    this.segments = segments;
+    for (int i = 0; i < segments.length; i++)
+      segments[i].order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  public BeanRecordLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * The number of records in this store
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Creates a new {@link BeanRecord} flyweight positioned at the first record.
+   */
+  public BeanRecord newRecord() {
+    return new BeanRecord(this);
+  }
+
+  /**
+   * Flushes any changes to a mapped store to its file. Does nothing for direct stores.
+   */
+  public void force() {
+    for (int i = 0; i < segments.length; i++)
+      if (segments[i] instanceof MappedByteBuffer)
+        ((MappedByteBuffer) segments[i]).force();
+  }
+
+  /* default */ ByteBuffer getSegment(long index) {
+    return segments[(int) (index / recordsPerSegment)];
+  }
+
+  /* default */ int getSegmentOffset(long index) {
+    return (int) (index % recordsPerSegment) * layout.getRecordSize();
+  }
+}
@@ -0,0 +1,789 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.table;
+
+import static java.lang.String.format;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.sigpwned.espresso.BeanBuilder;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * The storage for one property across all rows of a {@link BeanTable}. Each primitive property
+ * type is stored in an array of that primitive type, e.g. {@code int[]} for {@code int}
+ * properties, so values are never boxed inside the table. All other property types are stored in
+ * an {@code Object[]}, or optionally in a dictionary-encoded {@code int[]} for {@link String}
+ * properties with many repeated values.
+ * </p>
+ *
+ * <p>
+ * The typed accessors, e.g. {@link #getInt(int)}, are supported only by columns of the matching
+ * type and throw {@link UnsupportedOperationException} otherwise. The generic accessors
+ * {@link #get(int)} and {@link #set(int, Object)} are supported by all columns. All accessors
+ * throw {@link IndexOutOfBoundsException} for rows outside the table's {@link BeanTable#size()},
+ * even when the column has spare capacity.
+ * </p>
+ */
+public abstract class BeanColumn {
+  /**
+   * Creates a new empty column for the given property with the given initial capacity.
+   */
+  /* default */ static BeanColumn forProperty(BeanTable<?> table, BeanProperty property,
+      int capacity, boolean dictionaryEncodeStrings) {
+    Class<?> rawType = property.getRawType();
+    if (rawType == boolean.class)
+      return new BooleanColumn(table, property, capacity);
+    if (rawType == byte.class)
+      return new ByteColumn(table, property, capacity);
+    if (rawType == short.class)
+      return new ShortColumn(table, property, capacity);
+    if (rawType == char.class)
+      return new CharColumn(table, property, capacity);
+    if (rawType == int.class)
+      return new IntColumn(table, property, capacity);
+    if (rawType == long.class)
+      return new LongColumn(table, property, capacity);
+    if (rawType == float.class)
+      return new FloatColumn(table, property, capacity);
+    if (rawType == double.class)
+      return new DoubleColumn(table, property, capacity);
+    if (rawType == String.class && dictionaryEncodeStrings)
+      return new DictionaryColumn(table, property, capacity);
+    return new ObjectColumn(table, property, capacity);
+  }
+
+  private final BeanTable<?> table;
+  private final BeanProperty property;
+
+  /* default */ BeanColumn(BeanTable<?> table, BeanProperty property) {
+    this.table = table;
+    this.property = property;
+  }
+
+  /**
+   * The property whose values this column stores
+   */
+  public BeanProperty getProperty() {
+    return property;
+  }
+
+  /**
+   * Returns the value of the given row, boxing primitive values.
+   */
+  public abstract Object get(int row);
+
+  /**
+   * Assigns the value of the given row, unboxing primitive values.
+   *
+   * @throws IllegalArgumentException if this column stores a primitive type and the value is null
+   */
+  public abstract void set(int row, Object value);
+
+  /**
+   * Copies this column's property from the given bean into the given row. Primitive values are
+   * read with the property's typed getter, so they are never boxed. The caller checks the row.
+   */
+  /* default */ abstract void copyIn(int row, Object instance) throws InvocationTargetException;
+
+  /**
+   * Copies the given row into this column's property of the given bean. Primitive values are
+   * assigned with the property's typed setter, so they are never boxed. The caller checks the row.
+   */
+  /* default */ abstract void copyOut(int row, Object instance) throws InvocationTargetException;
+
+  /**
+   * Copies the given row into this column's property of the given builder, for bean classes that
+   * are created through a creator. Primitive values are assigned with the builder's typed setter,
+   * so they are never boxed. The caller checks the row.
+   */
+  /* default */ abstract void copyOut(int row, BeanBuilder builder);
+
+  public boolean getBoolean(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public byte getByte(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public short getShort(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public char getChar(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public int getInt(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public long getLong(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public float getFloat(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  public double getDouble(int row) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Grows the backing storage to hold at least the given number of rows.
+   */
+  /* default */ abstract void ensureCapacity(int capacity);
+
+  /**
+   * Shrinks the backing storage to hold exactly the given number of rows.
+   */
+  /* default */ abstract void trimToSize(int size);
+
+  /* default */ void checkRow(int row) {
+    table.checkRow(row);
+  }
+
+  /**
+   * Returns the given value, or throws if it is null, for columns that store a primitive type.
+   */
+  /* default */ Object checkNotNull(Object value) {
+    if (value == null)
+      throw new IllegalArgumentException(
+          format("Property %s is primitive and cannot be null", property.getName()));
+    return value;
+  }
+
+  /* default */ static int grow(int length, int capacity) {
+    int result = length + (length >> 1) + 1;
+    return result < capacity ? capacity : result;
+  }
+
+  public static final class BooleanColumn extends BeanColumn {
+    private boolean[] values;
+
+    /* default */ BooleanColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new boolean[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Boolean) checkNotNull(value);
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setBoolean(int row, boolean value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getBoolean(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setBoolean(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setBoolean(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class ByteColumn extends BeanColumn {
+    private byte[] values;
+
+    /* default */ ByteColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new byte[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Byte) checkNotNull(value);
+    }
+
+    @Override
+    public byte getByte(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setByte(int row, byte value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getByte(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setByte(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setByte(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class ShortColumn extends BeanColumn {
+    private short[] values;
+
+    /* default */ ShortColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new short[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Short) checkNotNull(value);
+    }
+
+    @Override
+    public short getShort(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setShort(int row, short value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getShort(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setShort(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setShort(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class CharColumn extends BeanColumn {
+    private char[] values;
+
+    /* default */ CharColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new char[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Character) checkNotNull(value);
+    }
+
+    @Override
+    public char getChar(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setChar(int row, char value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getChar(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setChar(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setChar(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class IntColumn extends BeanColumn {
+    private int[] values;
+
+    /* default */ IntColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new int[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Integer) checkNotNull(value);
+    }
+
+    @Override
+    public int getInt(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setInt(int row, int value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getInt(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setInt(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setInt(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class LongColumn extends BeanColumn {
+    private long[] values;
+
+    /* default */ LongColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new long[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Long) checkNotNull(value);
+    }
+
+    @Override
+    public long getLong(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setLong(int row, long value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getLong(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setLong(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setLong(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class FloatColumn extends BeanColumn {
+    private float[] values;
+
+    /* default */ FloatColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new float[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Float) checkNotNull(value);
+    }
+
+    @Override
+    public float getFloat(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setFloat(int row, float value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getFloat(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setFloat(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setFloat(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class DoubleColumn extends BeanColumn {
+    private double[] values;
+
+    /* default */ DoubleColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new double[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = (Double) checkNotNull(value);
+    }
+
+    @Override
+    public double getDouble(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    public void setDouble(int row, double value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().getDouble(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().setDouble(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.setDouble(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  public static final class ObjectColumn extends BeanColumn {
+    private Object[] values;
+
+    /* default */ ObjectColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.values = new Object[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = value;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = getProperty().get(instance);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      getProperty().set(instance, values[row]);
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      builder.set(getProperty().getIndex(), values[row]);
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+
+  /**
+   * A {@link String} column that stores each distinct value once and each row as an {@code int}
+   * code into that dictionary. Values read from this column are the canonical dictionary
+   * instances, so equal values are also identical.
+   */
+  public static final class DictionaryColumn extends BeanColumn {
+    private static final int NULL = -1;
+
+    private final List<String> dictionary;
+    private final Map<String, Integer> codes;
+    private int[] values;
+
+    /* default */ DictionaryColumn(BeanTable<?> table, BeanProperty property, int capacity) {
+      super(table, property);
+      this.dictionary = new ArrayList<>();
+      this.codes = new HashMap<>();
+      this.values = new int[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+      checkRow(row);
+      int code = values[row];
+      return code == NULL ? null : dictionary.get(code);
+    }
+
+    @Override
+    public void set(int row, Object value) {
+      checkRow(row);
+      values[row] = encode((String) value);
+    }
+
+    /**
+     * Returns the dictionary code of the given row, or -1 if the row is null.
+     */
+    public int getCode(int row) {
+      checkRow(row);
+      return values[row];
+    }
+
+    /**
+     * The number of distinct non-null values stored in this column
+     */
+    public int getDictionarySize() {
+      return dictionary.size();
+    }
+
+    /**
+     * Returns the value for the given dictionary code.
+     */
+    public String decode(int code) {
+      return dictionary.get(code);
+    }
+
+    private int encode(String value) {
+      if (value == null)
+        return NULL;
+      Integer code = codes.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        codes.put(value, code);
+      }
+      return code;
+    }
+
+    @Override
+    /* default */ void copyIn(int row, Object instance) throws InvocationTargetException {
+      values[row] = encode((String) getProperty().get(instance));
+    }
+
+    @Override
+    /* default */ void copyOut(int row, Object instance) throws InvocationTargetException {
+      int code = values[row];
+      getProperty().set(instance, code == NULL ? null : dictionary.get(code));
+    }
+
+    @Override
+    /* default */ void copyOut(int row, BeanBuilder builder) {
+      int code = values[row];
+      builder.set(getProperty().getIndex(), code == NULL ? null : dictionary.get(code));
+    }
+
+    @Override
+    /* default */ void ensureCapacity(int capacity) {
+      if (values.length < capacity)
+        values = Arrays.copyOf(values, grow(values.length, capacity));
+    }
+
+    @Override
+    /* default */ void trimToSize(int size) {
+      values = Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.table;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Optional;
+import com.sigpwned.espresso.BeanBuilder;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * <p>
+ * A columnar container for many instances of one bean class. Instead of holding one object per
+ * bean, the table holds one array per property, in {@link BeanClass} order, so that N beans cost
+ * roughly the size of their property values with no per-object headers or pointers. Primitive
+ * properties are stored in primitive arrays, and {@link String} properties may optionally be
+ * dictionary-encoded. See {@link BeanColumn}.
+ * </p>
+ *
+ * <p>
+ * Beans are copied into the table by {@link #add(Object)} and copied back out into new instances
+ * by {@link #get(int)}. Primitive properties are copied with their typed accessors, e.g.
+ * {@link BeanProperty#getInt(Object)}, so they are never boxed in either direction. Classes with a
+ * creator, e.g., records, are copied out through a {@link BeanBuilder}. To read rows
+ * without materializing beans, use {@link #getColumn(String)} for column scans or a {@link Row}
+ * flyweight for row-at-a-time access.
+ * </p>
+ *
+ * <p>
+ * Tables are not safe for concurrent modification.
+ * </p>
+ */
+public class BeanTable<T> {
+  public static final int DEFAULT_CAPACITY = 16;
+
+  public static <T> BeanTable<T> of(Class<T> type) {
+    return of(type, false);
+  }
+
+  /**
+   * @param dictionaryEncodeStrings if true, then {@link String} properties are stored as
+   *        dictionary codes
+   */
+  public static <T> BeanTable<T> of(Class<T> type, boolean dictionaryEncodeStrings) {
+    return new BeanTable<>(type, BeanClass.scan(type), DEFAULT_CAPACITY, dictionaryEncodeStrings);
+  }
+
+  private final Class<T> type;
+  private final BeanClass beanClass;
+  private final BeanColumn[] columns;
+  private int size;
+
+  /* default */ BeanTable(Class<T> type, BeanClass beanClass, int capacity,
+      boolean dictionaryEncodeStrings) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity must not be negative");
+    this.type = type;
+    this.beanClass = beanClass;
+    this.columns = new BeanColumn[beanClass.size()];
+    for (int i = 0; i < columns.length; i++)
+      columns[i] = BeanColumn.forProperty(this, beanClass.get(i), capacity,
+          dictionaryEncodeStrings);
+    this.size = 0;
+  }
+
+  /**
+   * The {@link BeanClass} of the beans in this table
+   */
+  public BeanClass getBeanClass() {
+    return beanClass;
+  }
+
+  /**
+   * The number of rows in this table
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Appends the property values of the given bean to this table as a new row.
+   *
+   * @return the index of the new row
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public int add(T instance) throws InvocationTargetException {
+    if (instance == null)
+      throw new NullPointerException();
+    int row = size;
+    for (int i = 0; i < columns.length; i++)
+      columns[i].ensureCapacity(row + 1);
+    size = row + 1;
+    try {
+      for (int i = 0; i < columns.length; i++)
+        columns[i].copyIn(row, instance);
+    } catch (InvocationTargetException | RuntimeException e) {
+      size = row;
+      throw e;
+    }
+    return row;
+  }
+
+  /**
+   * Creates a new bean instance from the values of the given row.
+   *
+   * @throws InvocationTargetException if the constructor or a setter throws an exception
+   */
+  public T get(int row) throws InvocationTargetException {
+    checkRow(row);
+    if (getBeanClass().hasCreator()) {
+      BeanBuilder builder = getBeanClass().newBuilder();
+      for (int i = 0; i < columns.length; i++)
+        columns[i].copyOut(row, builder);
+      return type.cast(builder.build());
+    }
+
+    T result = type.cast(getBeanClass().newRawInstance());
+    for (int i = 0; i < columns.length; i++)
+      columns[i].copyOut(row, result);
+    return result;
+  }
+
+  /**
+   * Overwrites the given row with the property values of the given bean.
+   *
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void set(int row, T instance) throws InvocationTargetException {
+    checkRow(row);
+    if (instance == null)
+      throw new NullPointerException();
+    for (int i = 0; i < columns.length; i++)
+      columns[i].copyIn(row, instance);
+  }
+
+  /**
+   * Returns the column for the given property ordinal, i.e., its index in {@link BeanClass}.
+   */
+  public BeanColumn getColumn(int index) {
+    return columns[index];
+  }
+
+  /**
+   * Returns the column for the named property.
+   *
+   * @throws IllegalArgumentException if there is no such property
+   */
+  public BeanColumn getColumn(String name) {
+    return findColumn(name)
+        .orElseThrow(() -> new IllegalArgumentException(format("No such property %s", name)));
+  }
+
+  public List<BeanColumn> getColumns() {
+    return unmodifiableList(asList(columns));
+  }
+
+  private Optional<BeanColumn> findColumn(String name) {
+    int index = beanClass.findPropertyIndex(name);
+    return index != -1 ? Optional.of(columns[index]) : Optional.empty();
+  }
+
+  /**
+   * Creates a new {@link Row} flyweight positioned at the first row.
+   */
+  public Row newRow() {
+    return new Row();
+  }
+
+  /**
+   * Releases any unused capacity in this table's columns.
+   */
+  public void trimToSize() {
+    for (int i = 0; i < columns.length; i++)
+      columns[i].trimToSize(size);
+  }
+
+  /* default */ void checkRow(int row) {
+    if (row < 0 || row >= size)
+      throw new IndexOutOfBoundsException(format("row %d, size %d", row, size));
+  }
+
+  /**
+   * A movable view of one row of this table. A single {@code Row} can be repositioned with
+   * {@link #moveTo(int)} to visit any number of rows without allocating.
+   */
+  public class Row {
+    private int row;
+
+    private Row() {
+      this.row = 0;
+    }
+
+    /**
+     * Positions this view at the given row.
+     *
+     * @return this view
+     */
+    public Row moveTo(int row) {
+      checkRow(row);
+      this.row = row;
+      return this;
+    }
+
+    /**
+     * The index of the row this view is positioned at
+     */
+    public int getRow() {
+      return row;
+    }
+
+    public Object get(int index) {
+      return columns[index].get(row);
+    }
+
+    public Object get(String name) {
+      return getColumn(name).get(row);
+    }
+
+    public void set(int index, Object value) {
+      columns[index].set(row, value);
+    }
+
+    public void set(String name, Object value) {
+      getColumn(name).set(row, value);
+    }
+
+    public boolean getBoolean(int index) {
+      return columns[index].getBoolean(row);
+    }
+
+    public byte getByte(int index) {
+      return columns[index].getByte(row);
+    }
+
+    public short getShort(int index) {
+      return columns[index].getShort(row);
+    }
+
+    public char getChar(int index) {
+      return columns[index].getChar(row);
+    }
+
+    public int getInt(int index) {
+      return columns[index].getInt(row);
+    }
+
+    public long getLong(int index) {
+      return columns[index].getLong(row);
+    }
+
+    public float getFloat(int index) {
+      return columns[index].getFloat(row);
+    }
+
+    public double getDouble(int index) {
+      return columns[index].getDouble(row);
+    }
+
+    /**
+     * The property of the given ordinal
+     */
+    public BeanProperty getProperty(int index) {
+      return columns[index].getProperty();
+    }
+  }
+}
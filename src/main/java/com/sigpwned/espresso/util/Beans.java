@@ -45,11 +45,11 @@ public final class Beans {
    */
   public static boolean isBeanGetter(Method method) {
     if (!Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())
-        && !method.getGenericReturnType().equals(void.class) && method.getParameterCount() == 0) {
+        && !method.getReturnType().equals(void.class) && method.getParameterCount() == 0) {
       if (method.getName().length() > 3 && method.getName().startsWith("get")
           && Character.isUpperCase(method.getName().codePointAt(3))) {
         return true;
-      } else if (method.getGenericReturnType().equals(boolean.class)
+      } else if (method.getReturnType().equals(boolean.class)
           && method.getName().length() > 2 && method.getName().startsWith("is")
           && Character.isUpperCase(method.getName().codePointAt(2))) {
         return true;
@@ -78,7 +78,7 @@ public final class Beans {
     return method.getName().length() > 3 && method.getName().startsWith("set")
         && Character.isUpperCase(method.getName().codePointAt(3))
         && !Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())
-        && method.getGenericReturnType().equals(void.class) && method.getParameterCount() == 1;
+        && method.getReturnType().equals(void.class) && method.getParameterCount() == 1;
   }
 
   /**
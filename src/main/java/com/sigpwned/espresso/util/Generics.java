@@ -0,0 +1,266 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.util;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Utility methods for resolving generic types against a concrete subclass. The {@link Type}
+ * implementations returned here are equal to, and have the same hash codes as, the JDK's own
+ * implementations of the same types, so resolved and declared types can be compared freely.
+ */
+public final class Generics {
+  private Generics() {}
+
+  /**
+   * Returns the bindings of every type variable declared by the given type's superclasses, as seen
+   * from the given type. For example, if {@code Foo extends Base<String>}, then the bindings for
+   * {@code Foo} map {@code Base}'s {@code T} to {@code String}. Type variables that the given type
+   * does not bind, including its own, are absent.
+   */
+  public static Map<TypeVariable<?>, Type> getTypeBindings(Class<?> rawType) {
+    Map<TypeVariable<?>, Type> result = null;
+    for (Class<?> c = rawType; c != null; c = c.getSuperclass()) {
+      Type superclass = c.getGenericSuperclass();
+      if (!(superclass instanceof ParameterizedType))
+        continue;
+      ParameterizedType parameterizedSuperclass = (ParameterizedType) superclass;
+      TypeVariable<?>[] parameters =
+          ((Class<?>) parameterizedSuperclass.getRawType()).getTypeParameters();
+      Type[] arguments = parameterizedSuperclass.getActualTypeArguments();
+      if (result == null)
+        result = new HashMap<>();
+      for (int i = 0; i < parameters.length; i++)
+        result.put(parameters[i], resolve(arguments[i], result));
+    }
+    return result != null ? unmodifiableMap(result) : emptyMap();
+  }
+
+  /**
+   * Replaces every bound type variable in the given type with its binding.
+   *
+   * @see #getTypeBindings(Class)
+   */
+  public static Type resolve(Type type, Map<TypeVariable<?>, Type> bindings) {
+    if (bindings.isEmpty() || type instanceof Class) {
+      return type;
+    } else if (type instanceof TypeVariable) {
+      return bindings.getOrDefault(type, type);
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      Type ownerType = parameterizedType.getOwnerType();
+      Type resolvedOwnerType = ownerType != null ? resolve(ownerType, bindings) : null;
+      Type[] arguments = parameterizedType.getActualTypeArguments();
+      Type[] resolvedArguments = resolve(arguments, bindings);
+      if (resolvedOwnerType == ownerType && resolvedArguments == arguments)
+        return type;
+      return new ParameterizedTypeImpl((Class<?>) parameterizedType.getRawType(),
+          resolvedArguments, resolvedOwnerType);
+    } else if (type instanceof GenericArrayType) {
+      Type componentType = ((GenericArrayType) type).getGenericComponentType();
+      Type resolvedComponentType = resolve(componentType, bindings);
+      if (resolvedComponentType == componentType)
+        return type;
+      if (resolvedComponentType instanceof Class)
+        return Array.newInstance((Class<?>) resolvedComponentType, 0).getClass();
+      return new GenericArrayTypeImpl(resolvedComponentType);
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      Type[] upperBounds = wildcardType.getUpperBounds();
+      Type[] lowerBounds = wildcardType.getLowerBounds();
+      Type[] resolvedUpperBounds = resolve(upperBounds, bindings);
+      Type[] resolvedLowerBounds = resolve(lowerBounds, bindings);
+      if (resolvedUpperBounds == upperBounds && resolvedLowerBounds == lowerBounds)
+        return type;
+      return new WildcardTypeImpl(resolvedUpperBounds, resolvedLowerBounds);
+    } else {
+      throw new IllegalArgumentException("unrecognized type " + type);
+    }
+  }
+
+  /**
+   * Resolves each type, returning the given array itself if nothing changed
+   */
+  private static Type[] resolve(Type[] types, Map<TypeVariable<?>, Type> bindings) {
+    Type[] result = types;
+    for (int i = 0; i < types.length; i++) {
+      Type resolved = resolve(types[i], bindings);
+      if (resolved != types[i]) {
+        if (result == types)
+          result = types.clone();
+        result[i] = resolved;
+      }
+    }
+    return result;
+  }
+
+  private static final class ParameterizedTypeImpl implements ParameterizedType {
+    private final Class<?> rawType;
+    private final Type[] actualTypeArguments;
+    private final Type ownerType;
+
+    public ParameterizedTypeImpl(Class<?> rawType, Type[] actualTypeArguments, Type ownerType) {
+      this.rawType = rawType;
+      this.actualTypeArguments = actualTypeArguments;
+      this.ownerType = ownerType;
+    }
+
+    @Override
+    public Type[] getActualTypeArguments() {
+      return actualTypeArguments.clone();
+    }
+
+    @Override
+    public Type getRawType() {
+      return rawType;
+    }
+
+    @Override
+    public Type getOwnerType() {
+      return ownerType;
+    }
+
+    @Override
+    public int hashCode() {
+      // Matches the JDK's implementation
+      return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType)
+          ^ Objects.hashCode(rawType);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof ParameterizedType))
+        return false;
+      ParameterizedType other = (ParameterizedType) obj;
+      return Objects.equals(rawType, other.getRawType())
+          && Objects.equals(ownerType, other.getOwnerType())
+          && Arrays.equals(actualTypeArguments, other.getActualTypeArguments());
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder result = new StringBuilder();
+      if (ownerType != null)
+        result.append(ownerType.getTypeName()).append('$').append(rawType.getSimpleName());
+      else
+        result.append(rawType.getName());
+      result.append('<');
+      for (int i = 0; i < actualTypeArguments.length; i++) {
+        if (i != 0)
+          result.append(", ");
+        result.append(actualTypeArguments[i].getTypeName());
+      }
+      return result.append('>').toString();
+    }
+  }
+
+  private static final class GenericArrayTypeImpl implements GenericArrayType {
+    private final Type genericComponentType;
+
+    public GenericArrayTypeImpl(Type genericComponentType) {
+      this.genericComponentType = genericComponentType;
+    }
+
+    @Override
+    public Type getGenericComponentType() {
+      return genericComponentType;
+    }
+
+    @Override
+    public int hashCode() {
+      // Matches the JDK's implementation
+      return Objects.hashCode(genericComponentType);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof GenericArrayType))
+        return false;
+      GenericArrayType other = (GenericArrayType) obj;
+      return Objects.equals(genericComponentType, other.getGenericComponentType());
+    }
+
+    @Override
+    public String toString() {
+      return genericComponentType.getTypeName() + "[]";
+    }
+  }
+
+  private static final class WildcardTypeImpl implements WildcardType {
+    private final Type[] upperBounds;
+    private final Type[] lowerBounds;
+
+    public WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+      this.upperBounds = upperBounds;
+      this.lowerBounds = lowerBounds;
+    }
+
+    @Override
+    public Type[] getUpperBounds() {
+      return upperBounds.clone();
+    }
+
+    @Override
+    public Type[] getLowerBounds() {
+      return lowerBounds.clone();
+    }
+
+    @Override
+    public int hashCode() {
+      // Matches the JDK's implementation
+      return Arrays.hashCode(upperBounds) ^ Arrays.hashCode(lowerBounds);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof WildcardType))
+        return false;
+      WildcardType other = (WildcardType) obj;
+      return Arrays.equals(upperBounds, other.getUpperBounds())
+          && Arrays.equals(lowerBounds, other.getLowerBounds());
+    }
+
+    @Override
+    public String toString() {
+      if (lowerBounds.length != 0)
+        return "? super " + lowerBounds[0].getTypeName();
+      if (upperBounds.length == 0 || upperBounds[0] == Object.class)
+        return "?";
+      return "? extends " + upperBounds[0].getTypeName();
+    }
+  }
+}
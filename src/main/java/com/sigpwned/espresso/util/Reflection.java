@@ -21,10 +21,17 @@ package com.sigpwned.espresso.util;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Utility methods for processing classes, fields, and methods using reflection.
@@ -32,6 +39,75 @@ import java.util.List;
 public final class Reflection {
   private Reflection() {}
 
+  /**
+   * {@code Class#isRecord()}, if this JVM supports records. We compile against Java 8, so we have
+   * to find the record API reflectively.
+   */
+  private static final Optional<Method> IS_RECORD = findMethod(Class.class, "isRecord");
+
+  /**
+   * {@code Class#getRecordComponents()}, if this JVM supports records.
+   */
+  private static final Optional<Method> GET_RECORD_COMPONENTS =
+      findMethod(Class.class, "getRecordComponents");
+
+  /**
+   * {@code RecordComponent#getAccessor()}, if this JVM supports records.
+   */
+  private static final Optional<Method> GET_ACCESSOR =
+      findClass("java.lang.reflect.RecordComponent").flatMap(c -> findMethod(c, "getAccessor"));
+
+  private static Optional<Class<?>> findClass(String name) {
+    try {
+      return Optional.of(Class.forName(name));
+    } catch (ClassNotFoundException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Method> findMethod(Class<?> rawType, String name) {
+    try {
+      return Optional.of(rawType.getMethod(name));
+    } catch (NoSuchMethodException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns true if the given type is a record class. Always false on JVMs without record support.
+   */
+  public static boolean isRecord(Class<?> rawType) {
+    if (!IS_RECORD.isPresent())
+      return false;
+    try {
+      return (Boolean) IS_RECORD.get().invoke(rawType);
+    } catch (ReflectiveOperationException e) {
+      // This is a public method on Class. This should never happen.
+      throw new AssertionError("failed to call Class#isRecord", e);
+    }
+  }
+
+  /**
+   * Returns the accessor methods of the given record's components, in declaration order. The
+   * parameters of the record's canonical constructor have the same types in the same order.
+   *
+   * @throws IllegalArgumentException if the given type is not a record
+   */
+  public static List<Method> getRecordAccessors(Class<?> rawType) {
+    if (!isRecord(rawType))
+      throw new IllegalArgumentException("not a record " + rawType.getName());
+    try {
+      Object[] components = (Object[]) GET_RECORD_COMPONENTS.get().invoke(rawType);
+      List<Method> result = new ArrayList<>(components.length);
+      for (Object component : components)
+        result.add((Method) GET_ACCESSOR.get().invoke(component));
+      return unmodifiableList(result);
+    } catch (ReflectiveOperationException e) {
+      // These are public methods on public classes. This should never happen.
+      throw new AssertionError("failed to read record components", e);
+    }
+  }
+
   /**
    * Returns all declared fields from the given type as a list.
    *
@@ -75,4 +151,54 @@ public final class Reflection {
       result.addAll(getDeclaredMethods(c));
     return unmodifiableList(result);
   }
+
+  /**
+   * Returns the erasure of the given type. Type variables and wildcards are erased to their first
+   * upper bound.
+   */
+  public static Class<?> getRawType(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return getRawType(((ParameterizedType) type).getRawType());
+    } else if (type instanceof GenericArrayType) {
+      return Array.newInstance(getRawType(((GenericArrayType) type).getGenericComponentType()), 0)
+          .getClass();
+    } else if (type instanceof TypeVariable) {
+      return getRawType(((TypeVariable<?>) type).getBounds()[0]);
+    } else if (type instanceof WildcardType) {
+      return getRawType(((WildcardType) type).getUpperBounds()[0]);
+    } else {
+      throw new IllegalArgumentException("unrecognized type " + type);
+    }
+  }
+
+  /**
+   * Returns the wrapper type for the given primitive type, or the given type itself if it is not
+   * primitive.
+   */
+  public static Class<?> wrap(Class<?> rawType) {
+    if (!rawType.isPrimitive())
+      return rawType;
+    else if (rawType == boolean.class)
+      return Boolean.class;
+    else if (rawType == byte.class)
+      return Byte.class;
+    else if (rawType == short.class)
+      return Short.class;
+    else if (rawType == char.class)
+      return Character.class;
+    else if (rawType == int.class)
+      return Integer.class;
+    else if (rawType == long.class)
+      return Long.class;
+    else if (rawType == float.class)
+      return Float.class;
+    else if (rawType == double.class)
+      return Double.class;
+    else if (rawType == void.class)
+      return Void.class;
+    else
+      throw new AssertionError("unrecognized primitive type " + rawType);
+  }
 }
@@ -0,0 +1,527 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.validation;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+
+/**
+ * Validates bean instances against the constraint annotations on their properties. The
+ * constraints are compiled once into a flat plan of checks, grouped by property so each property
+ * is read at most once per validation. Primitive numeric properties are read with their typed
+ * getters, so numeric bounds are compared without boxing, and patterns are compiled up front.
+ *
+ * <p>
+ * Recognizes the constraints in this package, plus the {@code NotNull}, {@code Min}, {@code Max},
+ * {@code Size}, and {@code Pattern} constraints from {@code javax.validation.constraints} and
+ * {@code jakarta.validation.constraints}. Other annotations are ignored. As in Bean Validation,
+ * null values satisfy every constraint except {@code NotNull}.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+public final class BeanValidator {
+  public enum Mode {
+    /**
+     * Stop at the first violation
+     */
+    FAIL_FAST,
+
+    /**
+     * Report every violation
+     */
+    COLLECT_ALL;
+  }
+
+  /**
+   * Compiles a validator for the given class, in {@link Mode#COLLECT_ALL} mode.
+   *
+   * @throws IllegalArgumentException if a constraint is applied to a property of an unsupported
+   *         type
+   */
+  public static BeanValidator of(BeanClass beanClass) {
+    List<PropertyPlan> plan = new ArrayList<>();
+    for (BeanProperty property : beanClass) {
+      List<Check> checks = new ArrayList<>();
+      for (Annotation annotation : property.getAnnotations()) {
+        String constraint = getConstraintName(annotation);
+        if (constraint != null)
+          checks.add(compile(property, constraint, annotation));
+      }
+      if (!checks.isEmpty())
+        plan.add(new PropertyPlan(property, checks.toArray(new Check[0])));
+    }
+    return new BeanValidator(beanClass, plan.toArray(new PropertyPlan[0]), Mode.COLLECT_ALL);
+  }
+
+  private final BeanClass beanClass;
+  private final PropertyPlan[] plan;
+  private final Mode mode;
+
+  private BeanValidator(BeanClass beanClass, PropertyPlan[] plan, Mode mode) {
+    this.beanClass = beanClass;
+    this.plan = plan;
+    this.mode = mode;
+  }
+
+  /**
+   * Returns a validator with the same plan and the given mode
+   */
+  public BeanValidator withMode(Mode mode) {
+    return new BeanValidator(beanClass, plan, mode);
+  }
+
+  /**
+   * Returns the violations in the given instance, or an empty list if it is valid. In
+   * {@link Mode#FAIL_FAST} mode, at most one violation is returned.
+   *
+   * @throws IllegalArgumentException if the instance is not of the validated class
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public List<Violation> validate(Object instance) throws InvocationTargetException {
+    if (!beanClass.getRawType().isInstance(instance))
+      throw new IllegalArgumentException(
+          format("Instance is not a %s", beanClass.getRawType().getName()));
+
+    List<Violation> result = null;
+    for (PropertyPlan p : plan) {
+      BeanProperty property = p.property;
+      long integral = 0L;
+      double floating = 0.0;
+      Object value = null;
+      switch (p.reading) {
+        case INTEGRAL:
+          integral = readIntegral(property, instance);
+          break;
+        case FLOATING:
+          floating = property.getRawType() == float.class ? property.getFloat(instance)
+              : property.getDouble(instance);
+          break;
+        case OBJECT:
+          value = property.get(instance);
+          break;
+        default:
+          throw new AssertionError(p.reading);
+      }
+
+      for (Check check : p.checks) {
+        boolean valid;
+        switch (p.reading) {
+          case INTEGRAL:
+            valid = check.test(integral);
+            break;
+          case FLOATING:
+            valid = check.test(floating);
+            break;
+          default:
+            valid = check.test(value);
+            break;
+        }
+        if (!valid) {
+          // Only box primitive values once we know we have to report them
+          if (p.reading == Reading.INTEGRAL)
+            value = boxIntegral(property.getRawType(), integral);
+          else if (p.reading == Reading.FLOATING)
+            value = boxFloating(property.getRawType(), floating);
+          if (result == null)
+            result = new ArrayList<>();
+          result.add(new Violation(property, check.constraint, check.message, value));
+          if (mode == Mode.FAIL_FAST)
+            return result;
+        }
+      }
+    }
+
+    return result != null ? result : emptyList();
+  }
+
+  private static long readIntegral(BeanProperty property, Object instance)
+      throws InvocationTargetException {
+    Class<?> rawType = property.getRawType();
+    if (rawType == int.class)
+      return property.getInt(instance);
+    if (rawType == long.class)
+      return property.getLong(instance);
+    if (rawType == short.class)
+      return property.getShort(instance);
+    if (rawType == byte.class)
+      return property.getByte(instance);
+    throw new AssertionError(rawType);
+  }
+
+  private static Object boxIntegral(Class<?> rawType, long value) {
+    if (rawType == int.class)
+      return (int) value;
+    if (rawType == long.class)
+      return value;
+    if (rawType == short.class)
+      return (short) value;
+    if (rawType == byte.class)
+      return (byte) value;
+    throw new AssertionError(rawType);
+  }
+
+  private static Object boxFloating(Class<?> rawType, double value) {
+    if (rawType == float.class)
+      return (float) value;
+    if (rawType == double.class)
+      return value;
+    throw new AssertionError(rawType);
+  }
+
+  /**
+   * Validates the given instance, throwing if there are any violations
+   *
+   * @throws ValidationException if the instance is not valid
+   * @throws InvocationTargetException if a getter throws an exception
+   */
+  public void check(Object instance) throws InvocationTargetException {
+    List<Violation> violations = validate(instance);
+    if (!violations.isEmpty())
+      throw new ValidationException(violations);
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Returns the simple name of the given annotation if it is a recognized constraint, or else null
+   */
+  private static String getConstraintName(Annotation annotation) {
+    Class<? extends Annotation> annotationType = annotation.annotationType();
+    String name = annotationType.getName();
+    String simpleName = annotationType.getSimpleName();
+    if (annotationType.getPackage() != BeanValidator.class.getPackage()
+        && !name.startsWith("javax.validation.constraints.")
+        && !name.startsWith("jakarta.validation.constraints."))
+      return null;
+    switch (simpleName) {
+      case "NotNull":
+      case "Min":
+      case "Max":
+      case "Size":
+      case "Pattern":
+        return simpleName;
+      default:
+        return null;
+    }
+  }
+
+  private static Check compile(BeanProperty property, String constraint, Annotation annotation) {
+    String message = attribute(annotation, "message", String.class);
+    if (message.isEmpty() || message.startsWith("{"))
+      message = null;
+
+    Class<?> rawType = property.getRawType();
+    switch (constraint) {
+      case "NotNull":
+        return new NotNullCheck(constraint, message != null ? message : "must not be null");
+      case "Min":
+      case "Max": {
+        boolean min = constraint.equals("Min");
+        long bound = attribute(annotation, "value", Long.class);
+        if (message == null)
+          message = format("must be %s than or equal to %d", min ? "greater" : "less", bound);
+        int sign = min ? 1 : -1;
+        if (rawType == byte.class || rawType == short.class || rawType == int.class
+            || rawType == long.class || rawType == Byte.class || rawType == Short.class
+            || rawType == Integer.class || rawType == Long.class)
+          return new IntegralBoundCheck(constraint, message, bound, sign);
+        if (rawType == float.class || rawType == double.class || rawType == Float.class
+            || rawType == Double.class)
+          return new FloatingBoundCheck(constraint, message, bound, sign);
+        if (rawType == BigInteger.class || rawType == BigDecimal.class)
+          return new BigBoundCheck(constraint, message, bound, sign);
+        throw unsupported(property, constraint);
+      }
+      case "Size": {
+        int min = attribute(annotation, "min", Integer.class);
+        int max = attribute(annotation, "max", Integer.class);
+        if (message == null)
+          message = format("size must be between %d and %d", min, max);
+        if (CharSequence.class.isAssignableFrom(rawType)
+            || Collection.class.isAssignableFrom(rawType) || Map.class.isAssignableFrom(rawType)
+            || rawType.isArray())
+          return new SizeCheck(constraint, message, min, max);
+        throw unsupported(property, constraint);
+      }
+      case "Pattern": {
+        String regexp = attribute(annotation, "regexp", String.class);
+        if (message == null)
+          message = format("must match \"%s\"", regexp);
+        if (!CharSequence.class.isAssignableFrom(rawType))
+          throw unsupported(property, constraint);
+        return new PatternCheck(constraint, message,
+            java.util.regex.Pattern.compile(regexp, patternFlags(annotation)));
+      }
+      default:
+        throw new AssertionError("unrecognized constraint " + constraint);
+    }
+  }
+
+  /**
+   * Reads the flags of a Bean Validation pattern constraint, which are enum constants that expose
+   * their {@link java.util.regex.Pattern} flag values
+   */
+  private static int patternFlags(Annotation annotation) {
+    int result = 0;
+    try {
+      Object[] flags =
+          (Object[]) annotation.annotationType().getMethod("flags").invoke(annotation);
+      for (Object flag : flags)
+        result = result | (Integer) flag.getClass().getMethod("getValue").invoke(flag);
+    } catch (NoSuchMethodException e) {
+      // Our own pattern constraint has no flags
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("failed to read pattern flags", e);
+    }
+    return result;
+  }
+
+  private static <T> T attribute(Annotation annotation, String name, Class<T> type) {
+    try {
+      return type.cast(annotation.annotationType().getMethod(name).invoke(annotation));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException(format("Constraint %s has no attribute %s",
+          annotation.annotationType().getName(), name), e);
+    }
+  }
+
+  private static IllegalArgumentException unsupported(BeanProperty property, String constraint) {
+    return new IllegalArgumentException(
+        format("Constraint %s is not supported for property %s of type %s", constraint,
+            property.getName(), property.getGenericType().getTypeName()));
+  }
+
+  /**
+   * How a property is read for validation
+   */
+  private enum Reading {
+    /**
+     * With {@link BeanProperty#get(Object)}
+     */
+    OBJECT,
+
+    /**
+     * With the typed getter of a {@code byte}, {@code short}, {@code int}, or {@code long}
+     */
+    INTEGRAL,
+
+    /**
+     * With the typed getter of a {@code float} or {@code double}
+     */
+    FLOATING;
+
+    public static Reading forType(Class<?> rawType) {
+      if (rawType == byte.class || rawType == short.class || rawType == int.class
+          || rawType == long.class)
+        return INTEGRAL;
+      if (rawType == float.class || rawType == double.class)
+        return FLOATING;
+      return OBJECT;
+    }
+  }
+
+  private static final class PropertyPlan {
+    private final BeanProperty property;
+    private final Reading reading;
+    private final Check[] checks;
+
+    public PropertyPlan(BeanProperty property, Check[] checks) {
+      this.property = property;
+      this.reading = Reading.forType(property.getRawType());
+      this.checks = checks;
+    }
+  }
+
+  private abstract static class Check {
+    protected final String constraint;
+    protected final String message;
+
+    public Check(String constraint, String message) {
+      this.constraint = constraint;
+      this.message = message;
+    }
+
+    /**
+     * Returns true if the given value satisfies this check
+     */
+    public abstract boolean test(Object value);
+
+    /**
+     * Returns true if the given value of an integral primitive property satisfies this check.
+     * Checks that apply to such properties override this to avoid boxing.
+     */
+    public boolean test(long value) {
+      return test((Object) value);
+    }
+
+    /**
+     * Returns true if the given value of a floating-point primitive property satisfies this check.
+     * Checks that apply to such properties override this to avoid boxing.
+     */
+    public boolean test(double value) {
+      return test((Object) value);
+    }
+  }
+
+  private static final class NotNullCheck extends Check {
+    public NotNullCheck(String constraint, String message) {
+      super(constraint, message);
+    }
+
+    @Override
+    public boolean test(Object value) {
+      return value != null;
+    }
+
+    @Override
+    public boolean test(long value) {
+      return true;
+    }
+
+    @Override
+    public boolean test(double value) {
+      return true;
+    }
+  }
+
+  private static final class IntegralBoundCheck extends Check {
+    private final long bound;
+    private final int sign;
+
+    public IntegralBoundCheck(String constraint, String message, long bound, int sign) {
+      super(constraint, message);
+      this.bound = bound;
+      this.sign = sign;
+    }
+
+    @Override
+    public boolean test(Object value) {
+      return value == null || test(((Number) value).longValue());
+    }
+
+    @Override
+    public boolean test(long value) {
+      return sign * Long.compare(value, bound) >= 0;
+    }
+  }
+
+  private static final class FloatingBoundCheck extends Check {
+    private final double bound;
+    private final int sign;
+
+    public FloatingBoundCheck(String constraint, String message, long bound, int sign) {
+      super(constraint, message);
+      this.bound = bound;
+      this.sign = sign;
+    }
+
+    @Override
+    public boolean test(Object value) {
+      return value == null || test(((Number) value).doubleValue());
+    }
+
+    @Override
+    public boolean test(double value) {
+      // Primitive comparison treats -0.0 and 0.0 as equal, unlike Double.compare
+      if (Double.isNaN(value))
+        return false;
+      return sign > 0 ? value >= bound : value <= bound;
+    }
+  }
+
+  private static final class BigBoundCheck extends Check {
+    private final BigDecimal bound;
+    private final int sign;
+
+    public BigBoundCheck(String constraint, String message, long bound, int sign) {
+      super(constraint, message);
+      this.bound = BigDecimal.valueOf(bound);
+      this.sign = sign;
+    }
+
+    @Override
+    public boolean test(Object value) {
+      if (value == null)
+        return true;
+      BigDecimal x = value instanceof BigDecimal ? (BigDecimal) value
+          : new BigDecimal((BigInteger) value);
+      return sign * x.compareTo(bound) >= 0;
+    }
+  }
+
+  private static final class SizeCheck extends Check {
+    private final int min;
+    private final int max;
+
+    public SizeCheck(String constraint, String message, int min, int max) {
+      super(constraint, message);
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    public boolean test(Object value) {
+      if (value == null)
+        return true;
+
+      int size;
+      if (value instanceof CharSequence)
+        size = ((CharSequence) value).length();
+      else if (value instanceof Collection)
+        size = ((Collection<?>) value).size();
+      else if (value instanceof Map)
+        size = ((Map<?, ?>) value).size();
+      else
+        size = Array.getLength(value);
+
+      return size >= min && size <= max;
+    }
+  }
+
+  private static final class PatternCheck extends Check {
+    private final java.util.regex.Pattern pattern;
+
+    public PatternCheck(String constraint, String message, java.util.regex.Pattern pattern) {
+      super(constraint, message);
+      this.pattern = pattern;
+    }
+
+    @Override
+    public boolean test(Object value) {
+      return value == null || pattern.matcher((CharSequence) value).matches();
+    }
+  }
+}
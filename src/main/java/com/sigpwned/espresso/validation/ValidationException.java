@@ -0,0 +1,45 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.validation;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.joining;
+import java.util.List;
+
+/**
+ * Thrown when a bean instance fails validation.
+ */
+public class ValidationException extends IllegalArgumentException {
+  private static final long serialVersionUID = -2245437436510941402L;
+
+  private final List<Violation> violations;
+
+  public ValidationException(List<Violation> violations) {
+    super(violations.stream().map(Violation::toString).collect(joining(", ")));
+    this.violations = unmodifiableList(violations);
+  }
+
+  /**
+   * The violations found. In fail-fast mode, this contains exactly one violation.
+   */
+  public List<Violation> getViolations() {
+    return violations;
+  }
+}
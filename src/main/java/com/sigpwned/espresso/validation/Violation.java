@@ -0,0 +1,92 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.validation;
+
+import java.util.Objects;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.annotation.Generated;
+
+/**
+ * A failed constraint on one property of one bean instance.
+ */
+public class Violation {
+  private final BeanProperty property;
+  private final String constraint;
+  private final String message;
+  private final Object value;
+
+  public Violation(BeanProperty property, String constraint, String message, Object value) {
+    this.property = property;
+    this.constraint = constraint;
+    this.message = message;
+    this.value = value;
+  }
+
+  /**
+   * The property that failed validation
+   */
+  public BeanProperty getProperty() {
+    return property;
+  }
+
+  /**
+   * The simple name of the failed constraint's annotation, e.g., {@code NotNull}
+   */
+  public String getConstraint() {
+    return constraint;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  /**
+   * The invalid property value
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  @Override
+  @Generated
+  public int hashCode() {
+    return Objects.hash(constraint, message, property, value);
+  }
+
+  @Override
+  @Generated
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    Violation other = (Violation) obj;
+    return Objects.equals(constraint, other.constraint) && Objects.equals(message, other.message)
+        && Objects.equals(property, other.property) && Objects.equals(value, other.value);
+  }
+
+  @Override
+  @Generated
+  public String toString() {
+    return property.getName() + " " + message;
+  }
+}
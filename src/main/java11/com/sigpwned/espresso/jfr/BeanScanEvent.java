@@ -0,0 +1,62 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted once for every {@code BeanClass.scan} that misses the cache
+ */
+@Name(BeanScanEvent.NAME)
+@Label("Bean Scan")
+@Category({"Espresso"})
+@Description("A class was scanned for bean properties")
+@StackTrace(false)
+/* default */ class BeanScanEvent extends Event {
+  public static final String NAME = EspressoFlightRecorder.BEAN_SCAN_EVENT_NAME;
+
+  public static final String SCANNED = "SCANNED";
+
+  public static final String REJECTED = "REJECTED";
+
+  @Label("Bean Class")
+  public Class<?> beanClass;
+
+  @Label("Property Count")
+  public int propertyCount;
+
+  @Label("Scan Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  public long scanDuration;
+
+  @Label("Outcome")
+  @Description("SCANNED if the class is a valid bean class, or REJECTED otherwise")
+  public String outcome;
+
+  @Label("Message")
+  @Description("Why the class was rejected, if it was")
+  public String message;
+}
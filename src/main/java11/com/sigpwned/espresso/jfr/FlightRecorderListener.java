@@ -0,0 +1,111 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import java.lang.reflect.InvocationTargetException;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.metrics.EspressoMetricsListener;
+
+/**
+ * Translates metrics notifications into JFR events. Each event type is checked with
+ * {@link jdk.jfr.Event#isEnabled()} before any work is done, so event types that are not enabled
+ * in the current recording settings cost almost nothing.
+ */
+/* default */ class FlightRecorderListener implements EspressoMetricsListener {
+  private static final String GET = "GET";
+
+  private static final String SET = "SET";
+
+  @Override
+  public void scanCompleted(BeanClass beanClass, long nanos) {
+    BeanScanEvent event = new BeanScanEvent();
+    if (event.isEnabled()) {
+      event.beanClass = beanClass.getRawType();
+      event.propertyCount = beanClass.size();
+      event.scanDuration = nanos;
+      event.outcome = BeanScanEvent.SCANNED;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void scanRejected(Class<?> rawType, long nanos, IllegalArgumentException cause) {
+    BeanScanEvent event = new BeanScanEvent();
+    if (event.isEnabled()) {
+      event.beanClass = rawType;
+      event.propertyCount = 0;
+      event.scanDuration = nanos;
+      event.outcome = BeanScanEvent.REJECTED;
+      event.message = cause.getMessage();
+      event.commit();
+    }
+  }
+
+  @Override
+  public void propertyRead(BeanProperty property, long nanos) {
+    if (nanos >= EspressoFlightRecorder.getSlowAccessThresholdNanos())
+      slowAccess(property, GET, nanos);
+  }
+
+  @Override
+  public void propertyWritten(BeanProperty property, long nanos) {
+    if (nanos >= EspressoFlightRecorder.getSlowAccessThresholdNanos())
+      slowAccess(property, SET, nanos);
+  }
+
+  private void slowAccess(BeanProperty property, String operation, long nanos) {
+    SlowPropertyAccessEvent event = new SlowPropertyAccessEvent();
+    if (event.isEnabled()) {
+      event.beanClass = property.getBeanClass().getRawType();
+      event.property = property.getName();
+      event.operation = operation;
+      event.accessDuration = nanos;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void propertyReadFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {
+    failure(property, GET, nanos, cause);
+  }
+
+  @Override
+  public void propertyWriteFailed(BeanProperty property, long nanos,
+      InvocationTargetException cause) {
+    failure(property, SET, nanos, cause);
+  }
+
+  private void failure(BeanProperty property, String operation, long nanos,
+      InvocationTargetException cause) {
+    PropertyAccessFailureEvent event = new PropertyAccessFailureEvent();
+    if (event.isEnabled()) {
+      Throwable target = cause.getTargetException() != null ? cause.getTargetException() : cause;
+      event.beanClass = property.getBeanClass().getRawType();
+      event.property = property.getName();
+      event.operation = operation;
+      event.accessDuration = nanos;
+      event.exceptionClass = target.getClass();
+      event.exceptionMessage = target.getMessage();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import com.sigpwned.espresso.metrics.EspressoMetrics;
+
+/**
+ * The Java 11+ implementation of {@link FlightRecorderPublisher}, using the {@code jdk.jfr} API.
+ */
+/* default */ final class JdkFlightRecorderPublisher implements FlightRecorderPublisher {
+  private final FlightRecorderListener listener;
+
+  private RecordingStateListener recordingStateListener;
+
+  public JdkFlightRecorderPublisher() {
+    this.listener = new FlightRecorderListener();
+  }
+
+  @Override
+  public void start() {
+    EspressoMetrics.addListener(listener);
+    recordingStateListener = RecordingStateListener.register();
+  }
+
+  @Override
+  public void stop() {
+    RecordingStateListener.unregister(recordingStateListener);
+    recordingStateListener = null;
+    EspressoMetrics.removeListener(listener);
+  }
+}
@@ -0,0 +1,58 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted when a bean getter or setter throws an exception
+ */
+@Name(PropertyAccessFailureEvent.NAME)
+@Label("Bean Property Access Failure")
+@Category({"Espresso"})
+@Description("A bean getter or setter threw an exception")
+/* default */ class PropertyAccessFailureEvent extends Event {
+  public static final String NAME = EspressoFlightRecorder.PROPERTY_ACCESS_FAILURE_EVENT_NAME;
+
+  @Label("Bean Class")
+  public Class<?> beanClass;
+
+  @Label("Property")
+  public String property;
+
+  @Label("Operation")
+  @Description("GET or SET")
+  public String operation;
+
+  @Label("Access Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  public long accessDuration;
+
+  @Label("Exception Class")
+  public Class<?> exceptionClass;
+
+  @Label("Exception Message")
+  public String exceptionMessage;
+}
@@ -0,0 +1,65 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import com.sigpwned.espresso.metrics.EspressoMetrics;
+
+/**
+ * Turns {@link EspressoMetrics} tracing on while at least one running recording has an espresso
+ * event enabled, and off otherwise, so espresso activity is only timed when someone is listening.
+ */
+/* default */ class RecordingStateListener implements jdk.jfr.FlightRecorderListener {
+  /**
+   * Creates a listener, registers it with Flight Recorder, and brings tracing up to date
+   */
+  public static RecordingStateListener register() {
+    RecordingStateListener result = new RecordingStateListener();
+    FlightRecorder.addListener(result);
+    update();
+    return result;
+  }
+
+  /**
+   * Unregisters the given listener from Flight Recorder and stops tracing
+   */
+  public static void unregister(RecordingStateListener listener) {
+    FlightRecorder.removeListener(listener);
+    EspressoMetrics.setTracing(false);
+  }
+
+  @Override
+  public void recordingStateChanged(Recording recording) {
+    update();
+  }
+
+  /**
+   * Recomputes whether tracing is needed from the current state of Flight Recorder
+   */
+  public static void update() {
+    // Don't initialize Flight Recorder just to find out that nothing is recording
+    EspressoMetrics.setTracing(FlightRecorder.isInitialized()
+        && (EventType.getEventType(BeanScanEvent.class).isEnabled()
+            || EventType.getEventType(SlowPropertyAccessEvent.class).isEnabled()
+            || EventType.getEventType(PropertyAccessFailureEvent.class).isEnabled()));
+  }
+}
@@ -0,0 +1,931 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * The Java 9+ implementation of {@link FieldAtomics}, using a {@link VarHandle}. Supports every
+ * access mode exactly, and compare-and-set for every field type.
+ *
+ * <p>
+ * Each primitive field type has its own call sites, which pass and return values of exactly that
+ * type, so the handle never boxes. The receiver is passed as {@code Object} rather than as the
+ * declaring class, so the handle still casts it on each call. Values cross the
+ * {@link FieldAtomics} API boxed, and callers have already checked their types.
+ * </p>
+ */
+/* default */ final class VarHandleFieldAtomics extends FieldAtomics {
+  private final Class<?> type;
+  private final VarHandle handle;
+
+  public VarHandleFieldAtomics(Field field) {
+    this.type = field.getType();
+    try {
+      this.handle = MethodHandles.publicLookup().unreflectVarHandle(field);
+    } catch (IllegalAccessException e) {
+      throw new UnsupportedOperationException("field is not accessible", e);
+    }
+  }
+
+  @Override
+  public Object get(Object instance, AccessMode mode) {
+    if (type == boolean.class)
+      return getBoolean(instance, mode);
+    else if (type == byte.class)
+      return getByte(instance, mode);
+    else if (type == short.class)
+      return getShort(instance, mode);
+    else if (type == char.class)
+      return getChar(instance, mode);
+    else if (type == int.class)
+      return getInt(instance, mode);
+    else if (type == long.class)
+      return getLong(instance, mode);
+    else if (type == float.class)
+      return getFloat(instance, mode);
+    else if (type == double.class)
+      return getDouble(instance, mode);
+    else
+      return getReference(instance, mode);
+  }
+
+  @Override
+  public void set(Object instance, Object value, AccessMode mode) {
+    if (type == boolean.class)
+      setBoolean(instance, (Boolean) value, mode);
+    else if (type == byte.class)
+      setByte(instance, (Byte) value, mode);
+    else if (type == short.class)
+      setShort(instance, (Short) value, mode);
+    else if (type == char.class)
+      setChar(instance, (Character) value, mode);
+    else if (type == int.class)
+      setInt(instance, (Integer) value, mode);
+    else if (type == long.class)
+      setLong(instance, (Long) value, mode);
+    else if (type == float.class)
+      setFloat(instance, (Float) value, mode);
+    else if (type == double.class)
+      setDouble(instance, (Double) value, mode);
+    else
+      setReference(instance, value, mode);
+  }
+
+  @Override
+  public boolean compareAndSet(Object instance, Object expected, Object value,
+      AccessMode mode) {
+    if (type == boolean.class)
+      return compareAndSetBoolean(instance, (Boolean) expected, (Boolean) value, mode);
+    else if (type == byte.class)
+      return compareAndSetByte(instance, (Byte) expected, (Byte) value, mode);
+    else if (type == short.class)
+      return compareAndSetShort(instance, (Short) expected, (Short) value, mode);
+    else if (type == char.class)
+      return compareAndSetChar(instance, (Character) expected, (Character) value, mode);
+    else if (type == int.class)
+      return compareAndSetInt(instance, (Integer) expected, (Integer) value, mode);
+    else if (type == long.class)
+      return compareAndSetLong(instance, (Long) expected, (Long) value, mode);
+    else if (type == float.class)
+      return compareAndSetFloat(instance, (Float) expected, (Float) value, mode);
+    else if (type == double.class)
+      return compareAndSetDouble(instance, (Double) expected, (Double) value, mode);
+    else
+      return compareAndSetReference(instance, expected, value, mode);
+  }
+
+  @Override
+  public Object getAndSet(Object instance, Object value, AccessMode mode) {
+    if (type == boolean.class)
+      return getAndSetBoolean(instance, (Boolean) value, mode);
+    else if (type == byte.class)
+      return getAndSetByte(instance, (Byte) value, mode);
+    else if (type == short.class)
+      return getAndSetShort(instance, (Short) value, mode);
+    else if (type == char.class)
+      return getAndSetChar(instance, (Character) value, mode);
+    else if (type == int.class)
+      return getAndSetInt(instance, (Integer) value, mode);
+    else if (type == long.class)
+      return getAndSetLong(instance, (Long) value, mode);
+    else if (type == float.class)
+      return getAndSetFloat(instance, (Float) value, mode);
+    else if (type == double.class)
+      return getAndSetDouble(instance, (Double) value, mode);
+    else
+      return getAndSetReference(instance, value, mode);
+  }
+
+  @Override
+  public Object getAndAdd(Object instance, Object delta, AccessMode mode) {
+    if (type == byte.class)
+      return getAndAddByte(instance, (Byte) delta, mode);
+    else if (type == short.class)
+      return getAndAddShort(instance, (Short) delta, mode);
+    else if (type == char.class)
+      return getAndAddChar(instance, (Character) delta, mode);
+    else if (type == int.class)
+      return getAndAddInt(instance, (Integer) delta, mode);
+    else if (type == long.class)
+      return getAndAddLong(instance, (Long) delta, mode);
+    else if (type == float.class)
+      return getAndAddFloat(instance, (Float) delta, mode);
+    else if (type == double.class)
+      return getAndAddDouble(instance, (Double) delta, mode);
+    else
+      throw new UnsupportedOperationException("get and add is not supported for " + type);
+  }
+
+  private boolean getBoolean(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.get(instance);
+      case OPAQUE:
+        return (boolean) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (boolean) handle.getAcquire(instance);
+      case VOLATILE:
+        return (boolean) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setBoolean(Object instance, boolean value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetBoolean(Object instance, boolean expected, boolean value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (boolean) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (boolean) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean getAndSetBoolean(Object instance, boolean value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (boolean) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (boolean) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private byte getByte(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (byte) handle.get(instance);
+      case OPAQUE:
+        return (byte) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (byte) handle.getAcquire(instance);
+      case VOLATILE:
+        return (byte) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setByte(Object instance, byte value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetByte(Object instance, byte expected, byte value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (byte) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (byte) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private byte getAndSetByte(Object instance, byte value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (byte) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (byte) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (byte) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private byte getAndAddByte(Object instance, byte delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (byte) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (byte) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (byte) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private short getShort(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (short) handle.get(instance);
+      case OPAQUE:
+        return (short) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (short) handle.getAcquire(instance);
+      case VOLATILE:
+        return (short) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setShort(Object instance, short value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetShort(Object instance, short expected, short value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (short) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (short) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private short getAndSetShort(Object instance, short value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (short) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (short) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (short) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private short getAndAddShort(Object instance, short delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (short) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (short) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (short) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private char getChar(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (char) handle.get(instance);
+      case OPAQUE:
+        return (char) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (char) handle.getAcquire(instance);
+      case VOLATILE:
+        return (char) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setChar(Object instance, char value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetChar(Object instance, char expected, char value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (char) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (char) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private char getAndSetChar(Object instance, char value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (char) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (char) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (char) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private char getAndAddChar(Object instance, char delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (char) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (char) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (char) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private int getInt(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (int) handle.get(instance);
+      case OPAQUE:
+        return (int) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (int) handle.getAcquire(instance);
+      case VOLATILE:
+        return (int) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setInt(Object instance, int value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetInt(Object instance, int expected, int value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (int) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (int) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private int getAndSetInt(Object instance, int value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (int) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (int) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (int) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private int getAndAddInt(Object instance, int delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (int) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (int) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (int) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private long getLong(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (long) handle.get(instance);
+      case OPAQUE:
+        return (long) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (long) handle.getAcquire(instance);
+      case VOLATILE:
+        return (long) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setLong(Object instance, long value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetLong(Object instance, long expected, long value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (long) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (long) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private long getAndSetLong(Object instance, long value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (long) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (long) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (long) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private long getAndAddLong(Object instance, long delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (long) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (long) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (long) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private float getFloat(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (float) handle.get(instance);
+      case OPAQUE:
+        return (float) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (float) handle.getAcquire(instance);
+      case VOLATILE:
+        return (float) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setFloat(Object instance, float value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetFloat(Object instance, float expected, float value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return Float.floatToRawIntBits((float) handle.compareAndExchangeAcquire(instance,
+            expected, value)) == Float.floatToRawIntBits(expected);
+      case RELEASE:
+        return Float.floatToRawIntBits((float) handle.compareAndExchangeRelease(instance,
+            expected, value)) == Float.floatToRawIntBits(expected);
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private float getAndSetFloat(Object instance, float value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (float) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (float) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (float) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private float getAndAddFloat(Object instance, float delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (float) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (float) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (float) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private double getDouble(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (double) handle.get(instance);
+      case OPAQUE:
+        return (double) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (double) handle.getAcquire(instance);
+      case VOLATILE:
+        return (double) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setDouble(Object instance, double value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetDouble(Object instance, double expected, double value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return Double.doubleToRawLongBits((double) handle.compareAndExchangeAcquire(instance,
+            expected, value)) == Double.doubleToRawLongBits(expected);
+      case RELEASE:
+        return Double.doubleToRawLongBits((double) handle.compareAndExchangeRelease(instance,
+            expected, value)) == Double.doubleToRawLongBits(expected);
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private double getAndSetDouble(Object instance, double value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (double) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (double) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (double) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private double getAndAddDouble(Object instance, double delta, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (double) handle.getAndAddAcquire(instance, delta);
+      case RELEASE:
+        return (double) handle.getAndAddRelease(instance, delta);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (double) handle.getAndAdd(instance, delta);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private Object getReference(Object instance, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (Object) handle.get(instance);
+      case OPAQUE:
+        return (Object) handle.getOpaque(instance);
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        return (Object) handle.getAcquire(instance);
+      case VOLATILE:
+        return (Object) handle.getVolatile(instance);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private void setReference(Object instance, Object value, AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        handle.set(instance, value);
+        break;
+      case OPAQUE:
+        handle.setOpaque(instance, value);
+        break;
+      case ACQUIRE:
+      case RELEASE:
+      case ACQUIRE_RELEASE:
+        handle.setRelease(instance, value);
+        break;
+      case VOLATILE:
+        handle.setVolatile(instance, value);
+        break;
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private boolean compareAndSetReference(Object instance, Object expected, Object value,
+      AccessMode mode) {
+    switch (mode) {
+      case PLAIN:
+        return (boolean) handle.weakCompareAndSetPlain(instance, expected, value);
+      case OPAQUE:
+        return (boolean) handle.weakCompareAndSet(instance, expected, value);
+      case ACQUIRE:
+        return (Object) handle.compareAndExchangeAcquire(instance, expected, value) == expected;
+      case RELEASE:
+        return (Object) handle.compareAndExchangeRelease(instance, expected, value) == expected;
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (boolean) handle.compareAndSet(instance, expected, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+
+  private Object getAndSetReference(Object instance, Object value, AccessMode mode) {
+    switch (mode) {
+      case ACQUIRE:
+        return (Object) handle.getAndSetAcquire(instance, value);
+      case RELEASE:
+        return (Object) handle.getAndSetRelease(instance, value);
+      case PLAIN:
+      case OPAQUE:
+      case ACQUIRE_RELEASE:
+      case VOLATILE:
+        return (Object) handle.getAndSet(instance, value);
+      default:
+        throw new AssertionError("unrecognized access mode " + mode);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import org.junit.Test;
+
+public class AccessorCompilerTest {
+  public static class Example {
+    public int x;
+    private String y;
+
+    public String getY() {
+      return y;
+    }
+
+    public void setY(String y) {
+      this.y = y;
+    }
+
+    public int getZ() {
+      throw new IllegalStateException("z");
+    }
+
+    public void setZ(int z) {}
+  }
+
+  @Test
+  public void compileTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Example.class, ScanMode.EAGER);
+    BeanProperty x = bc.getProperty("x").get();
+    BeanProperty y = bc.getProperty("y").get();
+    x.compile();
+    y.compile();
+
+    assertThat(x.isCompiled(), is(true));
+    assertThat(y.isCompiled(), is(true));
+
+    Example example = new Example();
+    x.set(example, 1);
+    y.set(example, "hello");
+    assertThat(example.x, is(1));
+    assertThat(x.get(example), is((Object) 1));
+    assertThat(y.get(example), is((Object) "hello"));
+
+    y.set(example, null);
+    assertThat(y.get(example), is((Object) null));
+  }
+
+  /**
+   * A compiled property should widen primitives like reflection does
+   */
+  @Test
+  public void compileWideningTest() throws Exception {
+    BeanProperty x = BeanClass.scan(Example.class, ScanMode.EAGER).getProperty("x").get();
+    x.compile();
+
+    Example example = new Example();
+    x.set(example, (short) 2);
+    assertThat(example.x, is(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void compileNullPrimitiveTest() throws Exception {
+    BeanProperty x = BeanClass.scan(Example.class, ScanMode.EAGER).getProperty("x").get();
+    x.compile();
+
+    x.set(new Example(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void compileWrongInstanceTest() throws Exception {
+    BeanProperty y = BeanClass.scan(Example.class, ScanMode.EAGER).getProperty("y").get();
+    y.compile();
+
+    y.get("not an example");
+  }
+
+  /**
+   * A compiled getter should wrap exceptions like reflection does
+   */
+  @Test
+  public void compileExceptionTest() throws Exception {
+    BeanProperty z = BeanClass.scan(Example.class, ScanMode.EAGER).getProperty("z").get();
+    z.compile();
+
+    try {
+      z.get(new Example());
+      throw new AssertionError("expected exception");
+    } catch (InvocationTargetException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
+  /**
+   * Compiled typed accessors should serve primitives and wrap exceptions like reflection does
+   */
+  @Test
+  public void compileTypedTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Example.class, ScanMode.EAGER);
+    BeanProperty x = bc.getProperty("x").get();
+    BeanProperty z = bc.getProperty("z").get();
+    x.compile();
+    z.compile();
+
+    Example example = new Example();
+    x.setInt(example, 3);
+    assertThat(example.x, is(3));
+    assertThat(x.getInt(example), is(3));
+
+    try {
+      z.getInt(example);
+      throw new AssertionError("expected exception");
+    } catch (InvocationTargetException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
+  public static class Hot {
+    public String value;
+  }
+
+  /**
+   * A property should be compiled in the background once it is hot, if compilation is enabled
+   */
+  @Test
+  public void thresholdTest() throws Exception {
+    int threshold = AccessorCompiler.getThreshold();
+    AccessorCompiler.setThreshold(10);
+    try {
+      BeanProperty value = BeanClass.scan(Hot.class, ScanMode.EAGER).getProperty("value").get();
+
+      Hot hot = new Hot();
+      for (int i = 0; i <= AccessorCompiler.getThreshold(); i++)
+        value.get(hot);
+
+      for (int i = 0; i < 100 && !value.isCompiled(); i++)
+        Thread.sleep(50L);
+
+      assertThat(value.isCompiled(), is(true));
+    } finally {
+      AccessorCompiler.setThreshold(threshold);
+    }
+  }
+}
@@ -22,11 +22,14 @@ package com.sigpwned.espresso;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import java.beans.ConstructorProperties;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
@@ -367,6 +370,49 @@ public class BeanClassTest {
     BeanClass.scan(ScanWithPrivateDefaultConstructorTest.class);
   }
 
+  public static class ScanWithDefaultConstructorAndCreatorsTest {
+    private int x;
+    private String label;
+
+    public ScanWithDefaultConstructorAndCreatorsTest() {}
+
+    @ConstructorProperties({"x"})
+    public ScanWithDefaultConstructorAndCreatorsTest(int x) {
+      this.x = x;
+    }
+
+    @ConstructorProperties({"x", "label"})
+    public ScanWithDefaultConstructorAndCreatorsTest(int x, String label) {
+      this.x = x;
+      this.label = label;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public void setX(int x) {
+      this.x = x;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /**
+   * A class with a default constructor should scan as a plain bean even if its creator
+   * constructors are ambiguous, and properties that only a creator could assign should be ignored
+   */
+  @Test
+  public void scanWithDefaultConstructorAndCreatorsTest() {
+    BeanClass bc = BeanClass.scan(ScanWithDefaultConstructorAndCreatorsTest.class);
+
+    assertThat(bc.getPropertyNames(), is(singleton("x")));
+    assertThat(bc.hasCreator(), is(false));
+    assertThat(bc.getProperty("x").get().isSettable(), is(true));
+  }
+
   public static class ScanWithFieldHidingTestParent {
     public int x;
   }
@@ -484,6 +530,61 @@ public class BeanClassTest {
     assertThat(x.getGenericType(), is((Type) Number.class));
   }
 
+  public static class GenericParent<T> {
+    private T value;
+    private List<T> values;
+
+    public T getValue() {
+      return value;
+    }
+
+    public void setValue(T value) {
+      this.value = value;
+    }
+
+    public List<T> getValues() {
+      return values;
+    }
+
+    public void setValues(List<T> values) {
+      this.values = values;
+    }
+  }
+
+  public static class GenericChild extends GenericParent<String> {
+    @Override
+    public String getValue() {
+      return super.getValue();
+    }
+  }
+
+  /**
+   * We should resolve type variables against the scanned class, and ignore bridge methods
+   */
+  @Test
+  public void scanWithGenericParentTest() throws Exception {
+    BeanClass bc = BeanClass.scan(GenericChild.class);
+
+    assertThat(bc.getPropertyNames(), is(new HashSet<>(asList("value", "values"))));
+
+    BeanProperty value = bc.getProperty("value").get();
+    assertThat(value.getGenericType(), is((Type) String.class));
+    assertThat(value.getRawType(), is((Object) String.class));
+
+    BeanProperty values = bc.getProperty("values").get();
+    assertThat(values.getGenericType(),
+        is(ListOfString.class.getDeclaredField("value").getGenericType()));
+    assertThat(ListOfString.class.getDeclaredField("value").getGenericType(),
+        is(values.getGenericType()));
+    assertThat(values.getGenericType().hashCode(),
+        is(ListOfString.class.getDeclaredField("value").getGenericType().hashCode()));
+    assertThat(values.getRawType(), is((Object) List.class));
+  }
+
+  public static class ListOfString {
+    public List<String> value;
+  }
+
   public static class Example {
     public int x;
   }
@@ -601,6 +702,34 @@ public class BeanClassTest {
         }));
   }
 
+  public static class AnnotationIndexTest {
+    @AnnotationAlpha
+    public int alpha;
+
+    @AnnotationAlpha
+    public int bravo;
+
+    @AnnotationBravo
+    public int charlie;
+
+    public int delta;
+  }
+
+  @Test
+  public void annotationIndexTest() {
+    BeanClass bc = BeanClass.scan(AnnotationIndexTest.class);
+
+    assertThat(bc.getPropertiesAnnotatedWith(AnnotationAlpha.class).stream()
+        .map(BeanProperty::getName).collect(toList()), is(asList("alpha", "bravo")));
+    assertThat(bc.getPropertiesAnnotatedWith(AnnotationBravo.class).stream()
+        .map(BeanProperty::getName).collect(toList()), is(asList("charlie")));
+    assertThat(bc.getPropertiesAnnotatedWith(AnnotationCharlie.class).isEmpty(), is(true));
+    assertThat(bc.getProperty("charlie").get().isAnnotationPresent(AnnotationBravo.class),
+        is(true));
+    assertThat(bc.getProperty("delta").get().isAnnotationPresent(AnnotationBravo.class),
+        is(false));
+  }
+
   /**
    * We should return a equals object for the same class if not in the cache
    */
@@ -628,4 +757,59 @@ public class BeanClassTest {
 
     assertThat(scan2, is(scan1));
   }
+
+  /**
+   * We should keep preloaded classes even when the cache is cleared
+   */
+  @Test
+  public void preloadTest() {
+    try {
+      BeanClass preloaded = BeanClass.preload(SmokeTest.class);
+
+      BeanClass.CACHE.clear();
+
+      assertThat(BeanClass.scan(SmokeTest.class) == preloaded, is(true));
+    } finally {
+      // Don't leave the class pinned, or the other cache tests won't exercise the cache
+      BeanClass.clearCachesForTesting();
+    }
+  }
+
+  public static boolean uninitializedBeanInitialized = false;
+
+  public static class UninitializedBean {
+    static {
+      uninitializedBeanInitialized = true;
+    }
+
+    public int value;
+  }
+
+  /**
+   * Preloading happens at native image build time, so it must not initialize the bean class
+   */
+  @Test
+  public void preloadDoesNotInitializeTest() throws ClassNotFoundException {
+    Class<?> rawType = Class.forName(UninitializedBean.class.getName(), false,
+        BeanClassTest.class.getClassLoader());
+    try {
+      BeanClass preloaded = BeanClass.preload(rawType);
+      assertThat(preloaded.getPropertyNames(), is(singleton("value")));
+      assertThat(uninitializedBeanInitialized, is(false));
+    } finally {
+      BeanClass.clearCachesForTesting();
+    }
+  }
+
+  /**
+   * Clearing every cache should make even preloaded classes scan cold again
+   */
+  @Test
+  public void clearCachesTest() {
+    BeanClass preloaded = BeanClass.preload(SmokeTest.class);
+
+    BeanClass.clearCachesForTesting();
+
+    assertThat(BeanClass.scan(SmokeTest.class) == preloaded, is(false));
+  }
 }
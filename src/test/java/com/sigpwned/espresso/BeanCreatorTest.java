@@ -0,0 +1,191 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.beans.ConstructorProperties;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import org.junit.Test;
+import com.sigpwned.espresso.annotation.BeanCreator;
+
+public class BeanCreatorTest {
+  public static class Point {
+    private final int x;
+    private final String label;
+
+    @ConstructorProperties({"x", "label"})
+    public Point(int x, String label) {
+      this.x = x;
+      this.label = label;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  public static class Mixed {
+    private final double weight;
+    private final boolean active;
+    private char grade;
+
+    @BeanCreator({"active", "weight"})
+    public Mixed(boolean active, double weight) {
+      this.active = active;
+      this.weight = weight;
+    }
+
+    public double getWeight() {
+      return weight;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public char getGrade() {
+      return grade;
+    }
+
+    public void setGrade(char grade) {
+      this.grade = grade;
+    }
+  }
+
+  public static class Mismatched {
+    private final int x;
+
+    @ConstructorProperties({"x"})
+    public Mismatched(long x) {
+      this.x = (int) x;
+    }
+
+    public int getX() {
+      return x;
+    }
+  }
+
+  public static class Mutable {
+    public String alpha;
+    public int bravo;
+  }
+
+  @Test
+  public void scanTest() {
+    BeanClass beanClass = BeanClass.scan(Point.class);
+
+    assertThat(beanClass.size(), is(2));
+    assertThat(beanClass.hasCreator(), is(true));
+    assertThat(beanClass.getCreatorProperties().stream().map(BeanProperty::getName)
+        .collect(toList()), is(Arrays.asList("x", "label")));
+    assertThat(beanClass.getProperty("x").get().isSettable(), is(false));
+  }
+
+  @Test
+  public void createTest() throws InvocationTargetException {
+    BeanClass beanClass = BeanClass.scan(Point.class);
+
+    // Values are indexed by property ordinal, which is sorted by name
+    Point point = (Point) beanClass.create(new Object[] {"hello", 7});
+
+    assertThat(point.getX(), is(7));
+    assertThat(point.getLabel(), is("hello"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createWrongTypeTest() throws InvocationTargetException {
+    BeanClass.scan(Point.class).create(new Object[] {"hello", "world"});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createNullPrimitiveTest() throws InvocationTargetException {
+    BeanClass.scan(Point.class).create(new Object[] {"hello", null});
+  }
+
+  @Test
+  public void builderTest() throws InvocationTargetException {
+    BeanClass beanClass = BeanClass.scan(Mixed.class);
+    int active = beanClass.getPropertyNames().stream().sorted().collect(toList()).indexOf("active");
+    int grade = beanClass.getPropertyNames().stream().sorted().collect(toList()).indexOf("grade");
+    int weight = beanClass.getPropertyNames().stream().sorted().collect(toList()).indexOf("weight");
+
+    BeanBuilder builder = beanClass.newBuilder();
+
+    Mixed first = (Mixed) builder.setBoolean(active, true).setDouble(weight, 1.5)
+        .setChar(grade, 'A').build();
+    assertThat(first.isActive(), is(true));
+    assertThat(first.getWeight(), is(1.5));
+    assertThat(first.getGrade(), is('A'));
+
+    // Values persist across builds
+    Mixed second = (Mixed) builder.set("weight", 2.5).build();
+    assertThat(second.isActive(), is(true));
+    assertThat(second.getWeight(), is(2.5));
+    assertThat(second.getGrade(), is('A'));
+
+    // Unassigned creator parameters get default values
+    Mixed third = (Mixed) builder.clear().build();
+    assertThat(third.isActive(), is(false));
+    assertThat(third.getWeight(), is(0.0));
+    assertThat(third.getGrade(), is('\0'));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void builderWrongTypeTest() {
+    BeanClass.scan(Mixed.class).newBuilder().set("weight", 1);
+  }
+
+  @Test
+  public void defaultConstructorTest() throws InvocationTargetException {
+    BeanClass beanClass = BeanClass.scan(Mutable.class);
+    assertThat(beanClass.hasCreator(), is(false));
+
+    Mutable created = (Mutable) beanClass.create(new Object[] {"hello", 1});
+    assertThat(created.alpha, is("hello"));
+    assertThat(created.bravo, is(1));
+
+    Mutable built = (Mutable) beanClass.newBuilder().setInt(1, 2).build();
+    assertThat(built.alpha, is((String) null));
+    assertThat(built.bravo, is(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mismatchedTypeTest() {
+    BeanClass.scan(Mismatched.class);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void newInstanceWithoutDefaultConstructorTest() throws InvocationTargetException {
+    BeanClass.scan(Point.class).newInstance();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void setReadOnlyTest() throws InvocationTargetException {
+    Point point = new Point(1, "a");
+    BeanClass.scan(Point.class).getProperty("x").get().set(point, 2);
+  }
+}
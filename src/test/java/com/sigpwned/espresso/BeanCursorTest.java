@@ -0,0 +1,111 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BeanCursorTest {
+  public static class Example {
+    public String alpha;
+
+    private int bravo;
+
+    public int getBravo() {
+      return bravo;
+    }
+
+    public void setBravo(int bravo) {
+      this.bravo = bravo;
+    }
+  }
+
+  public static class ExampleChild extends Example {
+  }
+
+  @Test
+  public void iterationTest() throws InvocationTargetException {
+    List<Example> examples = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Example example = new Example();
+      example.alpha = "alpha" + i;
+      example.setBravo(i);
+      examples.add(example);
+    }
+
+    BeanCursor cursor = BeanClass.scan(Example.class).newCursor();
+
+    int sum = 0;
+    for (Example example : examples) {
+      cursor.reset(example);
+      sum = sum + (Integer) cursor.get(1);
+      cursor.set(0, cursor.get(0) + "!");
+    }
+
+    assertThat(sum, is(45));
+    assertThat(examples.get(3).alpha, is("alpha3!"));
+  }
+
+  @Test
+  public void byNameTest() throws InvocationTargetException {
+    Example example = new Example();
+
+    BeanCursor cursor = BeanClass.scan(Example.class).newCursor().reset(example);
+    cursor.set("bravo", 7);
+
+    assertThat(cursor.get("bravo"), is(7));
+    assertThat(example.getBravo(), is(7));
+  }
+
+  @Test
+  public void typedTest() throws InvocationTargetException {
+    Example example = new Example();
+
+    BeanCursor cursor = BeanClass.scan(Example.class).newCursor().reset(example);
+    cursor.setInt(1, 11);
+
+    assertThat(cursor.getInt(1), is(11));
+    assertThat(example.getBravo(), is(11));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void typedMismatchTest() throws InvocationTargetException {
+    BeanClass.scan(Example.class).newCursor().reset(new Example()).getLong(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongClassTest() {
+    BeanClass.scan(Example.class).newCursor().reset(new ExampleChild());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noSuchPropertyTest() throws InvocationTargetException {
+    BeanClass.scan(Example.class).newCursor().reset(new Example()).get("charlie");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void notResetTest() throws InvocationTargetException {
+    BeanClass.scan(Example.class).newCursor().get(0);
+  }
+}
@@ -0,0 +1,195 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class BeanFieldAtomicsTest {
+  public static class Example {
+    public int alpha;
+    public volatile long bravo;
+    public String charlie;
+    public double delta;
+    private int echo;
+
+    public int getEcho() {
+      return echo;
+    }
+
+    public void setEcho(int echo) {
+      this.echo = echo;
+    }
+  }
+
+  private static BeanField field(String name) {
+    return BeanClass.scan(Example.class).getProperty(name).get().getField().get();
+  }
+
+  @Test
+  public void compareAndSetTest() {
+    Example example = new Example();
+    BeanField alpha = field("alpha");
+
+    assertThat(alpha.compareAndSet(example, 0, 1), is(true));
+    assertThat(alpha.compareAndSet(example, 0, 2), is(false));
+    assertThat(example.alpha, is(1));
+
+    BeanField charlie = field("charlie");
+    assertThat(charlie.compareAndSet(example, null, "hello"), is(true));
+    assertThat(charlie.getAndSet(example, "world"), is((Object) "hello"));
+    assertThat(example.charlie, is("world"));
+  }
+
+  @Test
+  public void getAndAddTest() {
+    Example example = new Example();
+
+    assertThat(field("bravo").getAndAdd(example, 5L), is((Object) 0L));
+    assertThat(field("delta").getAndAdd(example, 1.5), is((Object) 0.0));
+    assertThat(field("alpha").getAndUpdate(example, x -> (Integer) x + 3), is((Object) 0));
+
+    assertThat(example.bravo, is(5L));
+    assertThat(example.delta, is(1.5));
+    assertThat(example.alpha, is(3));
+  }
+
+  @Test
+  public void accessModeTest() {
+    Example example = new Example();
+    BeanField bravo = field("bravo");
+
+    for (AccessMode mode : AccessMode.values()) {
+      bravo.set(example, (long) mode.ordinal(), mode);
+      assertThat(bravo.get(example, mode), is((Object) (long) mode.ordinal()));
+    }
+  }
+
+  @Test
+  public void readModifyWriteAccessModeTest() {
+    Example example = new Example();
+    BeanField alpha = field("alpha");
+    BeanField charlie = field("charlie");
+
+    for (AccessMode mode : AccessMode.values()) {
+      int previous = example.alpha;
+      assertThat(alpha.getAndAdd(example, 1, mode), is((Object) previous));
+      assertThat(alpha.getAndSet(example, previous + 2, mode), is((Object) (previous + 1)));
+      assertThat(alpha.getAndUpdate(example, x -> (Integer) x + 1, mode),
+          is((Object) (previous + 2)));
+
+      // Plain and opaque compare-and-set may fail spuriously, so retry
+      String expected = example.charlie;
+      while (!charlie.compareAndSet(example, expected, mode.name(), mode))
+        assertThat(example.charlie, is(expected));
+      assertThat(charlie.compareAndSet(example, expected, "wrong", mode), is(false));
+    }
+
+    assertThat(example.alpha, is(3 * AccessMode.values().length));
+    assertThat(example.charlie, is(AccessMode.VOLATILE.name()));
+  }
+
+  @Test
+  public void concurrentGetAndAddTest() throws InterruptedException {
+    Example example = new Example();
+    BeanField alpha = field("alpha");
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 10000; j++)
+          alpha.getAndAdd(example, 1);
+      }));
+    }
+    for (Thread thread : threads)
+      thread.start();
+    for (Thread thread : threads)
+      thread.join();
+
+    assertThat(alpha.get(example, AccessMode.VOLATILE), is((Object) 40000));
+  }
+
+  /**
+   * The Java 8 fallback should behave the same as the VarHandle implementation
+   */
+  @Test
+  public void unsafeFallbackTest() throws NoSuchFieldException {
+    Example example = new Example();
+    Field alpha = Example.class.getField("alpha");
+    Field charlie = Example.class.getField("charlie");
+
+    FieldAtomics ints = new UnsafeFieldAtomics(alpha);
+    assertThat(ints.compareAndSet(example, 0, 7, AccessMode.VOLATILE), is(true));
+    assertThat(ints.getAndAdd(example, 1, AccessMode.VOLATILE), is((Object) 7));
+    assertThat(ints.get(example, AccessMode.ACQUIRE_RELEASE), is((Object) 8));
+
+    FieldAtomics strings = new UnsafeFieldAtomics(charlie);
+    strings.set(example, "hello", AccessMode.ACQUIRE_RELEASE);
+    assertThat(strings.getAndUpdate(example, x -> x + "!", AccessMode.VOLATILE),
+        is((Object) "hello"));
+    assertThat(example.charlie, is("hello!"));
+  }
+
+  /**
+   * The Java 8 fallback should accept every access mode, using a stronger ordering where it must
+   */
+  @Test
+  public void unsafeFallbackAccessModeTest() throws NoSuchFieldException {
+    Example example = new Example();
+    FieldAtomics longs = new UnsafeFieldAtomics(Example.class.getField("bravo"));
+    FieldAtomics doubles = new UnsafeFieldAtomics(Example.class.getField("delta"));
+
+    for (AccessMode mode : AccessMode.values()) {
+      long previous = (Long) longs.get(example, AccessMode.VOLATILE);
+      longs.set(example, previous, mode);
+      assertThat(longs.getAndAdd(example, 1L, mode), is((Object) previous));
+      assertThat(longs.getAndSet(example, previous + 2, mode), is((Object) (previous + 1)));
+      assertThat(longs.compareAndSet(example, previous + 2, previous + 3, mode), is(true));
+
+      double value = (Double) doubles.get(example, mode);
+      assertThat(doubles.compareAndSet(example, value, value + 0.5, mode), is(true));
+    }
+
+    assertThat(example.bravo, is(3L * AccessMode.values().length));
+    assertThat(example.delta, is(0.5 * AccessMode.values().length));
+  }
+
+  @Test
+  public void varHandleImplementationTest() throws NoSuchFieldException {
+    if (System.getProperty("java.specification.version").startsWith("1."))
+      return;
+    FieldAtomics atomics = FieldAtomics.forField(Example.class.getField("alpha"));
+    assertThat(atomics.getClass().getSimpleName(), is("VarHandleFieldAtomics"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongValueTypeTest() {
+    field("alpha").compareAndSet(new Example(), 0, 1L);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void privateFieldTest() {
+    field("echo").getAndAdd(new Example(), 1);
+  }
+}
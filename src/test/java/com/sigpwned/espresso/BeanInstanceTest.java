@@ -322,4 +322,38 @@ public class BeanInstanceTest {
     
     assertThat(x.get("foo"), is(false));
   }
+
+  public static class OrdinalExample {
+    public String charlie;
+    public int alpha;
+    public long bravo;
+  }
+
+  /**
+   * Ordinals should follow property name order, and index access should match named access
+   */
+  @Test
+  public void ordinalTest() throws InvocationTargetException {
+    BeanClass bc = BeanClass.scan(OrdinalExample.class);
+
+    assertThat(bc.get(0).getName(), is("alpha"));
+    assertThat(bc.get(1).getName(), is("bravo"));
+    assertThat(bc.get(2).getName(), is("charlie"));
+    for (int i = 0; i < bc.size(); i++)
+      assertThat(bc.get(i).getIndex(), is(i));
+
+    BeanInstance x = bc.newInstance();
+    x.set(0, 1);
+    x.set(1, 2L);
+    x.set(2, "three");
+
+    assertThat(x.get("alpha"), is(1));
+    assertThat(x.get(1), is(2L));
+    assertThat(((OrdinalExample) x.getInstance()).charlie, is("three"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void ordinalOutOfBoundsTest() throws InvocationTargetException {
+    BeanClass.scan(OrdinalExample.class).newInstance().get(3);
+  }
 }
@@ -0,0 +1,111 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Test;
+
+public class BeanPoolTest {
+  public static class Message {
+    public int id = 1;
+    public String kind = "event";
+    public String body;
+    public List<String> tags = new ArrayList<>();
+  }
+
+  @Test
+  public void defaultValueTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Message.class);
+
+    assertThat(bc.getProperty("id").get().getDefaultValue(), is((Object) 1));
+    assertThat(bc.getProperty("kind").get().getDefaultValue(), is((Object) "event"));
+    assertThat(bc.getProperty("body").get().getDefaultValue(), is((Object) null));
+  }
+
+  @Test
+  public void poolTest() throws Exception {
+    BeanPool pool = BeanClass.scan(Message.class).newPool(2);
+
+    Message message = (Message) pool.acquire();
+    List<String> tags = message.tags;
+    message.id = 42;
+    message.kind = "command";
+    message.body = "hello";
+    message.tags.add("x");
+    pool.release(message);
+    assertThat(pool.size(), is(1));
+
+    Message recycled = (Message) pool.acquire();
+    assertThat(recycled == message, is(true));
+    assertThat(pool.size(), is(0));
+    assertThat(recycled.id, is(1));
+    assertThat(recycled.kind, is("event"));
+    assertThat(recycled.body, is((String) null));
+    assertThat(recycled.tags.isEmpty(), is(true));
+    assertThat(recycled.tags == tags, is(true));
+  }
+
+  /**
+   * A replaced collection should be replaced with a new empty one of the default's class
+   */
+  @Test
+  public void replacedCollectionTest() throws Exception {
+    BeanPool pool = BeanClass.scan(Message.class).newPool(1);
+
+    Message message = (Message) pool.acquire();
+    message.tags = new LinkedList<>(asList("x"));
+    pool.release(message);
+
+    assertThat(message.tags.getClass() == ArrayList.class, is(true));
+    assertThat(message.tags.isEmpty(), is(true));
+  }
+
+  @Test
+  public void capacityTest() throws Exception {
+    BeanPool pool = BeanClass.scan(Message.class).newPool(1);
+
+    pool.release(new Message());
+    pool.release(new Message());
+
+    assertThat(pool.size(), is(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongClassTest() throws Exception {
+    BeanClass.scan(Message.class).newPool(1).release("hello");
+  }
+
+  public static class Mutable {
+    public StringBuilder buffer = new StringBuilder();
+  }
+
+  /**
+   * Pooled instances would share a mutable default, so we should refuse to pool them
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void mutableDefaultTest() throws Exception {
+    BeanClass.scan(Mutable.class).newPool(1);
+  }
+}
@@ -0,0 +1,212 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class BeanVisitorTest {
+  public static class Example {
+    public int alpha = 1;
+    private long bravo = 2L;
+    public char charlie = 'c';
+    public String delta = "d";
+    public Integer echo = 5;
+    private boolean foxtrot = true;
+    public double golf = 7.5;
+
+    public long getBravo() {
+      return bravo;
+    }
+
+    public void setBravo(long bravo) {
+      this.bravo = bravo;
+    }
+
+    public boolean isFoxtrot() {
+      return foxtrot;
+    }
+
+    public void setFoxtrot(boolean foxtrot) {
+      this.foxtrot = foxtrot;
+    }
+  }
+
+  /**
+   * Records each callback as "type:name=value"
+   */
+  public static class RecordingVisitor implements BeanVisitor {
+    public final List<String> visits = new ArrayList<>();
+
+    @Override
+    public void visitObject(BeanProperty property, Object value) {
+      visits.add("object:" + property.getName() + "=" + value);
+    }
+
+    @Override
+    public void visitInt(BeanProperty property, int value) {
+      visits.add("int:" + property.getName() + "=" + value);
+    }
+
+    @Override
+    public void visitLong(BeanProperty property, long value) {
+      visits.add("long:" + property.getName() + "=" + value);
+    }
+
+    @Override
+    public void visitBoolean(BeanProperty property, boolean value) {
+      visits.add("boolean:" + property.getName() + "=" + value);
+    }
+
+    @Override
+    public void visitDouble(BeanProperty property, double value) {
+      visits.add("double:" + property.getName() + "=" + value);
+    }
+  }
+
+  @Test
+  public void acceptTest() throws Exception {
+    RecordingVisitor visitor = new RecordingVisitor();
+
+    BeanClass.scan(Example.class).accept(new Example(), visitor);
+
+    // char has no override, so it falls back to visitObject
+    assertThat(visitor.visits,
+        is(asList("int:alpha=1", "long:bravo=2", "object:charlie=c", "object:delta=d",
+            "object:echo=5", "boolean:foxtrot=true", "double:golf=7.5")));
+  }
+
+  @Test
+  public void acceptDynamicTest() throws Exception {
+    Map<String, Type> properties = new LinkedHashMap<>();
+    properties.put("count", int.class);
+    properties.put("name", String.class);
+    DynamicBeanClass dc = DynamicBeanClass.of("Example", properties);
+    BeanInstance instance = dc.newInstance();
+    instance.set("count", 3);
+    instance.set("name", "x");
+
+    RecordingVisitor visitor = new RecordingVisitor();
+    dc.accept(instance.getInstance(), visitor);
+
+    assertThat(visitor.visits, is(asList("int:count=3", "object:name=x")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void acceptWrongClassTest() throws Exception {
+    BeanClass.scan(Example.class).accept("hello", new RecordingVisitor());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void typedGetterWrongTypeTest() throws Exception {
+    BeanClass.scan(Example.class).getProperty("alpha").get().getLong(new Example());
+  }
+
+  @Test
+  public void typedSetterTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Example.class);
+    Example example = new Example();
+
+    bc.getProperty("alpha").get().setInt(example, 10);
+    bc.getProperty("bravo").get().setLong(example, 20L);
+    bc.getProperty("foxtrot").get().setBoolean(example, false);
+    bc.getProperty("golf").get().setDouble(example, 30.5);
+
+    assertThat(example.alpha, is(10));
+    assertThat(example.getBravo(), is(20L));
+    assertThat(example.isFoxtrot(), is(false));
+    assertThat(example.golf, is(30.5));
+  }
+
+  @Test
+  public void typedSetterDynamicTest() throws Exception {
+    Map<String, Type> properties = new LinkedHashMap<>();
+    properties.put("count", int.class);
+    DynamicBeanClass dc = DynamicBeanClass.of("Example", properties);
+    BeanInstance instance = dc.newInstance();
+
+    dc.getProperty("count").get().setInt(instance.getInstance(), 7);
+
+    assertThat(instance.get("count"), is(7));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void typedSetterWrongTypeTest() throws Exception {
+    BeanClass.scan(Example.class).getProperty("alpha").get().setLong(new Example(), 1L);
+  }
+
+  /**
+   * Not public, so the typed accessors can't use a public lookup and fall back to reflection
+   */
+  static class Hidden {
+    private int value = 4;
+
+    public Hidden() {}
+
+    public int getValue() {
+      return value;
+    }
+
+    public void setValue(int value) {
+      this.value = value;
+    }
+  }
+
+  @Test
+  public void typedAccessorsInaccessibleTest() throws Exception {
+    BeanProperty value = BeanClass.scan(Hidden.class).getProperty("value").get();
+    Hidden hidden = new Hidden();
+
+    // Twice, so the second call uses the cached lookup failure
+    for (int i = 0; i < 2; i++) {
+      assertThat(value.getInt(hidden), is(4 + i));
+      value.setInt(hidden, 5 + i);
+    }
+    assertThat(hidden.value, is(6));
+  }
+
+  public static class Failing {
+    public int getValue() {
+      throw new IllegalStateException("value");
+    }
+
+    public void setValue(int value) {}
+  }
+
+  @Test
+  public void typedGetterExceptionTest() throws Exception {
+    BeanProperty value = BeanClass.scan(Failing.class).getProperty("value").get();
+    try {
+      value.getInt(new Failing());
+      throw new AssertionError("expected exception");
+    } catch (InvocationTargetException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+}
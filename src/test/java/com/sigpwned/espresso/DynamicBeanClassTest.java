@@ -0,0 +1,110 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class DynamicBeanClassTest {
+  private static DynamicBeanClass example() {
+    Map<String, Type> properties = new LinkedHashMap<>();
+    properties.put("name", String.class);
+    properties.put("age", int.class);
+    properties.put("score", double.class);
+    properties.put("active", boolean.class);
+    return DynamicBeanClass.of("Example", properties);
+  }
+
+  @Test
+  public void smokeTest() throws Exception {
+    DynamicBeanClass dc = example();
+
+    assertThat(dc.getPropertyNames(),
+        is(new HashSet<>(asList("active", "age", "name", "score"))));
+    assertThat(dc.get(0).getName(), is("active"));
+    assertThat(dc.getProperty("age").get().getGenericType(), is((Type) int.class));
+    assertThat(dc.getRawType() == DynamicBean.class, is(true));
+
+    BeanInstance instance = dc.newInstance();
+    assertThat(instance.get("age"), is((Object) 0));
+    assertThat(instance.get("name"), is((Object) null));
+
+    instance.set("name", "alpha");
+    instance.set("age", 42);
+    instance.set("score", 1.5);
+    instance.set("active", true);
+    assertThat(instance.get("name"), is((Object) "alpha"));
+    assertThat(instance.get("age"), is((Object) 42));
+    assertThat(instance.get("score"), is((Object) 1.5));
+    assertThat(instance.get("active"), is((Object) true));
+
+    assertThat(instance.getInstance().toString(),
+        is("Example [active=true, age=42, name=alpha, score=1.5]"));
+  }
+
+  /**
+   * Generic code should treat dynamic beans like any other bean
+   */
+  @Test
+  public void genericAccessTest() throws Exception {
+    DynamicBeanClass dc = example();
+
+    Object bean = dc.create(new Object[] {false, 7, "bravo", 2.0});
+    assertThat(BeanInstance.wrap(bean).get("name"), is((Object) "bravo"));
+    assertThat(PropertyRef.of("age").get(bean), is((Object) 7));
+
+    Object built = dc.newBuilder().set("name", "bravo").setInt(1, 7).setDouble(3, 2.0).build();
+    assertThat(built, is(bean));
+    assertThat(built.hashCode(), is(bean.hashCode()));
+
+    dc.getProperty("age").get().set(built, 8);
+    assertThat(built, is(not(bean)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongTypeTest() throws Exception {
+    example().newInstance().set("age", "forty-two");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullPrimitiveTest() throws Exception {
+    example().newInstance().set("age", null);
+  }
+
+  /**
+   * Each dynamic class is distinct, even from another with the same definition
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void wrongClassTest() throws Exception {
+    DynamicBeanClass a = example();
+    DynamicBeanClass b = example();
+
+    assertThat(a, is(not(b)));
+
+    a.getProperty("age").get().get(b.newDynamicBean());
+  }
+}
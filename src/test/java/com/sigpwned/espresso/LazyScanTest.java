@@ -0,0 +1,113 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClassTest.AnnotationAlpha;
+import com.sigpwned.espresso.BeanClassTest.AnnotationIndexTest;
+import com.sigpwned.espresso.BeanClassTest.GenericChild;
+
+public class LazyScanTest {
+  public static class Example {
+    public int x;
+    private String y;
+
+    public String getY() {
+      return y;
+    }
+
+    public void setY(String y) {
+      this.y = y;
+    }
+
+    public int getZ() {
+      return 0;
+    }
+
+    public void setZ(long z) {}
+  }
+
+  /**
+   * A lazy scan should find the same properties as an eager scan
+   */
+  @Test
+  public void sameAsEagerTest() {
+    BeanClass eager = BeanClass.scan(Example.class, ScanMode.EAGER);
+    BeanClass lazy = BeanClass.scan(Example.class, ScanMode.LAZY);
+
+    assertThat(lazy.getPropertyNames(), is(eager.getPropertyNames()));
+    assertThat(lazy.getProperty("x").get().getGenericType(), is((Type) int.class));
+    assertThat(lazy.getProperty("y").get().getGenericType(), is((Type) String.class));
+    assertThat(lazy.findPropertyIndex("Y", NameMatching.CASE_INSENSITIVE), is(1));
+  }
+
+  /**
+   * A lazy scan should still resolve type variables against the scanned class
+   */
+  @Test
+  public void genericParentTest() {
+    BeanClass bc = BeanClass.scan(GenericChild.class, ScanMode.LAZY);
+
+    assertThat(bc.getProperty("value").get().getGenericType(), is((Type) String.class));
+    assertThat(bc.getProperty("values").get().getRawType(), is((Object) List.class));
+  }
+
+  @Test
+  public void annotationIndexTest() {
+    BeanClass bc = BeanClass.scan(AnnotationIndexTest.class, ScanMode.LAZY);
+
+    assertThat(bc.getPropertiesAnnotatedWith(AnnotationAlpha.class).stream()
+        .map(BeanProperty::getName).collect(toList()), is(asList("alpha", "bravo")));
+  }
+
+  public static class ConflictingTypeArgumentsExample {
+    public List<String> value;
+
+    public List<Integer> getValue() {
+      return null;
+    }
+  }
+
+  /**
+   * An eager scan ignores a property whose elements disagree only in type arguments
+   */
+  @Test
+  public void eagerConflictingTypeArgumentsTest() {
+    BeanClass bc = BeanClass.scan(ConflictingTypeArgumentsExample.class, ScanMode.EAGER);
+
+    assertThat(bc.size(), is(0));
+  }
+
+  /**
+   * A lazy scan ignores the same property, so ordinals don't depend on the scan mode
+   */
+  @Test
+  public void lazyConflictingTypeArgumentsTest() {
+    BeanClass bc = BeanClass.scan(ConflictingTypeArgumentsExample.class, ScanMode.LAZY);
+
+    assertThat(bc.size(), is(0));
+  }
+}
@@ -0,0 +1,117 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+
+public class PropertyNameIndexTest {
+  public static class Example {
+    public String firstName;
+    public String lastName;
+    public int age;
+    public int caf\u00e9;
+    public int zipCode;
+    public int zip_code;
+  }
+
+  private static final BeanClass EXAMPLE = BeanClass.scan(Example.class);
+
+  private static int index(String name) {
+    return EXAMPLE.getProperty(name).get().getIndex();
+  }
+
+  @Test
+  public void exactTest() {
+    assertThat(EXAMPLE.findPropertyIndex("firstName"), is(index("firstName")));
+    assertThat(EXAMPLE.findPropertyIndex(new StringBuilder("age")), is(index("age")));
+    assertThat(EXAMPLE.findPropertyIndex("firstname"), is(-1));
+    assertThat(EXAMPLE.findPropertyIndex(""), is(-1));
+    assertThat(EXAMPLE.findPropertyIndex("nope"), is(-1));
+  }
+
+  @Test
+  public void sliceTest() {
+    char[] chars = "{\"lastName\":1}".toCharArray();
+    assertThat(EXAMPLE.findPropertyIndex(chars, 2, 8), is(index("lastName")));
+
+    byte[] bytes = "{\"lastName\":1}".getBytes(UTF_8);
+    assertThat(EXAMPLE.findPropertyIndex(bytes, 2, 8), is(index("lastName")));
+    assertThat(EXAMPLE.findPropertyIndex(bytes, 2, 7), is(-1));
+  }
+
+  @Test
+  public void utf8Test() {
+    byte[] bytes = "xcaf\u00e9".getBytes(UTF_8);
+    assertThat(EXAMPLE.findPropertyIndex(bytes, 1, bytes.length - 1), is(index("caf\u00e9")));
+
+    byte[] upper = "CAF\u00c9".getBytes(UTF_8);
+    assertThat(EXAMPLE.findPropertyIndex(upper, 0, upper.length, NameMatching.CASE_INSENSITIVE),
+        is(index("caf\u00e9")));
+
+    // A truncated multi-byte sequence is not valid UTF-8
+    assertThat(EXAMPLE.findPropertyIndex(bytes, 1, bytes.length - 2), is(-1));
+  }
+
+  @Test
+  public void invalidUtf8Test() {
+    // An overlong encoding of the "a" in "age"
+    byte[] overlong = {(byte) 0xC1, (byte) 0xA1, 'g', 'e'};
+    assertThat(EXAMPLE.findPropertyIndex(overlong, 0, overlong.length), is(-1));
+
+    // An encoded surrogate, as in CESU-8
+    byte[] surrogate = {'a', (byte) 0xED, (byte) 0xA0, (byte) 0x80};
+    assertThat(EXAMPLE.findPropertyIndex(surrogate, 0, surrogate.length), is(-1));
+
+    // A code point above U+10FFFF
+    byte[] tooLarge = {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80};
+    assertThat(EXAMPLE.findPropertyIndex(tooLarge, 0, tooLarge.length), is(-1));
+  }
+
+  @Test
+  public void caseInsensitiveTest() {
+    assertThat(EXAMPLE.findPropertyIndex("FIRSTNAME", NameMatching.CASE_INSENSITIVE),
+        is(index("firstName")));
+    assertThat(EXAMPLE.findPropertyIndex("first_name", NameMatching.CASE_INSENSITIVE), is(-1));
+    assertThat(EXAMPLE.findPropertyIndex("ZIP_CODE", NameMatching.CASE_INSENSITIVE),
+        is(index("zip_code")));
+  }
+
+  @Test
+  public void looseTest() {
+    assertThat(EXAMPLE.findPropertyIndex("first_name", NameMatching.LOOSE),
+        is(index("firstName")));
+    assertThat(EXAMPLE.findPropertyIndex("LAST-NAME", NameMatching.LOOSE), is(index("lastName")));
+    byte[] bytes = "first_name".getBytes(UTF_8);
+    assertThat(EXAMPLE.findPropertyIndex(bytes, 0, bytes.length, NameMatching.LOOSE),
+        is(index("firstName")));
+
+    // zipCode and zip_code collide, so neither matches
+    assertThat(EXAMPLE.findPropertyIndex("zipcode", NameMatching.LOOSE), is(-1));
+    assertThat(EXAMPLE.findPropertyIndex("zipCode"), is(index("zipCode")));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void outOfBoundsTest() {
+    EXAMPLE.findPropertyIndex("age".toCharArray(), 1, 3);
+  }
+}
@@ -0,0 +1,144 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.Test;
+
+public class PropertyRefTest {
+  public static class Alpha {
+    public String id;
+  }
+
+  public static class Bravo {
+    private String id;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+  }
+
+  public static class Charlie {
+    public int id;
+  }
+
+  public static class Delta {
+    public String id;
+  }
+
+  public static class Echo {
+    public String id;
+  }
+
+  public static class Foxtrot {
+    public String name;
+  }
+
+  @Test
+  public void monomorphicTest() throws Exception {
+    PropertyRef id = PropertyRef.of("id");
+
+    Alpha alpha = new Alpha();
+    id.set(alpha, "a");
+    assertThat(alpha.id, is("a"));
+    assertThat(id.get(alpha), is((Object) "a"));
+  }
+
+  /**
+   * We should work across more classes than the inline cache holds
+   */
+  @Test
+  public void megamorphicTest() throws Exception {
+    PropertyRef id = PropertyRef.of("id");
+
+    for (int i = 0; i < 2; i++) {
+      Alpha alpha = new Alpha();
+      alpha.id = "a";
+      Bravo bravo = new Bravo();
+      bravo.setId("b");
+      Charlie charlie = new Charlie();
+      charlie.id = 3;
+      Delta delta = new Delta();
+      delta.id = "d";
+      Echo echo = new Echo();
+      echo.id = "e";
+
+      assertThat(id.get(alpha), is((Object) "a"));
+      assertThat(id.get(bravo), is((Object) "b"));
+      assertThat(id.get(charlie), is((Object) 3));
+      assertThat(id.get(delta), is((Object) "d"));
+      assertThat(id.get(echo), is((Object) "e"));
+    }
+  }
+
+  @Test
+  public void missingTest() {
+    PropertyRef id = PropertyRef.of("id");
+
+    assertThat(id.isPresent(new Foxtrot()), is(false));
+    assertThat(id.find(Foxtrot.class).isPresent(), is(false));
+    assertThat(id.find(Alpha.class).get().getName(), is("id"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingGetTest() throws Exception {
+    PropertyRef.of("id").get(new Foxtrot());
+  }
+
+  public static class Invalid {
+    public Invalid(String id) {}
+
+    public String getId() {
+      return null;
+    }
+  }
+
+  /**
+   * We should keep rejecting a class that is not a valid bean class, without scanning it again
+   */
+  @Test
+  public void invalidTest() {
+    PropertyRef id = PropertyRef.of("id");
+    for (int i = 0; i < 2; i++) {
+      try {
+        id.find(Invalid.class);
+        throw new AssertionError("expected IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        // This is expected
+      }
+    }
+    assertThat(id.find(Alpha.class).get().getName(), is("id"));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullIsPresentTest() {
+    PropertyRef.of("id").isPresent(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullGetTest() throws Exception {
+    PropertyRef.of("id").get(null);
+  }
+}
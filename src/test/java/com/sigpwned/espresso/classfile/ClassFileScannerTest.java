@@ -0,0 +1,327 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.classfile;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.beans.ConstructorProperties;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanProperty;
+import com.sigpwned.espresso.annotation.BeanCreator;
+
+public class ClassFileScannerTest {
+  private static final ClassFileScanner SCANNER =
+      new ClassFileScanner(ClassFileScannerTest.class.getClassLoader());
+
+  public static class Example {
+    public static int ignoredStatic;
+
+    public final int ignoredFinal = 0;
+
+    public boolean alpha;
+
+    private int bravo;
+
+    private List<String> charlie;
+
+    private String delta;
+
+    public int getBravo() {
+      return bravo;
+    }
+
+    public void setBravo(int bravo) {
+      this.bravo = bravo;
+    }
+
+    public List<String> getCharlie() {
+      return charlie;
+    }
+
+    public void setCharlie(List<String> charlie) {
+      this.charlie = charlie;
+    }
+
+    public String getDelta() {
+      return delta;
+    }
+
+    public boolean isEcho() {
+      return false;
+    }
+  }
+
+  @Test
+  public void scanTest() throws Exception {
+    ClassFileBean bean = SCANNER.scan(Example.class.getName());
+
+    assertThat(bean.getName(), is(Example.class.getName()));
+    assertThat(bean.hasCreator(), is(false));
+    assertThat(bean.getProperties(),
+        is(asList(new ClassFileProperty("alpha", "Z", null, true, false),
+            new ClassFileProperty("bravo", "I", null, true, false),
+            new ClassFileProperty("charlie", "Ljava/util/List;",
+                "Ljava/util/List<Ljava/lang/String;>;", true, false))));
+    assertThat(bean.getProperty("charlie").get().getTypeName(), is("java.util.List"));
+
+    assertMatchesReflection(bean, Example.class);
+  }
+
+  @Test
+  public void scanStreamTest() throws Exception {
+    ClassFileBean bean;
+    try (InputStream in = ClassFileScannerTest.class.getClassLoader()
+        .getResourceAsStream(Example.class.getName().replace('.', '/') + ".class")) {
+      bean = SCANNER.scan(in);
+    }
+
+    assertThat(bean, is(SCANNER.scan(Example.class.getName())));
+  }
+
+  public static class GenericBase<T> {
+    private T value;
+
+    private long[] codes;
+
+    public T getValue() {
+      return value;
+    }
+
+    public void setValue(T value) {
+      this.value = value;
+    }
+
+    public long[] getCodes() {
+      return codes;
+    }
+
+    public void setCodes(long[] codes) {
+      this.codes = codes;
+    }
+  }
+
+  public static class GenericChild extends GenericBase<String> {
+    @Override
+    public String getValue() {
+      return super.getValue();
+    }
+  }
+
+  public static class GenericGrandchild extends GenericChild {}
+
+  public static class BoundChild<U extends Number> extends GenericBase<U> {}
+
+  @Test
+  public void inheritanceTest() throws Exception {
+    ClassFileBean bean = SCANNER.scan(GenericChild.class.getName());
+
+    assertThat(bean.getPropertyNames(), is(new LinkedHashSet<>(asList("codes", "value"))));
+    assertThat(bean.getProperty("codes").get().getTypeName(), is("long[]"));
+
+    assertMatchesReflection(bean, GenericChild.class);
+    assertMatchesReflection(SCANNER.scan(GenericGrandchild.class.getName()),
+        GenericGrandchild.class);
+  }
+
+  @Test
+  public void unboundTypeVariableTest() throws Exception {
+    ClassFileBean bean = SCANNER.scan(BoundChild.class.getName());
+
+    assertThat(bean.getProperty("value").get().getTypeName(), is("java.lang.Object"));
+    assertThat(bean.getProperty("value").get().getSignature(), is(Optional.of("TT;")));
+  }
+
+  public static class Point {
+    private final int x;
+    private final int y;
+
+    @BeanCreator({"x", "y"})
+    public Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public int getY() {
+      return y;
+    }
+  }
+
+  @Test
+  public void creatorTest() throws Exception {
+    ClassFileBean bean = SCANNER.scan(Point.class.getName());
+
+    assertThat(bean.hasCreator(), is(true));
+    assertThat(bean.getCreatorProperties().stream().map(ClassFileProperty::getName)
+        .collect(toList()), is(asList("x", "y")));
+    assertThat(bean.getProperty("x").get().isCreated(), is(true));
+    assertThat(bean.getProperty("x").get().isSettable(), is(false));
+
+    assertMatchesReflection(bean, Point.class);
+  }
+
+  public static class BadCreator {
+    @BeanCreator({"x", "z"})
+    public BadCreator(int x, int z) {}
+
+    public int getX() {
+      return 0;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badCreatorTest() throws Exception {
+    SCANNER.scan(BadCreator.class.getName());
+  }
+
+  public static class DefaultConstructorAndCreators {
+    private int x;
+    private String label;
+
+    public DefaultConstructorAndCreators() {}
+
+    @ConstructorProperties({"x"})
+    public DefaultConstructorAndCreators(int x) {
+      this.x = x;
+    }
+
+    @ConstructorProperties({"x", "label"})
+    public DefaultConstructorAndCreators(int x, String label) {
+      this.x = x;
+      this.label = label;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public void setX(int x) {
+      this.x = x;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  @Test
+  public void defaultConstructorAndCreatorsTest() throws Exception {
+    ClassFileBean bean = SCANNER.scan(DefaultConstructorAndCreators.class.getName());
+
+    assertThat(bean.getPropertyNames(), is(new LinkedHashSet<>(asList("x"))));
+    assertThat(bean.hasCreator(), is(false));
+
+    assertMatchesReflection(bean, DefaultConstructorAndCreators.class);
+  }
+
+  public static boolean initialized = false;
+
+  public static class Uninitialized {
+    static {
+      initialized = true;
+    }
+
+    public String name;
+  }
+
+  @Test
+  public void uninitializedTest() throws Exception {
+    ClassFileBean bean =
+        SCANNER.scan("com.sigpwned.espresso.classfile.ClassFileScannerTest$Uninitialized");
+    assertThat(bean.getPropertyNames(), is(new LinkedHashSet<>(asList("name"))));
+    assertThat(initialized, is(false));
+
+    BeanClass beanClass = bean.resolve();
+    assertThat(initialized, is(true));
+    assertThat(beanClass.getPropertyNames(), is(bean.getPropertyNames()));
+  }
+
+  public abstract static class Abstract {
+    public String name;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void abstractTest() throws Exception {
+    SCANNER.scan(Abstract.class.getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void interfaceTest() throws Exception {
+    SCANNER.scan(Runnable.class.getName());
+  }
+
+  public static class NoDefaultConstructor {
+    public String name;
+
+    public NoDefaultConstructor(String name) {
+      this.name = name;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noDefaultConstructorTest() throws Exception {
+    SCANNER.scan(NoDefaultConstructor.class.getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void missingTest() throws Exception {
+    SCANNER.scan("com.example.DoesNotExist");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notClassFileTest() throws Exception {
+    SCANNER.scan(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5}));
+  }
+
+  /**
+   * Checks that the class-file scan agrees with the reflective scan
+   */
+  private static void assertMatchesReflection(ClassFileBean bean, Class<?> rawType) {
+    BeanClass beanClass = BeanClass.scan(rawType);
+
+    List<String> expected = new ArrayList<>();
+    for (BeanProperty property : beanClass)
+      expected.add(property.getName() + ":" + property.getRawType().getTypeName() + ":"
+          + property.isSettable());
+
+    List<String> actual = new ArrayList<>();
+    for (ClassFileProperty property : bean.getProperties())
+      actual.add(
+          property.getName() + ":" + property.getTypeName() + ":" + property.isSettable());
+
+    assertThat(actual, is(expected));
+    assertThat(bean.getCreatorProperties().stream().map(ClassFileProperty::getName)
+        .collect(toList()), is(beanClass.getCreatorProperties().stream()
+            .map(BeanProperty::getName).collect(toList())));
+    assertThat(Optional.of(bean.hasCreator()), is(Optional.of(beanClass.hasCreator())));
+  }
+}
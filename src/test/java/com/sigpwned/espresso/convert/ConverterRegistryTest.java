@@ -0,0 +1,103 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.convert;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanInstance;
+
+public class ConverterRegistryTest {
+  public static class Example {
+    public int alpha;
+    public Instant bravo;
+    public TimeUnit charlie;
+    public Long delta;
+  }
+
+  @Test
+  public void builtInConversionTest() throws InvocationTargetException {
+    ConverterRegistry converters = ConverterRegistry.getDefault();
+
+    BeanInstance instance = BeanInstance.wrap(new Example());
+    instance.set("alpha", " 42 ", converters);
+    instance.set("bravo", 1000L, converters);
+    instance.set("charlie", "SECONDS", converters);
+    instance.set("delta", 7, converters);
+
+    Example example = (Example) instance.getInstance();
+    assertThat(example.alpha, is(42));
+    assertThat(example.bravo, is(Instant.ofEpochMilli(1000L)));
+    assertThat(example.charlie, is(TimeUnit.SECONDS));
+    assertThat(example.delta, is(7L));
+  }
+
+  @Test
+  public void noConversionTest() throws InvocationTargetException {
+    BeanInstance instance = BeanInstance.wrap(new Example());
+    instance.set("alpha", 1, new ConverterRegistry());
+    instance.set("delta", null, new ConverterRegistry());
+
+    assertThat(((Example) instance.getInstance()).alpha, is(1));
+  }
+
+  @Test
+  public void registerInvalidatesCacheTest() throws InvocationTargetException {
+    ConverterRegistry converters = new ConverterRegistry();
+
+    BeanInstance instance = BeanInstance.wrap(new Example());
+    instance.set("alpha", "1", converters);
+    assertThat(((Example) instance.getInstance()).alpha, is(1));
+
+    converters.register(String.class, Integer.class, s -> s.length());
+    instance.set("alpha", "abc", converters);
+    assertThat(((Example) instance.getInstance()).alpha, is(3));
+  }
+
+  @Test
+  public void polymorphicSourceTest() throws InvocationTargetException {
+    ConverterRegistry converters = ConverterRegistry.getDefault();
+
+    BeanInstance instance = BeanInstance.wrap(new Example());
+    Object[] values = {"1", 2, (short) 3, "4", 5, (short) 6};
+    for (int i = 0; i < values.length; i++) {
+      instance.set("delta", values[i], converters);
+      assertThat(((Example) instance.getInstance()).delta, is(i + 1L));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void lossyConversionTest() throws InvocationTargetException {
+    BeanInstance.wrap(new Example()).set("alpha", 1.5, ConverterRegistry.getDefault());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidValueTest() throws InvocationTargetException {
+    BeanInstance.wrap(new Example()).set("alpha", "hello", ConverterRegistry.getDefault());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noConverterTest() throws InvocationTargetException {
+    BeanInstance.wrap(new Example()).set("bravo", new Object(), ConverterRegistry.getDefault());
+  }
+}
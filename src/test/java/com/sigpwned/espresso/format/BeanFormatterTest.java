@@ -0,0 +1,138 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.format;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.InvocationTargetException;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.format.BeanFormatter.Style;
+
+public class BeanFormatterTest {
+  @Retention(RUNTIME)
+  @Target({METHOD, FIELD})
+  public static @interface Secret {
+  }
+
+  public static class Example {
+    public String alpha;
+    public int bravo;
+    @Secret
+    public String charlie;
+    public long[] delta;
+  }
+
+  public static Example example() {
+    Example result = new Example();
+    result.alpha = "hello world";
+    result.bravo = 5;
+    result.charlie = "password";
+    result.delta = new long[] {1L, 2L};
+    return result;
+  }
+
+  @Test
+  public void bracketedTest() throws InvocationTargetException {
+    BeanFormatter formatter = BeanFormatter.of(BeanClass.scan(Example.class));
+
+    assertThat(formatter.format(example()),
+        is("Example[alpha=hello world, bravo=5, charlie=password, delta=[1, 2]]"));
+  }
+
+  @Test
+  public void keyValueTest() throws InvocationTargetException {
+    BeanFormatter formatter =
+        BeanFormatter.of(BeanClass.scan(Example.class)).withStyle(Style.KEY_VALUE);
+
+    Example example = example();
+    example.charlie = "say \"hi\"";
+
+    assertThat(formatter.format(example),
+        is("alpha=\"hello world\" bravo=5 charlie=\"say \\\"hi\\\"\" delta=\"[1, 2]\""));
+  }
+
+  @Test
+  public void redactionTest() throws InvocationTargetException {
+    BeanFormatter formatter =
+        BeanFormatter.of(BeanClass.scan(Example.class)).withRedactedAnnotation(Secret.class);
+
+    assertThat(formatter.format(example()),
+        is("Example[alpha=hello world, bravo=5, charlie=***, delta=[1, 2]]"));
+  }
+
+  @Test
+  public void truncationTest() throws InvocationTargetException {
+    BeanFormatter formatter = BeanFormatter.of(BeanClass.scan(Example.class)).withMaxValueLength(5);
+
+    assertThat(formatter.format(example()),
+        is("Example[alpha=hello..., bravo=5, charlie=passw..., delta=[1, 2...]"));
+  }
+
+  @Test
+  public void formatToTest() throws InvocationTargetException, IOException {
+    BeanFormatter formatter = BeanFormatter.of(BeanClass.scan(Example.class));
+
+    StringBuilder buf = new StringBuilder("prefix ");
+    formatter.formatTo(buf, new Example());
+
+    assertThat(buf.toString(),
+        is("prefix Example[alpha=null, bravo=0, charlie=null, delta=null]"));
+
+    StringWriter out = new StringWriter();
+    formatter.appendTo(out, new Example());
+
+    assertThat(out.toString(), is("Example[alpha=null, bravo=0, charlie=null, delta=null]"));
+  }
+
+  @Test
+  public void surrogateTruncationTest() throws InvocationTargetException {
+    BeanFormatter formatter = BeanFormatter.of(BeanClass.scan(Example.class)).withMaxValueLength(5);
+
+    // U+1F600 is a surrogate pair that straddles the limit, so it is dropped whole
+    Example example = new Example();
+    example.alpha = "abcd\uD83D\uDE00";
+
+    assertThat(formatter.format(example),
+        is("Example[alpha=abcd..., bravo=0, charlie=null, delta=null]"));
+  }
+
+  @Test
+  public void appendToKeyValueTest() throws InvocationTargetException, IOException {
+    BeanFormatter formatter = BeanFormatter.of(BeanClass.scan(Example.class))
+        .withStyle(Style.KEY_VALUE).withMaxValueLength(8);
+
+    Example example = example();
+    example.charlie = "a\\b \"c\" d";
+
+    StringWriter out = new StringWriter();
+    formatter.appendTo(out, example);
+
+    assertThat(out.toString(),
+        is("alpha=\"hello wo...\" bravo=5 charlie=\"a\\\\b \\\"c\\\" ...\" delta=\"[1, 2]\""));
+  }
+}
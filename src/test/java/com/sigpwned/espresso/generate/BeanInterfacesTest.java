@@ -0,0 +1,238 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.generate;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanInstance;
+import com.sigpwned.espresso.annotation.BeanInterface;
+import com.sigpwned.espresso.validation.BeanValidator;
+import com.sigpwned.espresso.validation.NotNull;
+import com.sigpwned.espresso.validation.Size;
+import com.sigpwned.espresso.validation.Violation;
+
+public class BeanInterfacesTest {
+  @BeanInterface
+  public static interface Person {
+    public String getName();
+
+    public void setName(String name);
+
+    public int getAge();
+
+    public void setAge(int age);
+
+    public boolean isActive();
+
+    public long getId();
+
+    public double getScore();
+
+    public List<String> getTags();
+
+    public int[] getCodes();
+
+    public default String getDisplayName() {
+      return getName() + " (" + getAge() + ")";
+    }
+  }
+
+  @Test
+  public void implementTest() throws Exception {
+    Class<? extends Person> implementation = BeanInterfaces.implement(Person.class);
+    assertThat(BeanInterfaces.implement(Person.class) == implementation, is(true));
+
+    Person person = implementation.getConstructor().newInstance();
+    person.setName("alpha");
+    person.setAge(21);
+    assertThat(person.getName(), is("alpha"));
+    assertThat(person.getAge(), is(21));
+    assertThat(person.isActive(), is(false));
+    assertThat(person.getDisplayName(), is("alpha (21)"));
+  }
+
+  @Test
+  public void scanTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Person.class);
+
+    assertThat(bc.getRawType() == BeanInterfaces.implement(Person.class), is(true));
+    assertThat(bc.getPropertyNames(),
+        is(new HashSet<>(asList("active", "age", "codes", "id", "name", "score", "tags"))));
+
+    Type tags = bc.getProperty("tags").get().getGenericType();
+    assertThat(tags, is(Holder.class.getField("tags").getGenericType()));
+
+    BeanInstance instance = bc.newInstance();
+    instance.set("id", 7L);
+    instance.set("active", true);
+    instance.set("tags", asList("x", "y"));
+    Person person = (Person) instance.getInstance();
+    assertThat(person.getId(), is(7L));
+    assertThat(person.isActive(), is(true));
+    assertThat(person.getTags(), is(asList("x", "y")));
+  }
+
+  public static class Holder {
+    public List<String> tags;
+  }
+
+  @Test
+  public void equalsHashCodeToStringTest() throws Exception {
+    Class<? extends Person> implementation = BeanInterfaces.implement(Person.class);
+    Person a = implementation.getConstructor().newInstance();
+    Person b = implementation.getConstructor().newInstance();
+    BeanInstance.wrap(a).set("score", 1.5);
+    BeanInstance.wrap(b).set("score", 1.5);
+    BeanInstance.wrap(a).set("codes", new int[] {1, 2});
+    BeanInstance.wrap(b).set("codes", new int[] {1, 2});
+    a.setName("alpha");
+    b.setName("alpha");
+
+    assertThat(a, is(b));
+    assertThat(a.hashCode(), is(b.hashCode()));
+
+    b.setAge(1);
+    assertThat(a, is(not(b)));
+
+    a.setAge(1);
+    a.setName(null);
+    assertThat(a.toString().startsWith("Person [active=false, age=1, codes=[I@"), is(true));
+    assertThat(a.toString().endsWith(", id=0, name=null, score=1.5, tags=null]"), is(true));
+  }
+
+  public static interface Base<T> {
+    public T getValue();
+
+    public void setValue(T value);
+  }
+
+  public static interface Named {
+    public Object getName();
+  }
+
+  @BeanInterface
+  public static interface StringValue extends Base<String>, Named {
+    @Override
+    public String getName();
+  }
+
+  /**
+   * We should resolve inherited type variables and implement the erased methods with bridges
+   */
+  @Test
+  public void genericSuperinterfaceTest() throws Exception {
+    BeanClass bc = BeanClass.scan(StringValue.class);
+
+    assertThat(bc.getProperty("value").get().getGenericType(), is((Type) String.class));
+    assertThat(bc.getProperty("name").get().getGenericType(), is((Type) String.class));
+
+    StringValue value = (StringValue) bc.newInstance().getInstance();
+    @SuppressWarnings("unchecked")
+    Base<Object> base = (Base<Object>) (Base<?>) value;
+    base.setValue("hello");
+    assertThat(value.getValue(), is("hello"));
+    assertThat(((Named) value).getName(), is((Object) null));
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  public static @interface Everything {
+    public boolean z();
+
+    public char c();
+
+    public long j();
+
+    public double d();
+
+    public String s();
+
+    public Class<?> type();
+
+    public TimeUnit unit();
+
+    public Size size();
+
+    public int[] codes();
+  }
+
+  @BeanInterface
+  public static interface Annotated {
+    @NotNull
+    @Everything(z = true, c = 'x', j = 1L << 40, d = 0.5, s = "hello", type = String[].class,
+        unit = TimeUnit.SECONDS, size = @Size(max = 3), codes = {1, 2})
+    public String getName();
+
+    @Size(min = 1, max = 5)
+    public void setName(String name);
+  }
+
+  /**
+   * We should copy interface method annotations onto the implementation's accessors
+   */
+  @Test
+  public void annotationsTest() throws Exception {
+    BeanClass bc = BeanClass.scan(Annotated.class);
+    Method getter = bc.getRawType().getMethod("getName");
+    Method setter = bc.getRawType().getMethod("setName", String.class);
+
+    assertThat(getter.getAnnotation(Everything.class),
+        is(Annotated.class.getMethod("getName").getAnnotation(Everything.class)));
+    assertThat(setter.getAnnotation(Size.class),
+        is(Annotated.class.getMethod("setName", String.class).getAnnotation(Size.class)));
+
+    Object instance = bc.newInstance().getInstance();
+    List<Violation> violations = BeanValidator.of(bc).validate(instance);
+    assertThat(violations.size(), is(1));
+    assertThat(violations.get(0).getProperty().getName(), is("name"));
+
+    ((Annotated) instance).setName("toolong");
+    violations = BeanValidator.of(bc).validate(instance);
+    assertThat(violations.size(), is(1));
+  }
+
+  public static interface NotABean {
+    public void run();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notABeanTest() {
+    BeanInterfaces.implement(NotABean.class);
+  }
+
+  public static interface WriteOnly {
+    public void setValue(int value);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noGetterTest() {
+    BeanInterfaces.implement(WriteOnly.class);
+  }
+}
@@ -0,0 +1,68 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.graal;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.util.LinkedHashSet;
+import org.junit.Test;
+
+public class ReflectConfigTest {
+  public static class Parent {
+    private int alpha;
+
+    public int getAlpha() {
+      return alpha;
+    }
+
+    public void setAlpha(int alpha) {
+      this.alpha = alpha;
+    }
+  }
+
+  public static class Child extends Parent {
+    public String bravo;
+  }
+
+  @Test
+  public void generateTest() {
+    String json = ReflectConfig.generate(asList(Child.class));
+
+    assertThat(json, containsString("\"name\": \"" + Child.class.getName() + "\""));
+    assertThat(json, containsString("\"name\": \"" + Parent.class.getName() + "\""));
+    assertThat(json, containsString("\"allDeclaredMethods\": true"));
+    assertThat(json, not(containsString("java.lang.Object")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void generateInvalidTest() {
+    ReflectConfig.generate(asList(Runnable.class));
+  }
+
+  @Test
+  public void beanClassNamesTest() {
+    assertThat(ReflectConfig.getBeanClassNames(getClass().getClassLoader()),
+        is(new LinkedHashSet<>(singleton(Child.class.getName()))));
+  }
+}
@@ -0,0 +1,302 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jdbc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import java.beans.ConstructorProperties;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+
+public class BeanRowMapperTest {
+  public static class Person {
+    private int id;
+    private String firstName;
+    private Long score;
+    private boolean active;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getFirstName() {
+      return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+      this.firstName = firstName;
+    }
+
+    public Long getScore() {
+      return score;
+    }
+
+    public void setScore(Long score) {
+      this.score = score;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+  }
+
+  public static class Grade {
+    private char letter;
+
+    public char getLetter() {
+      return letter;
+    }
+
+    public void setLetter(char letter) {
+      this.letter = letter;
+    }
+  }
+
+  public static ResultSet resultSet(AtomicInteger labelLookups, String[] labels,
+      Object[]... rows) {
+    return resultSet(labelLookups, false, labels, rows);
+  }
+
+  /**
+   * A minimal {@link ResultSet} over the given rows that supports only the methods the mapper
+   * should be calling. If freshMetadata is true, then every call to getMetaData returns a new
+   * object, like some real drivers do.
+   */
+  public static ResultSet resultSet(AtomicInteger labelLookups, boolean freshMetadata,
+      String[] labels, Object[]... rows) {
+    Supplier<ResultSetMetaData> metadataSupplier = () -> (ResultSetMetaData) Proxy.newProxyInstance(
+        ResultSetMetaData.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getColumnCount":
+              return labels.length;
+            case "getColumnLabel":
+              labelLookups.incrementAndGet();
+              return labels[(Integer) args[0] - 1];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    ResultSetMetaData metadata = metadataSupplier.get();
+
+    int[] row = new int[] {-1};
+    Object[] lastValue = new Object[1];
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+        new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "next":
+              row[0] = row[0] + 1;
+              return row[0] < rows.length;
+            case "getMetaData":
+              return freshMetadata ? metadataSupplier.get() : metadata;
+            case "wasNull":
+              return lastValue[0] == null;
+            case "getInt":
+              lastValue[0] = rows[row[0]][(Integer) args[0] - 1];
+              return lastValue[0] == null ? 0 : ((Number) lastValue[0]).intValue();
+            case "getLong":
+              lastValue[0] = rows[row[0]][(Integer) args[0] - 1];
+              return lastValue[0] == null ? 0L : ((Number) lastValue[0]).longValue();
+            case "getBoolean":
+              lastValue[0] = rows[row[0]][(Integer) args[0] - 1];
+              return lastValue[0] == null ? false : (Boolean) lastValue[0];
+            case "getString":
+              lastValue[0] = rows[row[0]][(Integer) args[0] - 1];
+              return lastValue[0];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  @Test
+  public void mapTest() throws SQLException, InvocationTargetException {
+    ResultSet rs = resultSet(new AtomicInteger(),
+        new String[] {"ID", "first_name", "score", "active", "unmapped"},
+        new Object[] {1, "alpha", 10L, true, "ignored"});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Person.class));
+
+    assertThat(rs.next(), is(true));
+
+    Person p = (Person) mapper.map(rs);
+    assertThat(p.getId(), is(1));
+    assertThat(p.getFirstName(), is("alpha"));
+    assertThat(p.getScore(), is(10L));
+    assertThat(p.isActive(), is(true));
+  }
+
+  @Test
+  public void nullTest() throws SQLException, InvocationTargetException {
+    ResultSet rs = resultSet(new AtomicInteger(), new String[] {"id", "first_name", "score"},
+        new Object[] {null, null, null});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Person.class));
+
+    assertThat(rs.next(), is(true));
+
+    Person p = (Person) mapper.map(rs);
+    assertThat(p.getId(), is(0));
+    assertThat(p.getFirstName(), is(nullValue()));
+    assertThat(p.getScore(), is(nullValue()));
+  }
+
+  /**
+   * We should only resolve column labels once per result set, not once per row
+   */
+  @Test
+  public void mapAllTest() throws SQLException, InvocationTargetException {
+    AtomicInteger labelLookups = new AtomicInteger();
+    ResultSet rs = resultSet(labelLookups, new String[] {"id", "firstName"},
+        new Object[] {1, "alpha"}, new Object[] {2, "bravo"}, new Object[] {3, "charlie"});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Person.class));
+
+    List<Object> people = mapper.mapAll(rs);
+
+    assertThat(people.size(), is(3));
+    assertThat(((Person) people.get(0)).getFirstName(), is("alpha"));
+    assertThat(((Person) people.get(1)).getId(), is(2));
+    assertThat(((Person) people.get(2)).getFirstName(), is("charlie"));
+    assertThat(labelLookups.get(), is(2));
+  }
+
+  /**
+   * Drivers that return new metadata for each call should still reuse the mapping, and a bound
+   * reader should resolve column labels only once
+   */
+  @Test
+  public void freshMetadataTest() throws SQLException, InvocationTargetException {
+    AtomicInteger labelLookups = new AtomicInteger();
+    ResultSet rs = resultSet(labelLookups, true, new String[] {"id", "firstName"},
+        new Object[] {1, "alpha"}, new Object[] {2, "bravo"}, new Object[] {3, "charlie"});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Person.class));
+
+    assertThat(rs.next(), is(true));
+    assertThat(((Person) mapper.map(rs)).getFirstName(), is("alpha"));
+
+    BeanRowMapper.Reader reader = mapper.bind(rs);
+    assertThat(rs.next(), is(true));
+    assertThat(((Person) reader.map()).getFirstName(), is("bravo"));
+    assertThat(rs.next(), is(true));
+    assertThat(((Person) reader.map()).getId(), is(3));
+
+    assertThat(labelLookups.get(), is(4));
+  }
+
+  /**
+   * One mapper should serve result sets with different columns in turn
+   */
+  @Test
+  public void alternatingQueriesTest() throws SQLException, InvocationTargetException {
+    ResultSet rs1 = resultSet(new AtomicInteger(), true, new String[] {"id"},
+        new Object[] {1}, new Object[] {2});
+    ResultSet rs2 = resultSet(new AtomicInteger(), true, new String[] {"first_name"},
+        new Object[] {"alpha"}, new Object[] {"bravo"});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Person.class));
+
+    assertThat(rs1.next(), is(true));
+    assertThat(((Person) mapper.map(rs1)).getId(), is(1));
+    assertThat(rs2.next(), is(true));
+    assertThat(((Person) mapper.map(rs2)).getFirstName(), is("alpha"));
+    assertThat(rs1.next(), is(true));
+    assertThat(((Person) mapper.map(rs1)).getId(), is(2));
+    assertThat(rs2.next(), is(true));
+    assertThat(((Person) mapper.map(rs2)).getFirstName(), is("bravo"));
+  }
+
+  @Test
+  public void charTest() throws SQLException, InvocationTargetException {
+    ResultSet rs = resultSet(new AtomicInteger(), new String[] {"letter"}, new Object[] {"B"},
+        new Object[] {null}, new Object[] {"toolong"});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Grade.class));
+    BeanRowMapper.Reader reader = mapper.bind(rs);
+
+    assertThat(rs.next(), is(true));
+    assertThat(((Grade) reader.map()).getLetter(), is('B'));
+    assertThat(rs.next(), is(true));
+    assertThat(((Grade) reader.map()).getLetter(), is('\0'));
+    assertThat(rs.next(), is(true));
+    try {
+      reader.map();
+      fail();
+    } catch (SQLException e) {
+      // Good
+    }
+  }
+
+  public static class Account {
+    private final int id;
+    private final String owner;
+
+    @ConstructorProperties({"id", "owner"})
+    public Account(int id, String owner) {
+      this.id = id;
+      this.owner = owner;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getOwner() {
+      return owner;
+    }
+  }
+
+  /**
+   * Classes without a default constructor should be created through their creator
+   */
+  @Test
+  public void creatorTest() throws SQLException, InvocationTargetException {
+    ResultSet rs = resultSet(new AtomicInteger(), new String[] {"id", "owner"},
+        new Object[] {1, "alpha"}, new Object[] {null, null});
+
+    BeanRowMapper mapper = BeanRowMapper.of(BeanClass.scan(Account.class));
+
+    List<Object> accounts = mapper.mapAll(rs);
+    assertThat(accounts.size(), is(2));
+    assertThat(((Account) accounts.get(0)).getId(), is(1));
+    assertThat(((Account) accounts.get(0)).getOwner(), is("alpha"));
+    assertThat(((Account) accounts.get(1)).getId(), is(0));
+    assertThat(((Account) accounts.get(1)).getOwner(), is(nullValue()));
+  }
+}
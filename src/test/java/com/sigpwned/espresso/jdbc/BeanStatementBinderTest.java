@@ -0,0 +1,74 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jdbc;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.jdbc.BeanRowMapperTest.Person;
+
+public class BeanStatementBinderTest {
+  /**
+   * A {@link PreparedStatement} that records the calls made against it
+   */
+  public static PreparedStatement preparedStatement(List<String> calls) {
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+          calls.add(method.getName() + (args == null ? "[]" : asList(args)));
+          return null;
+        });
+  }
+
+  @Test
+  public void addBatchesTest() throws SQLException, InvocationTargetException {
+    Person alpha = new Person();
+    alpha.setId(1);
+    alpha.setFirstName("alpha");
+    alpha.setScore(10L);
+
+    Person bravo = new Person();
+    bravo.setId(2);
+
+    List<String> calls = new ArrayList<>();
+
+    BeanStatementBinder binder =
+        BeanStatementBinder.of(BeanClass.scan(Person.class), "id", "firstName", "score");
+    binder.addBatches(preparedStatement(calls), asList(alpha, bravo));
+
+    assertThat(calls,
+        is(asList("setInt[1, 1]", "setString[2, alpha]", "setLong[3, 10]", "addBatch[]",
+            "setInt[1, 2]", "setNull[2, " + Types.VARCHAR + "]", "setNull[3, " + Types.BIGINT + "]",
+            "addBatch[]")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noSuchPropertyTest() {
+    BeanStatementBinder.of(BeanClass.scan(Person.class), "id", "lastName");
+  }
+}
@@ -0,0 +1,148 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+import com.sigpwned.espresso.BeanInstance;
+
+public class EspressoMetricsTest {
+  public static class Example {
+    public int x;
+  }
+
+  public static class Invalid {
+    public Invalid(int x) {}
+  }
+
+  private final List<String> events = new ArrayList<>();
+
+  private final EspressoMetricsListener listener = new EspressoMetricsListener() {
+    @Override
+    public void cacheHit(Class<?> rawType) {
+      events.add("hit " + rawType.getSimpleName());
+    }
+
+    @Override
+    public void cacheMiss(Class<?> rawType) {
+      events.add("miss " + rawType.getSimpleName());
+    }
+
+    @Override
+    public void scanRejected(Class<?> rawType, long nanos, IllegalArgumentException cause) {
+      events.add("rejected " + rawType.getSimpleName());
+    }
+  };
+
+  @Before
+  public void setupMetricsTest() {
+    EspressoMetrics.setEnabled(true);
+    EspressoMetrics.getMetrics().reset();
+    EspressoMetrics.addListener(listener);
+  }
+
+  @After
+  public void cleanupMetricsTest() {
+    EspressoMetrics.removeListener(listener);
+    EspressoMetrics.setEnabled(false);
+  }
+
+  @Test
+  public void scanTest() {
+    BeanClass.scan(Example.class);
+    BeanClass.scan(Example.class);
+    try {
+      BeanClass.scan(Invalid.class);
+    } catch (IllegalArgumentException e) {
+      // This is expected
+    }
+
+    EspressoMetricsMXBean metrics = EspressoMetrics.getMetrics();
+    assertThat(metrics.getCacheHitCount() + metrics.getCacheMissCount(), is(3L));
+    assertThat(metrics.getScanRejectionCount(), is(1L));
+    assertThat(metrics.getScanCount() + metrics.getScanRejectionCount(),
+        is(metrics.getCacheMissCount()));
+    assertThat(events.contains("rejected Invalid"), is(true));
+    assertThat(events.contains("hit Example"), is(true));
+  }
+
+  @Test
+  public void accessTest() throws InvocationTargetException {
+    BeanInstance instance = BeanClass.scan(Example.class).newInstance();
+    instance.set("x", 1);
+    instance.get("x");
+    instance.get(0);
+    instance.getBeanClass().get(0).getInt(instance.getInstance());
+
+    EspressoMetricsMXBean metrics = EspressoMetrics.getMetrics();
+    assertThat(metrics.getPropertyReadCounts().get(Example.class.getName()), is(3L));
+    assertThat(metrics.getPropertyWriteCounts().get(Example.class.getName()), is(1L));
+  }
+
+  @Test
+  public void untimedAccessTest() throws InvocationTargetException {
+    EspressoMetrics.removeListener(listener);
+    assertThat(EspressoMetrics.isTimed(), is(false));
+
+    BeanInstance instance = BeanClass.scan(Example.class).newInstance();
+    instance.getBeanClass().get(0).setInt(instance.getInstance(), 1);
+    instance.get("x");
+    instance.getBeanClass().get(0).getInt(instance.getInstance());
+
+    EspressoMetricsMXBean metrics = EspressoMetrics.getMetrics();
+    assertThat(metrics.getPropertyReadCounts().get(Example.class.getName()), is(2L));
+    assertThat(metrics.getPropertyWriteCounts().get(Example.class.getName()), is(1L));
+
+    metrics.reset();
+    instance.get("x");
+    assertThat(metrics.getPropertyReadCounts().get(Example.class.getName()), is(1L));
+    assertThat(metrics.getPropertyWriteCounts().isEmpty(), is(true));
+  }
+
+  @Test
+  public void disabledTest() throws InvocationTargetException {
+    EspressoMetrics.setEnabled(false);
+
+    BeanClass.scan(Example.class).newInstance().get("x");
+
+    assertThat(events.isEmpty(), is(true));
+    assertThat(EspressoMetrics.getMetrics().getPropertyReadCounts().isEmpty(), is(true));
+  }
+
+  @Test
+  public void jmxTest() throws JMException {
+    BeanClass.scan(Example.class);
+
+    Object hits = ManagementFactory.getPlatformMBeanServer()
+        .getAttribute(new ObjectName(EspressoMetrics.OBJECT_NAME), "CacheHitCount");
+
+    assertThat(hits, is(EspressoMetrics.getMetrics().getCacheHitCount()));
+  }
+}
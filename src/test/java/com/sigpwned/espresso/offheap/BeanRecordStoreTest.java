@@ -0,0 +1,305 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.offheap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.beans.ConstructorProperties;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+
+public class BeanRecordStoreTest {
+  public static class Trade {
+    public long id;
+    public double price;
+    public int quantity;
+    public boolean buy;
+    public String symbol;
+  }
+
+  @Test
+  public void layoutTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+
+    // buy(1) + id(8) + price(8) + quantity(4) + symbol(2 + 8) = 31, padded to 32
+    assertThat(layout.getRecordSize(), is(32));
+    assertThat(layout.getOffset(1), is(0));
+    assertThat(layout.getOffset(2), is(8));
+  }
+
+  public static class Mixed {
+    public String a;
+    public short b;
+    public int c;
+  }
+
+  @Test
+  public void stringsLastTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Mixed.class), 3);
+
+    // c(4) + b(2) + a(2 + 3) = 11, padded to 16
+    assertThat(layout.getOffset(2), is(0));
+    assertThat(layout.getOffset(1), is(4));
+    assertThat(layout.getOffset(0), is(6));
+    assertThat(layout.getRecordSize(), is(16));
+  }
+
+  public static class Empty {
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyLayoutTest() {
+    BeanRecordLayout.of(BeanClass.scan(Empty.class), 8);
+  }
+
+  public static class Boxed {
+    public Integer value;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void boxedTypeTest() {
+    BeanRecordLayout.of(BeanClass.scan(Boxed.class), 8);
+  }
+
+  @Test
+  public void directTest() throws InvocationTargetException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+    BeanRecordStore store = BeanRecordStore.allocateDirect(layout, 10);
+
+    BeanRecord record = store.newRecord();
+    for (int i = 0; i < 10; i++) {
+      Trade trade = new Trade();
+      trade.id = i;
+      trade.price = i * 1.5;
+      trade.quantity = i * 10;
+      trade.buy = i % 2 == 0;
+      trade.symbol = i == 3 ? null : "S" + i;
+      record.moveTo(i).writeFrom(trade);
+    }
+
+    record.moveTo(4);
+    assertThat(record.getLong(1), is(4L));
+    assertThat(record.getDouble(2), is(6.0));
+    assertThat(record.getString(4), is("S4"));
+
+    Trade trade = (Trade) record.moveTo(3).toBean();
+    assertThat(trade.quantity, is(30));
+    assertThat(trade.buy, is(false));
+    assertThat(trade.symbol, is(nullValue()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void stringTooLongTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 4);
+    BeanRecordStore.allocateDirect(layout, 1).newRecord().setString(4, "TOOLONG");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void typeMismatchTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 4);
+    BeanRecordStore.allocateDirect(layout, 1).newRecord().getInt(1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void corruptStringLengthTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 4);
+    BeanRecordStore store = BeanRecordStore.allocateDirect(layout, 1);
+    BeanRecord record = store.newRecord();
+    store.getSegment(0).putShort(layout.getOffset(4), (short) 100);
+    record.getString(4);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void emptyStoreTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 4);
+    BeanRecordStore store = BeanRecordStore.allocateDirect(layout, 0);
+    assertThat(store.getCapacity(), is(0L));
+    store.newRecord().getLong(1);
+  }
+
+  @Test
+  public void mappedTest() throws IOException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+
+    File file = File.createTempFile("trades.", ".bin");
+    try {
+      BeanRecordStore writable = BeanRecordStore.map(layout, file.toPath(), MapMode.READ_WRITE, 3);
+      writable.newRecord().moveTo(2).setString(4, "ABC");
+      writable.force();
+
+      assertThat(file.length(), is(BeanRecordStore.HEADER_SIZE + 3L * layout.getRecordSize()));
+
+      BeanRecordStore readable = BeanRecordStore.map(layout, file.toPath(), MapMode.READ_ONLY, 3);
+      assertThat(readable.newRecord().moveTo(2).getString(4), is("ABC"));
+
+      BeanRecordStore derived = BeanRecordStore.map(layout, file.toPath());
+      assertThat(derived.getCapacity(), is(3L));
+      assertThat(derived.newRecord().moveTo(2).getString(4), is("ABC"));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mappedCapacityMismatchTest() throws IOException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+
+    File file = File.createTempFile("trades.", ".bin");
+    try {
+      BeanRecordStore.map(layout, file.toPath(), MapMode.READ_WRITE, 3).force();
+      BeanRecordStore.map(layout, file.toPath(), MapMode.READ_ONLY, 4);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void mappedLayoutMismatchTest() throws IOException {
+    File file = File.createTempFile("trades.", ".bin");
+    try {
+      BeanRecordStore
+          .map(BeanRecordLayout.of(BeanClass.scan(Trade.class), 8), file.toPath(),
+              MapMode.READ_WRITE, 3)
+          .force();
+      BeanRecordStore.map(BeanRecordLayout.of(BeanClass.scan(Trade.class), 9), file.toPath());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void mappedPartialRecordTest() throws IOException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+
+    File file = File.createTempFile("trades.", ".bin");
+    try {
+      BeanRecordStore.map(layout, file.toPath(), MapMode.READ_WRITE, 3).force();
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        raf.setLength(raf.length() - 1);
+      }
+      BeanRecordStore.map(layout, file.toPath());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void mappedNotAStoreTest() throws IOException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+
+    File file = File.createTempFile("trades.", ".bin");
+    try {
+      Files.write(file.toPath(), new byte[BeanRecordStore.HEADER_SIZE + layout.getRecordSize()]);
+      BeanRecordStore.map(layout, file.toPath());
+    } finally {
+      file.delete();
+    }
+  }
+
+  public static class Primitives {
+    public boolean a;
+    public byte b;
+    public short c;
+    public char d;
+    public int e;
+    public long f;
+    public float g;
+    public double h;
+  }
+
+  @Test
+  public void primitivesRoundTripTest() throws InvocationTargetException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Primitives.class), 0);
+    BeanRecord record = BeanRecordStore.allocateDirect(layout, 1).newRecord();
+
+    Primitives original = new Primitives();
+    original.a = true;
+    original.b = 1;
+    original.c = 2;
+    original.d = 'x';
+    original.e = 3;
+    original.f = 4L;
+    original.g = 5.0f;
+    original.h = 6.0;
+    record.writeFrom(original);
+
+    Primitives copy = (Primitives) record.toBean();
+    assertThat(copy.a, is(true));
+    assertThat(copy.b, is((byte) 1));
+    assertThat(copy.c, is((short) 2));
+    assertThat(copy.d, is('x'));
+    assertThat(copy.e, is(3));
+    assertThat(copy.f, is(4L));
+    assertThat(copy.g, is(5.0f));
+    assertThat(copy.h, is(6.0));
+  }
+
+  @Test
+  public void nullPrimitiveTest() {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Trade.class), 8);
+    BeanRecord record = BeanRecordStore.allocateDirect(layout, 1).newRecord();
+    try {
+      record.set(3, null);
+      throw new AssertionError("expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage().contains("quantity"), is(true));
+    }
+  }
+
+  public static class Quote {
+    private final double price;
+    private final String symbol;
+
+    @ConstructorProperties({"price", "symbol"})
+    public Quote(double price, String symbol) {
+      this.price = price;
+      this.symbol = symbol;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+
+    public String getSymbol() {
+      return symbol;
+    }
+  }
+
+  /**
+   * Classes without a default constructor should be created through their creator
+   */
+  @Test
+  public void creatorTest() throws InvocationTargetException {
+    BeanRecordLayout layout = BeanRecordLayout.of(BeanClass.scan(Quote.class), 8);
+    BeanRecord record = BeanRecordStore.allocateDirect(layout, 1).newRecord();
+    record.writeFrom(new Quote(1.5, "ABC"));
+
+    Quote quote = (Quote) record.toBean();
+    assertThat(quote.getPrice(), is(1.5));
+    assertThat(quote.getSymbol(), is("ABC"));
+  }
+}
@@ -0,0 +1,221 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.table;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.beans.ConstructorProperties;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
+import org.junit.Test;
+import com.sigpwned.espresso.table.BeanColumn.DictionaryColumn;
+import com.sigpwned.espresso.table.BeanColumn.IntColumn;
+
+public class BeanTableTest {
+  public static class Point {
+    public int x;
+    public double y;
+    public String label;
+
+    public Point() {}
+
+    public Point(int x, double y, String label) {
+      this.x = x;
+      this.y = y;
+      this.label = label;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(label, x, y);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Point other = (Point) obj;
+      return Objects.equals(label, other.label) && x == other.x
+          && Double.doubleToLongBits(y) == Double.doubleToLongBits(other.y);
+    }
+  }
+
+  public static class Primitives {
+    public boolean z;
+    public byte b;
+    public short s;
+    public char c;
+    public int i;
+    public long j;
+    public float f;
+    public double d;
+  }
+
+  /**
+   * Every primitive column type should copy values in and out of beans
+   */
+  @Test
+  public void primitivesRoundTripTest() throws InvocationTargetException {
+    BeanTable<Primitives> table = BeanTable.of(Primitives.class);
+
+    Primitives p = new Primitives();
+    p.z = true;
+    p.b = (byte) 1;
+    p.s = (short) 2;
+    p.c = 'c';
+    p.i = 3;
+    p.j = 4L;
+    p.f = 5.0f;
+    p.d = 6.0;
+    table.add(p);
+    table.set(0, table.get(0));
+
+    Primitives q = table.get(0);
+    assertThat(q.z, is(true));
+    assertThat(q.b, is((byte) 1));
+    assertThat(q.s, is((short) 2));
+    assertThat(q.c, is('c'));
+    assertThat(q.i, is(3));
+    assertThat(q.j, is(4L));
+    assertThat(q.f, is(5.0f));
+    assertThat(q.d, is(6.0));
+  }
+
+  @Test
+  public void roundTripTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+
+    for (int i = 0; i < 100; i++)
+      table.add(new Point(i, i / 2.0, i % 3 == 0 ? null : "p" + i));
+
+    assertThat(table.size(), is(100));
+    for (int i = 0; i < 100; i++)
+      assertThat(table.get(i), is(new Point(i, i / 2.0, i % 3 == 0 ? null : "p" + i)));
+  }
+
+  @Test
+  public void columnTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+    table.add(new Point(1, 1.0, "a"));
+    table.add(new Point(2, 2.0, "b"));
+
+    BeanColumn x = table.getColumn("x");
+    assertThat(x, instanceOf(IntColumn.class));
+
+    int sum = 0;
+    for (int i = 0; i < table.size(); i++)
+      sum = sum + x.getInt(i);
+    assertThat(sum, is(3));
+  }
+
+  @Test
+  public void rowTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+    table.add(new Point(1, 1.0, "a"));
+    table.add(new Point(2, 2.0, "b"));
+
+    BeanTable<Point>.Row row = table.newRow();
+
+    assertThat(row.moveTo(1).get("label"), is("b"));
+    assertThat(row.getDouble(2), is(2.0));
+
+    row.set("x", 7);
+    assertThat(table.get(1).x, is(7));
+  }
+
+  @Test
+  public void dictionaryTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class, true);
+    table.add(new Point(1, 1.0, new String("a")));
+    table.add(new Point(2, 2.0, new String("a")));
+    table.add(new Point(3, 3.0, null));
+
+    DictionaryColumn label = (DictionaryColumn) table.getColumn("label");
+
+    assertThat(label.getDictionarySize(), is(1));
+    assertThat(label.get(0), sameInstance(label.get(1)));
+    assertThat(label.get(2), is(nullValue()));
+    assertThat(table.get(1).label, is("a"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void outOfBoundsTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+    table.add(new Point(1, 1.0, "a"));
+    table.get(1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void columnOutOfBoundsTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+    table.add(new Point(1, 1.0, "a"));
+
+    // The column has spare capacity, but row 1 is not part of the table
+    table.getColumn("x").getInt(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void primitiveNullTest() throws InvocationTargetException {
+    BeanTable<Point> table = BeanTable.of(Point.class);
+    table.add(new Point(1, 1.0, "a"));
+    table.getColumn("x").set(0, null);
+  }
+
+  public static class ImmutablePoint {
+    private final int x;
+    private final String label;
+
+    @ConstructorProperties({"x", "label"})
+    public ImmutablePoint(int x, String label) {
+      this.x = x;
+      this.label = label;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /**
+   * Classes without a default constructor should be copied out through their creator
+   */
+  @Test
+  public void creatorTest() throws InvocationTargetException {
+    BeanTable<ImmutablePoint> table = BeanTable.of(ImmutablePoint.class, true);
+    table.add(new ImmutablePoint(1, "a"));
+    table.add(new ImmutablePoint(2, null));
+
+    assertThat(table.get(0).getX(), is(1));
+    assertThat(table.get(0).getLabel(), is("a"));
+    assertThat(table.get(1).getX(), is(2));
+    assertThat(table.get(1).getLabel(), is(nullValue()));
+  }
+}
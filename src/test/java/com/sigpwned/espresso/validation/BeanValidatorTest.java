@@ -0,0 +1,137 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.validation;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanClass;
+
+public class BeanValidatorTest {
+  public static class Example {
+    @NotNull
+    @Size(min = 1, max = 5)
+    public String alpha;
+
+    @Min(0)
+    @Max(10)
+    public int bravo;
+
+    @Pattern(regexp = "[a-z]+", message = "must be lowercase")
+    public String charlie;
+
+    @Max(1)
+    public Double delta;
+  }
+
+  public static class Primitives {
+    @Min(1)
+    public short echo;
+
+    @Max(0)
+    public float foxtrot = 0.5f;
+  }
+
+  @Test
+  public void primitivesTest() throws InvocationTargetException {
+    BeanValidator validator = BeanValidator.of(BeanClass.scan(Primitives.class));
+
+    List<Violation> violations = validator.validate(new Primitives());
+
+    assertThat(violations.size(), is(2));
+    assertThat(violations.get(0).getValue(), is((Object) (short) 0));
+    assertThat(violations.get(1).getValue(), is((Object) 0.5f));
+  }
+
+  public static class SignedZero {
+    @Min(0)
+    public double golf = -0.0;
+
+    @Max(0)
+    public Float hotel = 0.0f;
+  }
+
+  @Test
+  public void signedZeroTest() throws InvocationTargetException {
+    BeanValidator validator = BeanValidator.of(BeanClass.scan(SignedZero.class));
+
+    assertThat(validator.validate(new SignedZero()), is(emptyList()));
+  }
+
+  public static class Unsupported {
+    @Min(0)
+    public String alpha;
+  }
+
+  private static Example example(String alpha, int bravo, String charlie, Double delta) {
+    Example result = new Example();
+    result.alpha = alpha;
+    result.bravo = bravo;
+    result.charlie = charlie;
+    result.delta = delta;
+    return result;
+  }
+
+  @Test
+  public void validTest() throws InvocationTargetException {
+    BeanValidator validator = BeanValidator.of(BeanClass.scan(Example.class));
+
+    assertThat(validator.validate(example("abc", 5, "xyz", 0.5)), is(emptyList()));
+    assertThat(validator.validate(example("abc", 0, null, null)), is(emptyList()));
+  }
+
+  @Test
+  public void collectAllTest() throws InvocationTargetException {
+    BeanValidator validator = BeanValidator.of(BeanClass.scan(Example.class));
+
+    List<Violation> violations = validator.validate(example("abcdef", 11, "XYZ", 1.5));
+
+    assertThat(violations.stream().map(Violation::toString).collect(toList()),
+        is(asList("alpha size must be between 1 and 5", "bravo must be less than or equal to 10",
+            "charlie must be lowercase", "delta must be less than or equal to 1")));
+  }
+
+  @Test
+  public void failFastTest() throws InvocationTargetException {
+    BeanValidator validator =
+        BeanValidator.of(BeanClass.scan(Example.class)).withMode(BeanValidator.Mode.FAIL_FAST);
+
+    List<Violation> violations = validator.validate(example(null, -1, "XYZ", 1.5));
+
+    assertThat(violations.size(), is(1));
+    assertThat(violations.get(0).getConstraint(), is("NotNull"));
+    assertThat(violations.get(0).getProperty().getName(), is("alpha"));
+  }
+
+  @Test(expected = ValidationException.class)
+  public void checkTest() throws InvocationTargetException {
+    BeanValidator.of(BeanClass.scan(Example.class)).check(example(null, 0, null, null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unsupportedTypeTest() {
+    BeanValidator.of(BeanClass.scan(Unsupported.class));
+  }
+}
@@ -0,0 +1,126 @@
+/*-
+ * =================================LICENSE_START==================================
+ * espresso
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.espresso.jfr;
+
+import static com.sigpwned.espresso.jfr.EspressoFlightRecorder.BEAN_SCAN_EVENT_NAME;
+import static com.sigpwned.espresso.jfr.EspressoFlightRecorder.PROPERTY_ACCESS_FAILURE_EVENT_NAME;
+import static com.sigpwned.espresso.jfr.EspressoFlightRecorder.SLOW_PROPERTY_ACCESS_EVENT_NAME;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.sigpwned.espresso.BeanInstance;
+import com.sigpwned.espresso.metrics.EspressoMetrics;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class EspressoFlightRecorderTest {
+  public static class Example {
+    private int x;
+
+    public int getX() {
+      if (x < 0)
+        throw new IllegalStateException("negative");
+      return x;
+    }
+
+    public void setX(int x) {
+      this.x = x;
+    }
+  }
+
+  @Before
+  public void setupFlightRecorderTest() {
+    assertThat(EspressoFlightRecorder.install(), is(true));
+  }
+
+  @After
+  public void cleanupFlightRecorderTest() {
+    EspressoFlightRecorder.uninstall();
+    EspressoFlightRecorder.setSlowAccessThresholdNanos(1000000L);
+    EspressoMetrics.setEnabled(false);
+  }
+
+  @Test
+  public void idleTest() {
+    // Nothing is recording, so nothing should be timed
+    assertThat(EspressoMetrics.isInstrumented(), is(false));
+  }
+
+  @Test
+  public void eventsTest() throws IOException, InvocationTargetException {
+    EspressoFlightRecorder.setSlowAccessThresholdNanos(0L);
+
+    Path file = Files.createTempFile("espresso.", ".jfr");
+    try {
+      try (Recording recording = new Recording()) {
+        recording.enable(BEAN_SCAN_EVENT_NAME);
+        recording.enable(SLOW_PROPERTY_ACCESS_EVENT_NAME);
+        recording.enable(PROPERTY_ACCESS_FAILURE_EVENT_NAME);
+        recording.start();
+        assertThat(EspressoMetrics.isInstrumented(), is(true));
+        assertThat(EspressoMetrics.isEnabled(), is(false));
+
+        BeanInstance instance = BeanInstance.wrap(new Example());
+        instance.set("x", -1);
+        try {
+          instance.get("x");
+        } catch (InvocationTargetException e) {
+          // This is expected
+        }
+
+        recording.stop();
+        assertThat(EspressoMetrics.isInstrumented(), is(false));
+        recording.dump(file);
+      }
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+      List<RecordedEvent> scans = events.stream()
+          .filter(e -> e.getEventType().getName().equals(BEAN_SCAN_EVENT_NAME))
+          .collect(toList());
+      assertThat(scans.size(), is(1));
+      assertThat(scans.get(0).getInt("propertyCount"), is(1));
+      assertThat(scans.get(0).getString("outcome"), is("SCANNED"));
+
+      List<RecordedEvent> slow = events.stream()
+          .filter(e -> e.getEventType().getName().equals(SLOW_PROPERTY_ACCESS_EVENT_NAME))
+          .collect(toList());
+      assertThat(slow.size(), is(1));
+      assertThat(slow.get(0).getString("operation"), is("SET"));
+
+      List<RecordedEvent> failures = events.stream()
+          .filter(e -> e.getEventType().getName().equals(PROPERTY_ACCESS_FAILURE_EVENT_NAME))
+          .collect(toList());
+      assertThat(failures.size(), is(1));
+      assertThat(failures.get(0).getString("exceptionMessage"), is("negative"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+}